@@ -0,0 +1,237 @@
+import archive.ArchiveReader;
+import archive.ArchivedGame;
+import board.RuleSet;
+import bot.BotGame;
+import bot.Strategies;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.Strategy;
+import net.LudoClient;
+import net.LudoServer;
+import net.Protocol;
+import sim.BatchBenchmark;
+import sim.Simulation;
+import sim.Tournament;
+import ui.ConsoleGameUI;
+import ui.InteractiveGame;
+import ui.RemoteConsoleUI;
+import utils.Dice;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lanzador por línea de comandos. Ningún modo carga clases de javax.swing ni java.awt,
+ * así que funciona en servidores sin entorno gráfico. Para arrancar aún más rápido se
+ * puede agregar a la JVM -XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=ludo.jsa.
+ *
+ * Uso: Launcher <modo> [opciones]
+ *   console [--jugadores N] [--nombres A,B,..] [--bots tipo,tipo,..] [--medir] [--pistas]
+ *   simulate <partidas> [hilos] [--turnos] [--mapeado dir] [--estrategia nombre] [--reglas r1,r2] [--archivo f]
+ *   tournament [partidasPorPareja]
+ *   host [--puerto P] [--jugadores N] [--nombres A,B,..] [--bots tipo,tipo,..] [--pausa ms] [--reglas r1,r2]
+ *   join <servidor> [--puerto P] [--color COLOR]
+ *   replay <archivo> [partida]
+ *   batch [partidas] [--reglas r1,r2]
+ *
+ * El modo batch usa jdk.incubator.vector: hay que compilar y ejecutar con
+ * --add-modules jdk.incubator.vector.
+ */
+public class Launcher {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            printUsage();
+            return;
+        }
+        String[] rest = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+            case "console" -> console(rest);
+            case "simulate" -> Simulation.main(rest);
+            case "tournament" -> Tournament.main(rest);
+            case "host" -> host(rest);
+            case "join" -> join(rest);
+            case "replay" -> replay(rest);
+            case "batch" -> batch(rest);
+            default -> {
+                printUsage();
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Sin número de partida resume el archivo; con número, rejuega esa partida mostrando cada turno.
+     */
+    private static void replay(String[] args) throws Exception {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Falta el archivo de partidas.");
+        }
+        try (ArchiveReader reader = ArchiveReader.open(Path.of(args[0]))) {
+            if (args.length == 1) {
+                System.out.println(reader.getGameCount() + " partidas en " + reader.getBlockCount() + " bloques.");
+                return;
+            }
+            ArchivedGame archived = reader.read(Long.parseLong(args[1]));
+            System.out.print("Partida " + archived.getIndex() + " (semilla " + archived.getSeed()
+                    + ", reglas " + archived.getRuleSet() + "):");
+            for (int i = 0; i < archived.getPlayerCount(); i++) {
+                System.out.print(" " + archived.getName(i) + " (" + archived.getColor(i) + ")");
+            }
+            System.out.println();
+            Game game = archived.replay(true);
+            Player winner = game.getWinner();
+            System.out.println("\n" + archived.getTurnCount() + " turnos. Ganador: "
+                    + (winner != null ? winner.getName() + " (" + winner.getColor() + ")" : "ninguno"));
+        }
+    }
+
+    /**
+     * Compara el simulador por lotes con el motor normal. Sin el módulo de vectores la clase
+     * no carga, así que se avisa antes de tocarla.
+     */
+    private static void batch(String[] args) throws Exception {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            System.err.println("El modo batch necesita la opción de la JVM --add-modules " + VECTOR_MODULE + ".");
+            System.exit(1);
+        }
+        BatchBenchmark.main(args);
+    }
+
+    private static void console(String[] args) {
+        // sin opciones se usa la configuracion interactiva de siempre
+        if (args.length == 0) {
+            ConsoleGameUI.main(args);
+            return;
+        }
+        int numPlayers = 2;
+        String[] names = null;
+        String[] seats = null;
+        boolean measure = false;
+        boolean hints = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jugadores" -> numPlayers = Integer.parseInt(args[++i]);
+                case "--nombres" -> names = args[++i].split(",");
+                case "--bots" -> seats = args[++i].split(",");
+                case "--medir" -> measure = true;
+                case "--pistas" -> hints = true;
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        if (numPlayers < 2 || numPlayers > Color.values().length) {
+            throw new IllegalArgumentException("La cantidad de jugadores debe estar entre 2 y " + Color.values().length + ".");
+        }
+
+        List<Player> players = new ArrayList<>();
+        Color[] colors = Color.values();
+        for (int i = 0; i < numPlayers; i++) {
+            String name = names != null && i < names.length ? names[i].trim() : "Jugador" + (i + 1);
+            Player p = new Player(name, colors[i]);
+            p.initializePieces(4);
+            players.add(p);
+        }
+        InteractiveGame game = new InteractiveGame(players, 56);
+        if (hints) {
+            game.enableHints(Strategies.create(Strategies.BALANCED));
+        }
+        for (int i = 0; seats != null && i < seats.length && i < numPlayers; i++) {
+            game.setStrategy(colors[i], Strategies.create(seats[i].trim()));
+        }
+        ConsoleGameUI ui = new ConsoleGameUI(game);
+        if (measure) {
+            ui.setFirstTurnCallback(() -> reportStartup(System.currentTimeMillis()));
+        }
+        ui.start();
+    }
+
+    /**
+     * Sirve una partida de bots; los clientes que se conectan con --color toman ese asiento.
+     */
+    private static void host(String[] args) throws Exception {
+        int port = Protocol.DEFAULT_PORT;
+        int numPlayers = 4;
+        String[] names = null;
+        String[] seats = null;
+        long pause = 500;
+        RuleSet rules = RuleSet.standard();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--puerto" -> port = Integer.parseInt(args[++i]);
+                case "--jugadores" -> numPlayers = Integer.parseInt(args[++i]);
+                case "--nombres" -> names = args[++i].split(",");
+                case "--bots" -> seats = args[++i].split(",");
+                case "--pausa" -> pause = Long.parseLong(args[++i]);
+                case "--reglas" -> rules = RuleSet.parse(args[++i]);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        if (numPlayers < 2 || numPlayers > Color.values().length) {
+            throw new IllegalArgumentException("La cantidad de jugadores debe estar entre 2 y " + Color.values().length + ".");
+        }
+
+        List<Player> players = new ArrayList<>();
+        Color[] colors = Color.values();
+        for (int i = 0; i < numPlayers; i++) {
+            String name = names != null && i < names.length ? names[i].trim() : "Jugador" + (i + 1);
+            Player p = new Player(name, colors[i]);
+            p.initializePieces(4);
+            players.add(p);
+        }
+        Strategy fallback = Strategies.create(Strategies.BALANCED);
+        Game game = new BotGame(players, 56, fallback, new Dice(), rules);
+        for (int i = 0; i < numPlayers; i++) {
+            String type = seats != null && i < seats.length ? seats[i].trim() : Strategies.BALANCED;
+            Strategy strategy = Strategies.create(type);
+            game.setStrategy(colors[i], strategy != null ? strategy : fallback);
+        }
+        try (LudoServer server = new LudoServer(game, port, pause)) {
+            System.out.println("Servidor escuchando en el puerto " + server.getPort() + ".");
+            server.serve();
+        }
+    }
+
+    private static void join(String[] args) throws Exception {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Falta la dirección del servidor.");
+        }
+        int port = Protocol.DEFAULT_PORT;
+        Color seat = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--puerto" -> port = Integer.parseInt(args[++i]);
+                case "--color" -> seat = Color.valueOf(args[++i].toUpperCase());
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        try (LudoClient client = LudoClient.connect(args[0], port, seat)) {
+            new RemoteConsoleUI(client).start();
+        }
+    }
+
+    /**
+     * Informa el tiempo desde que arrancó la JVM hasta el primer turno. La hora del primer
+     * turno se toma antes de cargar java.management, así esa carga no entra en la medición.
+     */
+    private static void reportStartup(long firstTurnMillis) {
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.err.println("Arranque hasta primer turno: " + (firstTurnMillis - jvmStart) + " ms");
+    }
+
+    private static void printUsage() {
+        System.out.println("Uso: Launcher <modo> [opciones]");
+        System.out.println("  console [--jugadores N] [--nombres A,B,..] [--bots tipo,tipo,..] [--medir] [--pistas]");
+        System.out.println("  simulate <partidas> [hilos] [--turnos] [--mapeado dir] [--estrategia nombre] [--reglas r1,r2] [--archivo f]");
+        System.out.println("  tournament [partidasPorPareja]");
+        System.out.println("  host [--puerto P] [--jugadores N] [--nombres A,B,..] [--bots tipo,tipo,..] [--pausa ms] [--reglas r1,r2]");
+        System.out.println("  join <servidor> [--puerto P] [--color COLOR]");
+        System.out.println("  replay <archivo> [partida]");
+        System.out.println("  batch [partidas] [--reglas r1,r2]   (JVM con --add-modules " + VECTOR_MODULE + ")");
+        System.out.println("Tipos de asiento: " + Strategies.HUMAN + ", " + String.join(", ", Strategies.names()));
+    }
+}
@@ -4,9 +4,14 @@ import ui.SwingGameConfigUI;
 
 /**
  * Punto de entrada único que permite elegir entre versión consola o gráfica.
+ * Con argumentos delega en Launcher sin tocar Swing (ver Launcher para los modos).
  */
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            Launcher.main(args);
+            return;
+        }
         // seleccionar modo
         String[] modos = {"Consola", "Gráfica"};
         int seleccion = JOptionPane.showOptionDialog(
@@ -0,0 +1,86 @@
+package archive;
+
+import bot.Strategies;
+import game.Game;
+import game.GameState;
+import sim.Simulation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mide el archivo de partidas: juega partidas de bots y las guarda, las recorre
+ * decodificando solo los turnos y las vuelve a recorrer rejugándolas con el motor,
+ * comprobando en las primeras que el resultado coincide con la partida original.
+ *
+ * Uso: ArchiveBenchmark [partidas] [archivo]
+ */
+public class ArchiveBenchmark {
+    private static final int CHECKED_GAMES = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("partidas", ".ludo");
+        Simulation simulation = new Simulation(4, 4, 56, Strategies.BALANCED);
+
+        String[] expected = new String[Math.min(games, CHECKED_GAMES)];
+        GameRecorder recorder = new GameRecorder();
+        long start = System.nanoTime();
+        long turns = 0;
+        try (ArchiveWriter writer = ArchiveWriter.create(file)) {
+            for (int i = 0; i < games; i++) {
+                Game game = simulation.newGame(i + 1);
+                recorder.clear();
+                game.addTurnListener(recorder);
+                while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+                    game.playTurn();
+                }
+                writer.write(game, i + 1, recorder);
+                turns += recorder.size();
+                if (i < expected.length) {
+                    expected[i] = summary(game);
+                }
+            }
+        }
+        double simulateSeconds = (System.nanoTime() - start) / 1e9;
+        long bytes = Files.size(file);
+
+        start = System.nanoTime();
+        long decodedTurns = 0;
+        int blocks;
+        try (ArchiveReader reader = ArchiveReader.open(file)) {
+            blocks = reader.getBlockCount();
+            ArchivedGame game;
+            while ((game = reader.next()) != null) {
+                decodedTurns += game.getTurnCount();
+            }
+        }
+        double decodeSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        int mismatches = 0;
+        try (ArchiveReader reader = ArchiveReader.open(file)) {
+            ArchivedGame archived;
+            while ((archived = reader.next()) != null) {
+                Game replayed = archived.replay(false);
+                if (archived.getIndex() < expected.length && !summary(replayed).equals(expected[(int) archived.getIndex()])) {
+                    mismatches++;
+                }
+            }
+        }
+        double replaySeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d partidas, %d turnos, %d bloques: %d bytes (%.1f bytes/partida, %.2f bits/turno)%n",
+                games, turns, blocks, bytes, (double) bytes / games, 8.0 * bytes / turns);
+        System.out.printf("  simular y escribir: %8.0f partidas/s%n", games / simulateSeconds);
+        System.out.printf("  leer y decodificar: %8.0f partidas/s (%d turnos)%n", games / decodeSeconds, decodedTurns);
+        System.out.printf("  leer y rejugar:     %8.0f partidas/s%n", games / replaySeconds);
+        System.out.printf("  rejugadas distintas de la original: %d de %d%n", mismatches, expected.length);
+        System.out.println("Archivo: " + file);
+    }
+
+    /** Lo que debe reproducir una partida rejugada: turnos, capturas y orden de llegada. */
+    private static String summary(Game game) {
+        return game.getTurnNumber() + "/" + game.getBoard().getCaptureCount() + "/" + game.getFinishOrder();
+    }
+}
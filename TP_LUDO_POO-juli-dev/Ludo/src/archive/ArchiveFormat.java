@@ -0,0 +1,38 @@
+package archive;
+
+/**
+ * Formato de los archivos de partidas (little-endian):
+ *
+ *   cabecera   MAGIC (8) | VERSION (4)
+ *   bloques    largo sin comprimir (4) | largo comprimido (4) | partidas (4) | datos Deflate
+ *   índice     por bloque: posición en el archivo (8) | primera partida (8) | partidas (4)
+ *   pie        posición del índice (8) | bloques (4) | partidas (8) | MAGIC (8)
+ *
+ * Dentro de un bloque sin comprimir cada partida es: largo en bytes (varint), jugadores (1),
+ * por jugador color (1) y nombre (1 + UTF-8), fichas por jugador (1), casillas del camino
+ * principal (2), semilla (8), reglas (1 + texto de RuleSet), turnos (varint) y los turnos
+ * empaquetados en bits, primero el bit menos significativo: 3 bits de tirada (1..6, o
+ * RESIGN si el jugador se rindió) y los bits justos para el índice de la ficha elegida.
+ */
+final class ArchiveFormat {
+    static final long MAGIC = 0x4C55444F41523031L; // "LUDOAR01"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8 + 4;
+    static final int BLOCK_HEADER_BYTES = 4 + 4 + 4;
+    static final int INDEX_ENTRY_BYTES = 8 + 8 + 4;
+    static final int FOOTER_BYTES = 8 + 4 + 8 + 8;
+    /** Tamaño sin comprimir a partir del cual se cierra un bloque. */
+    static final int BLOCK_BYTES = 64 * 1024;
+
+    static final int ROLL_BITS = 3;
+    /** Valor de tirada que marca un turno en el que el jugador se rindió. */
+    static final int RESIGN = 7;
+
+    private ArchiveFormat() {
+    }
+
+    /** Bits para guardar un índice de ficha entre 0 y pieces - 1 (al menos 1). */
+    static int pieceBits(int pieces) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(pieces - 1));
+    }
+}
@@ -0,0 +1,238 @@
+package archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lee un archivo de partidas bloque por bloque: en memoria solo está el índice y el bloque
+ * en curso, así que recorrer millones de partidas no depende del tamaño del archivo.
+ * next() las devuelve en orden; read(i) usa el índice para ir directo al bloque de la partida.
+ * No es seguro entre hilos; cada hilo abre su propio lector.
+ */
+public class ArchiveReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final long[] offsets;
+    private final long[] firstGames;
+    private final int[] counts;
+    private final long gameCount;
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer compressed = ByteBuffer.allocate(ArchiveFormat.BLOCK_BYTES);
+    private byte[] raw = new byte[ArchiveFormat.BLOCK_BYTES];
+    // bloque cargado y posición de la próxima partida de next() dentro de él
+    private int loadedBlock = -1;
+    private int nextBlock;
+    private int cursor;
+    private int remainingInBlock;
+    private long nextGame;
+
+    private ArchiveReader(FileChannel channel, long[] offsets, long[] firstGames, int[] counts, long gameCount) {
+        this.channel = channel;
+        this.offsets = offsets;
+        this.firstGames = firstGames;
+        this.counts = counts;
+        this.gameCount = gameCount;
+    }
+
+    public static ArchiveReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < ArchiveFormat.HEADER_BYTES + ArchiveFormat.FOOTER_BYTES) {
+                throw new IOException("El archivo no es un archivo de partidas: " + file);
+            }
+            ByteBuffer header = readAt(channel, 0, ArchiveFormat.HEADER_BYTES);
+            if (header.getLong() != ArchiveFormat.MAGIC || header.getInt() != ArchiveFormat.VERSION) {
+                throw new IOException("El archivo no es un archivo de partidas: " + file);
+            }
+            ByteBuffer footer = readAt(channel, size - ArchiveFormat.FOOTER_BYTES, ArchiveFormat.FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            int blocks = footer.getInt();
+            long games = footer.getLong();
+            if (footer.getLong() != ArchiveFormat.MAGIC
+                    || indexOffset + (long) blocks * ArchiveFormat.INDEX_ENTRY_BYTES + ArchiveFormat.FOOTER_BYTES != size) {
+                throw new IOException("Archivo de partidas incompleto o dañado: " + file);
+            }
+            ByteBuffer index = readAt(channel, indexOffset, blocks * ArchiveFormat.INDEX_ENTRY_BYTES);
+            long[] offsets = new long[blocks];
+            long[] firstGames = new long[blocks];
+            int[] counts = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                offsets[i] = index.getLong();
+                firstGames[i] = index.getLong();
+                counts[i] = index.getInt();
+            }
+            return new ArchiveReader(channel, offsets, firstGames, counts, games);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Fin de archivo inesperado.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public int getBlockCount() {
+        return offsets.length;
+    }
+
+    /** Próxima partida en orden, o null si no quedan. */
+    public ArchivedGame next() throws IOException {
+        while (remainingInBlock == 0) {
+            if (nextBlock == offsets.length) {
+                return null;
+            }
+            load(nextBlock++);
+            cursor = 0;
+            remainingInBlock = counts[loadedBlock];
+        }
+        ArchivedGame game = decodeAt(nextGame++);
+        remainingInBlock--;
+        return game;
+    }
+
+    /** Vuelve al principio del archivo para next(). */
+    public void rewind() {
+        nextBlock = 0;
+        remainingInBlock = 0;
+        nextGame = 0;
+    }
+
+    /** Partida con el índice dado; no cambia la posición de next(). */
+    public ArchivedGame read(long game) throws IOException {
+        if (game < 0 || game >= gameCount) {
+            throw new IndexOutOfBoundsException("No hay partida " + game + " (el archivo tiene " + gameCount + ").");
+        }
+        int block = findBlock(game);
+        int savedCursor = cursor;
+        int savedBlock = loadedBlock;
+        load(block);
+        cursor = 0;
+        for (long skip = game - firstGames[block]; skip > 0; skip--) {
+            int length = readVarint();
+            cursor += length;
+        }
+        ArchivedGame result = decodeAt(game);
+        // next() sigue donde estaba
+        if (savedBlock >= 0 && savedBlock != block) {
+            load(savedBlock);
+        }
+        cursor = savedCursor;
+        return result;
+    }
+
+    /** Índice de la primera partida del bloque. */
+    public long getFirstGame(int block) {
+        return firstGames[block];
+    }
+
+    /** Todas las partidas de un bloque, para repartir el archivo entre hilos; no cambia next(). */
+    public ArchivedGame[] readBlock(int block) throws IOException {
+        int savedCursor = cursor;
+        int savedBlock = loadedBlock;
+        load(block);
+        cursor = 0;
+        ArchivedGame[] games = new ArchivedGame[counts[block]];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = decodeAt(firstGames[block] + i);
+        }
+        if (savedBlock >= 0 && savedBlock != block) {
+            load(savedBlock);
+        }
+        cursor = savedCursor;
+        return games;
+    }
+
+    private int findBlock(long game) {
+        int low = 0;
+        int high = firstGames.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (firstGames[mid] <= game) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private ArchivedGame decodeAt(long index) {
+        int length = readVarint();
+        ArchivedGame game = ArchivedGame.decode(index, raw, cursor);
+        cursor += length;
+        return game;
+    }
+
+    private int readVarint() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = raw[cursor++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private void load(int block) throws IOException {
+        if (block == loadedBlock) {
+            return;
+        }
+        ByteBuffer header = readAt(channel, offsets[block], ArchiveFormat.BLOCK_HEADER_BYTES);
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        if (header.getInt() != counts[block]) {
+            throw new IOException("El bloque " + block + " no coincide con el índice.");
+        }
+        if (compressed.capacity() < compressedLength) {
+            compressed = ByteBuffer.allocate(compressedLength);
+        }
+        compressed.clear().limit(compressedLength);
+        long position = offsets[block] + ArchiveFormat.BLOCK_HEADER_BYTES;
+        while (compressed.hasRemaining()) {
+            if (channel.read(compressed, position + compressed.position()) < 0) {
+                throw new IOException("Fin de archivo inesperado en el bloque " + block + ".");
+            }
+        }
+        if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+        }
+        inflater.reset();
+        inflater.setInput(compressed.array(), 0, compressedLength);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                length += inflater.inflate(raw, length, rawLength - length);
+            }
+            if (length != rawLength) {
+                throw new IOException("El bloque " + block + " está truncado.");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("El bloque " + block + " está dañado.", e);
+        }
+        loadedBlock = block;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
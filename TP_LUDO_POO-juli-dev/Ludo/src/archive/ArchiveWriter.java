@@ -0,0 +1,197 @@
+package archive;
+
+import core.Player;
+import game.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Escribe partidas en un archivo (ver ArchiveFormat) a medida que terminan. Solo guarda en
+ * memoria el bloque en curso y el índice de bloques; close() escribe el índice y el pie.
+ * Se puede compartir entre hilos.
+ */
+public class ArchiveWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] block = new byte[ArchiveFormat.BLOCK_BYTES + 4096];
+    private int blockSize;
+    private int blockGames;
+    private byte[] compressed = new byte[ArchiveFormat.BLOCK_BYTES];
+    private byte[] entry = new byte[1024];
+    // índice: posición, primera partida y cantidad de partidas de cada bloque
+    private long[] offsets = new long[64];
+    private long[] firstGames = new long[64];
+    private int[] counts = new int[64];
+    private int blockCount;
+    private long position;
+    private long gameCount;
+    private boolean closed;
+
+    private ArchiveWriter(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(ArchiveFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(ArchiveFormat.MAGIC).putInt(ArchiveFormat.VERSION).flip();
+        position = writeFully(header, 0);
+    }
+
+    /** Crea el archivo, o lo vacía si ya existía. */
+    public static ArchiveWriter create(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            return new ArchiveWriter(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Agrega una partida con los turnos anotados; devuelve su índice en el archivo. */
+    public synchronized long write(Game game, long seed, GameRecorder turns) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("El archivo ya está cerrado.");
+        }
+        int length = encode(game, seed, turns);
+        int needed = length + 5;
+        if (blockSize > 0 && blockSize + needed > ArchiveFormat.BLOCK_BYTES) {
+            flushBlock();
+        }
+        if (block.length < blockSize + needed) {
+            block = Arrays.copyOf(block, blockSize + needed);
+        }
+        blockSize = putVarint(block, blockSize, length);
+        System.arraycopy(entry, 0, block, blockSize, length);
+        blockSize += length;
+        blockGames++;
+        return gameCount++;
+    }
+
+    public synchronized long getGameCount() {
+        return gameCount;
+    }
+
+    /** Codifica la partida en `entry` y devuelve su largo. */
+    private int encode(Game game, long seed, GameRecorder turns) {
+        List<Player> players = game.getPlayers();
+        int pieces = players.get(0).getPieceCount();
+        byte[] spec = game.getRuleSet().toString().getBytes(StandardCharsets.US_ASCII);
+        int pieceBits = ArchiveFormat.pieceBits(pieces);
+        int turnBits = ArchiveFormat.ROLL_BITS + pieceBits;
+        int bound = 1 + players.size() * 258 + 1 + 2 + 8 + 1 + spec.length + 5
+                + (int) (((long) turns.size() * turnBits + 7) / 8);
+        if (entry.length < bound) {
+            entry = new byte[Math.max(bound, entry.length * 2)];
+        }
+        Arrays.fill(entry, 0, bound, (byte) 0);
+
+        int pos = 0;
+        entry[pos++] = (byte) players.size();
+        for (Player player : players) {
+            entry[pos++] = (byte) player.getColor().ordinal();
+            byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(name.length, 255);
+            entry[pos++] = (byte) length;
+            System.arraycopy(name, 0, entry, pos, length);
+            pos += length;
+        }
+        entry[pos++] = (byte) pieces;
+        int mainPathSize = game.getBoard().getMainPathSize();
+        entry[pos++] = (byte) mainPathSize;
+        entry[pos++] = (byte) (mainPathSize >>> 8);
+        for (int i = 0; i < 8; i++) {
+            entry[pos++] = (byte) (seed >>> (8 * i));
+        }
+        entry[pos++] = (byte) spec.length;
+        System.arraycopy(spec, 0, entry, pos, spec.length);
+        pos += spec.length;
+        pos = putVarint(entry, pos, turns.size());
+
+        long bit = (long) pos * 8;
+        for (int t = 0; t < turns.size(); t++) {
+            int value = turns.roll(t) | turns.piece(t) << ArchiveFormat.ROLL_BITS;
+            for (int i = 0; i < turnBits; i++, bit++) {
+                entry[(int) (bit >>> 3)] |= (byte) (((value >>> i) & 1) << (bit & 7));
+            }
+        }
+        return (int) ((bit + 7) >>> 3);
+    }
+
+    private static int putVarint(byte[] out, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockGames == 0) {
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(block, 0, blockSize);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        if (blockCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, blockCount * 2);
+            firstGames = Arrays.copyOf(firstGames, blockCount * 2);
+            counts = Arrays.copyOf(counts, blockCount * 2);
+        }
+        offsets[blockCount] = position;
+        firstGames[blockCount] = gameCount - blockGames;
+        counts[blockCount] = blockGames;
+        blockCount++;
+
+        ByteBuffer header = ByteBuffer.allocate(ArchiveFormat.BLOCK_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(blockSize).putInt(length).putInt(blockGames).flip();
+        position = writeFully(header, position);
+        position = writeFully(ByteBuffer.wrap(compressed, 0, length), position);
+        blockSize = 0;
+        blockGames = 0;
+    }
+
+    private long writeFully(ByteBuffer buffer, long at) throws IOException {
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+        return at;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushBlock();
+            ByteBuffer index = ByteBuffer.allocate(blockCount * ArchiveFormat.INDEX_ENTRY_BYTES + ArchiveFormat.FOOTER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < blockCount; i++) {
+                index.putLong(offsets[i]).putLong(firstGames[i]).putInt(counts[i]);
+            }
+            index.putLong(position).putInt(blockCount).putLong(gameCount).putLong(ArchiveFormat.MAGIC).flip();
+            writeFully(index, position);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+}
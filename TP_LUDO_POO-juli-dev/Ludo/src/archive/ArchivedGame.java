@@ -0,0 +1,257 @@
+package archive;
+
+import board.RuleSet;
+import bot.BotGame;
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.Game;
+import game.GameSnapshot;
+import game.GameState;
+import game.Strategy;
+import game.TurnListener;
+import utils.Dice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Una partida leída del archivo: cabecera y turnos ya desempaquetados. Todo lo demás
+ * (posiciones, capturas, ganador) se obtiene rejugándola con replay().
+ */
+public final class ArchivedGame {
+    private final long index;
+    private final String[] names;
+    private final Color[] colors;
+    private final int piecesPerPlayer;
+    private final int mainPathSize;
+    private final long seed;
+    private final RuleSet ruleSet;
+    private final byte[] rolls;
+    private final byte[] pieces;
+
+    private ArchivedGame(long index, String[] names, Color[] colors, int piecesPerPlayer, int mainPathSize,
+                         long seed, RuleSet ruleSet, byte[] rolls, byte[] pieces) {
+        this.index = index;
+        this.names = names;
+        this.colors = colors;
+        this.piecesPerPlayer = piecesPerPlayer;
+        this.mainPathSize = mainPathSize;
+        this.seed = seed;
+        this.ruleSet = ruleSet;
+        this.rolls = rolls;
+        this.pieces = pieces;
+    }
+
+    /** Lee la partida que empieza en `offset` (después de su largo) del bloque sin comprimir. */
+    static ArchivedGame decode(long index, byte[] raw, int offset) {
+        int pos = offset;
+        int playerCount = raw[pos++];
+        String[] names = new String[playerCount];
+        Color[] colors = new Color[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            colors[i] = Color.values()[raw[pos++]];
+            int length = raw[pos++] & 0xFF;
+            names[i] = new String(raw, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+        }
+        int piecesPerPlayer = raw[pos++];
+        int mainPathSize = (raw[pos] & 0xFF) | (raw[pos + 1] & 0xFF) << 8;
+        pos += 2;
+        long seed = 0;
+        for (int i = 0; i < 8; i++) {
+            seed |= (raw[pos++] & 0xFFL) << (8 * i);
+        }
+        int specLength = raw[pos++] & 0xFF;
+        RuleSet ruleSet = RuleSet.parse(new String(raw, pos, specLength, StandardCharsets.US_ASCII));
+        pos += specLength;
+        int turns = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = raw[pos++];
+            turns |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+
+        int pieceBits = ArchiveFormat.pieceBits(piecesPerPlayer);
+        int turnBits = ArchiveFormat.ROLL_BITS + pieceBits;
+        byte[] rolls = new byte[turns];
+        byte[] pieces = new byte[turns];
+        long bit = (long) pos * 8;
+        for (int t = 0; t < turns; t++) {
+            int value = readBits(raw, bit, turnBits);
+            rolls[t] = (byte) (value & 7);
+            pieces[t] = (byte) (value >>> ArchiveFormat.ROLL_BITS);
+            bit += turnBits;
+        }
+        return new ArchivedGame(index, names, colors, piecesPerPlayer, mainPathSize, seed, ruleSet, rolls, pieces);
+    }
+
+    private static int readBits(byte[] raw, long bit, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++, bit++) {
+            value |= ((raw[(int) (bit >>> 3)] >>> (bit & 7)) & 1) << i;
+        }
+        return value;
+    }
+
+    /** Posición de la partida en el archivo, empezando en 0. */
+    public long getIndex() {
+        return index;
+    }
+
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    public String getName(int player) {
+        return names[player];
+    }
+
+    public Color getColor(int player) {
+        return colors[player];
+    }
+
+    public int getPiecesPerPlayer() {
+        return piecesPerPlayer;
+    }
+
+    public int getMainPathSize() {
+        return mainPathSize;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    public int getTurnCount() {
+        return rolls.length;
+    }
+
+    /** Tirada del turno (1..6), o 0 si en ese turno el jugador se rindió. */
+    public int getRoll(int turn) {
+        return rolls[turn] == ArchiveFormat.RESIGN ? 0 : rolls[turn];
+    }
+
+    /** Id de la ficha elegida en el turno (la guardada aunque la jugada no tuviera alternativas). */
+    public int getPieceId(int turn) {
+        return pieces[turn] + 1;
+    }
+
+    /**
+     * Rejuega la partida turno por turno con el motor normal, usando las tiradas y las
+     * fichas guardadas, y devuelve la partida en su estado final.
+     */
+    public Game replay(boolean verbose) {
+        return replay(verbose, null);
+    }
+
+    /** Como replay(boolean), avisando cada turno jugado al oyente (puede ser null). */
+    public Game replay(boolean verbose, TurnListener listener) {
+        return replay(verbose, listener, null);
+    }
+
+    /**
+     * Rejuega la partida y devuelve la foto de la posición antes de cada turno, más la final
+     * en la última posición (getTurnCount() + 1 fotos).
+     */
+    public GameSnapshot[] snapshots() {
+        GameSnapshot[] before = new GameSnapshot[rolls.length + 1];
+        before[rolls.length] = replay(false, null, before).getSnapshot();
+        return before;
+    }
+
+    private Game replay(boolean verbose, TurnListener listener, GameSnapshot[] before) {
+        List<Player> players = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            Player p = new Player(names[i], colors[i]);
+            p.initializePieces(piecesPerPlayer);
+            players.add(p);
+        }
+        ScriptedDice dice = new ScriptedDice();
+        ScriptedStrategy choices = new ScriptedStrategy();
+        Game game = new BotGame(players, mainPathSize, choices, dice, ruleSet);
+        game.setVerbose(verbose);
+        if (listener != null) {
+            game.addTurnListener(listener);
+        }
+        game.startGame();
+        for (int t = 0; t < rolls.length; t++) {
+            if (game.getState() != GameState.IN_PROGRESS) {
+                throw new IllegalStateException("La partida " + index + " terminó antes del turno " + (t + 1) + ".");
+            }
+            if (before != null) {
+                before[t] = game.getSnapshot();
+            }
+            if (rolls[t] == ArchiveFormat.RESIGN) {
+                game.getCurrentPlayer().rendirse();
+                game.skipTurn();
+                continue;
+            }
+            dice.next = rolls[t];
+            choices.pieceId = pieces[t] + 1;
+            game.playTurn();
+        }
+        return game;
+    }
+
+    /** Dado que devuelve la tirada guardada del turno en curso. */
+    private static final class ScriptedDice extends Dice {
+        int next;
+
+        ScriptedDice() {
+            super(0);
+        }
+
+        @Override
+        public int roll() {
+            return next;
+        }
+    }
+
+    /** Elige la ficha guardada del turno en curso. */
+    private final class ScriptedStrategy implements Strategy {
+        int pieceId;
+
+        @Override
+        public String getName() {
+            return "Repetición";
+        }
+
+        @Override
+        public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+            return find(piecesInBase);
+        }
+
+        @Override
+        public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+            for (Piece piece : piecesInBase) {
+                if (piece.getId() == pieceId) {
+                    return piece;
+                }
+            }
+            return find(piecesOnBoard);
+        }
+
+        @Override
+        public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+            return find(piecesOnBoard);
+        }
+
+        private Piece find(List<Piece> candidates) {
+            for (Piece piece : candidates) {
+                if (piece.getId() == pieceId) {
+                    return piece;
+                }
+            }
+            throw new IllegalStateException("La ficha " + pieceId + " guardada en la partida " + index
+                    + " no es una jugada válida.");
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package archive;
+
+import board.Board;
+import bot.SnapshotGame;
+import bot.Strategies;
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.Game;
+import game.GameSnapshot;
+import game.GameState;
+import game.PositionHash;
+import game.Strategy;
+import sim.Simulation;
+import utils.Dice;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Análisis contrafáctico de partidas archivadas: para cada turno en que el jugador pudo
+ * elegir qué ficha mover, juega muchas continuaciones desde esa posición con cada una de
+ * las alternativas y estima cuánta probabilidad de ganar perdió con la que eligió.
+ *
+ * Las continuaciones las juega la estrategia indicada en todos los asientos y terminan en
+ * cuanto el jugador analizado o alguno de sus rivales completa sus fichas. La continuación i
+ * usa el mismo dado para todas las alternativas de un turno, así la diferencia entre ellas
+ * tiene mucha menos varianza que cada estimación por separado. La mayoría de las decisiones
+ * se resuelve con la primera tanda de continuaciones: solo las dudosas llegan al máximo.
+ * Cada turno es una tarea independiente, y los de varias partidas se reparten en el mismo pool.
+ *
+ * Sacar una ficha de la base no se analiza: las fichas en base son intercambiables.
+ */
+public class BlunderAnalyzer implements AutoCloseable {
+    public static final int DEFAULT_ROLLOUTS = 200;
+    /** Pérdidas a partir de las cuales una jugada se marca como imprecisión, error o error grave. */
+    public static final double INACCURACY = 0.02;
+    public static final double MISTAKE = 0.05;
+    public static final double BLUNDER = 0.10;
+    /** Continuaciones por alternativa entre cada control de corte. */
+    static final int ROUND = 50;
+
+    private final String strategyName;
+    private final int rollouts;
+    private final ExecutorService pool;
+
+    public BlunderAnalyzer(String strategyName, int rollouts, int threads) {
+        if (rollouts <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Las simulaciones y los hilos deben ser positivos.");
+        }
+        Strategies.create(strategyName); // valida el nombre antes de arrancar
+        this.strategyName = strategyName;
+        this.rollouts = rollouts;
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "analisis-" + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Analiza una partida; ver analyze(List). */
+    public List<Decision> analyze(ArchivedGame game) throws InterruptedException {
+        return analyze(List.of(game)).get(0);
+    }
+
+    /** Decisiones analizadas de cada partida, en el mismo orden y por turno. */
+    public List<List<Decision>> analyze(List<ArchivedGame> games) throws InterruptedException {
+        List<List<Decision>> reports = new ArrayList<>();
+        List<Future<?>> tasks = new ArrayList<>();
+        for (ArchivedGame game : games) {
+            List<Decision> decisions = findDecisions(game);
+            for (Decision decision : decisions) {
+                tasks.add(pool.submit(() -> rollOut(game, decision)));
+            }
+            reports.add(decisions);
+        }
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falló una simulación del análisis.", e.getCause());
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Turnos con más de una jugada distinta, con las mismas reglas que Game.executeTurn:
+     * sin fichas en el tablero o con un 6 y fichas en base no hay nada que elegir.
+     */
+    private List<Decision> findDecisions(ArchivedGame archived) {
+        GameSnapshot[] snapshots = archived.snapshots();
+        SnapshotGame scratch = newGame(archived, null, new RolloutDice());
+        List<Decision> decisions = new ArrayList<>();
+        for (int t = 0; t < archived.getTurnCount(); t++) {
+            int roll = archived.getRoll(t);
+            if (roll == 0) {
+                continue;
+            }
+            scratch.load(snapshots[t], roll, snapshots[t].getTurnNumber());
+            Board board = scratch.getBoard();
+            Player mover = scratch.getCurrentPlayer();
+            List<Piece> inBase = board.getPiecesAt(board.getHomeBaseSquares().get(mover.getColor()));
+            if (roll == 6 && !inBase.isEmpty()) {
+                continue;
+            }
+            List<Integer> from = new ArrayList<>();
+            for (Piece piece : mover.getPieces()) {
+                int progress = board.getProgress(piece);
+                boolean movable = !piece.isFinished() && !inBase.contains(piece)
+                        && !(scratch.getRuleSet().hasBlockades() && board.isBlocked(piece, roll));
+                if (movable && !from.contains(progress)) {
+                    from.add(progress);
+                }
+            }
+            if (from.size() < 2) {
+                continue;
+            }
+            int[] fromArray = new int[from.size()];
+            int[] to = new int[from.size()];
+            for (int a = 0; a < fromArray.length; a++) {
+                fromArray[a] = from.get(a);
+                to[a] = board.progressAfter(fromArray[a], roll);
+            }
+            int chosen = from.indexOf(board.getProgress(mover.getPiece(archived.getPieceId(t) - 1)));
+            decisions.add(new Decision(t, snapshots[t], mover.getColor(), roll, fromArray, to, chosen));
+        }
+        return decisions;
+    }
+
+    /**
+     * Juega las continuaciones de todas las alternativas por tandas de ROUND y corta antes del
+     * máximo cuando la jugada elegida ya no puede ser una imprecisión frente a ninguna otra.
+     */
+    private void rollOut(ArchivedGame archived, Decision decision) {
+        RolloutStrategy strategy = new RolloutStrategy(Strategies.create(strategyName));
+        RolloutDice dice = new RolloutDice();
+        SnapshotGame game = newGame(archived, strategy, dice);
+        long base = PositionHash.mix(archived.getSeed() * 31 + decision.turn);
+        boolean[][] wins = new boolean[decision.from.length][rollouts];
+        int played = 0;
+        do {
+            int end = Math.min(rollouts, played + ROUND);
+            for (int i = played; i < end; i++) {
+                for (int a = 0; a < wins.length; a++) {
+                    game.load(decision.snapshot, decision.roll, decision.snapshot.getTurnNumber());
+                    dice.reset(base + i, decision.roll);
+                    strategy.forced = decision.from[a];
+                    wins[a][i] = playOut(game, decision.color);
+                }
+            }
+            played = end;
+        } while (played < rollouts && !decision.isSettled(wins, played));
+        decision.score(wins, played);
+    }
+
+    /** Juega hasta que alguien complete sus fichas; true si fue `color` antes que sus rivales. */
+    private static boolean playOut(SnapshotGame game, Color color) {
+        int limit = game.getTurnNumber() + Simulation.MAX_TURNS;
+        while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < limit) {
+            Player moving = game.getCurrentPlayer();
+            game.playTurn();
+            if (moving.hasWon()) {
+                return moving.getColor() == color;
+            }
+        }
+        return false;
+    }
+
+    private static SnapshotGame newGame(ArchivedGame archived, Strategy strategy, RolloutDice dice) {
+        List<Player> players = new ArrayList<>(archived.getPlayerCount());
+        for (int i = 0; i < archived.getPlayerCount(); i++) {
+            Player p = new Player(archived.getName(i), archived.getColor(i));
+            p.initializePieces(archived.getPiecesPerPlayer());
+            players.add(p);
+        }
+        return new SnapshotGame(players, archived.getMainPathSize(),
+                strategy != null ? strategy : Strategies.create(Strategies.RANDOM), dice, archived.getRuleSet());
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /** Una decisión de la partida y, una vez analizada, la probabilidad de ganar con cada alternativa. */
+    public static final class Decision {
+        private final int turn;
+        private final GameSnapshot snapshot;
+        private final Color color;
+        private final int roll;
+        private final int[] from;
+        private final int[] to;
+        private final int chosen;
+        private double[] winRates;
+        private int best;
+        private double loss;
+        private double lossError;
+        private int rollouts;
+
+        Decision(int turn, GameSnapshot snapshot, Color color, int roll, int[] from, int[] to, int chosen) {
+            this.turn = turn;
+            this.snapshot = snapshot;
+            this.color = color;
+            this.roll = roll;
+            this.from = from;
+            this.to = to;
+            this.chosen = chosen;
+        }
+
+        /**
+         * Si con `n` continuaciones ya no hace falta seguir: ninguna alternativa supera a la
+         * elegida por INACCURACY o más, contando dos errores estándar de la diferencia pareada,
+         * o la partida está decidida para el jugador con cualquiera de ellas.
+         */
+        boolean isSettled(boolean[][] outcomes, int n) {
+            boolean clear = true;
+            int minWins = n;
+            int maxWins = 0;
+            for (int a = 0; a < outcomes.length; a++) {
+                int wins = 0;
+                for (int i = 0; i < n; i++) {
+                    wins += outcomes[a][i] ? 1 : 0;
+                }
+                minWins = Math.min(minWins, wins);
+                maxWins = Math.max(maxWins, wins);
+                if (a != chosen) {
+                    double mean = pairedMean(outcomes[a], outcomes[chosen], n);
+                    clear &= mean + 2 * pairedError(outcomes[a], outcomes[chosen], n, mean) < INACCURACY;
+                }
+            }
+            return clear || maxWins <= INACCURACY * n || minWins >= (1 - INACCURACY) * n;
+        }
+
+        /** Pérdida respecto de la mejor alternativa, con su error estándar sobre las diferencias pareadas. */
+        void score(boolean[][] outcomes, int n) {
+            rollouts = n;
+            winRates = new double[outcomes.length];
+            for (int a = 0; a < outcomes.length; a++) {
+                int wins = 0;
+                for (int i = 0; i < n; i++) {
+                    wins += outcomes[a][i] ? 1 : 0;
+                }
+                winRates[a] = (double) wins / n;
+                if (winRates[a] > winRates[best]) {
+                    best = a;
+                }
+            }
+            loss = winRates[best] - winRates[chosen];
+            lossError = pairedError(outcomes[best], outcomes[chosen], n, loss);
+        }
+
+        private static double pairedMean(boolean[] a, boolean[] b, int n) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += (a[i] ? 1 : 0) - (b[i] ? 1 : 0);
+            }
+            return (double) sum / n;
+        }
+
+        private static double pairedError(boolean[] a, boolean[] b, int n, double mean) {
+            if (n < 2) {
+                return 0;
+            }
+            double sumSquares = 0;
+            for (int i = 0; i < n; i++) {
+                double diff = (a[i] ? 1 : 0) - (b[i] ? 1 : 0) - mean;
+                sumSquares += diff * diff;
+            }
+            return Math.sqrt(sumSquares / (n - 1) / n);
+        }
+
+        /** Turno en la partida, empezando en 0. */
+        public int getTurn() {
+            return turn;
+        }
+
+        public Color getColor() {
+            return color;
+        }
+
+        public int getRoll() {
+            return roll;
+        }
+
+        public int getAlternativeCount() {
+            return from.length;
+        }
+
+        /** Progreso de la ficha antes y después de la alternativa (ver Board.getProgress). */
+        public int getFrom(int alternative) {
+            return from[alternative];
+        }
+
+        public int getTo(int alternative) {
+            return to[alternative];
+        }
+
+        public int getChosen() {
+            return chosen;
+        }
+
+        public int getBest() {
+            return best;
+        }
+
+        public double getWinRate(int alternative) {
+            return winRates[alternative];
+        }
+
+        /** Probabilidad de ganar que se perdió con la jugada elegida, 0 si fue la mejor. */
+        public double getLoss() {
+            return loss;
+        }
+
+        public double getLossError() {
+            return lossError;
+        }
+
+        /** Continuaciones jugadas por alternativa. */
+        public int getRollouts() {
+            return rollouts;
+        }
+
+        /** Marca de la jugada según la pérdida: "error grave", "error", "imprecisión" o "". */
+        public String label() {
+            if (loss >= BLUNDER) {
+                return "error grave";
+            }
+            if (loss >= MISTAKE) {
+                return "error";
+            }
+            return loss >= INACCURACY ? "imprecisión" : "";
+        }
+
+        @Override
+        public String toString() {
+            return String.format("turno %4d %-7s %d: %3d->%-3d %5.1f%%  mejor %3d->%-3d %5.1f%%  pierde %5.1f%% ±%.1f (%d) %s",
+                    turn + 1, color, roll, from[chosen], to[chosen], 100 * winRates[chosen],
+                    from[best], to[best], 100 * winRates[best], 100 * loss, 100 * lossError, rollouts, label());
+        }
+    }
+
+    private static final class RolloutDice extends Dice {
+        private long state;
+        private int first;
+
+        RolloutDice() {
+            super(0);
+        }
+
+        void reset(long seed, int firstRoll) {
+            state = seed;
+            first = firstRoll;
+        }
+
+        @Override
+        public int roll() {
+            if (first != 0) {
+                int roll = first;
+                first = 0;
+                return roll;
+            }
+            state += 0x9E3779B97F4A7C15L;
+            return (int) (((PositionHash.mix(state) >>> 32) * 6) >>> 32) + 1;
+        }
+    }
+
+    /** Juega la alternativa fijada en la primera elección y después decide como la estrategia. */
+    private static final class RolloutStrategy implements Strategy {
+        private static final int NONE = Integer.MIN_VALUE;
+        private final Strategy delegate;
+        int forced = NONE;
+
+        RolloutStrategy(Strategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+            return delegate.choosePieceFromBase(game, piecesInBase);
+        }
+
+        @Override
+        public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+            return delegate.choosePieceOnSix(game, piecesInBase, piecesOnBoard);
+        }
+
+        @Override
+        public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+            if (forced != NONE) {
+                int progress = forced;
+                forced = NONE;
+                for (Piece piece : piecesOnBoard) {
+                    if (game.getBoard().getProgress(piece) == progress) {
+                        return piece;
+                    }
+                }
+                throw new IllegalStateException("La alternativa desde " + progress + " no es una jugada válida.");
+            }
+            return delegate.choosePieceToMove(game, piecesOnBoard);
+        }
+    }
+
+    /**
+     * Uso: BlunderAnalyzer <archivo> [partida ...] [--simulaciones N] [--hilos N] [--estrategia nombre]
+     * Sin partidas analiza la primera del archivo.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Uso: BlunderAnalyzer <archivo> [partida ...] [--simulaciones N] [--hilos N] [--estrategia nombre]");
+            return;
+        }
+        int rollouts = DEFAULT_ROLLOUTS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String strategy = Strategies.BALANCED;
+        List<Long> indices = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--simulaciones" -> rollouts = Integer.parseInt(args[++i]);
+                case "--hilos" -> threads = Integer.parseInt(args[++i]);
+                case "--estrategia" -> strategy = args[++i];
+                default -> indices.add(Long.parseLong(args[i]));
+            }
+        }
+        if (indices.isEmpty()) {
+            indices.add(0L);
+        }
+
+        List<ArchivedGame> games = new ArrayList<>();
+        try (ArchiveReader reader = ArchiveReader.open(Path.of(args[0]))) {
+            for (long index : indices) {
+                games.add(reader.read(index));
+            }
+        }
+        long start = System.nanoTime();
+        List<List<Decision>> reports;
+        try (BlunderAnalyzer analyzer = new BlunderAnalyzer(strategy, rollouts, threads)) {
+            reports = analyzer.analyze(games);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int analyzed = 0;
+        for (int g = 0; g < games.size(); g++) {
+            ArchivedGame game = games.get(g);
+            System.out.printf("Partida %d (%d turnos):%n", game.getIndex(), game.getTurnCount());
+            double[] lost = new double[Color.values().length];
+            int[] blunders = new int[Color.values().length];
+            int[] decisions = new int[Color.values().length];
+            for (Decision decision : reports.get(g)) {
+                System.out.println("  " + decision);
+                int c = decision.getColor().ordinal();
+                lost[c] += decision.getLoss();
+                decisions[c]++;
+                blunders[c] += decision.getLoss() >= MISTAKE ? 1 : 0;
+            }
+            for (int p = 0; p < game.getPlayerCount(); p++) {
+                int c = game.getColor(p).ordinal();
+                System.out.printf("  %-12s %-7s %3d decisiones, pérdida media %5.2f%%, %d errores%n",
+                        game.getName(p), game.getColor(p), decisions[c],
+                        decisions[c] == 0 ? 0 : 100 * lost[c] / decisions[c], blunders[c]);
+            }
+            analyzed += reports.get(g).size();
+        }
+        System.out.printf("%d decisiones analizadas con hasta %d simulaciones por alternativa en %.1f s%n",
+                analyzed, rollouts, seconds);
+    }
+}
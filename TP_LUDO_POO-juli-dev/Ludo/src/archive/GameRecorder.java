@@ -0,0 +1,54 @@
+package archive;
+
+import core.Player;
+import game.Game;
+import game.TurnListener;
+
+import java.util.Arrays;
+
+/**
+ * Anota lo mínimo para rehacer una partida: la tirada de cada turno y el índice de la
+ * ficha jugada. Se registra con Game.addTurnListener; las rendiciones (Game.skipTurn no
+ * avisa a los oyentes) se anotan con recordResignation. Reutilizable con clear().
+ */
+public class GameRecorder implements TurnListener {
+    private byte[] rolls = new byte[512];
+    private byte[] pieces = new byte[512];
+    private int size;
+
+    @Override
+    public void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+        add(roll, pieceId == 0 ? 0 : pieceId - 1);
+    }
+
+    /** El jugador en turno se rindió; se anota antes de llamar a Game.skipTurn. */
+    public void recordResignation() {
+        add(ArchiveFormat.RESIGN, 0);
+    }
+
+    private void add(int roll, int piece) {
+        if (size == rolls.length) {
+            rolls = Arrays.copyOf(rolls, size * 2);
+            pieces = Arrays.copyOf(pieces, size * 2);
+        }
+        rolls[size] = (byte) roll;
+        pieces[size] = (byte) piece;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int roll(int i) {
+        return rolls[i];
+    }
+
+    int piece(int i) {
+        return pieces[i];
+    }
+}
@@ -0,0 +1,201 @@
+package archive;
+
+import core.Color;
+import game.Game;
+import game.PositionHash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índice de posiciones sobre un archivo de partidas: para un hash de posición
+ * (PositionHash) devuelve las partidas que pasaron por ella, en qué turno y cómo terminaron.
+ *
+ * En disco son 2^shardBits fragmentos elegidos por los bits altos del hash, cada uno con
+ * entradas de 16 bytes (hash, partida, turno) ordenadas por hash sin signo, más un archivo
+ * con el resultado de cada partida. Los fragmentos se mapean en memoria la primera vez que
+ * se consultan y la búsqueda es binaria, así que una consulta toca unas pocas páginas aunque
+ * haya cientos de millones de posiciones. Lo construye PositionIndexBuilder.
+ */
+public class PositionIndex implements AutoCloseable {
+    static final long MAGIC = 0x4C55444F50583031L; // "LUDOPX01"
+    static final int META_BYTES = 8 + 4 + 8 + 8;
+    static final int ENTRY_BYTES = 16;
+    static final String META_FILE = "indice.meta";
+    static final String OUTCOMES_FILE = "resultados.idx";
+
+    private final Path directory;
+    private final int shardBits;
+    private final long gameCount;
+    private final long entryCount;
+    private final ByteBuffer[] shards;
+    private final MappedByteBuffer outcomes;
+
+    private PositionIndex(Path directory, int shardBits, long gameCount, long entryCount, MappedByteBuffer outcomes) {
+        this.directory = directory;
+        this.shardBits = shardBits;
+        this.gameCount = gameCount;
+        this.entryCount = entryCount;
+        this.shards = new ByteBuffer[1 << shardBits];
+        this.outcomes = outcomes;
+    }
+
+    public static PositionIndex open(Path directory) throws IOException {
+        ByteBuffer meta = readMeta(directory);
+        if (meta == null) {
+            throw new IOException("No hay un índice de posiciones en " + directory);
+        }
+        int shardBits = meta.getInt();
+        long games = meta.getLong();
+        long entries = meta.getLong();
+        MappedByteBuffer outcomes = map(directory.resolve(OUTCOMES_FILE));
+        if (outcomes.capacity() < games * 4) {
+            throw new IOException("Faltan resultados de partidas en " + directory);
+        }
+        return new PositionIndex(directory, shardBits, games, entries, outcomes);
+    }
+
+    /** Lee la cabecera del índice y la deja después del MAGIC, o null si no existe. */
+    static ByteBuffer readMeta(Path directory) throws IOException {
+        Path file = directory.resolve(META_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer meta = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (meta.remaining() != META_BYTES || meta.getLong() != MAGIC) {
+            throw new IOException("Cabecera de índice inválida en " + file);
+        }
+        return meta;
+    }
+
+    static Path shardFile(Path directory, int shard) {
+        return directory.resolve(String.format("posiciones-%03d.idx", shard));
+    }
+
+    static int shardOf(long hash, int shardBits) {
+        return (int) (hash >>> (64 - shardBits));
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /** Apariciones de la posición actual de la partida. */
+    public List<Hit> lookup(Game game) throws IOException {
+        return lookup(PositionHash.of(game), Integer.MAX_VALUE);
+    }
+
+    /** Hasta `limit` apariciones de la posición con el hash dado, por partida y turno. */
+    public List<Hit> lookup(long hash, int limit) throws IOException {
+        ByteBuffer shard = shard(shardOf(hash, shardBits));
+        List<Hit> hits = new ArrayList<>();
+        for (int i = lowerBound(shard, hash); i < shard.capacity() / ENTRY_BYTES && hits.size() < limit; i++) {
+            int at = i * ENTRY_BYTES;
+            if (shard.getLong(at) != hash) {
+                break;
+            }
+            int game = shard.getInt(at + 8);
+            int outcome = outcomes.getInt(game * 4);
+            int winner = (outcome >>> 16) - 1;
+            hits.add(new Hit(game, shard.getInt(at + 12), winner < 0 ? null : Color.values()[winner], outcome & 0xFFFF));
+        }
+        return hits;
+    }
+
+    /** Cantidad de apariciones de la posición, sin leer los resultados. */
+    public int count(long hash) throws IOException {
+        ByteBuffer shard = shard(shardOf(hash, shardBits));
+        int entries = shard.capacity() / ENTRY_BYTES;
+        int count = 0;
+        for (int i = lowerBound(shard, hash); i < entries && shard.getLong(i * ENTRY_BYTES) == hash; i++) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int lowerBound(ByteBuffer shard, long hash) {
+        int low = 0;
+        int high = shard.capacity() / ENTRY_BYTES;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(shard.getLong(mid * ENTRY_BYTES), hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private synchronized ByteBuffer shard(int index) throws IOException {
+        if (shards[index] == null) {
+            // un fragmento sin archivo es un fragmento sin posiciones
+            Path file = shardFile(directory, index);
+            shards[index] = Files.exists(file) ? map(file) : ByteBuffer.allocate(0);
+        }
+        return shards[index];
+    }
+
+    @Override
+    public void close() {
+        // los mapeos se liberan con el recolector; no hay canales abiertos
+    }
+
+    /** Una aparición de la posición: partida, turno tras el cual se llegó y resultado de la partida. */
+    public static final class Hit {
+        private final int game;
+        private final int turn;
+        private final Color winner;
+        private final int gameTurns;
+
+        Hit(int game, int turn, Color winner, int gameTurns) {
+            this.game = game;
+            this.turn = turn;
+            this.winner = winner;
+            this.gameTurns = gameTurns;
+        }
+
+        public int getGame() {
+            return game;
+        }
+
+        public int getTurn() {
+            return turn;
+        }
+
+        /** Ganador de la partida, o null si terminó sin ganador. */
+        public Color getWinner() {
+            return winner;
+        }
+
+        public int getGameTurns() {
+            return gameTurns;
+        }
+
+        @Override
+        public String toString() {
+            return "partida " + game + ", turno " + turn + " de " + gameTurns
+                    + ", ganó " + (winner != null ? winner : "nadie");
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package archive;
+
+import core.Player;
+import game.Game;
+import game.PositionHash;
+import game.TurnListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Construye o amplía un PositionIndex. Las posiciones de cada partida se agregan a medida
+ * que llegan (al archivarla o al rejugarla) a un archivo de tramo sin ordenar por fragmento;
+ * close() ordena cada fragmento junto con lo que ya tenía el índice, en paralelo, en archivos
+ * temporales. Con todos listos escribe la cabecera nueva aparte, y recién entonces los pone en
+ * su lugar. Si la construcción se corta antes de esa cabecera, open() descarta lo hecho y queda
+ * el índice anterior; si se corta después, open() termina de mover los fragmentos.
+ *
+ * Uso: PositionIndexBuilder <archivo> <directorio> [hilos] [consultas]
+ */
+public class PositionIndexBuilder implements AutoCloseable {
+    static final int SHARD_BITS = 8;
+    private static final int RUN_BUFFER_ENTRIES = 4096;
+    // cabecera de una construcción ya decidida: sus fragmentos temporales están completos
+    private static final String PENDING_META = PositionIndex.META_FILE + ".nueva";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final int shardBits;
+    private final long indexedGames;
+    private final long indexedEntries;
+    private final Run[] runs;
+    private final FileChannel outcomes;
+    private final AtomicLong gameCount;
+    private final AtomicLong addedEntries = new AtomicLong();
+    private boolean closed;
+
+    private PositionIndexBuilder(Path directory, int shardBits, long indexedGames, long indexedEntries,
+                                 FileChannel outcomes) {
+        this.directory = directory;
+        this.shardBits = shardBits;
+        this.indexedGames = indexedGames;
+        this.indexedEntries = indexedEntries;
+        this.outcomes = outcomes;
+        this.gameCount = new AtomicLong(indexedGames);
+        this.runs = new Run[1 << shardBits];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = new Run(runFile(i));
+        }
+    }
+
+    /** Abre el índice del directorio para ampliarlo, o lo crea vacío si no existe. */
+    public static PositionIndexBuilder open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        recover(directory);
+        ByteBuffer meta = PositionIndex.readMeta(directory);
+        int shardBits = meta != null ? meta.getInt() : SHARD_BITS;
+        long games = meta != null ? meta.getLong() : 0;
+        long entries = meta != null ? meta.getLong() : 0;
+        FileChannel outcomes = FileChannel.open(directory.resolve(PositionIndex.OUTCOMES_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new PositionIndexBuilder(directory, shardBits, games, entries, outcomes);
+    }
+
+    /**
+     * Termina o descarta una construcción que no llegó a cerrarse. Con la cabecera nueva escrita
+     * mueve los fragmentos temporales que falten y después la cabecera; sin ella los borra. En
+     * los dos casos borra los tramos, que ya están en los fragmentos o se descartan.
+     */
+    private static void recover(Path directory) throws IOException {
+        Path pending = directory.resolve(PENDING_META);
+        boolean commit = Files.exists(pending);
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, "posiciones-*.idx" + TEMP_SUFFIX)) {
+            for (Path temp : temps) {
+                if (commit) {
+                    String name = temp.getFileName().toString();
+                    Files.move(temp, directory.resolve(name.substring(0, name.length() - TEMP_SUFFIX.length())),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    Files.delete(temp);
+                }
+            }
+        }
+        if (commit) {
+            Files.move(pending, directory.resolve(PositionIndex.META_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.deleteIfExists(directory.resolve(PENDING_META + TEMP_SUFFIX));
+        try (DirectoryStream<Path> runs = Files.newDirectoryStream(directory, "posiciones-*.run")) {
+            for (Path run : runs) {
+                Files.delete(run);
+            }
+        }
+    }
+
+    private Path runFile(int shard) {
+        return directory.resolve(String.format("posiciones-%03d.run", shard));
+    }
+
+    /** Partidas que ya tenía el índice al abrirlo; las del archivo a partir de esta faltan. */
+    public long getIndexedGames() {
+        return indexedGames;
+    }
+
+    /** Agrega las posiciones de una partida archivada, rejugándola. Se puede llamar desde varios hilos. */
+    public void add(ArchivedGame archived) throws IOException {
+        Positions positions = new Positions();
+        Game game = archived.replay(false, positions);
+        add(archived.getIndex(), game, positions);
+    }
+
+    /** Agrega una partida ya jugada cuyas posiciones se anotaron con `positions`. */
+    public void add(long gameIndex, Game finished, Positions positions) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("El índice ya está cerrado.");
+        }
+        if (gameIndex < 0 || gameIndex > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Índice de partida fuera de rango: " + gameIndex);
+        }
+        for (int i = 0; i < positions.size; i++) {
+            long hash = positions.hashes[i];
+            runs[PositionIndex.shardOf(hash, shardBits)].add(hash, (int) gameIndex, positions.turns[i]);
+        }
+        addedEntries.addAndGet(positions.size);
+
+        Player winner = finished.getWinner();
+        int outcome = (winner != null ? winner.getColor().ordinal() + 1 : 0) << 16
+                | Math.min(finished.getTurnNumber(), 0xFFFF);
+        ByteBuffer value = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(outcome).flip();
+        while (value.hasRemaining()) {
+            outcomes.write(value, gameIndex * 4 + value.position());
+        }
+        gameCount.accumulateAndGet(gameIndex + 1, Math::max);
+    }
+
+    /**
+     * Modo por lotes: indexa las partidas del archivo que el índice todavía no tiene,
+     * repartiendo los bloques entre `threads` hilos, cada uno con su propio lector.
+     */
+    public void addArchive(Path archive, int threads) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                tasks.add(pool.submit(() -> {
+                    try (ArchiveReader reader = ArchiveReader.open(archive)) {
+                        for (int block = first; block < reader.getBlockCount(); block += threads) {
+                            if (block + 1 < reader.getBlockCount() && reader.getFirstGame(block + 1) <= indexedGames) {
+                                continue;
+                            }
+                            for (ArchivedGame game : reader.readBlock(block)) {
+                                if (game.getIndex() >= indexedGames) {
+                                    add(game);
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            await(tasks);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void await(List<Future<?>> tasks) throws IOException, InterruptedException {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                if (cause instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    /** Ordena los fragmentos, uno por hilo disponible, y los pone en su lugar con la cabecera nueva. */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int s = 0; s < runs.length; s++) {
+                int shard = s;
+                tasks.add(pool.submit(() -> {
+                    merge(shard);
+                    return null;
+                }));
+            }
+            await(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Construcción del índice interrumpida.", e);
+        } finally {
+            pool.shutdown();
+            outcomes.force(false);
+            outcomes.close();
+        }
+        ByteBuffer meta = ByteBuffer.allocate(PositionIndex.META_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        meta.putLong(PositionIndex.MAGIC).putInt(shardBits).putLong(gameCount.get())
+                .putLong(indexedEntries + addedEntries.get());
+        // escribir la cabecera nueva es lo que decide la construcción; recover() hace el resto
+        Path temp = directory.resolve(PENDING_META + TEMP_SUFFIX);
+        Files.write(temp, meta.array());
+        Files.move(temp, directory.resolve(PENDING_META), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        recover(directory);
+    }
+
+    /** Junta el fragmento existente con su tramo nuevo, ordena por hash y lo escribe al lado, en temporal. */
+    private void merge(int shard) throws IOException {
+        Run run = runs[shard];
+        run.flush();
+        if (!Files.exists(run.file)) {
+            return;
+        }
+        Path target = PositionIndex.shardFile(directory, shard);
+        long existing = Files.exists(target) ? Files.size(target) / PositionIndex.ENTRY_BYTES : 0;
+        long added = Files.size(run.file) / PositionIndex.ENTRY_BYTES;
+        if (existing + added > Integer.MAX_VALUE / 2) {
+            throw new IOException("El fragmento " + shard + " es demasiado grande; usar más fragmentos.");
+        }
+        int count = (int) (existing + added);
+        long[] hashes = new long[count];
+        long[] payloads = new long[count];
+        int filled = load(target, hashes, payloads, 0);
+        load(run.file, hashes, payloads, filled);
+        sort(hashes, payloads);
+
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RUN_BUFFER_ENTRIES * PositionIndex.ENTRY_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < count; i++) {
+                buffer.putLong(hashes[i]).putLong(payloads[i]);
+                if (!buffer.hasRemaining() || i == count - 1) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+        }
+    }
+
+    private static int load(Path file, long[] hashes, long[] payloads, int at) throws IOException {
+        if (!Files.exists(file)) {
+            return at;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.remaining() >= PositionIndex.ENTRY_BYTES) {
+                hashes[at] = buffer.getLong();
+                // partida y turno leídos juntos: el turno queda en la mitad alta
+                payloads[at] = buffer.getLong();
+                at++;
+            }
+        }
+        return at;
+    }
+
+    /**
+     * Radix LSD por bytes sobre (hash, partida y turno), sin signo: el orden que usa la
+     * búsqueda binaria del índice. Se saltean las pasadas en que todos comparten el byte,
+     * que en el hash son las del prefijo del fragmento y en la carga son casi todas.
+     */
+    static void sort(long[] hashes, long[] payloads) {
+        int n = hashes.length;
+        long[] tmpHashes = new long[n];
+        long[] tmpPayloads = new long[n];
+        int[] counts = new int[257];
+        for (int pass = 0; pass < 16; pass++) {
+            long[] keys = pass < 8 ? payloads : hashes;
+            int shift = (pass & 7) * 8;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) ((keys[i] >>> shift) & 0xFF) + 1]++;
+            }
+            boolean trivial = false;
+            for (int b = 1; b <= 256; b++) {
+                if (counts[b] == n) {
+                    trivial = true;
+                    break;
+                }
+            }
+            if (trivial) {
+                continue;
+            }
+            for (int b = 1; b <= 256; b++) {
+                counts[b] += counts[b - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                int to = counts[(int) ((keys[i] >>> shift) & 0xFF)]++;
+                tmpHashes[to] = hashes[i];
+                tmpPayloads[to] = payloads[i];
+            }
+            System.arraycopy(tmpHashes, 0, hashes, 0, n);
+            System.arraycopy(tmpPayloads, 0, payloads, 0, n);
+        }
+    }
+
+    /** Tramo sin ordenar de un fragmento: junta entradas en memoria y las agrega al archivo. */
+    private static final class Run {
+        final Path file;
+        private final ByteBuffer buffer = ByteBuffer.allocate(RUN_BUFFER_ENTRIES * PositionIndex.ENTRY_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        Run(Path file) {
+            this.file = file;
+        }
+
+        synchronized void add(long hash, int game, int turn) throws IOException {
+            buffer.putLong(hash).putInt(game).putInt(turn);
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+
+        synchronized void flush() throws IOException {
+            if (buffer.position() == 0) {
+                return;
+            }
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Anota el hash de la posición después de cada turno, salteando los turnos que no la
+     * cambian (tirada sin jugada). Se registra con Game.addTurnListener; reutilizable con clear().
+     */
+    public static final class Positions implements TurnListener {
+        private long[] hashes = new long[512];
+        private int[] turns = new int[512];
+        private int size;
+
+        @Override
+        public void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+            long hash = PositionHash.of(game);
+            if (size > 0 && hashes[size - 1] == hash) {
+                return;
+            }
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                turns = Arrays.copyOf(turns, size * 2);
+            }
+            hashes[size] = hash;
+            turns[size] = game.getTurnNumber();
+            size++;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Uso: PositionIndexBuilder <archivo> <directorio> [hilos] [consultas]");
+            return;
+        }
+        Path archive = Path.of(args[0]);
+        Path directory = Path.of(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int queries = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        long start = System.nanoTime();
+        long before;
+        try (PositionIndexBuilder builder = open(directory)) {
+            before = builder.getIndexedGames();
+            builder.addArchive(archive, threads);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        try (PositionIndex index = PositionIndex.open(directory); ArchiveReader reader = ArchiveReader.open(archive)) {
+            System.out.printf("%d partidas nuevas indexadas en %.1f s (%.0f partidas/s); el índice tiene %d partidas y %d posiciones%n",
+                    index.getGameCount() - before, seconds, (index.getGameCount() - before) / seconds,
+                    index.getGameCount(), index.getEntryCount());
+            if (index.getGameCount() == 0) {
+                return;
+            }
+            // posiciones de partidas al azar, cortadas en un turno al azar
+            Random random = new Random(1);
+            long[] samples = new long[queries];
+            for (int q = 0; q < queries; q++) {
+                ArchivedGame archived = reader.read(random.nextLong(index.getGameCount()));
+                Positions positions = new Positions();
+                archived.replay(false, positions);
+                samples[q] = positions.size > 0 ? positions.hashes[random.nextInt(positions.size)] : 0;
+            }
+            long worst = 0;
+            long total = 0;
+            long hits = 0;
+            for (long hash : samples) {
+                long t = System.nanoTime();
+                List<PositionIndex.Hit> found = index.lookup(hash, 1000);
+                long elapsed = System.nanoTime() - t;
+                total += elapsed;
+                worst = Math.max(worst, elapsed);
+                hits += found.size();
+            }
+            System.out.printf("%d consultas: %.3f ms promedio, %.3f ms peor, %.1f apariciones por consulta%n",
+                    queries, total / 1e6 / queries, worst / 1e6, (double) hits / queries);
+        }
+    }
+}
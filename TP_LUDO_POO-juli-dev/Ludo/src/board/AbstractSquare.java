@@ -1,32 +1,12 @@
 package board;
 
 import core.Color;
-import core.Piece;
-
-import java.util.ArrayList;
-import java.util.List;
 
+/**
+ * Casilla del tablero. Es inmutable y la comparten todos los tableros con la misma
+ * topología; qué fichas hay en ella lo responde Board.getPiecesAt.
+ */
 public abstract class AbstractSquare {
-    protected List<Piece> pieces = new ArrayList<>();
-
-    public void addPiece(Piece piece) {
-        if (piece != null && !this.pieces.contains(piece)) {
-            this.pieces.add(piece);
-        }
-    }
-
-    public void removePiece(Piece piece) {
-        this.pieces.remove(piece);
-    }
-
-    public boolean isEmpty() {
-        return this.pieces.isEmpty();
-    }
-
-    public List<Piece> getPieces() {
-        return new ArrayList<>(this.pieces);
-    }
-
     public int getPosition() {
         return 0; // en los otros los sobreescrimimos
     }
@@ -6,186 +6,308 @@ import core.Player;
 
 import java.util.*;
 
+/**
+ * Tablero de una partida. Las casillas, entradas y reglas viven en una BoardTopology
+ * compartida; lo único propio de cada tablero es el arreglo con las fichas en juego
+ * (cada ficha sabe en qué casilla está), el mapa de amenazas y algunos contadores.
+ */
 public class Board {
     public static final int FINAL_PATH_LENGTH = 6;
+    /** Progreso de una ficha que está en su base. */
+    public static final int IN_BASE = -1;
 
+    private final BoardTopology topology;
+    private final RuleTables rules;
     private final int mainPathSize;
-    private final int lastMainPathIndex;
+    // todas las fichas de la partida: la ocupación del tablero
+    private final Piece[] pieces;
+    // alcance por [color][casilla del camino principal]: fichas del color que llegan a la
+    // casilla con una tirada de 1 a 6 sin desviarse a su camino final. Se actualiza en cada
+    // movimiento, así las consultas de amenazas no recorren las fichas.
+    private final byte[] reach;
     private String lastEventMessage = "";
-
-    private final List<MainPathSquare> mainPath = new ArrayList<>();
-    private final Map<Color, HomeBaseSquare> homeBaseSquares = new HashMap<>();
-    private final Map<Color, List<FinalPathSquare>> finalPaths = new HashMap<>();
+    private boolean verbose = true;
+    private int captureCount = 0;
 
     public Board(List<Player> players, int mainPathSize) {
-        if (mainPathSize <= 0) {
-            throw new IllegalArgumentException("mainPathSize debe ser un número positivo.");
-        }
+        this(players, mainPathSize, RuleSet.standard());
+    }
+
+    /** Tablero con una variante de reglas; la topología compilada se comparte entre partidas. */
+    public Board(List<Player> players, int mainPathSize, RuleSet ruleSet) {
         if (players == null || players.isEmpty()) {
             throw new IllegalArgumentException("La lista de jugadores no puede ser nula o vacía.");
         }
-
+        int colorMask = 0;
+        int total = 0;
+        for (int i = 0; i < players.size(); i++) {
+            colorMask |= 1 << players.get(i).getColor().ordinal();
+            total += players.get(i).getPieceCount();
+        }
+        this.topology = BoardTopology.of(mainPathSize, colorMask, ruleSet);
+        this.rules = topology.getRules();
         this.mainPathSize = mainPathSize;
-        this.lastMainPathIndex = mainPathSize - 1;
-
-        Set<Integer> safeIndices = Set.of(1, 15, 29, 43);
-
-        for (int i = 0; i < this.mainPathSize; i++) {
-            boolean isSpecial = false;
-            if (!players.isEmpty() && (this.mainPathSize / players.size() > 0)) { // Evitar división por cero
-                if (i % (this.mainPathSize / players.size()) == 0) {
-                    isSpecial = true;
-                }
+        this.reach = new byte[Color.values().length * mainPathSize];
+
+        // colocar todas las fichas en su HomeBaseSquare
+        this.pieces = new Piece[total];
+        int next = 0;
+        for (int k = 0; k < players.size(); k++) {
+            Player p = players.get(k);
+            HomeBaseSquare base = topology.getHomeBaseSquares().get(p.getColor());
+            for (int i = 0; i < p.getPieceCount(); i++) {
+                Piece piece = p.getPiece(i);
+                piece.moveTo(base);
+                pieces[next++] = piece;
             }
-            if (safeIndices.contains(i)) {
-                isSpecial = true;
-            }
-            mainPath.add(new MainPathSquare(i, isSpecial));
         }
+    }
 
-        configureHomeBaseSquares(players);
-        configureFinalPaths(players);
+    /** Reglas compiladas con las que se juega en este tablero. */
+    public RuleTables getRules() {
+        return rules;
     }
 
+    public BoardTopology getTopology() {
+        return topology;
+    }
 
     public List<MainPathSquare> getMainPath() {
-        return mainPath;
+        return topology.getMainPath();
     }
 
     public Map<Color, HomeBaseSquare> getHomeBaseSquares() {
-        return homeBaseSquares;
+        return topology.getHomeBaseSquares();
     }
 
     public Map<Color, List<FinalPathSquare>> getFinalPaths() {
-        return finalPaths;
+        return topology.getFinalPaths();
     }
 
-    private void configureHomeBaseSquares(List<Player> players) {
-        for (Player player : players) {
-            homeBaseSquares.put(player.getColor(), new HomeBaseSquare(player.getColor()));
+    /** Fichas que están en la casilla dada, en orden de jugador y de id. */
+    public List<Piece> getPiecesAt(AbstractSquare square) {
+        List<Piece> here = new ArrayList<>();
+        for (Piece piece : pieces) {
+            if (piece.getCurrentSquare() == square) {
+                here.add(piece);
+            }
         }
+        return here;
     }
 
-    private void configureFinalPaths(List<Player> players) {
-        for (Player player : players) {
-            Color color = player.getColor();
-            List<FinalPathSquare> playerSpecificFinalPath = new ArrayList<>();
-            for (int i = 0; i < FINAL_PATH_LENGTH; i++) {
-                boolean isTerminalSquare = (i == FINAL_PATH_LENGTH - 1);
-                playerSpecificFinalPath.add(new FinalPathSquare(color, i, isTerminalSquare));
-            }
-            finalPaths.put(color, playerSpecificFinalPath);
+    /** Activa o silencia los mensajes por consola del tablero. */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public int getMainPathSize() {
+        return mainPathSize;
+    }
+
+    /** Índice de la casilla del camino principal por la que entra el color. */
+    public int getEntryPosition(Color color) {
+        return topology.getEntryPosition(color);
+    }
+
+    /**
+     * Progreso de la ficha relativo a su color: IN_BASE si está en base,
+     * 0..mainPathSize-1 en el camino principal (contando desde su entrada)
+     * y mainPathSize + k en la casilla k de su camino final.
+     */
+    public int getProgress(Piece piece) {
+        AbstractSquare sq = piece.getCurrentSquare();
+        if (sq instanceof MainPathSquare) {
+            int entry = topology.getEntryPosition(piece.getColor());
+            return (sq.getPosition() - entry + mainPathSize) % mainPathSize;
+        }
+        if (sq instanceof FinalPathSquare) {
+            return mainPathSize + sq.getPosition();
         }
+        return IN_BASE;
     }
 
-    public void placePieceOnBoard(Piece piece, MainPathSquare targetSquare) {
-        // Si la ficha estaba en alguna casilla la sacamos
-        if (piece.getCurrentSquare() != null) {
-            piece.getCurrentSquare().removePiece(piece);
+    /**
+     * Ubica la ficha directamente en la casilla que corresponde al progreso dado, sin
+     * aplicar capturas. Sirve para reconstruir posiciones (réplicas remotas, fotos).
+     */
+    public void placeAt(Piece piece, int progress) {
+        if (progress == IN_BASE) {
+            relocate(piece, topology.getHomeBaseSquares().get(piece.getColor()));
+        } else {
+            relocate(piece, squareAt(piece.getColor(), progress));
         }
-        // colocar en el tablero:
-        handleLanding(piece, targetSquare, true);
     }
 
-    public void move(Piece piece, int roll) {
-        AbstractSquare currentSquare = piece.getCurrentSquare();
-        if (currentSquare == null) {
-            System.err.println("Error: Board.move() fue llamada con una ficha que está en base.");
-            return;
+    /** Casilla del camino principal o final que corresponde a un progreso fuera de la base. */
+    private AbstractSquare squareAt(Color color, int progress) {
+        if (progress < mainPathSize) {
+            return topology.getMainPath().get(topology.mainPathIndex(color, progress));
         }
-        currentSquare.removePiece(piece);
+        return topology.getFinalPaths().get(color).get(progress - mainPathSize);
+    }
 
-        if (currentSquare instanceof MainPathSquare) {
-            moveOnMainPath(piece, (MainPathSquare) currentSquare, roll);
-        } else if (currentSquare instanceof FinalPathSquare) {
-            moveOnFinalPath(piece, (FinalPathSquare) currentSquare, roll);
-        } else if (currentSquare instanceof HomeBaseSquare) {
-            System.err.println("Error: Board.move() fue llamada con una ficha en HomeBaseSquare.");
-            currentSquare.addPiece(piece);
-        } else {
-            System.err.println("Error: Ficha en un tipo de casilla desconocido: " + currentSquare.getClass().getName());
-            currentSquare.addPiece(piece);
+    /**
+     * Progreso que tendría una ficha tras mover `roll` desde `progress`, con las mismas
+     * reglas que move(). Las fichas en base no se mueven con este método.
+     */
+    public int progressAfter(int progress, int roll) {
+        return rules.advance(progress, roll);
+    }
+
+    /**
+     * Con la regla de bloqueos, indica si un bloqueo rival (dos fichas de un mismo color)
+     * impide que la ficha avance `roll` casillas. Sin esa regla siempre es false.
+     */
+    public boolean isBlocked(Piece piece, int roll) {
+        if (!rules.hasBlockades()) {
+            return false;
+        }
+        int from = getProgress(piece);
+        if (from == IN_BASE || from >= mainPathSize) {
+            return false;
+        }
+        int to = Math.min(rules.advance(from, roll), mainPathSize - 1);
+        for (int p = from + 1; p <= to; p++) {
+            if (isBlockade(topology.getMainPath().get(mainPathIndex(piece.getColor(), p)), piece.getColor())) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void moveOnMainPath(Piece piece, MainPathSquare current, int roll) {
-        int entry = ENTRY_POS.get(piece.getColor());
-        int pathSize = mainPathSize;
+    private boolean isBlockade(MainPathSquare square, Color mover) {
+        for (int i = 0; i < pieces.length; i++) {
+            Piece first = pieces[i];
+            if (first.getCurrentSquare() != square || first.getColor() == mover) {
+                continue;
+            }
+            for (int j = i + 1; j < pieces.length; j++) {
+                if (pieces[j].getCurrentSquare() == square && pieces[j].getColor() == first.getColor()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        int pos = current.getPosition();
-        int rel = (pos - entry + pathSize) % pathSize;
-        int relNext = rel + roll;
+    /** Índice en el camino principal del progreso dado para el color, o -1 si no está en él. */
+    public int mainPathIndex(Color color, int progress) {
+        return topology.mainPathIndex(color, progress);
+    }
 
-        if (relNext >= pathSize) {
-            //  pasar al primer FinalPathSquare
-            FinalPathSquare fps = finalPaths.get(piece.getColor()).get(0);
-            handleLanding(piece, fps, false);
-        } else {
-            // no diste la vuelta: nueva posición circular
-            int newPos = (entry + relNext) % pathSize;
-            MainPathSquare target = mainPath.get(newPos);
-            handleLanding(piece, target, false);
+    public boolean isSafeSquare(int mainPathIndex) {
+        return topology.isSafeSquare(mainPathIndex);
+    }
+
+    /** Si caer en la casilla captura a las rivales (depende de las reglas en las seguras). */
+    public boolean canCaptureAt(int mainPathIndex) {
+        return rules.canCaptureAt(mainPathIndex);
+    }
+
+    /** Cantidad de fichas de otros colores en la casilla del camino principal. */
+    public int countOpponentsAt(int mainPathIndex, Color color) {
+        MainPathSquare square = topology.getMainPath().get(mainPathIndex);
+        int count = 0;
+        for (Piece piece : pieces) {
+            if (piece.getCurrentSquare() == square && piece.getColor() != color) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cantidad de fichas rivales que podrían capturar en la casilla indicada con una tirada
+     * de 1 a 6. Las casillas seguras no se amenazan y se descartan las fichas que entrarían
+     * a su camino final antes de llegar. O(1): se lee del mapa de alcance.
+     */
+    public int countThreats(int mainPathIndex, Color color) {
+        if (!rules.canCaptureAt(mainPathIndex)) {
+            return 0;
         }
+        int threats = 0;
+        for (int c = 0; c < Color.values().length; c++) {
+            if (c != color.ordinal()) {
+                threats += reach[c * mainPathSize + mainPathIndex];
+            }
+        }
+        return threats;
     }
 
+    /** Fichas del color que pueden llegar a la casilla del camino principal con una tirada de 1 a 6. */
+    public int countReach(int mainPathIndex, Color color) {
+        return reach[color.ordinal() * mainPathSize + mainPathIndex];
+    }
 
-    private void moveOnFinalPath(Piece piece, FinalPathSquare current, int roll) {
-        List<FinalPathSquare> fp = finalPaths.get(piece.getColor());
-        int pos = current.getPosition();
-        int next = pos + roll;
+    /** Mueve la ficha a la casilla manteniendo al día el mapa de alcance. */
+    private void relocate(Piece piece, AbstractSquare target) {
+        updateReach(piece, -1);
+        piece.moveTo(target);
+        updateReach(piece, 1);
+    }
 
-        if (next >= 0 && next < FINAL_PATH_LENGTH - 1) {
-            handleLanding(piece, fp.get(next), false);
-        } else if (next == FINAL_PATH_LENGTH - 1) {
-            // Llegada exacta a la última casilla (meta)
-            handleLanding(piece, fp.get(FINAL_PATH_LENGTH - 1), false);
-        } else {
-            // Roll no válido para avanzar: permanece en la misma casilla
-            System.out.println("Tiro no exacto en FinalPath (" + roll + "). Ficha "
-                    + piece.getId() + " se queda en pos " + pos + ".");
-            handleLanding(piece, current, false);
+    private void updateReach(Piece piece, int delta) {
+        if (!(piece.getCurrentSquare() instanceof MainPathSquare square)) {
+            return;
+        }
+        int position = square.getPosition();
+        int progress = (position - topology.getEntryPosition(piece.getColor()) + mainPathSize) % mainPathSize;
+        int row = piece.getColor().ordinal() * mainPathSize;
+        for (int distance = 1; distance <= 6 && progress + distance < mainPathSize; distance++) {
+            int index = row + (position + distance) % mainPathSize;
+            reach[index] = (byte) (reach[index] + delta);
         }
     }
 
+    public void placePieceOnBoard(Piece piece, MainPathSquare targetSquare) {
+        handleLanding(piece, targetSquare, true);
+    }
+
+    public void move(Piece piece, int roll) {
+        AbstractSquare currentSquare = piece.getCurrentSquare();
+        if (currentSquare == null) {
+            System.err.println("Error: Board.move() fue llamada con una ficha que está en base.");
+            return;
+        }
+        if (currentSquare instanceof HomeBaseSquare) {
+            System.err.println("Error: Board.move() fue llamada con una ficha en HomeBaseSquare.");
+            return;
+        }
+        if (!(currentSquare instanceof MainPathSquare) && !(currentSquare instanceof FinalPathSquare)) {
+            System.err.println("Error: Ficha en un tipo de casilla desconocido: " + currentSquare.getClass().getName());
+            return;
+        }
+        // el destino sale de la tabla de avance de las reglas compiladas
+        int from = getProgress(piece);
+        int to = rules.advance(from, roll);
+        if (to == from) {
+            // Roll no válido para avanzar: permanece en la misma casilla
+            if (verbose) {
+                System.out.println("Tiro no exacto en FinalPath (" + roll + "). Ficha "
+                        + piece.getId() + " se queda en pos " + currentSquare.getPosition() + ".");
+            }
+            return;
+        }
+        handleLanding(piece, squareAt(piece.getColor(), to), false);
+    }
 
     private void handleLanding(Piece movingPiece, AbstractSquare targetSquare, boolean isBoardEntryFromBase) {
-        if (targetSquare instanceof MainPathSquare && !isBoardEntryFromBase) {
-            MainPathSquare mpTarget = (MainPathSquare) targetSquare;
-            if (!mpTarget.isEmpty() && !mpTarget.isSpecial()) {
-                List<Piece> piecesOnTargetCopy = new ArrayList<>(targetSquare.getPieces());
-                for (Piece existingPiece : piecesOnTargetCopy) {
-                    if (existingPiece != movingPiece && existingPiece.getColor() != movingPiece.getColor()) {
-                        lastEventMessage = movingPiece.getColor() + " capturó ficha " + existingPiece.getId() +
-                                " de color " + existingPiece.getColor();
-                        targetSquare.removePiece(existingPiece);
-                        HomeBaseSquare home = homeBaseSquares.get(existingPiece.getColor());
-                        home.addPiece(existingPiece);
-                        existingPiece.moveTo(home);
-                    }
+        if (targetSquare instanceof MainPathSquare && !isBoardEntryFromBase
+                && rules.canCaptureAt(targetSquare.getPosition())) {
+            for (Piece existingPiece : pieces) {
+                if (existingPiece.getCurrentSquare() == targetSquare && existingPiece.getColor() != movingPiece.getColor()) {
+                    lastEventMessage = movingPiece.getColor() + " capturó ficha " + existingPiece.getId() +
+                            " de color " + existingPiece.getColor();
+                    captureCount++;
+                    relocate(existingPiece, topology.getHomeBaseSquares().get(existingPiece.getColor()));
                 }
             }
         }
-        targetSquare.addPiece(movingPiece);
-        movingPiece.moveTo(targetSquare);
+        relocate(movingPiece, targetSquare);
     }
 
     public MainPathSquare getBoardEntrySquareForColor(Color color) {
-        if (this.mainPath.isEmpty()) {
-            throw new IllegalStateException("El camino principal no está inicializado.");
-        }
-        // Entradas por color: Rojo=1, Verde=15, Amarillo=29, Azul=43
-        switch (color) {
-            case RED:
-                return mainPath.get(1);
-            case GREEN:
-                return mainPath.get(15);
-            case YELLOW:
-                return mainPath.get(29);
-            case BLUE:
-                return mainPath.get(43);
-            default:
-                return mainPath.get(1);
-        }
+        return topology.getMainPath().get(topology.getEntryPosition(color));
     }
 
     /**
@@ -193,15 +315,13 @@ public class Board {
      */
     public MainPathSquare getCentralSquare() {
         int centerIdx = mainPathSize / 2;
-        return mainPath.get(centerIdx);
+        return topology.getMainPath().get(centerIdx);
     }
 
-    private static final Map<core.Color,Integer> ENTRY_POS = Map.of(
-            core.Color.RED,    1,
-            core.Color.GREEN,  15,
-            core.Color.YELLOW, 29,
-            core.Color.BLUE,   43
-    );
+    /** Cantidad de capturas ocurridas desde que se creó el tablero. */
+    public int getCaptureCount() {
+        return captureCount;
+    }
 
     /** Devuelve y limpia el último evento ocurrido en el tablero */
     public String fetchLastEvent() {
@@ -210,4 +330,4 @@ public class Board {
         return msg;
     }
 
-}
\ No newline at end of file
+}
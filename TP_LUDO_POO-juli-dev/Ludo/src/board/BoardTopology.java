@@ -0,0 +1,198 @@
+package board;
+
+import core.Color;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parte inmutable del tablero: casillas, casillas seguras, entradas, recorridos por color
+ * y reglas compiladas. Se crea una vez por configuración (tamaño, colores en juego y
+ * reglas) y la comparten todos los tableros; las casillas no guardan fichas, eso lo lleva
+ * cada Board por su cuenta. El orden de los colores no cambia la topología, solo cuáles son.
+ */
+public final class BoardTopology {
+    // Entradas por color: Rojo=1, Verde=15, Amarillo=29, Azul=43
+    private static final Map<Color, Integer> ENTRY_POS = Map.of(
+            Color.RED, 1,
+            Color.GREEN, 15,
+            Color.YELLOW, 29,
+            Color.BLUE, 43
+    );
+    // colores en el orden en que están sus entradas alrededor del tablero
+    private static final Color[] BOARD_ORDER = {Color.RED, Color.GREEN, Color.YELLOW, Color.BLUE};
+    private static final Map<String, BoardTopology> CACHE = new ConcurrentHashMap<>();
+    private static volatile BoardTopology last;
+
+    private final int mainPathSize;
+    private final int colorMask;
+    private final RuleSet ruleSet;
+    private final List<MainPathSquare> mainPath;
+    private final Map<Color, HomeBaseSquare> homeBaseSquares;
+    private final Map<Color, List<FinalPathSquare>> finalPaths;
+    private final int[] entry = new int[Color.values().length];
+    // índice del camino principal por [color][progreso], la "adyacencia" de cada recorrido
+    private final int[][] route = new int[Color.values().length][];
+    private final RuleTables rules;
+    private final int rotationMask;
+
+    private BoardTopology(int mainPathSize, int colorMask, RuleSet ruleSet) {
+        this.mainPathSize = mainPathSize;
+        this.colorMask = colorMask;
+        this.ruleSet = ruleSet;
+        List<Color> colors = new ArrayList<>();
+        for (Color color : Color.values()) {
+            if ((colorMask & (1 << color.ordinal())) != 0) {
+                colors.add(color);
+            }
+        }
+
+        List<MainPathSquare> path = new ArrayList<>(mainPathSize);
+        boolean[] safeSquares = new boolean[mainPathSize];
+        int spacing = mainPathSize / colors.size();
+        for (int i = 0; i < mainPathSize; i++) {
+            boolean isSpecial = spacing > 0 && i % spacing == 0; // Evitar división por cero
+            if (ENTRY_POS.containsValue(i)) {
+                isSpecial = true;
+            }
+            path.add(new MainPathSquare(i, isSpecial));
+            safeSquares[i] = isSpecial;
+        }
+        this.mainPath = Collections.unmodifiableList(path);
+
+        Map<Color, HomeBaseSquare> bases = new EnumMap<>(Color.class);
+        Map<Color, List<FinalPathSquare>> finals = new EnumMap<>(Color.class);
+        for (Color color : colors) {
+            bases.put(color, new HomeBaseSquare(color));
+            List<FinalPathSquare> lane = new ArrayList<>(Board.FINAL_PATH_LENGTH);
+            for (int i = 0; i < Board.FINAL_PATH_LENGTH; i++) {
+                lane.add(new FinalPathSquare(color, i, i == Board.FINAL_PATH_LENGTH - 1));
+            }
+            finals.put(color, Collections.unmodifiableList(lane));
+        }
+        this.homeBaseSquares = Collections.unmodifiableMap(bases);
+        this.finalPaths = Collections.unmodifiableMap(finals);
+
+        for (Color color : Color.values()) {
+            int start = ENTRY_POS.get(color);
+            entry[color.ordinal()] = start;
+            route[color.ordinal()] = new int[mainPathSize];
+            for (int progress = 0; progress < mainPathSize; progress++) {
+                route[color.ordinal()][progress] = (start + progress) % mainPathSize;
+            }
+        }
+        this.rules = ruleSet.compile(mainPathSize, safeSquares);
+        this.rotationMask = computeRotationMask(safeSquares);
+    }
+
+    /**
+     * Giros de un cuarto de vuelta que dejan el tablero igual: cada entrada cae en la de otro
+     * color en juego y las casillas seguras en casillas seguras. Con el tablero de 56 y los
+     * cuatro colores valen los cuatro; con dos colores enfrentados, solo la media vuelta.
+     */
+    private int computeRotationMask(boolean[] safeSquares) {
+        int mask = 1;
+        if (mainPathSize % BOARD_ORDER.length != 0) {
+            return mask;
+        }
+        int quarter = mainPathSize / BOARD_ORDER.length;
+        for (int k = 1; k < BOARD_ORDER.length; k++) {
+            boolean valid = true;
+            for (Color color : Color.values()) {
+                Color image = rotate(color, k);
+                boolean inPlay = (colorMask & (1 << color.ordinal())) != 0;
+                valid &= inPlay == ((colorMask & (1 << image.ordinal())) != 0);
+                valid &= (ENTRY_POS.get(color) + k * quarter) % mainPathSize == ENTRY_POS.get(image);
+            }
+            for (int i = 0; i < mainPathSize && valid; i++) {
+                valid = safeSquares[i] == safeSquares[(i + k * quarter) % mainPathSize];
+            }
+            if (valid) {
+                mask |= 1 << k;
+            }
+        }
+        return mask;
+    }
+
+    /** Color que ocupa el lugar de `color` después de girar el tablero `quarters` cuartos de vuelta. */
+    public static Color rotate(Color color, int quarters) {
+        for (int i = 0; i < BOARD_ORDER.length; i++) {
+            if (BOARD_ORDER[i] == color) {
+                return BOARD_ORDER[Math.floorMod(i + quarters, BOARD_ORDER.length)];
+            }
+        }
+        throw new IllegalArgumentException("Color sin entrada en el tablero: " + color);
+    }
+
+    /**
+     * Topología compartida para el tamaño, los colores en juego (máscara de ordinales) y las
+     * reglas dadas; se crea la primera vez que se pide. La última usada se devuelve sin
+     * buscar en la caché, así crear muchos tableros iguales no asigna memoria acá.
+     */
+    public static BoardTopology of(int mainPathSize, int colorMask, RuleSet ruleSet) {
+        BoardTopology cached = last;
+        if (cached != null && cached.mainPathSize == mainPathSize && cached.colorMask == colorMask
+                && cached.ruleSet.equals(ruleSet)) {
+            return cached;
+        }
+        if (mainPathSize <= 0) {
+            throw new IllegalArgumentException("mainPathSize debe ser un número positivo.");
+        }
+        if (colorMask == 0) {
+            throw new IllegalArgumentException("La lista de colores no puede ser nula o vacía.");
+        }
+        if (ruleSet == null) {
+            throw new IllegalArgumentException("Las reglas no pueden ser nulas.");
+        }
+        String key = mainPathSize + "/" + colorMask + "/" + ruleSet;
+        cached = CACHE.computeIfAbsent(key, k -> new BoardTopology(mainPathSize, colorMask, ruleSet));
+        last = cached;
+        return cached;
+    }
+
+    public int getMainPathSize() {
+        return mainPathSize;
+    }
+
+    public List<MainPathSquare> getMainPath() {
+        return mainPath;
+    }
+
+    public Map<Color, HomeBaseSquare> getHomeBaseSquares() {
+        return homeBaseSquares;
+    }
+
+    public Map<Color, List<FinalPathSquare>> getFinalPaths() {
+        return finalPaths;
+    }
+
+    public RuleTables getRules() {
+        return rules;
+    }
+
+    /** Índice de la casilla del camino principal por la que entra el color. */
+    public int getEntryPosition(Color color) {
+        return entry[color.ordinal()];
+    }
+
+    /** Índice en el camino principal del progreso dado para el color, o -1 si no está en él. */
+    public int mainPathIndex(Color color, int progress) {
+        if (progress < 0 || progress >= mainPathSize) {
+            return -1;
+        }
+        return route[color.ordinal()][progress];
+    }
+
+    /** Bit k encendido si girar el tablero k cuartos de vuelta lo deja igual (el bit 0 siempre). */
+    public int getRotationMask() {
+        return rotationMask;
+    }
+
+    public boolean isSafeSquare(int mainPathIndex) {
+        return mainPath.get(mainPathIndex).isSpecial();
+    }
+}
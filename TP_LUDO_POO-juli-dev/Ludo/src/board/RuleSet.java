@@ -0,0 +1,123 @@
+package board;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reglas de la casa, en forma declarativa. No se consultan durante la partida: el tablero
+ * las compila una vez en RuleTables (tablas de avance y de captura, y unos pocos indicadores).
+ *
+ * Se pueden escribir como lista separada por comas, por ejemplo "seis-repite,bloqueos":
+ *   seis-repite         un 6 da otra tirada
+ *   bloqueos            dos fichas del mismo color en una casilla no se pueden pasar ni pisar
+ *   meta-libre          en el camino final no hace falta tirada exacta para llegar a la meta
+ *   captura-en-seguras  también se captura en las casillas seguras
+ */
+public final class RuleSet {
+    public static final String EXTRA_ROLL_ON_SIX = "seis-repite";
+    public static final String BLOCKADES = "bloqueos";
+    public static final String FREE_FINISH = "meta-libre";
+    public static final String CAPTURE_ON_SAFE = "captura-en-seguras";
+
+    private static final RuleSet STANDARD = new RuleSet(false, false, true, false);
+
+    private final boolean extraRollOnSix;
+    private final boolean blockades;
+    private final boolean exactFinish;
+    private final boolean captureOnSafe;
+
+    private RuleSet(boolean extraRollOnSix, boolean blockades, boolean exactFinish, boolean captureOnSafe) {
+        this.extraRollOnSix = extraRollOnSix;
+        this.blockades = blockades;
+        this.exactFinish = exactFinish;
+        this.captureOnSafe = captureOnSafe;
+    }
+
+    /** Reglas de siempre del juego. */
+    public static RuleSet standard() {
+        return STANDARD;
+    }
+
+    /** Interpreta una lista de nombres de reglas separada por comas; vacía = reglas estándar. */
+    public static RuleSet parse(String spec) {
+        RuleSet rules = STANDARD;
+        if (spec == null || spec.isBlank()) {
+            return rules;
+        }
+        for (String name : spec.split(",")) {
+            switch (name.trim()) {
+                case EXTRA_ROLL_ON_SIX -> rules = rules.withExtraRollOnSix(true);
+                case BLOCKADES -> rules = rules.withBlockades(true);
+                case FREE_FINISH -> rules = rules.withExactFinish(false);
+                case CAPTURE_ON_SAFE -> rules = rules.withCaptureOnSafe(true);
+                case "", "estandar" -> { }
+                default -> throw new IllegalArgumentException("Regla desconocida: " + name.trim());
+            }
+        }
+        return rules;
+    }
+
+    public RuleSet withExtraRollOnSix(boolean value) {
+        return new RuleSet(value, blockades, exactFinish, captureOnSafe);
+    }
+
+    public RuleSet withBlockades(boolean value) {
+        return new RuleSet(extraRollOnSix, value, exactFinish, captureOnSafe);
+    }
+
+    public RuleSet withExactFinish(boolean value) {
+        return new RuleSet(extraRollOnSix, blockades, value, captureOnSafe);
+    }
+
+    public RuleSet withCaptureOnSafe(boolean value) {
+        return new RuleSet(extraRollOnSix, blockades, exactFinish, value);
+    }
+
+    public boolean isExtraRollOnSix() {
+        return extraRollOnSix;
+    }
+
+    public boolean hasBlockades() {
+        return blockades;
+    }
+
+    public boolean isExactFinish() {
+        return exactFinish;
+    }
+
+    public boolean isCaptureOnSafe() {
+        return captureOnSafe;
+    }
+
+    /** Genera las tablas para un tablero concreto. */
+    RuleTables compile(int mainPathSize, boolean[] safeSquares) {
+        return new RuleTables(this, mainPathSize, safeSquares);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RuleSet other)) {
+            return false;
+        }
+        return extraRollOnSix == other.extraRollOnSix && blockades == other.blockades
+                && exactFinish == other.exactFinish && captureOnSafe == other.captureOnSafe;
+    }
+
+    @Override
+    public int hashCode() {
+        return (extraRollOnSix ? 1 : 0) | (blockades ? 2 : 0) | (exactFinish ? 4 : 0) | (captureOnSafe ? 8 : 0);
+    }
+
+    @Override
+    public String toString() {
+        List<String> names = new ArrayList<>();
+        if (extraRollOnSix) names.add(EXTRA_ROLL_ON_SIX);
+        if (blockades) names.add(BLOCKADES);
+        if (!exactFinish) names.add(FREE_FINISH);
+        if (captureOnSafe) names.add(CAPTURE_ON_SAFE);
+        return names.isEmpty() ? "estandar" : String.join(",", names);
+    }
+}
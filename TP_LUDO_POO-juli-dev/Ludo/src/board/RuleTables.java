@@ -0,0 +1,71 @@
+package board;
+
+/**
+ * Reglas compiladas para un tamaño de tablero. Todo lo que depende de la variante se
+ * resuelve al crear la partida en tablas planas, así el movimiento hace una búsqueda
+ * por índice en vez de preguntar regla por regla.
+ */
+public final class RuleTables {
+    // columnas por fila de la tabla de avance (dados 0..7, sobra lugar para no validar)
+    private static final int STRIDE = 8;
+
+    private final RuleSet ruleSet;
+    // destino por [progreso + 1][dado]; la fila 0 es IN_BASE
+    private final int[] advance;
+    private final boolean[] capturable;
+    private final boolean[] extraRoll = new boolean[STRIDE];
+    private final boolean blockades;
+
+    RuleTables(RuleSet ruleSet, int mainPathSize, boolean[] safeSquares) {
+        this.ruleSet = ruleSet;
+        int finish = mainPathSize + Board.FINAL_PATH_LENGTH - 1;
+        this.advance = new int[(finish + 2) * STRIDE];
+        for (int roll = 0; roll < STRIDE; roll++) {
+            advance[roll] = Board.IN_BASE;
+        }
+        for (int progress = 0; progress <= finish; progress++) {
+            for (int roll = 0; roll < STRIDE; roll++) {
+                int target;
+                if (progress < mainPathSize) {
+                    // al completar la vuelta se entra siempre a la primera casilla del camino final
+                    target = progress + roll >= mainPathSize ? mainPathSize : progress + roll;
+                } else if (progress + roll <= finish) {
+                    target = progress + roll;
+                } else {
+                    target = ruleSet.isExactFinish() ? progress : finish;
+                }
+                advance[(progress + 1) * STRIDE + roll] = target;
+            }
+        }
+
+        this.capturable = new boolean[mainPathSize];
+        for (int i = 0; i < mainPathSize; i++) {
+            capturable[i] = ruleSet.isCaptureOnSafe() || !safeSquares[i];
+        }
+        extraRoll[6] = ruleSet.isExtraRollOnSix();
+        this.blockades = ruleSet.hasBlockades();
+    }
+
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    /** Progreso de destino al mover `roll` desde `progress`; igual al origen si no puede avanzar. */
+    public int advance(int progress, int roll) {
+        return advance[(progress + 1) * STRIDE + roll];
+    }
+
+    /** Si una ficha que cae en la casilla del camino principal captura a las rivales. */
+    public boolean canCaptureAt(int mainPathIndex) {
+        return capturable[mainPathIndex];
+    }
+
+    /** Si la tirada da otra tirada al mismo jugador. */
+    public boolean grantsExtraRoll(int roll) {
+        return extraRoll[roll];
+    }
+
+    public boolean hasBlockades() {
+        return blockades;
+    }
+}
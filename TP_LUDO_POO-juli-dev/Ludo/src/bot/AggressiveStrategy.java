@@ -0,0 +1,22 @@
+package bot;
+
+import board.Board;
+import core.Color;
+
+/**
+ * Captura siempre que puede; si no, se acerca a fichas rivales para amenazarlas.
+ */
+public class AggressiveStrategy extends HeuristicStrategy {
+    @Override
+    public String getName() {
+        return Strategies.AGGRESSIVE;
+    }
+
+    @Override
+    protected int score(Board board, Color color, int from, int to) {
+        if (isCapture(board, color, to)) {
+            return 10_000 + to;
+        }
+        return targetsAhead(board, color, to) * 100 + to;
+    }
+}
@@ -0,0 +1,52 @@
+package bot;
+
+import board.Board;
+import core.Color;
+
+/**
+ * Suma ponderada de capturas, seguridad, riesgo y avance.
+ */
+public class BalancedStrategy extends HeuristicStrategy {
+    private final int captureWeight;
+    private final int safeWeight;
+    private final int escapeWeight;
+    private final int riskWeight;
+    private final int progressWeight;
+    private final int finishWeight;
+
+    public BalancedStrategy() {
+        this(60, 15, 25, 30, 1, 80);
+    }
+
+    public BalancedStrategy(int captureWeight, int safeWeight, int escapeWeight,
+                            int riskWeight, int progressWeight, int finishWeight) {
+        this.captureWeight = captureWeight;
+        this.safeWeight = safeWeight;
+        this.escapeWeight = escapeWeight;
+        this.riskWeight = riskWeight;
+        this.progressWeight = progressWeight;
+        this.finishWeight = finishWeight;
+    }
+
+    @Override
+    public String getName() {
+        return Strategies.BALANCED;
+    }
+
+    @Override
+    protected int score(Board board, Color color, int from, int to) {
+        int score = (to - from) * progressWeight;
+        if (isCapture(board, color, to)) {
+            score += captureWeight;
+        }
+        if (isSafe(board, color, to)) {
+            score += safeWeight;
+        }
+        if (isFinish(board, to)) {
+            score += finishWeight;
+        }
+        score += threatsAt(board, color, from) * escapeWeight;
+        score -= threatsAt(board, color, to) * riskWeight;
+        return score;
+    }
+}
@@ -0,0 +1,49 @@
+package bot;
+
+import board.RuleSet;
+import core.Piece;
+import core.Player;
+import game.Game;
+import game.Strategy;
+import utils.Dice;
+
+import java.util.List;
+
+/**
+ * Partida sin interfaz: los colores sin estrategia propia (Game.setStrategy)
+ * deciden con la estrategia por defecto.
+ */
+public class BotGame extends Game {
+    private final Strategy defaultStrategy;
+
+    public BotGame(List<Player> players, int mainPathSize, Strategy defaultStrategy) {
+        this(players, mainPathSize, defaultStrategy, new Dice());
+    }
+
+    public BotGame(List<Player> players, int mainPathSize, Strategy defaultStrategy, Dice dice) {
+        this(players, mainPathSize, defaultStrategy, dice, RuleSet.standard());
+    }
+
+    public BotGame(List<Player> players, int mainPathSize, Strategy defaultStrategy, Dice dice, RuleSet ruleSet) {
+        super(players, mainPathSize, dice, ruleSet);
+        if (defaultStrategy == null) {
+            throw new IllegalArgumentException("La estrategia por defecto no puede ser nula.");
+        }
+        this.defaultStrategy = defaultStrategy;
+    }
+
+    @Override
+    protected Piece choosePieceFromBase(List<Piece> piecesInBase) {
+        return defaultStrategy.choosePieceFromBase(this, piecesInBase);
+    }
+
+    @Override
+    protected Piece choosePieceOnSix(List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+        return defaultStrategy.choosePieceOnSix(this, piecesInBase, piecesOnBoard);
+    }
+
+    @Override
+    protected Piece choosePieceToMove(List<Piece> piecesOnBoard) {
+        return defaultStrategy.choosePieceToMove(this, piecesOnBoard);
+    }
+}
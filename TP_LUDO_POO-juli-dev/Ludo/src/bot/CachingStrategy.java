@@ -0,0 +1,125 @@
+package bot;
+
+import core.Color;
+import core.Piece;
+import game.Game;
+import game.PositionHash;
+import game.PositionSymmetry;
+import game.Strategy;
+
+import java.util.List;
+
+/**
+ * Envuelve cualquier estrategia y recuerda sus decisiones en una DecisionCache.
+ * La misma caché puede compartirse entre hilos de simulación en paralelo.
+ *
+ * Se guarda el progreso de la ficha elegida y no su id: el hash de la posición no distingue
+ * qué ficha está en cada casilla, así que dos posiciones con las fichas intercambiadas
+ * comparten clave y el id guardado podría señalar una ficha en otro lugar.
+ *
+ * Por defecto la clave usa la forma canónica de la posición (PositionSymmetry), así que una
+ * decisión aprendida para un color sirve también para los giros equivalentes del tablero;
+ * como el progreso es relativo al color, la decisión guardada vale igual después del giro.
+ * Esto supone que la estrategia envuelta decide igual para posiciones giradas, como las
+ * heurísticas del paquete, que miran el tablero relativo al jugador que mueve.
+ */
+public class CachingStrategy implements Strategy {
+    private final Strategy delegate;
+    private final DecisionCache cache;
+    private final boolean rotations;
+
+    public CachingStrategy(Strategy delegate, DecisionCache cache) {
+        this(delegate, cache, true);
+    }
+
+    /** Con `rotations` en false la clave es la posición tal cual, sin canonizar. */
+    public CachingStrategy(Strategy delegate, DecisionCache cache, boolean rotations) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("La estrategia y la caché no pueden ser nulas.");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+        this.rotations = rotations;
+    }
+
+    public Strategy getDelegate() {
+        return delegate;
+    }
+
+    public DecisionCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+        long key = keyFor(game, DecisionCache.FROM_BASE);
+        Piece cached = lookup(game, key, piecesInBase, null);
+        if (cached != null) {
+            return cached;
+        }
+        return remember(game, key, delegate.choosePieceFromBase(game, piecesInBase));
+    }
+
+    @Override
+    public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+        long key = keyFor(game, DecisionCache.ON_SIX);
+        Piece cached = lookup(game, key, piecesInBase, piecesOnBoard);
+        if (cached != null) {
+            return cached;
+        }
+        return remember(game, key, delegate.choosePieceOnSix(game, piecesInBase, piecesOnBoard));
+    }
+
+    @Override
+    public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+        long key = keyFor(game, DecisionCache.TO_MOVE);
+        Piece cached = lookup(game, key, piecesOnBoard, null);
+        if (cached != null) {
+            return cached;
+        }
+        return remember(game, key, delegate.choosePieceToMove(game, piecesOnBoard));
+    }
+
+    private long keyFor(Game game, int kind) {
+        Color color = game.getCurrentPlayer().getColor();
+        if (!rotations) {
+            return DecisionCache.key(PositionHash.of(game), color, game.getLastRoll(), kind);
+        }
+        int rotation = PositionSymmetry.canonicalRotation(game);
+        return DecisionCache.key(PositionSymmetry.hash(game, rotation),
+                PositionSymmetry.toCanonical(color, rotation), game.getLastRoll(), kind);
+    }
+
+    /**
+     * Busca entre los candidatos una ficha con el progreso guardado; null si no hay entrada o
+     * no coincide. Las fichas con el mismo progreso son intercambiables.
+     */
+    private Piece lookup(Game game, long key, List<Piece> first, List<Piece> second) {
+        int stored = cache.get(key);
+        if (stored < 0) {
+            return null;
+        }
+        Piece piece = findByProgress(game, first, stored - 1);
+        return piece != null || second == null ? piece : findByProgress(game, second, stored - 1);
+    }
+
+    private static Piece findByProgress(Game game, List<Piece> pieces, int progress) {
+        for (int i = 0; i < pieces.size(); i++) {
+            if (game.getBoard().getProgress(pieces.get(i)) == progress) {
+                return pieces.get(i);
+            }
+        }
+        return null;
+    }
+
+    private Piece remember(Game game, long key, Piece chosen) {
+        // progreso + 1 para que las fichas en base (-1) no choquen con el -1 de "no está"
+        cache.put(key, game.getBoard().getProgress(chosen) + 1);
+        return chosen;
+    }
+}
@@ -0,0 +1,265 @@
+package bot;
+
+import core.Color;
+import game.PositionHash;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada y concurrente de decisiones, indexada por (hash de posición, color, tirada).
+ * Se divide en fragmentos con su propio cerrojo; cada fragmento usa LRU segmentado:
+ * las entradas nuevas entran a un segmento de prueba y pasan al protegido cuando se
+ * vuelven a consultar, así las posiciones vistas una sola vez no desplazan a las frecuentes.
+ * Las claves y valores se guardan en arreglos primitivos, sin objetos por entrada.
+ */
+public class DecisionCache {
+    /** Tipo de decisión, para no mezclar elecciones de base con movimientos. */
+    public static final int FROM_BASE = 0;
+    public static final int ON_SIX = 1;
+    public static final int TO_MOVE = 2;
+
+    private static final int MISSING = -1;
+
+    private final Shard[] shards;
+    private final int shardShift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DecisionCache(int capacity) {
+        this(capacity, 16);
+    }
+
+    public DecisionCache(int capacity, int shardCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva.");
+        }
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("La cantidad de fragmentos debe ser potencia de dos.");
+        }
+        int perShard = Math.max(1, (capacity + shardCount - 1) / shardCount);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(perShard);
+        }
+        this.shardShift = 64 - Integer.numberOfTrailingZeros(shardCount);
+    }
+
+    /** Combina el hash de la posición con el color, la tirada y el tipo de decisión. */
+    public static long key(long positionHash, Color color, int roll, int kind) {
+        return PositionHash.mix(positionHash + ((long) color.ordinal() << 8 | roll << 2 | kind) * 0x9E3779B97F4A7C15L);
+    }
+
+    /** Devuelve la decisión guardada (un entero no negativo) o -1 si no está. */
+    public int get(long key) {
+        int value = shardFor(key).get(key);
+        if (value == MISSING) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    public void put(long key, int decision) {
+        if (shardFor(key).put(key, decision)) {
+            evictions.increment();
+        }
+    }
+
+    private Shard shardFor(long key) {
+        return shards.length == 1 ? shards[0] : shards[(int) (key >>> shardShift)];
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Proporción de consultas resueltas por la caché (0 si todavía no hubo consultas). */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DecisionCache[tamaño=%d, aciertos=%d, fallos=%d, desalojos=%d, tasa=%.1f%%]",
+                size(), getHits(), getMisses(), getEvictions(), getHitRate() * 100);
+    }
+
+    /**
+     * Fragmento con LRU segmentado. Las entradas viven en arreglos paralelos y se enlazan
+     * en dos listas doblemente enlazadas (prueba y protegida); un índice de direccionamiento
+     * abierto ubica la entrada de cada clave.
+     */
+    private static final class Shard {
+        private static final int PROBATION = 0;
+        private static final int PROTECTED = 1;
+        private static final int NONE = -1;
+
+        private final int capacity;
+        private final int protectedCapacity;
+        private final long[] keys;
+        private final int[] values;
+        private final int[] prev;
+        private final int[] next;
+        private final byte[] segment;
+        private final int[] heads = {NONE, NONE};
+        private final int[] tails = {NONE, NONE};
+        private final int[] sizes = new int[2];
+        // tabla de posiciones: entrada + 1, o 0 si la casilla está libre
+        private final int[] table;
+        private final int mask;
+        private int size;
+
+        Shard(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = Math.max(1, capacity * 4 / 5);
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.prev = new int[capacity];
+            this.next = new int[capacity];
+            this.segment = new byte[capacity];
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            this.table = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int get(long key) {
+            int entry = find(key);
+            if (entry == NONE) {
+                return MISSING;
+            }
+            promote(entry);
+            return values[entry];
+        }
+
+        /** Inserta o actualiza; devuelve true si tuvo que desalojar otra entrada. */
+        synchronized boolean put(long key, int value) {
+            int entry = find(key);
+            if (entry != NONE) {
+                values[entry] = value;
+                promote(entry);
+                return false;
+            }
+            boolean evicted = false;
+            if (size == capacity) {
+                entry = tails[PROBATION] != NONE ? tails[PROBATION] : tails[PROTECTED];
+                unlink(entry);
+                removeFromTable(keys[entry]);
+                evicted = true;
+            } else {
+                entry = size++;
+            }
+            keys[entry] = key;
+            values[entry] = value;
+            insertIntoTable(key, entry);
+            linkFirst(entry, PROBATION);
+            return evicted;
+        }
+
+        private void promote(int entry) {
+            unlink(entry);
+            if (segment[entry] == PROBATION && sizes[PROTECTED] >= protectedCapacity) {
+                // el menos usado de los protegidos vuelve a prueba
+                int demoted = tails[PROTECTED];
+                unlink(demoted);
+                linkFirst(demoted, PROBATION);
+            }
+            linkFirst(entry, PROTECTED);
+        }
+
+        private void linkFirst(int entry, int list) {
+            segment[entry] = (byte) list;
+            prev[entry] = NONE;
+            next[entry] = heads[list];
+            if (heads[list] != NONE) {
+                prev[heads[list]] = entry;
+            } else {
+                tails[list] = entry;
+            }
+            heads[list] = entry;
+            sizes[list]++;
+        }
+
+        private void unlink(int entry) {
+            int list = segment[entry];
+            if (prev[entry] != NONE) {
+                next[prev[entry]] = next[entry];
+            } else {
+                heads[list] = next[entry];
+            }
+            if (next[entry] != NONE) {
+                prev[next[entry]] = prev[entry];
+            } else {
+                tails[list] = prev[entry];
+            }
+            sizes[list]--;
+        }
+
+        private int home(long key) {
+            return (int) (key ^ (key >>> 32)) & mask;
+        }
+
+        private int find(long key) {
+            for (int i = home(key); table[i] != 0; i = (i + 1) & mask) {
+                int entry = table[i] - 1;
+                if (keys[entry] == key) {
+                    return entry;
+                }
+            }
+            return NONE;
+        }
+
+        private void insertIntoTable(long key, int entry) {
+            int i = home(key);
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = entry + 1;
+        }
+
+        /** Borrado con corrimiento hacia atrás para no dejar marcas en el sondeo lineal. */
+        private void removeFromTable(long key) {
+            int i = home(key);
+            while (keys[table[i] - 1] != key) {
+                i = (i + 1) & mask;
+            }
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (table[j] == 0) {
+                    break;
+                }
+                int k = home(keys[table[j] - 1]);
+                boolean stays = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+                if (!stays) {
+                    table[i] = table[j];
+                    i = j;
+                }
+            }
+            table[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package bot;
+
+import board.Board;
+import core.Color;
+import core.Piece;
+import game.Game;
+import game.Strategy;
+
+import java.util.List;
+
+/**
+ * Base de las estrategias por reglas: puntúa cada ficha movible según el progreso
+ * de origen y destino y elige la de mayor puntaje. No reserva memoria por decisión.
+ */
+public abstract class HeuristicStrategy implements Strategy {
+    /** Puntaje de una ficha que con la tirada actual no cambia de casilla. */
+    protected static final int NO_MOVE = Integer.MIN_VALUE / 2;
+
+    @Override
+    public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+        // las fichas en base son equivalentes
+        return piecesInBase.get(0);
+    }
+
+    @Override
+    public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+        if (piecesInBase.isEmpty()) {
+            return choosePieceToMove(game, piecesOnBoard);
+        }
+        return choosePieceFromBase(game, piecesInBase);
+    }
+
+    @Override
+    public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+        Board board = game.getBoard();
+        Color color = game.getCurrentPlayer().getColor();
+        int roll = game.getLastRoll();
+        Piece best = piecesOnBoard.get(0);
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < piecesOnBoard.size(); i++) {
+            Piece piece = piecesOnBoard.get(i);
+            int from = board.getProgress(piece);
+            int to = board.progressAfter(from, roll);
+            int score = to == from ? NO_MOVE : score(board, color, from, to);
+            if (score > bestScore) {
+                bestScore = score;
+                best = piece;
+            }
+        }
+        return best;
+    }
+
+    /** Puntaje de mover una ficha del color desde `from` hasta `to` (ver Board.getProgress). */
+    protected abstract int score(Board board, Color color, int from, int to);
+
+    protected static boolean isCapture(Board board, Color color, int progress) {
+        int index = board.mainPathIndex(color, progress);
+        return index >= 0 && board.canCaptureAt(index) && board.countOpponentsAt(index, color) > 0;
+    }
+
+    /** Las casillas del camino final y las del principal donde las reglas no capturan (seguras). */
+    protected static boolean isSafe(Board board, Color color, int progress) {
+        int index = board.mainPathIndex(color, progress);
+        return index < 0 || !board.canCaptureAt(index);
+    }
+
+    protected static int threatsAt(Board board, Color color, int progress) {
+        int index = board.mainPathIndex(color, progress);
+        return index < 0 ? 0 : board.countThreats(index, color);
+    }
+
+    protected static boolean isFinish(Board board, int progress) {
+        return progress == board.getMainPathSize() + Board.FINAL_PATH_LENGTH - 1;
+    }
+
+    /** Fichas rivales capturables a 1..6 casillas por delante de `progress`. */
+    protected static int targetsAhead(Board board, Color color, int progress) {
+        int index = board.mainPathIndex(color, progress);
+        if (index < 0) {
+            return 0;
+        }
+        int size = board.getMainPathSize();
+        int targets = 0;
+        for (int distance = 1; distance <= 6 && progress + distance < size; distance++) {
+            int ahead = (index + distance) % size;
+            if (board.canCaptureAt(ahead)) {
+                targets += board.countOpponentsAt(ahead, color);
+            }
+        }
+        return targets;
+    }
+}
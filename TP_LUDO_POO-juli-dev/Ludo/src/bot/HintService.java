@@ -0,0 +1,213 @@
+package bot;
+
+import board.Board;
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.Game;
+import game.GameSnapshot;
+import game.GameState;
+import game.Strategy;
+import game.TurnListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sugerencias de jugada para asientos humanos. Apenas empieza un turno calcula en un hilo
+ * de baja prioridad la jugada que haría la estrategia asesora para cada uno de los seis
+ * valores del dado, sobre una copia de la última foto de la partida; al tirar, la
+ * sugerencia ya está lista. Cualquier cambio de estado cancela el cálculo anterior y cada
+ * cálculo tiene un tope de tiempo, pasado el cual las tiradas restantes quedan sin sugerencia.
+ */
+public final class HintService implements TurnListener, AutoCloseable {
+    /** Tope de CPU por turno para calcular las seis sugerencias. */
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+
+    private final Game game;
+    private final Strategy advisor;
+    private final long budgetNanos;
+    private final ExecutorService executor;
+    private Future<?> pending;
+    // resultado del último cálculo; se reemplaza entero, así el hilo de la UI lo lee sin bloquear
+    private volatile Hints latest;
+    // copia privada del hilo de cálculo
+    private SnapshotGame scratch;
+
+    public HintService(Game game, Strategy advisor, long budgetMillis) {
+        if (game == null || advisor == null) {
+            throw new IllegalArgumentException("La partida y la estrategia asesora no pueden ser nulas.");
+        }
+        this.game = game;
+        this.advisor = advisor;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "sugerencias");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        game.addTurnListener(this);
+    }
+
+    @Override
+    public void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+        refresh();
+    }
+
+    /**
+     * Descarta lo calculado y, si le toca a un asiento sin estrategia automática, empieza a
+     * calcular las sugerencias del turno. La llama la partida en cada cambio de estado.
+     */
+    public synchronized void refresh() {
+        latest = null;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        GameSnapshot snapshot = game.getSnapshot();
+        Color current = snapshot.getCurrentColor();
+        if (snapshot.getState() != GameState.IN_PROGRESS || current == null || game.getStrategy(current) != null) {
+            return;
+        }
+        pending = executor.submit(() -> compute(snapshot));
+    }
+
+    /**
+     * Sugerencia para la tirada recién hecha, o null si todavía no está o ya no corresponde
+     * al turno en juego. Se consulta durante playTurn, después de tirar el dado.
+     */
+    public Hint hintFor(int roll) {
+        Hints hints = latest;
+        if (hints == null || roll < 1 || roll > 6) {
+            return null;
+        }
+        Player current = game.getCurrentPlayer();
+        boolean sameTurn = hints.turnNumber + 1 == game.getTurnNumber()
+                && current != null && current.getColor() == hints.color;
+        return sameTurn ? hints.byRoll[roll - 1] : null;
+    }
+
+    @Override
+    public void close() {
+        game.removeTurnListener(this);
+        executor.shutdownNow();
+    }
+
+    private void compute(GameSnapshot snapshot) {
+        long deadline = System.nanoTime() + budgetNanos;
+        Hint[] byRoll = new Hint[6];
+        for (int roll = 1; roll <= 6; roll++) {
+            if (Thread.currentThread().isInterrupted() || System.nanoTime() > deadline) {
+                break;
+            }
+            byRoll[roll - 1] = evaluate(snapshot, roll);
+        }
+        Hints result = new Hints(snapshot.getTurnNumber(), snapshot.getCurrentColor(), byRoll);
+        synchronized (this) {
+            // solo publica si nadie pidió otro cálculo mientras tanto
+            if (!Thread.currentThread().isInterrupted() && game.getSnapshot() == snapshot) {
+                latest = result;
+            }
+        }
+    }
+
+    /** Jugada de la asesora con la tirada dada, con las mismas reglas que Game.executeTurn. */
+    private Hint evaluate(GameSnapshot snapshot, int roll) {
+        SnapshotGame copy = scratchFor(snapshot, roll);
+        Board board = copy.getBoard();
+        Player player = copy.getCurrentPlayer();
+        List<Piece> inBase = board.getPiecesAt(board.getHomeBaseSquares().get(player.getColor()));
+        List<Piece> onBoard = new ArrayList<>();
+        for (Piece piece : player.getPieces()) {
+            if (!piece.isFinished() && !inBase.contains(piece)) {
+                onBoard.add(piece);
+            }
+        }
+        if (roll == 6 && !inBase.isEmpty()) {
+            Piece chosen = advisor.choosePieceFromBase(copy, inBase);
+            return new Hint(roll, chosen.getId(), Board.IN_BASE, 0);
+        }
+        if (copy.getRuleSet().hasBlockades()) {
+            onBoard.removeIf(p -> board.isBlocked(p, roll));
+        }
+        if (onBoard.isEmpty()) {
+            return new Hint(roll, 0, Board.IN_BASE, Board.IN_BASE);
+        }
+        Piece chosen = onBoard.size() == 1 ? onBoard.get(0) : advisor.choosePieceToMove(copy, onBoard);
+        int from = board.getProgress(chosen);
+        return new Hint(roll, chosen.getId(), from, board.progressAfter(from, roll));
+    }
+
+    private SnapshotGame scratchFor(GameSnapshot snapshot, int roll) {
+        if (scratch == null) {
+            scratch = new SnapshotGame(snapshot, advisor, new utils.Dice(), game.getRuleSet());
+        }
+        // la asesora decide después de tirar, cuando playTurn ya contó el turno
+        scratch.load(snapshot, roll, snapshot.getTurnNumber() + 1);
+        return scratch;
+    }
+
+    /** Sugerencias de un turno, por valor del dado. */
+    private static final class Hints {
+        final int turnNumber;
+        final Color color;
+        final Hint[] byRoll;
+
+        Hints(int turnNumber, Color color, Hint[] byRoll) {
+            this.turnNumber = turnNumber;
+            this.color = color;
+            this.byRoll = byRoll;
+        }
+    }
+
+    /** Jugada sugerida para una tirada: la ficha y su progreso antes y después (ver Board.getProgress). */
+    public static final class Hint {
+        private final int roll;
+        private final int pieceId;
+        private final int fromProgress;
+        private final int toProgress;
+
+        Hint(int roll, int pieceId, int fromProgress, int toProgress) {
+            this.roll = roll;
+            this.pieceId = pieceId;
+            this.fromProgress = fromProgress;
+            this.toProgress = toProgress;
+        }
+
+        public int getRoll() {
+            return roll;
+        }
+
+        /** Id de la ficha a jugar, o 0 si con esa tirada no hay jugada. */
+        public int getPieceId() {
+            return pieceId;
+        }
+
+        public int getFromProgress() {
+            return fromProgress;
+        }
+
+        public int getToProgress() {
+            return toProgress;
+        }
+
+        public boolean isFromBase() {
+            return pieceId != 0 && fromProgress == Board.IN_BASE;
+        }
+
+        @Override
+        public String toString() {
+            if (pieceId == 0) {
+                return "sin jugada con " + roll;
+            }
+            if (isFromBase()) {
+                return "sacar la ficha " + pieceId;
+            }
+            return "mover la ficha " + pieceId;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package bot;
+
+import core.Piece;
+import game.Game;
+import game.Strategy;
+
+import java.util.List;
+
+/**
+ * Estrategia entrenada por autojuego (SelfPlayTrainer): mueve la ficha que deja la
+ * posición con mayor valor según la función lineal. Cada decisión evalúa a lo sumo una
+ * posición por ficha movible, sin reservar memoria. Una instancia por hilo.
+ */
+public class LearnedStrategy implements Strategy {
+    private final double[] weights;
+    private final PositionFeatures features = new PositionFeatures();
+    private final double[] scratch = new double[PositionFeatures.COUNT];
+
+    public LearnedStrategy() {
+        this(ValueFunction.loadDefault());
+    }
+
+    public LearnedStrategy(ValueFunction value) {
+        this(value.getWeights());
+    }
+
+    /** Usa el arreglo tal cual, así el entrenador ve sus propias actualizaciones. */
+    LearnedStrategy(double[] weights) {
+        this.weights = weights;
+    }
+
+    @Override
+    public String getName() {
+        return Strategies.LEARNED;
+    }
+
+    @Override
+    public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+        // las fichas en base son equivalentes
+        return piecesInBase.get(0);
+    }
+
+    @Override
+    public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+        if (piecesInBase.isEmpty()) {
+            return choosePieceToMove(game, piecesOnBoard);
+        }
+        return choosePieceFromBase(game, piecesInBase);
+    }
+
+    @Override
+    public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+        if (piecesOnBoard.size() == 1) {
+            return piecesOnBoard.get(0);
+        }
+        features.load(game);
+        int viewer = game.getPlayers().indexOf(game.getCurrentPlayer());
+        int roll = game.getLastRoll();
+        Piece best = piecesOnBoard.get(0);
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < piecesOnBoard.size(); i++) {
+            Piece piece = piecesOnBoard.get(i);
+            int slot = features.slotOf(piece);
+            int from = features.progressOf(slot);
+            int to = game.getBoard().progressAfter(from, roll);
+            // una ficha que no puede moverse vale menos que cualquier jugada real
+            double value = -1.0;
+            if (to != from) {
+                features.extractAfterMove(viewer, slot, to, scratch);
+                value = ValueFunction.value(weights, scratch);
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                best = piece;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,158 @@
+package bot;
+
+import board.Board;
+import core.Piece;
+import core.Player;
+import game.Game;
+
+import java.util.List;
+
+/**
+ * Rasgos de una posición vista desde un jugador, para la función de valor lineal de
+ * LearnedStrategy: por cada lado (el jugador y el conjunto de rivales) la fracción de
+ * fichas en base, en casillas seguras, amenazadas, en el camino final y en la meta, y el
+ * avance medio. Trabaja sobre una copia de los progresos en arreglos reutilizables, así que
+ * evaluar una jugada no toca el tablero ni reserva memoria. No es seguro entre hilos.
+ */
+public final class PositionFeatures {
+    public static final int BIAS = 0;
+    public static final int PROGRESS = 1;
+    public static final int IN_BASE = 2;
+    public static final int SAFE = 3;
+    public static final int AT_RISK = 4;
+    public static final int FINAL_PATH = 5;
+    public static final int FINISHED = 6;
+    /** Desplazamiento de los rasgos de los rivales respecto de los propios. */
+    public static final int OPPONENTS = 6;
+    public static final int COUNT = 13;
+
+    private Board board;
+    private int mainPathSize;
+    private int finish;
+    private int slots;
+    private Piece[] pieces = new Piece[16];
+    private int[] seat = new int[16];
+    private int[] progress = new int[16];
+    // progresos tras aplicar una jugada candidata
+    private int[] work = new int[16];
+
+    /** Copia la posición actual de la partida. */
+    public void load(Game game) {
+        board = game.getBoard();
+        mainPathSize = board.getMainPathSize();
+        finish = mainPathSize + Board.FINAL_PATH_LENGTH - 1;
+        List<Player> players = game.getPlayers();
+        int total = 0;
+        for (int k = 0; k < players.size(); k++) {
+            total += players.get(k).getPieceCount();
+        }
+        if (pieces.length < total) {
+            pieces = new Piece[total];
+            seat = new int[total];
+            progress = new int[total];
+            work = new int[total];
+        }
+        slots = 0;
+        for (int k = 0; k < players.size(); k++) {
+            Player player = players.get(k);
+            for (int i = 0; i < player.getPieceCount(); i++) {
+                Piece piece = player.getPiece(i);
+                pieces[slots] = piece;
+                seat[slots] = k;
+                progress[slots] = board.getProgress(piece);
+                slots++;
+            }
+        }
+    }
+
+    /** Posición de la ficha en los arreglos de la posición cargada, o -1 si no está. */
+    public int slotOf(Piece piece) {
+        for (int s = 0; s < slots; s++) {
+            if (pieces[s] == piece) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    public int progressOf(int slot) {
+        return progress[slot];
+    }
+
+    /** Rasgos de la posición cargada para el jugador del asiento dado. */
+    public void extract(int viewer, double[] out) {
+        System.arraycopy(progress, 0, work, 0, slots);
+        fill(viewer, out);
+    }
+
+    /**
+     * Rasgos para el jugador del asiento dado si la ficha del slot pasa a `to`, con las
+     * capturas que eso produciría. La posición cargada no cambia.
+     */
+    public void extractAfterMove(int viewer, int slot, int to, double[] out) {
+        System.arraycopy(progress, 0, work, 0, slots);
+        work[slot] = to;
+        int index = board.mainPathIndex(pieces[slot].getColor(), to);
+        if (index >= 0 && board.canCaptureAt(index)) {
+            for (int s = 0; s < slots; s++) {
+                if (seat[s] != seat[slot] && board.mainPathIndex(pieces[s].getColor(), work[s]) == index) {
+                    work[s] = Board.IN_BASE;
+                }
+            }
+        }
+        fill(viewer, out);
+    }
+
+    private void fill(int viewer, double[] out) {
+        java.util.Arrays.fill(out, 0, COUNT, 0.0);
+        out[BIAS] = 1.0;
+        int own = 0;
+        int others = 0;
+        for (int s = 0; s < slots; s++) {
+            int offset = seat[s] == viewer ? 0 : OPPONENTS;
+            if (offset == 0) {
+                own++;
+            } else {
+                others++;
+            }
+            int p = work[s];
+            if (p == Board.IN_BASE) {
+                out[offset + IN_BASE]++;
+                continue;
+            }
+            out[offset + PROGRESS] += (double) p / finish;
+            if (p == finish) {
+                out[offset + FINISHED]++;
+            } else if (p >= mainPathSize) {
+                out[offset + FINAL_PATH]++;
+            } else {
+                int index = board.mainPathIndex(pieces[s].getColor(), p);
+                if (!board.canCaptureAt(index)) {
+                    out[offset + SAFE]++;
+                } else if (isThreatened(s, index)) {
+                    out[offset + AT_RISK]++;
+                }
+            }
+        }
+        for (int f = PROGRESS; f <= FINISHED; f++) {
+            out[f] /= Math.max(own, 1);
+            out[OPPONENTS + f] /= Math.max(others, 1);
+        }
+    }
+
+    /** Igual que Board.countThreats > 0, pero sobre los progresos de trabajo. */
+    private boolean isThreatened(int slot, int index) {
+        for (int s = 0; s < slots; s++) {
+            int p = work[s];
+            if (seat[s] == seat[slot] || p < 0 || p >= mainPathSize) {
+                continue;
+            }
+            int at = board.mainPathIndex(pieces[s].getColor(), p);
+            int distance = (index - at + mainPathSize) % mainPathSize;
+            if (distance >= 1 && distance <= 6 && p + distance < mainPathSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package bot;
+
+import board.Board;
+import core.Piece;
+import game.Game;
+import game.Strategy;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Elige al azar entre las fichas que pueden moverse con la tirada actual.
+ */
+public class RandomStrategy implements Strategy {
+    private final SplittableRandom random;
+
+    public RandomStrategy() {
+        this.random = new SplittableRandom();
+    }
+
+    public RandomStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public String getName() {
+        return Strategies.RANDOM;
+    }
+
+    @Override
+    public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+        return piecesInBase.get(random.nextInt(piecesInBase.size()));
+    }
+
+    @Override
+    public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+        if (piecesInBase.isEmpty() || (!piecesOnBoard.isEmpty() && random.nextBoolean())) {
+            return choosePieceToMove(game, piecesOnBoard);
+        }
+        return choosePieceFromBase(game, piecesInBase);
+    }
+
+    @Override
+    public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+        Board board = game.getBoard();
+        int roll = game.getLastRoll();
+        int movable = 0;
+        for (int i = 0; i < piecesOnBoard.size(); i++) {
+            int from = board.getProgress(piecesOnBoard.get(i));
+            if (board.progressAfter(from, roll) != from) {
+                movable++;
+            }
+        }
+        if (movable == 0) {
+            return piecesOnBoard.get(0);
+        }
+        int pick = random.nextInt(movable);
+        for (int i = 0; i < piecesOnBoard.size(); i++) {
+            Piece piece = piecesOnBoard.get(i);
+            int from = board.getProgress(piece);
+            if (board.progressAfter(from, roll) != from && pick-- == 0) {
+                return piece;
+            }
+        }
+        return piecesOnBoard.get(0);
+    }
+}
@@ -0,0 +1,19 @@
+package bot;
+
+import board.Board;
+import core.Color;
+
+/**
+ * Avanza siempre la ficha más adelantada que pueda moverse.
+ */
+public class RunnerStrategy extends HeuristicStrategy {
+    @Override
+    public String getName() {
+        return Strategies.RUNNER;
+    }
+
+    @Override
+    protected int score(Board board, Color color, int from, int to) {
+        return from;
+    }
+}
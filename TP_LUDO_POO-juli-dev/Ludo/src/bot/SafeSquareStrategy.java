@@ -0,0 +1,20 @@
+package bot;
+
+import board.Board;
+import core.Color;
+
+/**
+ * Prioriza sacar fichas de casillas amenazadas y dejarlas en casillas seguras.
+ */
+public class SafeSquareStrategy extends HeuristicStrategy {
+    @Override
+    public String getName() {
+        return Strategies.SAFE;
+    }
+
+    @Override
+    protected int score(Board board, Color color, int from, int to) {
+        int escaped = threatsAt(board, color, from) - threatsAt(board, color, to);
+        return escaped * 1_000 + (isSafe(board, color, to) ? 500 : 0) + to;
+    }
+}
@@ -0,0 +1,237 @@
+package bot;
+
+import board.RuleSet;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameState;
+import sim.Simulation;
+import utils.Dice;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrena la función de valor de LearnedStrategy con TD(λ) por autojuego: los cuatro
+ * asientos juegan con los mismos pesos y cada uno aprende de la secuencia de posiciones
+ * que deja tras sus jugadas, con recompensa 1 si gana y 0 si no. Cada hilo juega con una
+ * copia local de los pesos y cada `mergeEvery` partidas suma sus cambios a los pesos
+ * compartidos y vuelve a copiarlos.
+ */
+public class SelfPlayTrainer {
+    private final int playerCount;
+    private final int piecesPerPlayer;
+    private final int mainPathSize;
+    private final RuleSet ruleSet;
+    private final double alpha;
+    private final double lambda;
+    private final int mergeEvery;
+    private final double[] shared;
+
+    public SelfPlayTrainer(ValueFunction initial, int playerCount, int piecesPerPlayer, int mainPathSize,
+                           RuleSet ruleSet, double alpha, double lambda, int mergeEvery) {
+        if (playerCount < 2 || playerCount > Color.values().length) {
+            throw new IllegalArgumentException("La cantidad de jugadores debe estar entre 2 y " + Color.values().length + ".");
+        }
+        if (lambda < 0 || lambda > 1) {
+            throw new IllegalArgumentException("lambda debe estar entre 0 y 1.");
+        }
+        this.playerCount = playerCount;
+        this.piecesPerPlayer = piecesPerPlayer;
+        this.mainPathSize = mainPathSize;
+        this.ruleSet = ruleSet;
+        this.alpha = alpha;
+        this.lambda = lambda;
+        this.mergeEvery = Math.max(1, mergeEvery);
+        this.shared = initial.getWeights();
+    }
+
+    /** Pesos compartidos al momento de la llamada. */
+    public synchronized ValueFunction current() {
+        return new ValueFunction(shared);
+    }
+
+    /** Juega `games` partidas de entrenamiento con semillas desde firstSeed en `threads` hilos. */
+    public void train(long firstSeed, long games, int threads) throws InterruptedException {
+        AtomicLong next = new AtomicLong();
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> new Worker().run(firstSeed, games, next), "entrenamiento-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private synchronized void merge(double[] delta, double[] local) {
+        for (int i = 0; i < shared.length; i++) {
+            shared[i] += delta[i];
+            delta[i] = 0;
+        }
+        System.arraycopy(shared, 0, local, 0, shared.length);
+    }
+
+    private List<Player> newPlayers() {
+        List<Player> players = new ArrayList<>(playerCount);
+        Color[] colors = Color.values();
+        for (int i = 0; i < playerCount; i++) {
+            Player p = new Player("Bot" + (i + 1), colors[i]);
+            p.initializePieces(piecesPerPlayer);
+            players.add(p);
+        }
+        return players;
+    }
+
+    /** Estado de un hilo: pesos locales, cambios pendientes y trazas por asiento. */
+    private final class Worker {
+        private final double[] local;
+        private final double[] delta = new double[PositionFeatures.COUNT];
+        private final double[][] traces = new double[playerCount][PositionFeatures.COUNT];
+        private final double[] previous = new double[playerCount];
+        private final boolean[] started = new boolean[playerCount];
+        private final double[] phi = new double[PositionFeatures.COUNT];
+        private final PositionFeatures features = new PositionFeatures();
+        private final LearnedStrategy strategy;
+
+        Worker() {
+            synchronized (SelfPlayTrainer.this) {
+                local = shared.clone();
+            }
+            strategy = new LearnedStrategy(local);
+        }
+
+        void run(long firstSeed, long games, AtomicLong next) {
+            int played = 0;
+            long i;
+            while ((i = next.getAndIncrement()) < games) {
+                playGame(firstSeed + i);
+                if (++played % mergeEvery == 0) {
+                    merge(delta, local);
+                }
+            }
+            merge(delta, local);
+        }
+
+        private void playGame(long seed) {
+            Game game = new BotGame(newPlayers(), mainPathSize, strategy, new Dice(seed), ruleSet);
+            game.setVerbose(false);
+            game.startGame();
+            List<Player> players = game.getPlayers();
+            for (int s = 0; s < playerCount; s++) {
+                java.util.Arrays.fill(traces[s], 0);
+                started[s] = false;
+            }
+            while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+                int mover = players.indexOf(game.getCurrentPlayer());
+                game.playTurn();
+                features.load(game);
+                features.extract(mover, phi);
+                double v = ValueFunction.value(local, phi);
+                if (started[mover]) {
+                    update(mover, v - previous[mover]);
+                }
+                decay(mover, v);
+                previous[mover] = v;
+                started[mover] = true;
+            }
+            Player winner = game.getWinner();
+            for (int s = 0; s < playerCount; s++) {
+                if (started[s]) {
+                    double reward = players.get(s) == winner ? 1.0 : 0.0;
+                    update(s, reward - previous[s]);
+                }
+            }
+        }
+
+        /** w += α·δ·e, aplicado a la copia local y acumulado para la mezcla. */
+        private void update(int seat, double error) {
+            double[] trace = traces[seat];
+            for (int f = 0; f < PositionFeatures.COUNT; f++) {
+                double change = alpha * error * trace[f];
+                local[f] += change;
+                delta[f] += change;
+            }
+        }
+
+        /** e = λ·e + ∇V, con ∇V = v(1-v)·rasgos por la sigmoide. */
+        private void decay(int seat, double v) {
+            double[] trace = traces[seat];
+            double gradient = v * (1 - v);
+            for (int f = 0; f < PositionFeatures.COUNT; f++) {
+                trace[f] = lambda * trace[f] + gradient * phi[f];
+            }
+        }
+    }
+
+    /**
+     * Porcentaje de victorias de `learned` jugando como el primer color contra
+     * `opponent` en los demás asientos.
+     */
+    public double evaluate(ValueFunction learned, String opponent, long firstSeed, int games) {
+        int wins = 0;
+        for (int i = 0; i < games; i++) {
+            Game game = new BotGame(newPlayers(), mainPathSize, Strategies.create(opponent),
+                    new Dice(firstSeed + i), ruleSet);
+            game.setStrategy(Color.values()[0], new LearnedStrategy(learned));
+            game.setVerbose(false);
+            game.startGame();
+            while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+                game.playTurn();
+            }
+            Player winner = game.getWinner();
+            if (winner != null && winner.getColor() == Color.values()[0]) {
+                wins++;
+            }
+        }
+        return 100.0 * wins / games;
+    }
+
+    /**
+     * Uso: SelfPlayTrainer <partidas> [--hilos n] [--entrada archivo] [--salida archivo]
+     *                      [--alfa a] [--lambda l] [--mezcla partidas] [--reglas <regla,..>]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 20_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path input = null;
+        Path output = ValueFunction.DEFAULT_FILE;
+        double alpha = 0.05;
+        double lambda = 0.7;
+        int mergeEvery = 50;
+        RuleSet rules = RuleSet.standard();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hilos" -> threads = Integer.parseInt(args[++i]);
+                case "--entrada" -> input = Path.of(args[++i]);
+                case "--salida" -> output = Path.of(args[++i]);
+                case "--alfa" -> alpha = Double.parseDouble(args[++i]);
+                case "--lambda" -> lambda = Double.parseDouble(args[++i]);
+                case "--mezcla" -> mergeEvery = Integer.parseInt(args[++i]);
+                case "--reglas" -> rules = RuleSet.parse(args[++i]);
+                default -> { }
+            }
+        }
+
+        ValueFunction initial = input != null ? ValueFunction.load(input) : ValueFunction.prior();
+        SelfPlayTrainer trainer = new SelfPlayTrainer(initial, 4, 4, 56, rules, alpha, lambda, mergeEvery);
+        System.out.printf("Antes: %.1f%% de victorias contra %s%n",
+                trainer.evaluate(initial, Strategies.BALANCED, 1_000_000, 2000), Strategies.BALANCED);
+
+        long start = System.nanoTime();
+        trainer.train(1, games, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        ValueFunction trained = trainer.current();
+        trained.write(output);
+
+        System.out.printf("%d partidas de autojuego en %.1f s con %d hilos (%.0f partidas/s)%n",
+                games, seconds, threads, games / seconds);
+        System.out.printf("Después: %.1f%% de victorias contra %s%n",
+                trainer.evaluate(trained, Strategies.BALANCED, 1_000_000, 2000), Strategies.BALANCED);
+        System.out.println("Pesos en " + output + ": " + trained);
+    }
+}
@@ -0,0 +1,64 @@
+package bot;
+
+import board.RuleSet;
+import core.Player;
+import game.GameSnapshot;
+import game.GameState;
+import game.Strategy;
+import utils.Dice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partida sin interfaz que se pone en la posición de una foto (GameSnapshot) para que una
+ * estrategia decida o juegue continuaciones desde ahí. Se reutiliza entre fotos de partidas
+ * con los mismos jugadores, en cualquier orden: cada carga repone fichas, rendiciones y orden
+ * de llegada. La usa un solo hilo.
+ */
+public final class SnapshotGame extends BotGame {
+    public SnapshotGame(GameSnapshot snapshot, Strategy strategy, Dice dice, RuleSet ruleSet) {
+        this(copyPlayers(snapshot), snapshot.getMainPathSize(), strategy, dice, ruleSet);
+    }
+
+    /** `players` deben tener los mismos colores y fichas, en el mismo orden, que las fotos a cargar. */
+    public SnapshotGame(List<Player> players, int mainPathSize, Strategy strategy, Dice dice, RuleSet ruleSet) {
+        super(players, mainPathSize, strategy, dice, ruleSet);
+        setVerbose(false);
+    }
+
+    /** Jugadores nuevos con los nombres, colores y cantidad de fichas de la foto. */
+    public static List<Player> copyPlayers(GameSnapshot snapshot) {
+        List<Player> players = new ArrayList<>(snapshot.getPlayerCount());
+        for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot view = snapshot.getPlayer(i);
+            Player copy = new Player(view.getName(), view.getColor());
+            copy.initializePieces(view.getPieceCount());
+            players.add(copy);
+        }
+        return players;
+    }
+
+    /**
+     * Vuelve a la posición de la foto con el jugador en turno y `roll` como última tirada.
+     * Para jugar desde ahí con playTurn va el turno de la foto; para consultar a una estrategia
+     * como si ya hubiera tirado, el siguiente (playTurn cuenta el turno antes de elegir).
+     */
+    public void load(GameSnapshot snapshot, int roll, int turnNumber) {
+        for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot view = snapshot.getPlayer(i);
+            Player player = getPlayers().get(i);
+            if (view.isResigned() && !player.isRendido()) {
+                player.rendirse();
+            } else if (!view.isResigned() && player.isRendido()) {
+                // la foto es de antes de que se rindiera
+                player.cancelarRendicion();
+            }
+            for (int j = 0; j < view.getPieceCount(); j++) {
+                getBoard().placeAt(player.getPiece(j), view.getProgress(j));
+            }
+        }
+        restoreFinishOrder(snapshot.getFinishOrder());
+        applyTurnState(snapshot.getCurrentColor(), roll, GameState.IN_PROGRESS, turnNumber);
+    }
+}
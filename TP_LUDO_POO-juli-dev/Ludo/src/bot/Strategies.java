@@ -0,0 +1,51 @@
+package bot;
+
+import game.Strategy;
+
+/**
+ * Catálogo de estrategias automáticas elegibles por asiento en la configuración.
+ */
+public final class Strategies {
+    public static final String HUMAN = "Humano";
+    public static final String RANDOM = "Aleatorio";
+    public static final String AGGRESSIVE = "Agresivo";
+    public static final String SAFE = "Buscador de seguras";
+    public static final String RUNNER = "Corredor";
+    public static final String BALANCED = "Equilibrado";
+    public static final String LEARNED = "Aprendido";
+    public static final String TABLEBASE = "Tabla de finales";
+
+    private static final String[] NAMES = {RANDOM, AGGRESSIVE, SAFE, RUNNER, BALANCED, LEARNED, TABLEBASE};
+
+    private Strategies() {
+    }
+
+    /** Nombres de las estrategias disponibles (sin incluir HUMAN). */
+    public static String[] names() {
+        return NAMES.clone();
+    }
+
+    /** Crea la estrategia por nombre; devuelve null para HUMAN. */
+    public static Strategy create(String name) {
+        switch (name) {
+            case HUMAN:
+                return null;
+            case RANDOM:
+                return new RandomStrategy();
+            case AGGRESSIVE:
+                return new AggressiveStrategy();
+            case SAFE:
+                return new SafeSquareStrategy();
+            case RUNNER:
+                return new RunnerStrategy();
+            case BALANCED:
+                return new BalancedStrategy();
+            case LEARNED:
+                return new LearnedStrategy();
+            case TABLEBASE:
+                return new TablebaseStrategy();
+            default:
+                throw new IllegalArgumentException("Estrategia desconocida: " + name);
+        }
+    }
+}
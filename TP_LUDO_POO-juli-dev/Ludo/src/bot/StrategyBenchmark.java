@@ -0,0 +1,62 @@
+package bot;
+
+import board.Board;
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.GameState;
+import game.Strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mide el tiempo medio por decisión de cada estrategia sobre posiciones de media partida.
+ * Uso: StrategyBenchmark [decisiones]
+ */
+public class StrategyBenchmark {
+    public static void main(String[] args) {
+        int decisions = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        for (String name : Strategies.names()) {
+            Strategy strategy = Strategies.create(name);
+            BotGame game = midGame();
+            List<Piece> onBoard = new ArrayList<>();
+            for (Piece piece : game.getCurrentPlayer().getPieces()) {
+                if (!piece.isFinished() && game.getBoard().getProgress(piece) != Board.IN_BASE) {
+                    onBoard.add(piece);
+                }
+            }
+            if (onBoard.isEmpty()) {
+                continue;
+            }
+            // calentamiento para que el JIT compile la estrategia
+            long sink = 0;
+            for (int i = 0; i < decisions / 10; i++) {
+                sink += strategy.choosePieceToMove(game, onBoard).getId();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < decisions; i++) {
+                sink += strategy.choosePieceToMove(game, onBoard).getId();
+            }
+            double ns = (System.nanoTime() - start) / (double) decisions;
+            System.out.printf("%-22s %8.1f ns/decisión (%d fichas, control %d)%n", name, ns, onBoard.size(), sink % 10);
+        }
+    }
+
+    /** Juega una partida silenciosa hasta que el jugador actual tenga varias fichas en el tablero. */
+    private static BotGame midGame() {
+        List<Player> players = new ArrayList<>();
+        for (Color color : Color.values()) {
+            Player p = new Player(color.name(), color);
+            p.initializePieces(4);
+            players.add(p);
+        }
+        BotGame game = new BotGame(players, 56, new RunnerStrategy());
+        game.setVerbose(false);
+        game.startGame();
+        while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < 150) {
+            game.playTurn();
+        }
+        return game;
+    }
+}
@@ -0,0 +1,154 @@
+package bot;
+
+import board.Board;
+import board.RuleSet;
+import core.Piece;
+import core.Player;
+import game.Game;
+import game.Strategy;
+import tablebase.Tablebase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Juega los finales de dos jugadores con la tabla exacta (Tablebase): cuando después de mover
+ * todas las fichas quedan dentro de la ventana de la tabla, elige la jugada que deja al rival
+ * con menor probabilidad de ganar. Fuera de la ventana, o si no hay tabla, decide Equilibrado.
+ * La tabla se lee mapeada en memoria y la comparten todas las instancias; una instancia por hilo.
+ */
+public class TablebaseStrategy implements Strategy {
+    /** Tabla que usa la estrategia si existe en el directorio actual (ver TablebaseGenerator). */
+    public static final Path DEFAULT_FILE = Path.of("finales.tabla");
+
+    private static volatile Tablebase defaultTable;
+    private static volatile boolean defaultLoaded;
+
+    private final Tablebase table;
+    private final Strategy fallback;
+    private int[] mover = new int[0];
+    private int[] waiting = new int[0];
+
+    public TablebaseStrategy() {
+        this(loadDefault(), new BalancedStrategy());
+    }
+
+    /** `table` puede ser null: entonces decide siempre `fallback`. */
+    public TablebaseStrategy(Tablebase table, Strategy fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("La estrategia de respaldo no puede ser nula.");
+        }
+        this.table = table;
+        this.fallback = fallback;
+    }
+
+    /** Tabla de DEFAULT_FILE, o null si no hay archivo; se abre una sola vez y queda abierta. */
+    public static Tablebase loadDefault() {
+        if (!defaultLoaded) {
+            synchronized (TablebaseStrategy.class) {
+                if (!defaultLoaded) {
+                    try {
+                        defaultTable = Files.exists(DEFAULT_FILE) ? Tablebase.open(DEFAULT_FILE) : null;
+                    } catch (IOException e) {
+                        System.err.println("No se pudo abrir la tabla de finales " + DEFAULT_FILE + ": " + e.getMessage());
+                    }
+                    defaultLoaded = true;
+                }
+            }
+        }
+        return defaultTable;
+    }
+
+    @Override
+    public String getName() {
+        return Strategies.TABLEBASE;
+    }
+
+    @Override
+    public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+        // con fichas en base la posición nunca está en la tabla
+        return fallback.choosePieceFromBase(game, piecesInBase);
+    }
+
+    @Override
+    public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+        if (piecesInBase.isEmpty()) {
+            return choosePieceToMove(game, piecesOnBoard);
+        }
+        return fallback.choosePieceOnSix(game, piecesInBase, piecesOnBoard);
+    }
+
+    @Override
+    public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+        Piece best = bestByTable(game, piecesOnBoard);
+        return best != null ? best : fallback.choosePieceToMove(game, piecesOnBoard);
+    }
+
+    /** Jugada con mayor probabilidad de ganar según la tabla, o null si alguna no está cubierta. */
+    private Piece bestByTable(Game game, List<Piece> piecesOnBoard) {
+        // la tabla supone turnos alternados sin tirada extra y meta exacta
+        RuleSet rules = game.getRuleSet();
+        if (table == null || game.getPlayers().size() != 2 || rules.isExtraRollOnSix() || !rules.isExactFinish()
+                || game.getBoard().getMainPathSize() != table.getIndex().getMainPathSize()) {
+            return null;
+        }
+        Player me = game.getCurrentPlayer();
+        Player other = game.getPlayers().get(0) == me ? game.getPlayers().get(1) : game.getPlayers().get(0);
+        if (me.getPieceCount() != table.getIndex().getPieces() || other.getPieceCount() != me.getPieceCount()) {
+            return null;
+        }
+        Board board = game.getBoard();
+        if (mover.length != me.getPieceCount()) {
+            mover = new int[me.getPieceCount()];
+            waiting = new int[me.getPieceCount()];
+        }
+        for (int i = 0; i < mover.length; i++) {
+            mover[i] = board.getProgress(me.getPiece(i));
+            waiting[i] = board.getProgress(other.getPiece(i));
+        }
+        int finish = board.getMainPathSize() + Board.FINAL_PATH_LENGTH - 1;
+        int roll = game.getLastRoll();
+        Piece best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < piecesOnBoard.size(); i++) {
+            Piece piece = piecesOnBoard.get(i);
+            int slot = slotOf(me, piece);
+            int from = mover[slot];
+            int to = board.progressAfter(from, roll);
+            if (to == from) {
+                continue;
+            }
+            mover[slot] = to;
+            double value = allAt(mover, finish) ? 1.0 : 1.0 - table.winProbability(waiting, mover);
+            mover[slot] = from;
+            if (Double.isNaN(value)) {
+                return null;
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                best = piece;
+            }
+        }
+        return best;
+    }
+
+    private static int slotOf(Player player, Piece piece) {
+        for (int i = 0; i < player.getPieceCount(); i++) {
+            if (player.getPiece(i) == piece) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("La ficha no es del jugador que mueve.");
+    }
+
+    private static boolean allAt(int[] progress, int target) {
+        for (int p : progress) {
+            if (p != target) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package bot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Función de valor lineal sobre PositionFeatures: probabilidad estimada de ganar del
+ * jugador, sigmoide(w · rasgos). Los pesos se guardan en un archivo chico (cabecera de
+ * 12 bytes y un float por rasgo).
+ */
+public final class ValueFunction {
+    static final long MAGIC = 0x4C55444F54443031L; // "LUDOTD01"
+    private static final int HEADER_BYTES = 8 + 4;
+    /** Archivo de pesos que usa la estrategia Aprendido si existe en el directorio actual. */
+    public static final Path DEFAULT_FILE = Path.of("aprendido.pesos");
+
+    private static volatile ValueFunction defaultWeights;
+
+    private final double[] weights;
+
+    public ValueFunction(double[] weights) {
+        if (weights.length != PositionFeatures.COUNT) {
+            throw new IllegalArgumentException("Se esperaban " + PositionFeatures.COUNT + " pesos, hay " + weights.length);
+        }
+        this.weights = weights.clone();
+    }
+
+    /** Pesos iniciales a mano: avanzar y proteger las fichas propias, lo contrario para las rivales. */
+    public static ValueFunction prior() {
+        double[] w = new double[PositionFeatures.COUNT];
+        w[PositionFeatures.PROGRESS] = 3.0;
+        w[PositionFeatures.IN_BASE] = -0.5;
+        w[PositionFeatures.SAFE] = 0.3;
+        w[PositionFeatures.AT_RISK] = -0.5;
+        w[PositionFeatures.FINAL_PATH] = 0.5;
+        w[PositionFeatures.FINISHED] = 0.5;
+        for (int f = PositionFeatures.PROGRESS; f <= PositionFeatures.FINISHED; f++) {
+            w[PositionFeatures.OPPONENTS + f] = -w[f];
+        }
+        w[PositionFeatures.BIAS] = -1.0;
+        return new ValueFunction(w);
+    }
+
+    /** Pesos de DEFAULT_FILE, o los iniciales si no hay archivo; se leen una sola vez. */
+    public static ValueFunction loadDefault() {
+        ValueFunction value = defaultWeights;
+        if (value == null) {
+            synchronized (ValueFunction.class) {
+                value = defaultWeights;
+                if (value == null) {
+                    try {
+                        value = Files.exists(DEFAULT_FILE) ? load(DEFAULT_FILE) : prior();
+                    } catch (IOException e) {
+                        System.err.println("No se pudieron leer los pesos de " + DEFAULT_FILE + ": " + e.getMessage());
+                        value = prior();
+                    }
+                    defaultWeights = value;
+                }
+            }
+        }
+        return value;
+    }
+
+    public static ValueFunction load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 1 << 16)).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(buffer, 0);
+            buffer.flip();
+            if (buffer.remaining() < HEADER_BYTES || buffer.getLong() != MAGIC) {
+                throw new IOException("El archivo no es de pesos: " + file);
+            }
+            int count = buffer.getInt();
+            if (count != PositionFeatures.COUNT || buffer.remaining() != count * 4) {
+                throw new IOException("Cantidad de pesos inconsistente en " + file);
+            }
+            double[] w = new double[count];
+            for (int i = 0; i < count; i++) {
+                w[i] = buffer.getFloat();
+            }
+            return new ValueFunction(w);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + weights.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(MAGIC).putInt(weights.length);
+        for (double w : weights) {
+            buffer.putFloat((float) w);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(buffer, 0);
+        }
+    }
+
+    /** Copia de los pesos. */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    public double value(double[] features) {
+        return value(weights, features);
+    }
+
+    /** Sigmoide del producto escalar; lo comparten la estrategia y el entrenador. */
+    static double value(double[] weights, double[] features) {
+        double sum = 0;
+        for (int i = 0; i < PositionFeatures.COUNT; i++) {
+            sum += weights[i] * features[i];
+        }
+        return 1.0 / (1.0 + Math.exp(-sum));
+    }
+
+    @Override
+    public String toString() {
+        return java.util.Arrays.toString(weights);
+    }
+}
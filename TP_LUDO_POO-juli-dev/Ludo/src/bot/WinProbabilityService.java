@@ -0,0 +1,223 @@
+package bot;
+
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameSnapshot;
+import game.GameState;
+import game.TurnListener;
+import sim.Simulation;
+import utils.Dice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Probabilidad de ganar de cada jugador, estimada jugando partidas al azar desde la última
+ * foto de la partida en hilos de baja prioridad. La estimación se va afinando mientras
+ * siguen las simulaciones y se publica como un objeto inmutable que la interfaz lee cuando
+ * quiere, sin bloquear. Cada cambio de estado cancela las simulaciones en curso y empieza
+ * otras; la estimación anterior se sigue mostrando hasta que la nueva tiene MIN_PLAYOUTS.
+ */
+public final class WinProbabilityService implements TurnListener, AutoCloseable {
+    /** Simulaciones a partir de las cuales se reemplaza la estimación anterior. */
+    public static final int MIN_PLAYOUTS = 100;
+    /** Tope por posición; con eso el error ya es menor a un punto y no vale la pena seguir. */
+    public static final int MAX_PLAYOUTS = 20_000;
+    private static final int BATCH = 16;
+
+    private final Game game;
+    private final String strategyName;
+    private final int threads;
+    private final ExecutorService executor;
+    private final List<Future<?>> pending = new ArrayList<>();
+    private Round round;
+    private volatile Estimate latest;
+
+    public WinProbabilityService(Game game, String strategyName, int threads) {
+        if (game == null || threads <= 0) {
+            throw new IllegalArgumentException("Se necesita una partida y al menos un hilo.");
+        }
+        Strategies.create(strategyName); // valida el nombre antes de arrancar
+        this.game = game;
+        this.strategyName = strategyName;
+        this.threads = threads;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "probabilidad-" + count.getAndIncrement());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        game.addTurnListener(this);
+        refresh();
+    }
+
+    @Override
+    public void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+        refresh();
+    }
+
+    /**
+     * Si la foto de la partida cambió, cancela las simulaciones y empieza otras desde la
+     * nueva. Es barata si no hubo cambios, así que se puede llamar en cada refresco.
+     */
+    public synchronized void refresh() {
+        GameSnapshot snapshot = game.getSnapshot();
+        if (round != null && round.snapshot == snapshot) {
+            return;
+        }
+        for (Future<?> task : pending) {
+            task.cancel(true);
+        }
+        pending.clear();
+        if (round != null) {
+            round.cancelled = true;
+        }
+        round = new Round(snapshot);
+        Color decided = winnerOf(snapshot);
+        if (decided != null || snapshot.getState() != GameState.IN_PROGRESS) {
+            latest = new Estimate(snapshot, decided);
+            return;
+        }
+        Round current = round;
+        for (int t = 0; t < threads; t++) {
+            pending.add(executor.submit(() -> simulate(current)));
+        }
+    }
+
+    /** Última estimación publicada, o null si todavía no hay ninguna. No bloquea. */
+    public Estimate latest() {
+        return latest;
+    }
+
+    @Override
+    public void close() {
+        game.removeTurnListener(this);
+        executor.shutdownNow();
+    }
+
+    /** Como Game.getWinner: el primero en completar sus fichas o, terminada la partida, el único que no se rindió. */
+    private static Color winnerOf(GameSnapshot snapshot) {
+        if (!snapshot.getFinishOrder().isEmpty()) {
+            return snapshot.getFinishOrder().get(0);
+        }
+        if (snapshot.getState() != GameState.FINISHED) {
+            return null;
+        }
+        Color remaining = null;
+        for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot player = snapshot.getPlayer(i);
+            if (!player.isResigned()) {
+                if (remaining != null) {
+                    return null;
+                }
+                remaining = player.getColor();
+            }
+        }
+        return remaining;
+    }
+
+    private void simulate(Round round) {
+        SnapshotGame copy = new SnapshotGame(round.snapshot, Strategies.create(strategyName), new Dice(), game.getRuleSet());
+        long[] wins = new long[Color.values().length];
+        int played = 0;
+        while (!round.cancelled && !Thread.currentThread().isInterrupted()) {
+            copy.load(round.snapshot, round.snapshot.getLastRoll(), round.snapshot.getTurnNumber());
+            Player moving;
+            do {
+                moving = copy.getCurrentPlayer();
+                copy.playTurn();
+            } while (moving != null && !moving.hasWon() && copy.getState() == GameState.IN_PROGRESS
+                    && copy.getTurnNumber() - round.snapshot.getTurnNumber() < Simulation.MAX_TURNS);
+            if (moving != null && moving.hasWon()) {
+                wins[moving.getColor().ordinal()]++;
+            }
+            if (++played == BATCH) {
+                if (!publish(round, wins, played)) {
+                    return;
+                }
+                Arrays.fill(wins, 0);
+                played = 0;
+            }
+        }
+    }
+
+    /** Suma una tanda a la ronda y publica; false si la ronda terminó o se canceló. */
+    private boolean publish(Round round, long[] wins, int played) {
+        Estimate estimate;
+        synchronized (round) {
+            if (round.cancelled || round.playouts >= MAX_PLAYOUTS) {
+                return false;
+            }
+            for (int c = 0; c < wins.length; c++) {
+                round.wins[c] += wins[c];
+            }
+            round.playouts += played;
+            estimate = new Estimate(round.snapshot, round.wins.clone(), round.playouts);
+        }
+        synchronized (this) {
+            // una ronda vieja no pisa a la nueva, y la nueva espera a tener algo de muestra
+            if (this.round == round && (estimate.playouts >= MIN_PLAYOUTS || latest == null)) {
+                latest = estimate;
+            }
+        }
+        return estimate.playouts < MAX_PLAYOUTS;
+    }
+
+    /** Simulaciones desde una misma foto, sumadas entre los hilos. */
+    private static final class Round {
+        final GameSnapshot snapshot;
+        final long[] wins = new long[Color.values().length];
+        long playouts;
+        volatile boolean cancelled;
+
+        Round(GameSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    /** Probabilidad de ganar de cada color en una foto, con la cantidad de simulaciones que la respaldan. */
+    public static final class Estimate {
+        private final GameSnapshot snapshot;
+        private final long[] wins;
+        private final long playouts;
+
+        Estimate(GameSnapshot snapshot, long[] wins, long playouts) {
+            this.snapshot = snapshot;
+            this.wins = wins;
+            this.playouts = playouts;
+        }
+
+        /** Partida ya decidida: el ganador tiene probabilidad 1. */
+        Estimate(GameSnapshot snapshot, Color winner) {
+            this(snapshot, new long[Color.values().length], 1);
+            if (winner != null) {
+                wins[winner.ordinal()] = 1;
+            }
+        }
+
+        public GameSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public long getPlayouts() {
+            return playouts;
+        }
+
+        public double probability(Color color) {
+            return (double) wins[color.ordinal()] / playouts;
+        }
+
+        /** Semiancho del intervalo de confianza del 95 % para el color. */
+        public double halfWidth(Color color) {
+            double p = probability(color);
+            return 1.96 * Math.sqrt(p * (1 - p) / playouts);
+        }
+    }
+}
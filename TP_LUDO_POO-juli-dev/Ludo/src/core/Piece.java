@@ -2,6 +2,7 @@ package core;
 
 import board.AbstractSquare;
 import board.FinalPathSquare;
+import board.HomeBaseSquare;
 
 public class Piece {
     private final Color color;
@@ -35,7 +36,7 @@ public class Piece {
     }
 
     public boolean isInBase() {
-        return currentSquare == null;
+        return currentSquare == null || currentSquare instanceof HomeBaseSquare;
     }
 
     public int getId() {
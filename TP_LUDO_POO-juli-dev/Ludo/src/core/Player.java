@@ -35,9 +35,22 @@ public class Player {
         return new ArrayList<>(pieces);
     }
 
+    /** Cantidad de fichas del jugador (sin copiar la lista). */
+    public int getPieceCount() {
+        return pieces.size();
+    }
+
+    /** Devuelve la ficha en la posición indicada (sin copiar la lista). */
+    public Piece getPiece(int index) {
+        return pieces.get(index);
+    }
+
     public boolean hasWon() {
         if (pieces.isEmpty()) return false;
-        return pieces.stream().allMatch(Piece::isFinished);
+        for (Piece piece : pieces) {
+            if (!piece.isFinished()) return false;
+        }
+        return true;
     }
 
     public boolean isRendido() {
@@ -47,4 +60,9 @@ public class Player {
     public void rendirse() {
         this.rendido = true;
     }
+
+    /** Deshace rendirse; solo para partidas que se reponen desde una foto anterior. */
+    public void cancelarRendicion() {
+        this.rendido = false;
+    }
 }
\ No newline at end of file
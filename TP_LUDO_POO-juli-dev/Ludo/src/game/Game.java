@@ -4,48 +4,140 @@ import board.AbstractSquare;
 import board.Board;
 import board.MainPathSquare;
 import board.FinalPathSquare;
-import board.HomeBaseSquare;
+import board.RuleSet;
+import board.RuleTables;
+import core.Color;
 import core.Piece;
 import core.Player;
 import utils.Dice;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 public abstract class Game {
     private static final String GAME_STARTED_MESSAGE = "El juego ha comenzado.";
 
     private final Board board;
-    private final Dice dice = new Dice();
+    private final RuleTables rules;
+    private final Dice dice;
     private final Turn turn;
     private final List<Player> players;
     private int lastRoll = 0;
+    private int turnNumber = 0;
+    private boolean verbose = true;
+    // estrategias automaticas por color; los colores sin estrategia usan los metodos abstractos
+    private final Map<Color, Strategy> strategies = new EnumMap<>(Color.class);
 
     private Player currentPlayer;
     private GameState state = GameState.NOT_STARTED;
+    // ultima foto publicada; los lectores de otros hilos solo ven esta referencia
+    private volatile GameSnapshot snapshot;
+    private final List<Color> finishOrder = new ArrayList<>();
+    // se pueden registrar desde otro hilo, por ejemplo la UI de una réplica de red
+    private final List<TurnListener> turnListeners = new CopyOnWriteArrayList<>();
+    // ficha movida en el ultimo turno y su progreso antes/despues (null si no hubo movimiento)
+    private Piece lastMovedPiece;
+    private int lastFromProgress;
+    private int lastToProgress;
 
     public Game(List<Player> players, int mainPathSize) {
+        this(players, mainPathSize, new Dice());
+    }
+
+    /** Permite inyectar el dado, por ejemplo uno con semilla para reproducir partidas. */
+    public Game(List<Player> players, int mainPathSize, Dice dice) {
+        this(players, mainPathSize, dice, RuleSet.standard());
+    }
+
+    /** Partida con una variante de reglas; el tablero las compila al crearse. */
+    public Game(List<Player> players, int mainPathSize, Dice dice, RuleSet ruleSet) {
         if (players == null || players.isEmpty()) {
             throw new IllegalArgumentException("La lista de jugadores no puede ser nula o vacía.");
         }
-        this.players = players;
-        this.board = new Board(players, mainPathSize);
-        // colocar todas las fichas en su HomeBaseSquare tras inicializar el tablero
-        for (Player p : players) {
-            HomeBaseSquare base = board.getHomeBaseSquares().get(p.getColor());
-            for (Piece piece : p.getPieces()) {
-                base.addPiece(piece);
-                piece.moveTo(base);
-            }
+        if (dice == null) {
+            throw new IllegalArgumentException("El dado no puede ser nulo.");
         }
+        this.players = players;
+        this.dice = dice;
+        // el tablero ubica todas las fichas en su base
+        this.board = new Board(players, mainPathSize, ruleSet);
+        this.rules = board.getRules();
         this.turn = new Turn(players);
+        publishSnapshot();
     }
 
     public int getLastRoll() {
         return lastRoll;
     }
 
+    /** Cantidad de turnos jugados (tiradas de dado) desde el inicio. */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    /**
+     * Devuelve la última foto inmutable del estado, publicada al terminar cada turno.
+     * Es segura para leer desde cualquier hilo mientras el motor sigue jugando.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /** Activa o silencia los mensajes por consola (útil para simulaciones sin interfaz). */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+        board.setVerbose(verbose);
+    }
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Asigna una estrategia automática al color dado; con null el color vuelve a
+     * decidir mediante los métodos choosePiece* de la subclase.
+     */
+    public void setStrategy(Color color, Strategy strategy) {
+        if (strategy == null) {
+            strategies.remove(color);
+        } else {
+            strategies.put(color, strategy);
+        }
+    }
+
+    public Strategy getStrategy(Color color) {
+        return strategies.get(color);
+    }
+
+    private Piece selectFromBase(List<Piece> piecesInBase) {
+        Strategy strategy = strategies.get(currentPlayer.getColor());
+        return strategy != null ? strategy.choosePieceFromBase(this, piecesInBase) : choosePieceFromBase(piecesInBase);
+    }
+
+    private Piece selectToMove(List<Piece> piecesOnBoard) {
+        Strategy strategy = strategies.get(currentPlayer.getColor());
+        return strategy != null ? strategy.choosePieceToMove(this, piecesOnBoard) : choosePieceToMove(piecesOnBoard);
+    }
+
+    private void publishSnapshot() {
+        snapshot = GameSnapshot.capture(this, snapshot);
+    }
+
+    /** Reglas de la partida. */
+    public RuleSet getRuleSet() {
+        return rules.getRuleSet();
+    }
+
     /** Devuelve el tablero para uso en UIs. */
     public Board getBoard() {
         return board;
@@ -55,11 +147,12 @@ public abstract class Game {
         if (state == GameState.NOT_STARTED) {
             state = GameState.IN_PROGRESS;
             currentPlayer = turn.nextTurn();
-            System.out.println(GAME_STARTED_MESSAGE);
+            log(GAME_STARTED_MESSAGE);
             if (currentPlayer == null) {
                 System.err.println("Error: No se pudo obtener el primer jugador.");
                 state = GameState.FINISHED;
             }
+            publishSnapshot();
         }
     }
 
@@ -68,18 +161,41 @@ public abstract class Game {
         if (state != GameState.IN_PROGRESS || currentPlayer == null) {
             return;
         }
+        Player mover = currentPlayer;
+        int capturesBefore = board.getCaptureCount();
+        lastMovedPiece = null;
+        executeTurn();
+        if (mover.hasWon() && !finishOrder.contains(mover.getColor())) {
+            finishOrder.add(mover.getColor());
+        }
+        publishSnapshot();
+        if (!turnListeners.isEmpty()) {
+            boolean capture = board.getCaptureCount() != capturesBefore;
+            int pieceId = lastMovedPiece != null ? lastMovedPiece.getId() : 0;
+            fireTurn(mover, lastRoll, pieceId, lastFromProgress, lastToProgress, capture);
+        }
+    }
+
+    /** Avisa a los TurnListener de un turno ya aplicado; lo usan también las partidas que no juegan con playTurn. */
+    protected final void fireTurn(Player mover, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+        for (TurnListener listener : turnListeners) {
+            listener.onTurn(this, mover, roll, pieceId, fromProgress, toProgress, capture);
+        }
+    }
 
+    private void executeTurn() {
+        turnNumber++;
         lastRoll = dice.roll();
         int roll = lastRoll;
-        System.out.println("\n--- Turno de " + currentPlayer.getName() + " (" + currentPlayer.getColor() + ") ---");
-        System.out.println(currentPlayer.getName() + " sacó un " + roll + "!");
+        log("\n--- Turno de " + currentPlayer.getName() + " (" + currentPlayer.getColor() + ") ---");
+        log(currentPlayer.getName() + " sacó un " + roll + "!");
 
         // Filtrar piezas no terminadas
         List<Piece> notFinished = currentPlayer.getPieces().stream()
                 .filter(p -> !p.isFinished())
                 .collect(Collectors.toList());
         // Obtener las piezas que están en base
-        List<Piece> inBase = new ArrayList<>(board.getHomeBaseSquares().get(currentPlayer.getColor()).getPieces());
+        List<Piece> inBase = board.getPiecesAt(board.getHomeBaseSquares().get(currentPlayer.getColor()));
         List<Piece> onBoard = notFinished.stream()
                 .filter(p -> !inBase.contains(p))
                 .collect(Collectors.toList());
@@ -87,17 +203,14 @@ public abstract class Game {
         //  todas en base
         if (onBoard.isEmpty()) {
             if (roll == 6) {
-                Piece chosen = choosePieceFromBase(inBase);
-                HomeBaseSquare base = board.getHomeBaseSquares().get(currentPlayer.getColor());
-                base.removePiece(chosen);
-                chosen.moveTo(null);
+                Piece chosen = selectFromBase(inBase);
                 MainPathSquare entry = board.getBoardEntrySquareForColor(currentPlayer.getColor());
                 board.placePieceOnBoard(chosen, entry);
-                System.out.println(currentPlayer.getName() + " sacó ficha " + chosen.getId() + " al tablero.");
+                recordMove(chosen, Board.IN_BASE);
+                log(currentPlayer.getName() + " sacó ficha " + chosen.getId() + " al tablero.");
             } else {
-                System.out.println(currentPlayer.getName() + " necesita un 6 para sacar ficha.");
-                advanceToNextValidPlayer();
-                endGameIfNoActivePlayers();
+                log(currentPlayer.getName() + " necesita un 6 para sacar ficha.");
+                endTurn(roll);
             }
             return;
         }
@@ -108,35 +221,57 @@ public abstract class Game {
 
         // si salió 6 y aún hay fichas en base, siempre sacar de base primero
         if (roll == 6 && !inBase.isEmpty()) {
-            chosen = choosePieceFromBase(inBase);
-            HomeBaseSquare base = board.getHomeBaseSquares().get(currentPlayer.getColor());
-            base.removePiece(chosen);
-            chosen.moveTo(null);
+            chosen = selectFromBase(inBase);
             MainPathSquare entry = board.getBoardEntrySquareForColor(currentPlayer.getColor());
             board.placePieceOnBoard(chosen, entry);
-            System.out.println(currentPlayer.getName() + " sacó ficha " + chosen.getId() + " al tablero.");
-            advanceToNextValidPlayer();
-            endGameIfNoActivePlayers();
+            recordMove(chosen, Board.IN_BASE);
+            log(currentPlayer.getName() + " sacó ficha " + chosen.getId() + " al tablero.");
+            endTurn(roll);
             return;
         }
         // si no entra en extracción, mover ficha en tablero
-        chosen = choosePieceToMove(onBoard);
+        if (rules.hasBlockades()) {
+            onBoard.removeIf(p -> board.isBlocked(p, roll));
+            if (onBoard.isEmpty()) {
+                log(currentPlayer.getName() + " no puede mover: hay un bloqueo en el camino.");
+                endTurn(roll);
+                return;
+            }
+        }
+        chosen = selectToMove(onBoard);
         origin = chosen.getCurrentSquare();
+        int fromProgress = board.getProgress(chosen);
         board.move(chosen, roll);
-        System.out.println(currentPlayer.getName() + " movió ficha " + chosen.getId()
+        recordMove(chosen, fromProgress);
+        log(currentPlayer.getName() + " movió ficha " + chosen.getId()
                 + " de " + origin.getPosition()
                 + " a " + (chosen.getCurrentSquare() != null
                 ? chosen.getCurrentSquare().getPosition()
                 : "base") + ".");
         if (chosen.isFinished()) {
-            System.out.println("¡Ficha " + chosen.getId() + " llegó a la meta!");
+            log("¡Ficha " + chosen.getId() + " llegó a la meta!");
         }
 
         // avanzar turno y fin de juego
-        advanceToNextValidPlayer();
+        endTurn(roll);
+    }
+
+    /** Pasa al siguiente jugador salvo que las reglas den otra tirada con este dado. */
+    private void endTurn(int roll) {
+        if (rules.grantsExtraRoll(roll) && !currentPlayer.hasWon()) {
+            log(currentPlayer.getName() + " vuelve a tirar.");
+        } else {
+            advanceToNextValidPlayer();
+        }
         endGameIfNoActivePlayers();
     }
 
+    private void recordMove(Piece piece, int fromProgress) {
+        lastMovedPiece = piece;
+        lastFromProgress = fromProgress;
+        lastToProgress = board.getProgress(piece);
+    }
+
     private void advanceToNextValidPlayer() {
         if (players.stream().allMatch(p -> p.hasWon() || p.isRendido())) {
             state = GameState.FINISHED;
@@ -155,7 +290,7 @@ public abstract class Game {
             state = GameState.FINISHED;
         } else if (active == 1) {
             Player last = players.stream().filter(p -> !p.hasWon() && !p.isRendido()).findFirst().orElse(null);
-            System.out.println("Jugador restante: " + (last != null ? last.getName() : ""));
+            log("Jugador restante: " + (last != null ? last.getName() : ""));
             state = GameState.FINISHED;
         }
     }
@@ -171,6 +306,7 @@ public abstract class Game {
     public void skipTurn() {
         advanceToNextValidPlayer();
         endGameIfNoActivePlayers();
+        publishSnapshot();
     }
 
     // Métodos para elección de ficha
@@ -178,6 +314,83 @@ public abstract class Game {
     protected abstract Piece choosePieceOnSix(List<Piece> piecesInBase, List<Piece> piecesOnBoard);
     protected abstract Piece choosePieceToMove(List<Piece> piecesOnBoard);
 
+    /**
+     * Fija el estado de turno desde afuera, por ejemplo en una réplica que recibe el estado
+     * de un servidor. Las fichas se ubican antes con Board.placeAt.
+     */
+    protected void applyTurnState(Color current, int lastRoll, GameState state, int turnNumber) {
+        this.lastRoll = lastRoll;
+        this.state = state;
+        this.turnNumber = turnNumber;
+        this.currentPlayer = null;
+        for (Player p : players) {
+            if (p.getColor() == current) {
+                currentPlayer = p;
+                turn.resumeAfter(p);
+            }
+            if (p.hasWon() && !finishOrder.contains(p.getColor())) {
+                finishOrder.add(p.getColor());
+            }
+        }
+        publishSnapshot();
+    }
+
+    /**
+     * Reemplaza el orden de llegada, por ejemplo al reponer la partida desde una foto.
+     * applyTurnState agrega después a quienes ya completaron sus fichas y no estén.
+     */
+    protected void restoreFinishOrder(List<Color> order) {
+        finishOrder.clear();
+        finishOrder.addAll(order);
+    }
+
+    /** Colores en el orden en que completaron todas sus fichas. */
+    public List<Color> getFinishOrder() {
+        return new ArrayList<>(finishOrder);
+    }
+
+    /** El orden de llegada sin copiar, para GameSnapshot. */
+    List<Color> finishOrderView() {
+        return finishOrder;
+    }
+
+    /**
+     * Ganador de la partida: el primero en llevar todas sus fichas a la meta o, si nadie
+     * lo logró, el único jugador que no se rindió. Null si todavía no hay ganador.
+     */
+    public Player getWinner() {
+        if (!finishOrder.isEmpty()) {
+            Color first = finishOrder.get(0);
+            for (Player p : players) {
+                if (p.getColor() == first) {
+                    return p;
+                }
+            }
+        }
+        if (state == GameState.FINISHED) {
+            Player remaining = null;
+            for (Player p : players) {
+                if (!p.isRendido()) {
+                    if (remaining != null) {
+                        return null;
+                    }
+                    remaining = p;
+                }
+            }
+            return remaining;
+        }
+        return null;
+    }
+
+    /** Registra un observador que se notifica al final de cada turno jugado. */
+    public void addTurnListener(TurnListener listener) {
+        turnListeners.add(listener);
+    }
+
+    public void removeTurnListener(TurnListener listener) {
+        turnListeners.remove(listener);
+    }
+
     /** Permite consultar la lista de jugadores desde la UI */
     public List<Player> getPlayers() {
         return players;
@@ -0,0 +1,180 @@
+package game;
+
+import board.Board;
+import core.Color;
+import core.Player;
+
+import java.util.List;
+
+/**
+ * Foto inmutable del estado de la partida, publicada por Game al final de cada turno.
+ * Puede leerse desde cualquier hilo (UI, espectadores, análisis) sin sincronizar.
+ * Dos fotos consecutivas comparten los PlayerSnapshot de los jugadores que no cambiaron.
+ */
+public final class GameSnapshot {
+    private final int turnNumber;
+    private final GameState state;
+    private final Color currentColor;
+    private final int lastRoll;
+    private final int mainPathSize;
+    private final PlayerSnapshot[] players;
+    private final List<Color> finishOrder;
+
+    private GameSnapshot(int turnNumber, GameState state, Color currentColor, int lastRoll,
+                         int mainPathSize, PlayerSnapshot[] players, List<Color> finishOrder) {
+        this.turnNumber = turnNumber;
+        this.state = state;
+        this.currentColor = currentColor;
+        this.lastRoll = lastRoll;
+        this.mainPathSize = mainPathSize;
+        this.players = players;
+        this.finishOrder = finishOrder;
+    }
+
+    /**
+     * Construye la foto del estado actual reutilizando de la anterior
+     * los jugadores cuyas fichas no se movieron y el orden de llegada si no cambió.
+     */
+    static GameSnapshot capture(Game game, GameSnapshot previous) {
+        Board board = game.getBoard();
+        List<Player> list = game.getPlayers();
+        PlayerSnapshot[] views = new PlayerSnapshot[list.size()];
+        for (int i = 0; i < views.length; i++) {
+            PlayerSnapshot old = (previous != null && i < previous.players.length) ? previous.players[i] : null;
+            views[i] = PlayerSnapshot.of(list.get(i), board, old);
+        }
+        List<Color> order = game.finishOrderView();
+        List<Color> finishOrder = previous != null && previous.finishOrder.equals(order)
+                ? previous.finishOrder : List.copyOf(order);
+        Player current = game.getCurrentPlayer();
+        return new GameSnapshot(game.getTurnNumber(), game.getState(),
+                current != null ? current.getColor() : null,
+                game.getLastRoll(), board.getMainPathSize(), views, finishOrder);
+    }
+
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    /** Color del jugador al que le toca, o null si la partida no empezó. */
+    public Color getCurrentColor() {
+        return currentColor;
+    }
+
+    public int getLastRoll() {
+        return lastRoll;
+    }
+
+    public int getMainPathSize() {
+        return mainPathSize;
+    }
+
+    /** Colores en el orden en que completaron todas sus fichas, como Game.getFinishOrder (inmutable). */
+    public List<Color> getFinishOrder() {
+        return finishOrder;
+    }
+
+    /** Progreso de una ficha que ya llegó a la meta. */
+    public int getFinishedProgress() {
+        return mainPathSize + Board.FINAL_PATH_LENGTH - 1;
+    }
+
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    public PlayerSnapshot getPlayer(int index) {
+        return players[index];
+    }
+
+    /** Devuelve el jugador del color dado, o null si no participa. */
+    public PlayerSnapshot getPlayer(Color color) {
+        for (PlayerSnapshot p : players) {
+            if (p.color == color) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Estado inmutable de un jugador: nombre, color y progreso de cada ficha
+     * (ver Board.getProgress).
+     */
+    public static final class PlayerSnapshot {
+        private final String name;
+        private final Color color;
+        private final boolean resigned;
+        private final boolean won;
+        private final int[] progress;
+        private final int finishedCount;
+
+        private PlayerSnapshot(String name, Color color, boolean resigned, boolean won,
+                               int[] progress, int finishedCount) {
+            this.name = name;
+            this.color = color;
+            this.resigned = resigned;
+            this.won = won;
+            this.progress = progress;
+            this.finishedCount = finishedCount;
+        }
+
+        static PlayerSnapshot of(Player player, Board board, PlayerSnapshot previous) {
+            int count = player.getPieceCount();
+            boolean resigned = player.isRendido();
+            boolean won = player.hasWon();
+            if (previous != null && previous.progress.length == count
+                    && previous.resigned == resigned && previous.won == won) {
+                boolean same = true;
+                for (int i = 0; i < count && same; i++) {
+                    same = previous.progress[i] == board.getProgress(player.getPiece(i));
+                }
+                if (same) {
+                    return previous;
+                }
+            }
+            int[] progress = new int[count];
+            int finished = 0;
+            for (int i = 0; i < count; i++) {
+                progress[i] = board.getProgress(player.getPiece(i));
+                if (player.getPiece(i).isFinished()) {
+                    finished++;
+                }
+            }
+            return new PlayerSnapshot(player.getName(), player.getColor(), resigned, won, progress, finished);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Color getColor() {
+            return color;
+        }
+
+        public boolean isResigned() {
+            return resigned;
+        }
+
+        public boolean hasWon() {
+            return won;
+        }
+
+        public int getPieceCount() {
+            return progress.length;
+        }
+
+        /** Progreso de la ficha con índice dado (id - 1). */
+        public int getProgress(int pieceIndex) {
+            return progress[pieceIndex];
+        }
+
+        public int getFinishedCount() {
+            return finishedCount;
+        }
+    }
+}
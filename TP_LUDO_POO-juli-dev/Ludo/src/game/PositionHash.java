@@ -0,0 +1,51 @@
+package game;
+
+import board.Board;
+import core.Color;
+import core.Player;
+
+/**
+ * Hash de 64 bits de la posición: progreso de cada ficha por color.
+ * Las fichas de un mismo color son intercambiables, por eso se suman (no se combinan por
+ * orden ni con XOR, que anularía dos fichas en la misma casilla).
+ */
+public final class PositionHash {
+    private PositionHash() {
+    }
+
+    /** Contribución de una ficha del color con el progreso dado (ver Board.getProgress). */
+    public static long pieceKey(Color color, int progress) {
+        return mix(((long) color.ordinal() << 32) | (progress + 1));
+    }
+
+    /** Hash de la posición actual de la partida, sin reservar memoria. */
+    public static long of(Game game) {
+        Board board = game.getBoard();
+        long hash = 0;
+        for (Player player : game.getPlayers()) {
+            for (int i = 0; i < player.getPieceCount(); i++) {
+                hash += pieceKey(player.getColor(), board.getProgress(player.getPiece(i)));
+            }
+        }
+        return hash;
+    }
+
+    /** Hash de una foto; coincide con of(Game) para la misma posición. */
+    public static long of(GameSnapshot snapshot) {
+        long hash = 0;
+        for (int p = 0; p < snapshot.getPlayerCount(); p++) {
+            GameSnapshot.PlayerSnapshot player = snapshot.getPlayer(p);
+            for (int i = 0; i < player.getPieceCount(); i++) {
+                hash += pieceKey(player.getColor(), player.getProgress(i));
+            }
+        }
+        return hash;
+    }
+
+    /** Mezclador de 64 bits (finalizador de SplitMix64). */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,81 @@
+package game;
+
+import board.Board;
+import board.BoardTopology;
+import core.Color;
+import core.Player;
+
+/**
+ * Simetría de giro de las posiciones. Cuando el tablero queda igual al girarlo un cuarto de
+ * vuelta (BoardTopology.getRotationMask), girar todos los colores da una posición equivalente:
+ * el progreso de cada ficha es relativo a la entrada de su color, así que no cambia, solo el
+ * color al que pertenece. La forma canónica es el giro con el menor hash, y todas las
+ * posiciones equivalentes comparten ese hash.
+ *
+ * El orden de los turnos no entra en la simetría: sirve para evaluar una decisión del jugador
+ * que mueve, no para comparar quién juega después.
+ */
+public final class PositionSymmetry {
+    private static final int QUARTERS = 4;
+
+    private PositionSymmetry() {
+    }
+
+    /** Hash de la posición con los colores girados `rotation` cuartos de vuelta. */
+    public static long hash(Game game, int rotation) {
+        Board board = game.getBoard();
+        long hash = 0;
+        for (Player player : game.getPlayers()) {
+            Color color = BoardTopology.rotate(player.getColor(), rotation);
+            for (int i = 0; i < player.getPieceCount(); i++) {
+                hash += PositionHash.pieceKey(color, board.getProgress(player.getPiece(i)));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Giro que lleva la posición a su forma canónica: el de menor hash entre los que deja
+     * válidos el tablero, y ante un empate el menor. Calcula todos los giros en una pasada.
+     */
+    public static int canonicalRotation(Game game) {
+        Board board = game.getBoard();
+        int mask = board.getTopology().getRotationMask();
+        if (mask == 1) {
+            return 0;
+        }
+        long[] hashes = new long[QUARTERS];
+        for (Player player : game.getPlayers()) {
+            for (int i = 0; i < player.getPieceCount(); i++) {
+                int progress = board.getProgress(player.getPiece(i));
+                for (int r = 0; r < QUARTERS; r++) {
+                    if ((mask & (1 << r)) != 0) {
+                        hashes[r] += PositionHash.pieceKey(BoardTopology.rotate(player.getColor(), r), progress);
+                    }
+                }
+            }
+        }
+        int best = 0;
+        for (int r = 1; r < QUARTERS; r++) {
+            if ((mask & (1 << r)) != 0 && Long.compareUnsigned(hashes[r], hashes[best]) < 0) {
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    /** Hash canónico: igual para todas las posiciones que son giros una de otra. */
+    public static long canonicalHash(Game game) {
+        return hash(game, canonicalRotation(game));
+    }
+
+    /** Color que representa a `color` en la forma canónica obtenida con el giro dado. */
+    public static Color toCanonical(Color color, int rotation) {
+        return BoardTopology.rotate(color, rotation);
+    }
+
+    /** Color real que corresponde a `color` de la forma canónica obtenida con el giro dado. */
+    public static Color fromCanonical(Color color, int rotation) {
+        return BoardTopology.rotate(color, -rotation);
+    }
+}
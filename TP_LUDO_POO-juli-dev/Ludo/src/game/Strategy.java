@@ -0,0 +1,21 @@
+package game;
+
+import core.Piece;
+
+import java.util.List;
+
+/**
+ * Estrategia automática de elección de fichas, con los mismos puntos de decisión que
+ * los métodos choosePiece* de Game. Se asigna por color con Game.setStrategy; la tirada
+ * actual y el tablero se consultan en el juego recibido.
+ */
+public interface Strategy {
+    /** Nombre visible en la configuración de la partida. */
+    String getName();
+
+    Piece choosePieceFromBase(Game game, List<Piece> piecesInBase);
+
+    Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard);
+
+    Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard);
+}
@@ -25,5 +25,13 @@ public class Turn {
         return playerToPlay;
     }
 
+    /** Ajusta el orden para que el siguiente turno sea del jugador posterior al dado. */
+    public void resumeAfter(Player player) {
+        int index = players.indexOf(player);
+        if (index >= 0) {
+            nextPlayerIndex = (index + 1) % players.size();
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package game;
+
+import core.Player;
+
+/**
+ * Observador de turnos: Game lo notifica al terminar cada playTurn, con el estado ya actualizado.
+ */
+public interface TurnListener {
+    /**
+     * @param player       jugador que tiró el dado
+     * @param roll         valor obtenido
+     * @param pieceId      id de la ficha movida, o 0 si no se movió ninguna
+     * @param fromProgress progreso de la ficha antes de mover (ver Board.getProgress)
+     * @param toProgress   progreso de la ficha después de mover
+     * @param capture      si el movimiento capturó alguna ficha rival
+     */
+    void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture);
+}
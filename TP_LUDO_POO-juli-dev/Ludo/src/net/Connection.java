@@ -0,0 +1,83 @@
+package net;
+
+import core.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Estado de un socket no bloqueante: buffer de lectura fijo y buffer de salida que
+ * acumula marcos hasta que el hilo de red los escribe juntos.
+ */
+final class Connection {
+    /** Salida pendiente máxima; un cliente que lee más lento que esto se desconecta. */
+    static final int MAX_PENDING = 1 << 20;
+
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(Protocol.MAX_FRAME + 4);
+    private ByteBuffer out = ByteBuffer.allocate(4 * 1024);
+    // asiento ocupado; solo lo toca el hilo del motor
+    private Color seat;
+
+    Connection(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    ByteBuffer in() {
+        return in;
+    }
+
+    Color getSeat() {
+        return seat;
+    }
+
+    void setSeat(Color seat) {
+        this.seat = seat;
+    }
+
+    /**
+     * Copia los marcos (buffer en modo lectura, no se consume) al final de la salida pendiente.
+     * Devuelve false sin copiar nada si la salida pendiente pasaría de MAX_PENDING.
+     */
+    synchronized boolean enqueue(ByteBuffer frames) {
+        if (out.position() + frames.remaining() > MAX_PENDING) {
+            return false;
+        }
+        if (out.remaining() < frames.remaining()) {
+            int capacity = out.capacity();
+            while (capacity - out.position() < frames.remaining()) {
+                capacity *= 2;
+            }
+            ByteBuffer larger = ByteBuffer.allocate(capacity);
+            out.flip();
+            larger.put(out);
+            out = larger;
+        }
+        out.put(frames.duplicate());
+        return true;
+    }
+
+    /** Escribe lo que el socket acepte; devuelve true si no quedó nada pendiente. */
+    synchronized boolean flush() throws IOException {
+        out.flip();
+        try {
+            channel.write(out);
+        } finally {
+            out.compact();
+        }
+        return out.position() == 0;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // ya estaba cerrado
+        }
+    }
+}
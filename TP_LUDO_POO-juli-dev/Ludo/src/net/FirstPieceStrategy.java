@@ -0,0 +1,33 @@
+package net;
+
+import core.Piece;
+import game.Game;
+import game.Strategy;
+
+import java.util.List;
+
+/**
+ * Mueve la primera ficha posible. Es el último recurso de un asiento remoto sin estrategia
+ * y el relleno de la réplica, que nunca elige fichas por su cuenta.
+ */
+final class FirstPieceStrategy implements Strategy {
+    @Override
+    public String getName() {
+        return "Primera ficha";
+    }
+
+    @Override
+    public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+        return piecesInBase.get(0);
+    }
+
+    @Override
+    public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+        return piecesInBase.get(0);
+    }
+
+    @Override
+    public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+        return piecesOnBoard.get(0);
+    }
+}
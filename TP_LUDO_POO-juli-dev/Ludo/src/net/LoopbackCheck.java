@@ -0,0 +1,161 @@
+package net;
+
+import bot.BotGame;
+import bot.Strategies;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameSnapshot;
+import game.GameState;
+import utils.Dice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de punta a punta por loopback: levanta un LudoServer con una partida de bots y
+ * conecta varios clientes (uno sentado en ROJO que tira y elige con una estrategia, el resto
+ * espectadores). Cada vez que una réplica cambia la compara con la foto del anfitrión del
+ * mismo turno, y al terminar compara la foto final de todas. Sale con código 1 si alguna
+ * réplica no coincide.
+ *
+ * Uso: LoopbackCheck [clientes] [partidas]
+ */
+public final class LoopbackCheck {
+    private static final long WAIT_MILLIS = 10_000;
+
+    private final AtomicLong compared = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+
+    private LoopbackCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        if (clients < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un cliente.");
+        }
+        LoopbackCheck check = new LoopbackCheck();
+        for (int g = 0; g < games; g++) {
+            check.play(g + 1, clients);
+        }
+        System.out.printf("%d fotos comparadas en %d partidas con %d clientes, %d diferencias%n",
+                check.compared.get(), games, clients, check.mismatches.get());
+        System.exit(check.mismatches.get() == 0 ? 0 : 1);
+    }
+
+    private void play(long seed, int clientCount) throws Exception {
+        List<Player> players = new ArrayList<>();
+        for (Color c : Color.values()) {
+            Player p = new Player("Bot" + (c.ordinal() + 1), c);
+            p.initializePieces(4);
+            players.add(p);
+        }
+        Game host = new BotGame(players, 56, Strategies.create(Strategies.BALANCED), new Dice(seed));
+        host.setVerbose(false);
+        Map<Integer, GameSnapshot> byTurn = new ConcurrentHashMap<>();
+        host.addTurnListener((g, player, roll, pieceId, from, to, capture) -> byTurn.put(g.getTurnNumber(), g.getSnapshot()));
+
+        try (LudoServer server = new LudoServer(host, 0, 1)) {
+            List<LudoClient> clients = new ArrayList<>();
+            try {
+                for (int i = 0; i < clientCount; i++) {
+                    LudoClient client = LudoClient.connect("localhost", server.getPort(), i == 0 ? Color.RED : null);
+                    client.addListener((mirror, mover, pieceId, capture) -> compare(mirror.getSnapshot(), byTurn));
+                    clients.add(client);
+                }
+                LudoClient seated = clients.get(0);
+                seated.setChooser(Strategies.create(Strategies.BALANCED));
+                Thread driver = new Thread(() -> drive(seated), "loopback-rojo");
+                driver.setDaemon(true);
+                driver.start();
+
+                server.serve();
+
+                GameSnapshot last = host.getSnapshot();
+                for (LudoClient client : clients) {
+                    MirrorGame mirror = client.awaitGame(WAIT_MILLIS);
+                    if (mirror == null || !awaitTurn(mirror, last.getTurnNumber())
+                            || !describe(mirror.getSnapshot()).equals(describe(last))) {
+                        mismatches.incrementAndGet();
+                        System.out.println("La réplica final no coincide con el anfitrión (semilla " + seed + ").");
+                    }
+                }
+                driver.join(WAIT_MILLIS);
+            } finally {
+                for (LudoClient client : clients) {
+                    client.close();
+                }
+            }
+        }
+    }
+
+    /** Compara una foto de la réplica con la del anfitrión en el mismo turno. */
+    private void compare(GameSnapshot mirror, Map<Integer, GameSnapshot> byTurn) {
+        GameSnapshot host = byTurn.get(mirror.getTurnNumber());
+        if (host == null) {
+            return; // foto inicial, antes del primer turno
+        }
+        compared.incrementAndGet();
+        String expected = describe(host);
+        String actual = describe(mirror);
+        if (!expected.equals(actual) && mismatches.incrementAndGet() <= 5) {
+            System.out.println("Diferencia en el turno " + mirror.getTurnNumber() + ":\n  anfitrión " + expected
+                    + "\n  réplica   " + actual);
+        }
+    }
+
+    /** Tira por el cliente sentado cada vez que le toca, como lo haría una persona. */
+    private static void drive(LudoClient client) {
+        try {
+            MirrorGame mirror = client.awaitGame(WAIT_MILLIS);
+            while (mirror != null && !client.isClosed()) {
+                GameSnapshot snapshot = mirror.getSnapshot();
+                if (snapshot.getState() != GameState.IN_PROGRESS) {
+                    return;
+                }
+                if (snapshot.getCurrentColor() == client.getSeat()) {
+                    mirror.playTurn();
+                } else {
+                    synchronized (mirror) {
+                        mirror.wait(100);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean awaitTurn(MirrorGame mirror, int turnNumber) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        synchronized (mirror) {
+            while (mirror.getSnapshot().getTurnNumber() != turnNumber || mirror.getState() == GameState.IN_PROGRESS) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    return false;
+                }
+                mirror.wait(left);
+            }
+        }
+        return true;
+    }
+
+    private static String describe(GameSnapshot s) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("turno ").append(s.getTurnNumber()).append(' ').append(s.getState())
+                .append(' ').append(s.getCurrentColor()).append(" dado ").append(s.getLastRoll());
+        for (int i = 0; i < s.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot p = s.getPlayer(i);
+            sb.append(" | ").append(p.getColor()).append(p.isResigned() ? " rendido" : "");
+            for (int j = 0; j < p.getPieceCount(); j++) {
+                sb.append(' ').append(p.getProgress(j));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,241 @@
+package net;
+
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.Strategy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cliente de LudoServer. Un hilo propio lee los mensajes con un Selector y mantiene una
+ * MirrorGame al día; los pedidos de elección se resuelven con la estrategia configurada
+ * (un bot, o una que pregunte a la persona).
+ */
+public class LudoClient implements Closeable {
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final Connection connection;
+    private final Color seat;
+    private final ByteBuffer command = ByteBuffer.allocate(16);
+    private final List<ClientListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Strategy chooser;
+    private volatile MirrorGame game;
+    private volatile boolean closed;
+
+    private LudoClient(SocketChannel channel, Selector selector, Color seat) {
+        this.seat = seat;
+        this.channel = channel;
+        this.selector = selector;
+        this.connection = new Connection(channel);
+    }
+
+    /**
+     * Se conecta y pide el asiento del color dado, o solo mira la partida si es null.
+     * El hilo de red arranca acá, con el cliente ya construido.
+     */
+    public static LudoClient connect(String host, int port, Color seat) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        Selector selector;
+        try {
+            channel.socket().setTcpNoDelay(true);
+            channel.configureBlocking(false);
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        LudoClient client = new LudoClient(channel, selector, seat);
+        Thread reader = new Thread(client::networkLoop, "ludo-cliente");
+        reader.setDaemon(true);
+        reader.start();
+        client.send(Protocol.HELLO, seat == null ? Protocol.SPECTATOR : seat.ordinal());
+        return client;
+    }
+
+    public Color getSeat() {
+        return seat;
+    }
+
+    /** Estrategia que responde los pedidos de elección del servidor. */
+    public void setChooser(Strategy chooser) {
+        this.chooser = chooser;
+    }
+
+    public void addListener(ClientListener listener) {
+        listeners.add(listener);
+    }
+
+    /** Réplica de la partida, o null si todavía no llegó la primera foto. */
+    public MirrorGame getGame() {
+        return game;
+    }
+
+    /** Espera la primera foto del servidor. */
+    public synchronized MirrorGame awaitGame(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (game == null && !closed) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) {
+                break;
+            }
+            wait(left);
+        }
+        return game;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void roll() {
+        send(Protocol.ROLL, 0);
+    }
+
+    public void resign() {
+        send(Protocol.RESIGN, 0);
+    }
+
+    private void send(byte type, int argument) {
+        synchronized (command) {
+            command.clear();
+            Protocol.writeCommand(command, type, argument);
+            command.flip();
+            connection.enqueue(command);
+        }
+        selector.wakeup();
+    }
+
+    private void networkLoop() {
+        try {
+            while (!closed) {
+                selector.select();
+                SelectionKey key = channel.keyFor(selector);
+                boolean done = connection.flush();
+                key.interestOps(done ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                if (key.isReadable()) {
+                    if (channel.read(connection.in()) < 0) {
+                        break;
+                    }
+                    Protocol.drainFrames(connection.in(), this::onFrame);
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!closed) {
+                System.err.println("Conexión perdida: " + e.getMessage());
+            }
+        }
+        closed = true;
+        MirrorGame mirror = game;
+        if (mirror != null) {
+            synchronized (mirror) {
+                mirror.notifyAll();
+            }
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+        for (ClientListener listener : listeners) {
+            listener.onDisconnect();
+        }
+    }
+
+    private void onFrame(byte type, ByteBuffer payload) {
+        switch (type) {
+            case Protocol.SNAPSHOT -> {
+                MirrorGame mirror = MirrorGame.fromSnapshot(payload, this);
+                synchronized (this) {
+                    game = mirror;
+                    notifyAll();
+                }
+                for (ClientListener listener : listeners) {
+                    listener.onUpdate(mirror, null, 0, false);
+                }
+            }
+            case Protocol.DELTA -> {
+                MirrorGame mirror = game;
+                if (mirror == null) {
+                    return;
+                }
+                // color, ficha y captura están después de la cabecera de turno (7 bytes)
+                Color mover = Protocol.readColor(payload.duplicate().position(7));
+                int pieceId = payload.get(8);
+                boolean capture = payload.get(9) != 0;
+                mirror.applyDelta(payload);
+                for (ClientListener listener : listeners) {
+                    listener.onUpdate(mirror, mover, pieceId, capture);
+                }
+            }
+            case Protocol.CHOOSE -> answerChoice(payload);
+            case Protocol.INFO -> {
+                String text = Protocol.readString(payload);
+                for (ClientListener listener : listeners) {
+                    listener.onInfo(text);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void answerChoice(ByteBuffer payload) {
+        MirrorGame mirror = game;
+        byte kind = payload.get();
+        // el DELTA del turno llega después; las estrategias necesitan ver el dado ya
+        mirror.showRoll(payload.get());
+        int count = payload.get();
+        List<Piece> candidates = new ArrayList<>(count);
+        Player me = mirror.getCurrentPlayer();
+        for (int i = 0; i < count; i++) {
+            int id = payload.get();
+            for (int j = 0; j < me.getPieceCount(); j++) {
+                if (me.getPiece(j).getId() == id) {
+                    candidates.add(me.getPiece(j));
+                }
+            }
+        }
+        Strategy strategy = chooser;
+        Piece chosen;
+        if (strategy == null) {
+            chosen = candidates.get(0);
+        } else if (kind == Protocol.FROM_BASE) {
+            chosen = strategy.choosePieceFromBase(mirror, candidates);
+        } else {
+            chosen = strategy.choosePieceToMove(mirror, candidates);
+        }
+        send(Protocol.CHOICE, chosen.getId());
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        channel.close();
+        selector.close();
+    }
+
+    /** Avisos del cliente; se llaman desde el hilo de red. */
+    public interface ClientListener {
+        /**
+         * La réplica cambió. Con la foto inicial mover es null; después indica quién jugó,
+         * la ficha que movió (0 si ninguna) y si capturó.
+         */
+        void onUpdate(MirrorGame game, Color mover, int pieceId, boolean capture);
+
+        default void onInfo(String text) {
+        }
+
+        default void onDisconnect() {
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package net;
+
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.Game;
+import game.GameSnapshot;
+import game.GameState;
+import game.Strategy;
+import game.TurnListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor de una partida para clientes remotos. Un hilo de red atiende todos los sockets
+ * con un Selector y solo convierte los bytes en comandos; el motor corre en el hilo que
+ * llama a serve(), es el único que toca la partida y codifica cada diferencia una vez para
+ * copiarla a todos los clientes. Los asientos que nadie ocupa los juega su estrategia.
+ */
+public class LudoServer implements Closeable {
+    /** Tiempo que se espera la elección de un cliente antes de que decida su estrategia. */
+    private static final long CHOICE_TIMEOUT_MILLIS = 60_000;
+    // comando interno para avisar al motor que un socket se cerró
+    private static final byte DISCONNECTED = 0;
+
+    private final Game game;
+    private final long botPauseMillis;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final BlockingQueue<Command> commands = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<Connection> pendingFlush = new ConcurrentLinkedQueue<>();
+    // del motor: clientes conocidos, asientos y estrategias a restaurar
+    private final List<Connection> clients = new ArrayList<>();
+    private final Map<Color, Connection> seats = new EnumMap<>(Color.class);
+    private final Map<Color, Strategy> replacedStrategies = new EnumMap<>(Color.class);
+    private final ByteBuffer frame = ByteBuffer.allocate(Protocol.MAX_FRAME);
+    private final int[] candidateIds = new int[16];
+    private volatile boolean running = true;
+    private Thread networkThread;
+
+    // datos del último turno, completados por el TurnListener
+    private Color lastMover;
+    private int lastPieceId;
+    private boolean lastCapture;
+
+    public LudoServer(Game game, int port, long botPauseMillis) throws IOException {
+        this.game = game;
+        this.botPauseMillis = botPauseMillis;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        game.addTurnListener(new TurnListener() {
+            @Override
+            public void onTurn(Game g, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+                lastMover = player.getColor();
+                lastPieceId = pieceId;
+                lastCapture = capture;
+            }
+        });
+    }
+
+    /** Puerto real, útil si se pidió el 0 para que lo elija el sistema. */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Juega la partida hasta el final atendiendo a los clientes. Bloquea al llamador.
+     */
+    public void serve() throws InterruptedException {
+        networkThread = new Thread(this::networkLoop, "ludo-red");
+        networkThread.setDaemon(true);
+        networkThread.start();
+
+        game.startGame();
+        GameSnapshot previous = game.getSnapshot();
+        while (running && game.getState() == GameState.IN_PROGRESS) {
+            Color current = game.getCurrentPlayer().getColor();
+            Connection owner = seats.get(current);
+            if (owner != null) {
+                Command command = commands.poll(1, TimeUnit.SECONDS);
+                if (command == null || handle(command) || command.connection != owner) {
+                    continue;
+                }
+                if (command.type == Protocol.ROLL) {
+                    game.playTurn();
+                } else if (command.type == Protocol.RESIGN) {
+                    game.getCurrentPlayer().rendirse();
+                    lastMover = current;
+                    lastPieceId = 0;
+                    lastCapture = false;
+                    game.skipTurn();
+                } else {
+                    continue;
+                }
+            } else {
+                drainCommands(botPauseMillis);
+                if (seats.get(current) != null) {
+                    continue; // alguien tomó el asiento mientras se esperaba
+                }
+                game.playTurn();
+            }
+            GameSnapshot snapshot = game.getSnapshot();
+            frame.clear();
+            Protocol.writeDelta(frame, previous, snapshot, lastMover, lastPieceId, lastCapture);
+            broadcast();
+            previous = snapshot;
+        }
+        frame.clear();
+        Protocol.writeInfo(frame, "La partida terminó.");
+        broadcast();
+    }
+
+    /** Atiende comandos durante el tiempo dado (conexiones, asientos). */
+    private void drainCommands(long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long left;
+        while ((left = deadline - System.nanoTime()) > 0) {
+            Command command = commands.poll(left, TimeUnit.NANOSECONDS);
+            if (command != null) {
+                handle(command);
+            }
+        }
+        Command command;
+        while ((command = commands.poll()) != null) {
+            handle(command);
+        }
+    }
+
+    /**
+     * Procesa los comandos que no dependen del turno. Devuelve true si el comando quedó
+     * consumido (HELLO o desconexión).
+     */
+    private boolean handle(Command command) {
+        Connection c = command.connection;
+        if (command.type == Protocol.HELLO) {
+            // un HELLO repetido solo vuelve a pedir la foto; no duplica los envíos
+            if (!clients.contains(c)) {
+                clients.add(c);
+            }
+            if (command.argument >= 0 && command.argument < Color.values().length) {
+                claimSeat(c, Color.values()[command.argument]);
+            }
+            frame.clear();
+            Protocol.writeSnapshot(frame, game.getSnapshot());
+            send(c);
+            return true;
+        }
+        if (command.type == DISCONNECTED) {
+            clients.remove(c);
+            Color seat = c.getSeat();
+            if (seat != null && seats.get(seat) == c) {
+                seats.remove(seat);
+                game.setStrategy(seat, replacedStrategies.remove(seat));
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void claimSeat(Connection c, Color color) {
+        Player player = null;
+        for (Player p : game.getPlayers()) {
+            if (p.getColor() == color) {
+                player = p;
+            }
+        }
+        String problem = null;
+        if (player == null) {
+            problem = "No hay jugador " + color + " en esta partida.";
+        } else if (seats.containsKey(color)) {
+            problem = "El asiento " + color + " ya está ocupado.";
+        } else if (player.hasWon() || player.isRendido()) {
+            problem = "El jugador " + color + " ya no juega.";
+        }
+        if (problem != null) {
+            frame.clear();
+            Protocol.writeInfo(frame, problem + " Se une como espectador.");
+            send(c);
+            return;
+        }
+        c.setSeat(color);
+        seats.put(color, c);
+        Strategy original = game.getStrategy(color);
+        replacedStrategies.put(color, original);
+        game.setStrategy(color, new RemoteSeatStrategy(c, original));
+    }
+
+    /** Copia el marco armado en `frame` a un cliente y despierta al hilo de red. */
+    private void send(Connection c) {
+        frame.flip();
+        deliver(c);
+        selector.wakeup();
+    }
+
+    /** Copia el mismo marco a todos los clientes con un solo aviso al hilo de red. */
+    private void broadcast() {
+        frame.flip();
+        // de atrás hacia adelante: deliver puede sacar al cliente de la lista
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            deliver(clients.get(i));
+        }
+        selector.wakeup();
+    }
+
+    /** Encola el marco para un cliente; si tiene demasiado sin leer, lo desconecta. */
+    private void deliver(Connection c) {
+        if (c.enqueue(frame)) {
+            pendingFlush.add(c);
+            return;
+        }
+        System.err.println("Se desconecta un cliente que no lee: más de " + Connection.MAX_PENDING + " bytes pendientes.");
+        c.close();
+        handle(new Command(c, DISCONNECTED, 0));
+    }
+
+    private void networkLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Connection pending;
+                while ((pending = pendingFlush.poll()) != null) {
+                    SelectionKey key = pending.channel().keyFor(selector);
+                    if (key != null && key.isValid()) {
+                        flush(key, pending);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection c = (Connection) key.attachment();
+                    if (key.isReadable()) {
+                        read(key, c);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(key, c);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                System.err.println("Error en el hilo de red: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+    }
+
+    private void read(SelectionKey key, Connection c) {
+        try {
+            if (c.channel().read(c.in()) < 0) {
+                drop(key, c);
+                return;
+            }
+            Protocol.drainFrames(c.in(), (type, payload) -> {
+                int argument = payload.hasRemaining() ? payload.get() : 0;
+                commands.add(new Command(c, type, argument));
+            });
+        } catch (IOException | RuntimeException e) {
+            drop(key, c);
+        }
+    }
+
+    private void flush(SelectionKey key, Connection c) {
+        try {
+            boolean done = c.flush();
+            key.interestOps(done ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            drop(key, c);
+        }
+    }
+
+    private void drop(SelectionKey key, Connection c) {
+        key.cancel();
+        c.close();
+        commands.add(new Command(c, DISCONNECTED, 0));
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        if (networkThread != null) {
+            try {
+                networkThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection c) {
+                c.close();
+            }
+        }
+        selector.close();
+        server.close();
+    }
+
+    /** Mensaje recibido de un cliente, ya decodificado por el hilo de red. */
+    private static final class Command {
+        final Connection connection;
+        final byte type;
+        final int argument;
+
+        Command(Connection connection, byte type, int argument) {
+            this.connection = connection;
+            this.type = type;
+            this.argument = argument;
+        }
+    }
+
+    /**
+     * Estrategia de un asiento remoto: manda CHOOSE al dueño y espera su CHOICE en el hilo
+     * del motor. Si no hay respuesta a tiempo o el cliente se va, decide la estrategia original.
+     */
+    private final class RemoteSeatStrategy implements Strategy {
+        private final Connection owner;
+        private final Strategy fallback;
+
+        RemoteSeatStrategy(Connection owner, Strategy original) {
+            this.owner = owner;
+            this.fallback = original != null ? original : new FirstPieceStrategy();
+        }
+
+        @Override
+        public String getName() {
+            return "Remoto";
+        }
+
+        @Override
+        public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+            Piece chosen = ask(Protocol.FROM_BASE, piecesInBase);
+            return chosen != null ? chosen : fallback.choosePieceFromBase(game, piecesInBase);
+        }
+
+        @Override
+        public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+            // el motor siempre saca de base con un 6, así que este caso no se pregunta
+            return fallback.choosePieceOnSix(game, piecesInBase, piecesOnBoard);
+        }
+
+        @Override
+        public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+            Piece chosen = ask(Protocol.TO_MOVE, piecesOnBoard);
+            return chosen != null ? chosen : fallback.choosePieceToMove(game, piecesOnBoard);
+        }
+
+        private Piece ask(byte kind, List<Piece> candidates) {
+            if (candidates.size() == 1) {
+                return candidates.get(0);
+            }
+            int count = Math.min(candidates.size(), candidateIds.length);
+            for (int i = 0; i < count; i++) {
+                candidateIds[i] = candidates.get(i).getId();
+            }
+            frame.clear();
+            Protocol.writeChoose(frame, kind, game.getLastRoll(), candidateIds, count);
+            send(owner);
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CHOICE_TIMEOUT_MILLIS);
+            try {
+                long left;
+                while (seats.get(owner.getSeat()) == owner && (left = deadline - System.nanoTime()) > 0) {
+                    Command command = commands.poll(left, TimeUnit.NANOSECONDS);
+                    if (command == null || handle(command)) {
+                        continue;
+                    }
+                    if (command.connection == owner && command.type == Protocol.CHOICE) {
+                        for (Piece p : candidates) {
+                            if (p.getId() == command.argument) {
+                                return p;
+                            }
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+}
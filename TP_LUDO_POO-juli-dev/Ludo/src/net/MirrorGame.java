@@ -0,0 +1,168 @@
+package net;
+
+import bot.BotGame;
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.GameState;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplica local de una partida remota. Las fichas y el turno se actualizan con los
+ * mensajes del servidor, así que se puede leer y dibujar como cualquier Game (lo hace
+ * RemoteConsoleUI). Tirar el dado o rendirse se envían al servidor en vez de jugarse acá:
+ * playTurn y skipTurn son finales, así que el motor local nunca elige fichas y la
+ * estrategia de BotGame queda como relleno.
+ *
+ * Cada DELTA avisa a los TurnListener como un turno jugado acá, fuera del candado de la
+ * réplica y desde el hilo de red; así SwingGameUI la dibuja igual que a una partida local.
+ */
+public class MirrorGame extends BotGame {
+    private static final long TURN_TIMEOUT_MILLIS = 120_000;
+
+    private final LudoClient client;
+
+    private MirrorGame(List<Player> players, int mainPathSize, LudoClient client) {
+        super(players, mainPathSize, new FirstPieceStrategy());
+        this.client = client;
+        setVerbose(false);
+    }
+
+    /** Construye la réplica a partir del primer SNAPSHOT recibido. */
+    static MirrorGame fromSnapshot(ByteBuffer in, LudoClient client) {
+        int turnNumber = in.getInt();
+        GameState state = Protocol.readState(in);
+        Color current = Protocol.readColor(in);
+        int lastRoll = in.get();
+        int mainPathSize = in.getShort();
+        int playerCount = in.get();
+        List<Player> players = new ArrayList<>(playerCount);
+        int[][] progress = new int[playerCount][];
+        boolean[] resigned = new boolean[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            Color color = Color.values()[in.get()];
+            resigned[i] = in.get() != 0;
+            Player p = new Player(Protocol.readString(in), color);
+            int pieces = in.get();
+            p.initializePieces(pieces);
+            progress[i] = new int[pieces];
+            for (int j = 0; j < pieces; j++) {
+                progress[i][j] = in.getShort();
+            }
+            players.add(p);
+        }
+
+        MirrorGame mirror = new MirrorGame(players, mainPathSize, client);
+        synchronized (mirror) {
+            for (int i = 0; i < playerCount; i++) {
+                Player p = players.get(i);
+                if (resigned[i]) {
+                    p.rendirse();
+                }
+                for (int j = 0; j < progress[i].length; j++) {
+                    mirror.getBoard().placeAt(p.getPiece(j), progress[i][j]);
+                }
+            }
+            mirror.applyTurnState(current, lastRoll, state, turnNumber);
+        }
+        return mirror;
+    }
+
+    /** Aplica un DELTA: estado de turno, rendiciones y fichas que cambiaron de progreso. */
+    void applyDelta(ByteBuffer in) {
+        Player mover = null;
+        int lastRoll;
+        int pieceId;
+        boolean capture;
+        int from = 0;
+        int to = 0;
+        synchronized (this) {
+            int turnNumber = in.getInt();
+            GameState state = Protocol.readState(in);
+            Color current = Protocol.readColor(in);
+            lastRoll = in.get();
+            Color moverColor = Protocol.readColor(in);
+            pieceId = in.get();
+            capture = in.get() != 0;
+            int resigned = in.get();
+            int changes = in.get();
+            List<Player> players = getPlayers();
+            for (int i = 0; i < players.size(); i++) {
+                if (players.get(i).getColor() == moverColor) {
+                    mover = players.get(i);
+                }
+                if ((resigned & (1 << i)) != 0 && !players.get(i).isRendido()) {
+                    players.get(i).rendirse();
+                }
+            }
+            Piece moved = null;
+            for (int j = 0; mover != null && j < mover.getPieceCount(); j++) {
+                if (mover.getPiece(j).getId() == pieceId) {
+                    moved = mover.getPiece(j);
+                }
+            }
+            if (moved != null) {
+                from = getBoard().getProgress(moved);
+            }
+            for (int k = 0; k < changes; k++) {
+                Player p = players.get(in.get());
+                Piece piece = p.getPiece(in.get());
+                getBoard().placeAt(piece, in.getShort());
+            }
+            if (moved != null) {
+                to = getBoard().getProgress(moved);
+            }
+            applyTurnState(current, lastRoll, state, turnNumber);
+            notifyAll();
+        }
+        if (mover != null) {
+            fireTurn(mover, lastRoll, pieceId, from, to, capture);
+        }
+    }
+
+    /** Si le toca jugar al asiento de este cliente (siempre falso para un espectador). */
+    public synchronized boolean isOwnTurn() {
+        Player current = getCurrentPlayer();
+        return getState() == GameState.IN_PROGRESS && current != null && current.getColor() == client.getSeat();
+    }
+
+    /** Muestra el dado de un turno que el servidor todavía no terminó (pedido de elección). */
+    synchronized void showRoll(int roll) {
+        applyTurnState(getCurrentPlayer().getColor(), roll, getState(), getTurnNumber());
+    }
+
+    /** Pide al servidor que tire el dado y espera hasta que llegue el resultado del turno. */
+    @Override
+    public final void playTurn() {
+        int before = getTurnNumber();
+        client.roll();
+        awaitChange(before, getCurrentPlayer());
+    }
+
+    /** Envía la rendición del jugador actual; la marca local la pone la UI antes de llamar. */
+    @Override
+    public final void skipTurn() {
+        int before = getTurnNumber();
+        client.resign();
+        awaitChange(before, getCurrentPlayer());
+    }
+
+    private synchronized void awaitChange(int turnNumber, Player current) {
+        long deadline = System.currentTimeMillis() + TURN_TIMEOUT_MILLIS;
+        try {
+            while (getTurnNumber() == turnNumber && getCurrentPlayer() == current
+                    && getState() == GameState.IN_PROGRESS && !client.isClosed()) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    return;
+                }
+                wait(left);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
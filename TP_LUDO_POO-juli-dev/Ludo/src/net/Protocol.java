@@ -0,0 +1,196 @@
+package net;
+
+import core.Color;
+import game.GameSnapshot;
+import game.GameState;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato binario entre servidor y clientes. Cada mensaje es un marco
+ * [int largo][byte tipo][contenido], donde el largo cuenta el tipo y el contenido.
+ * El servidor manda una foto completa al conectarse y después solo diferencias por turno:
+ * el dado, la ficha movida y las fichas que cambiaron de progreso (incluidas las capturadas).
+ */
+public final class Protocol {
+    public static final int DEFAULT_PORT = 4747;
+    /** Tope de un marco; ningún mensaje legítimo se le acerca. */
+    public static final int MAX_FRAME = 8 * 1024;
+
+    // servidor -> cliente
+    public static final byte SNAPSHOT = 1;
+    public static final byte DELTA = 2;
+    public static final byte CHOOSE = 3;
+    public static final byte INFO = 4;
+    // cliente -> servidor
+    public static final byte HELLO = 20;
+    public static final byte ROLL = 21;
+    public static final byte RESIGN = 22;
+    public static final byte CHOICE = 23;
+
+    /** Rol de HELLO para mirar la partida sin ocupar un asiento. */
+    public static final byte SPECTATOR = -1;
+    /** Tipos de elección de CHOOSE. */
+    public static final byte FROM_BASE = 0;
+    public static final byte TO_MOVE = 1;
+
+    private static final byte NO_COLOR = -1;
+
+    private Protocol() {
+    }
+
+    /** Reserva la cabecera; endFrame completa el largo cuando el contenido ya está escrito. */
+    static int beginFrame(ByteBuffer out, byte type) {
+        int start = out.position();
+        out.putInt(0);
+        out.put(type);
+        return start;
+    }
+
+    static void endFrame(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    /** Foto completa: estado de turno y progreso de cada ficha de cada jugador. */
+    static void writeSnapshot(ByteBuffer out, GameSnapshot snapshot) {
+        int start = beginFrame(out, SNAPSHOT);
+        writeTurnHeader(out, snapshot);
+        out.putShort((short) snapshot.getMainPathSize());
+        out.put((byte) snapshot.getPlayerCount());
+        for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot p = snapshot.getPlayer(i);
+            out.put((byte) p.getColor().ordinal());
+            out.put((byte) (p.isResigned() ? 1 : 0));
+            byte[] name = p.getName().getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) name.length);
+            out.put(name);
+            out.put((byte) p.getPieceCount());
+            for (int j = 0; j < p.getPieceCount(); j++) {
+                out.putShort((short) p.getProgress(j));
+            }
+        }
+        endFrame(out, start);
+    }
+
+    /**
+     * Diferencia entre dos fotos consecutivas. Gracias a que GameSnapshot comparte los
+     * jugadores sin cambios, solo se recorren las fichas de los jugadores que sí cambiaron.
+     */
+    static void writeDelta(ByteBuffer out, GameSnapshot previous, GameSnapshot current,
+                           Color mover, int pieceId, boolean capture) {
+        int start = beginFrame(out, DELTA);
+        writeTurnHeader(out, current);
+        out.put(mover == null ? NO_COLOR : (byte) mover.ordinal());
+        out.put((byte) pieceId);
+        out.put((byte) (capture ? 1 : 0));
+        int resigned = 0;
+        for (int i = 0; i < current.getPlayerCount(); i++) {
+            if (current.getPlayer(i).isResigned()) {
+                resigned |= 1 << i;
+            }
+        }
+        out.put((byte) resigned);
+        int countAt = out.position();
+        out.put((byte) 0);
+        int changes = 0;
+        for (int i = 0; i < current.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot now = current.getPlayer(i);
+            GameSnapshot.PlayerSnapshot before = previous.getPlayer(i);
+            if (now == before) {
+                continue;
+            }
+            for (int j = 0; j < now.getPieceCount(); j++) {
+                if (now.getProgress(j) != before.getProgress(j)) {
+                    out.put((byte) i);
+                    out.put((byte) j);
+                    out.putShort((short) now.getProgress(j));
+                    changes++;
+                }
+            }
+        }
+        out.put(countAt, (byte) changes);
+        endFrame(out, start);
+    }
+
+    private static void writeTurnHeader(ByteBuffer out, GameSnapshot snapshot) {
+        out.putInt(snapshot.getTurnNumber());
+        out.put((byte) snapshot.getState().ordinal());
+        Color current = snapshot.getCurrentColor();
+        out.put(current == null ? NO_COLOR : (byte) current.ordinal());
+        out.put((byte) snapshot.getLastRoll());
+    }
+
+    /** Pedido de elección: tipo, dado y los ids de las fichas candidatas. */
+    static void writeChoose(ByteBuffer out, byte kind, int roll, int[] candidateIds, int count) {
+        int start = beginFrame(out, CHOOSE);
+        out.put(kind);
+        out.put((byte) roll);
+        out.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            out.put((byte) candidateIds[i]);
+        }
+        endFrame(out, start);
+    }
+
+    static void writeInfo(ByteBuffer out, String text) {
+        int start = beginFrame(out, INFO);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+        endFrame(out, start);
+    }
+
+    /** Mensaje del cliente con un argumento de un byte (rol, ficha); los demás van vacíos. */
+    static void writeCommand(ByteBuffer out, byte type, int argument) {
+        int start = beginFrame(out, type);
+        if (type == HELLO || type == CHOICE) {
+            out.put((byte) argument);
+        }
+        endFrame(out, start);
+    }
+
+    static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static Color readColor(ByteBuffer in) {
+        byte ordinal = in.get();
+        return ordinal == NO_COLOR ? null : Color.values()[ordinal];
+    }
+
+    static GameState readState(ByteBuffer in) {
+        return GameState.values()[in.get()];
+    }
+
+    /**
+     * Recorre los marcos completos del buffer (en modo lectura) y deja en él solo el resto
+     * incompleto, ya compactado para seguir leyendo del canal.
+     */
+    static void drainFrames(ByteBuffer in, FrameHandler handler) {
+        in.flip();
+        while (in.remaining() >= 4) {
+            int length = in.getInt(in.position());
+            if (length <= 0 || length > MAX_FRAME) {
+                throw new IllegalStateException("Marco inválido de " + length + " bytes.");
+            }
+            if (in.remaining() < 4 + length) {
+                break;
+            }
+            int end = in.position() + 4 + length;
+            in.position(in.position() + 4);
+            byte type = in.get();
+            ByteBuffer payload = in.slice(in.position(), end - in.position());
+            handler.onFrame(type, payload);
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    @FunctionalInterface
+    interface FrameHandler {
+        void onFrame(byte type, ByteBuffer payload);
+    }
+}
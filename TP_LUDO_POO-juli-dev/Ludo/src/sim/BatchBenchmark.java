@@ -0,0 +1,74 @@
+package sim;
+
+import board.RuleSet;
+import bot.Strategies;
+import core.Color;
+
+/**
+ * Compara el motor normal (Simulation en un hilo) con el simulador por lotes para las
+ * políticas que este soporta: velocidad, partidas idénticas semilla por semilla y las
+ * estadísticas agregadas de ambos almacenes.
+ *
+ * Uso: java --add-modules jdk.incubator.vector sim.BatchBenchmark [partidas] [--reglas <regla,regla,..>]
+ */
+public class BatchBenchmark {
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 && !args[0].startsWith("--") ? Integer.parseInt(args[0]) : 20_000;
+        RuleSet rules = RuleSet.standard();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--reglas")) {
+                rules = RuleSet.parse(args[++i]);
+            }
+        }
+        compare(Strategies.RUNNER, BatchSimulator.RUNNER, rules, games);
+        compare(Strategies.AGGRESSIVE, BatchSimulator.AGGRESSIVE, rules, games);
+    }
+
+    private static void compare(String strategy, int policy, RuleSet rules, int games) throws Exception {
+        Simulation scalar = new Simulation(4, 4, 56, strategy, rules);
+        BatchSimulator batch = new BatchSimulator(4, 4, 56, rules, policy);
+
+        // calentamiento de los dos caminos antes de medir
+        try (ResultStore warm = ResultStore.offHeap(1 << 16)) {
+            scalar.run(1_000_000, games / 4, 1, warm, false);
+        }
+        batch.run(1_000_000, games / 4);
+
+        try (ResultStore scalarStore = ResultStore.offHeap(1 << 20);
+             ResultStore batchStore = ResultStore.offHeap(1 << 20)) {
+            long start = System.nanoTime();
+            scalar.run(1, games, 1, scalarStore, false);
+            double scalarSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            batch.run(1, games);
+            double batchSeconds = (System.nanoTime() - start) / 1e9;
+            batch.recordInto(batchStore);
+
+            int[] mismatches = new int[1];
+            long[][] rows = new long[games][];
+            scalarStore.scanGames((game, seed, winner, turns, captures, finishOrder) ->
+                    rows[(int) game] = new long[]{seed, winner, turns, captures, finishOrder});
+            batchStore.scanGames((game, seed, winner, turns, captures, finishOrder) -> {
+                long[] row = rows[(int) game];
+                if (row[0] != seed || row[1] != winner || row[2] != turns || row[3] != captures || row[4] != finishOrder) {
+                    mismatches[0]++;
+                }
+            });
+
+            System.out.printf("%s, reglas %s, %d partidas%n", strategy, rules, games);
+            System.out.printf("  motor:  %6.2f s (%.0f partidas/s)%n", scalarSeconds, games / scalarSeconds);
+            System.out.printf("  lotes:  %6.2f s (%.0f partidas/s), %.1fx%n", batchSeconds, games / batchSeconds,
+                    scalarSeconds / batchSeconds);
+            System.out.printf("  partidas distintas: %d%n", mismatches[0]);
+            long[] scalarWins = scalarStore.winsByColor();
+            long[] batchWins = batchStore.winsByColor();
+            for (Color c : Color.values()) {
+                System.out.printf("  %-7s %6.2f%% / %6.2f%% victorias%n", c,
+                        100.0 * scalarWins[c.ordinal()] / games, 100.0 * batchWins[c.ordinal()] / games);
+            }
+            System.out.printf("  turnos promedio %.1f / %.1f, capturas %d / %d%n", scalarStore.meanTurns(),
+                    batchStore.meanTurns(), scalarStore.totalCaptures(), batchStore.totalCaptures());
+        }
+    }
+}
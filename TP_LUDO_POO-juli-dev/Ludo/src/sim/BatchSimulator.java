@@ -0,0 +1,505 @@
+package sim;
+
+import board.BoardTopology;
+import board.RuleSet;
+import board.RuleTables;
+import core.Color;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Simulador por lotes: avanza miles de partidas independientes a la par, un turno por
+ * partida en cada paso, con el estado en estructura de arreglos (un int por ficha y por
+ * partida, sin objetos). Reproduce las reglas y el orden de decisiones de Game con las
+ * estrategias Corredor y Agresivo, y el dado es el mismo generador de java.util.Random por
+ * partida, así que con la misma semilla cada partida termina igual que en el motor normal.
+ *
+ * Cada fase del turno (tirada, elección, movimiento, captura y fin de turno) se aplica con
+ * jdk.incubator.vector sobre partidas contiguas, un carril por partida: lo que en Game es un
+ * if por partida acá es una máscara por carril. Como a cada carril le toca un asiento
+ * distinto, las fichas se recorren asiento por asiento con la máscara de los carriles de ese
+ * asiento, y cada fila progress[ranura * stride + partida] se lee de corrido. Las partidas
+ * terminadas se compactan hacia el frente cuando quedan menos de la mitad vivas.
+ *
+ * Necesita --add-modules jdk.incubator.vector al compilar y al ejecutar.
+ */
+public final class BatchSimulator {
+    /** Políticas disponibles, equivalentes a RunnerStrategy y AggressiveStrategy. */
+    public static final int RUNNER = 0;
+    public static final int AGGRESSIVE = 1;
+
+    private static final VectorSpecies<Integer> I = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> L = LongVector.SPECIES_PREFERRED;
+    // enteros con tantos carriles como L, para pasar las tiradas de long a int
+    private static final VectorSpecies<Integer> IL =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(L.vectorBitSize() / 2));
+    private static final int LANES = I.length();
+
+    private static final int IN_BASE = -1;
+    private static final int NO_MOVE = Integer.MIN_VALUE / 2;
+    // constantes del generador lineal congruencial de java.util.Random
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    // u / 6 = (u * DIV6) >>> 34 para todo u de 32 bits sin signo
+    private static final long DIV6 = 0xAAAAAAABL;
+
+    private final int players;
+    private final int pieces;
+    private final int slots;
+    private final int mainPathSize;
+    private final int finish;
+    private final int policy;
+    private final boolean exactFinish;
+    private final boolean extraRollOnSix;
+    // casillas del camino principal donde no se captura
+    private final int[] safe;
+    private final int[] entry;
+
+    // estado por carril; las fichas van en progress[ranura * stride + carril]
+    private int stride;
+    private int width;
+    private int liveCount;
+    private long[] rng;
+    private int[] progress;
+    private int[] current;
+    private int[] turns;
+    private int[] captures;
+    private int[] finishOrder;
+    private int[] finishedCount;
+    private int[] rolls;
+    private int[] alive;
+    private int[] origin;
+    // posiciones absolutas de todas las fichas de un grupo de carriles, para la política agresiva
+    private final int[] absolute;
+    // 1 si el asiento completó sus fichas, por asiento y carril del grupo
+    private final int[] won;
+
+    // resultados por partida, en orden de semilla
+    private int games;
+    private long[] seeds;
+    private int[] resultTurns;
+    private int[] resultCaptures;
+    private int[] resultFinishOrder;
+
+    public BatchSimulator(int players, int pieces, int mainPathSize, RuleSet ruleSet, int policy) {
+        if (players < 2 || players > Color.values().length) {
+            throw new IllegalArgumentException("La cantidad de jugadores debe estar entre 2 y " + Color.values().length + ".");
+        }
+        if (ruleSet.hasBlockades()) {
+            throw new IllegalArgumentException("El simulador por lotes no admite la regla de bloqueos.");
+        }
+        if (policy != RUNNER && policy != AGGRESSIVE) {
+            throw new IllegalArgumentException("Política desconocida: " + policy);
+        }
+        this.players = players;
+        this.pieces = pieces;
+        this.slots = players * pieces;
+        this.mainPathSize = mainPathSize;
+        this.finish = mainPathSize + board.Board.FINAL_PATH_LENGTH - 1;
+        this.policy = policy;
+        BoardTopology topology = BoardTopology.of(mainPathSize, (1 << players) - 1, ruleSet);
+        RuleTables rules = topology.getRules();
+        this.exactFinish = ruleSet.isExactFinish();
+        this.extraRollOnSix = rules.grantsExtraRoll(6);
+        this.safe = IntStream.range(0, mainPathSize).filter(i -> !rules.canCaptureAt(i)).toArray();
+        this.entry = new int[players];
+        for (int seat = 0; seat < players; seat++) {
+            entry[seat] = topology.getEntryPosition(Color.values()[seat]);
+        }
+        this.absolute = new int[slots * LANES];
+        this.won = new int[players * LANES];
+    }
+
+    /** Juega hasta el final las partidas con semillas firstSeed..firstSeed+count-1. */
+    public void run(long firstSeed, int count) {
+        reset(firstSeed, count);
+        while (liveCount > 0) {
+            step();
+            if (liveCount <= width / 2 && width > LANES) {
+                compact();
+            }
+        }
+    }
+
+    private void reset(long firstSeed, int count) {
+        int lanes = (count + LANES - 1) / LANES * LANES;
+        if (rng == null || stride < lanes) {
+            stride = lanes;
+            rng = new long[lanes];
+            progress = new int[slots * lanes];
+            current = new int[lanes];
+            turns = new int[lanes];
+            captures = new int[lanes];
+            finishOrder = new int[lanes];
+            finishedCount = new int[lanes];
+            rolls = new int[lanes];
+            alive = new int[lanes];
+            origin = new int[lanes];
+        }
+        if (seeds == null || seeds.length < count) {
+            seeds = new long[count];
+            resultTurns = new int[count];
+            resultCaptures = new int[count];
+            resultFinishOrder = new int[count];
+        }
+        games = count;
+        width = lanes;
+        Arrays.fill(progress, IN_BASE);
+        Arrays.fill(current, 0);
+        Arrays.fill(turns, 0);
+        Arrays.fill(captures, 0);
+        Arrays.fill(finishOrder, 0);
+        Arrays.fill(finishedCount, 0);
+        Arrays.fill(alive, 0);
+        for (int g = 0; g < count; g++) {
+            seeds[g] = firstSeed + g;
+            rng[g] = (seeds[g] ^ MULTIPLIER) & MASK;
+            alive[g] = 1;
+            origin[g] = g;
+        }
+        liveCount = count;
+    }
+
+    /** Un turno en cada partida viva: primero todas las tiradas, después las jugadas. */
+    private void step() {
+        for (int g = 0; g < width; g += L.length()) {
+            roll(g);
+        }
+        for (int g = 0; g < width; g += LANES) {
+            play(g);
+        }
+    }
+
+    /** Dado de java.util.Random.nextInt(6) + 1 para un grupo de carriles. */
+    private void roll(int g) {
+        LongVector s = LongVector.fromArray(L, rng, g).mul(MULTIPLIER).add(ADDEND).and(MASK);
+        LongVector u = s.lanewise(VectorOperators.LSHR, 17);
+        LongVector r = u.sub(u.mul(DIV6).lanewise(VectorOperators.LSHR, 34).mul(6));
+        s.intoArray(rng, g);
+        r.add(1).convertShape(VectorOperators.L2I, IL, 0).reinterpretAsInts().intoArray(rolls, g);
+        // Random rechaza los valores del final del rango (casi nunca): esos carriles tiran de nuevo
+        VectorMask<Long> rejected = u.sub(r).add(5).compare(VectorOperators.GT, Integer.MAX_VALUE);
+        if (rejected.anyTrue()) {
+            for (int lane = 0; lane < L.length(); lane++) {
+                if (rejected.laneIsSet(lane)) {
+                    rolls[g + lane] = scalarRoll(g + lane);
+                }
+            }
+        }
+    }
+
+    private int scalarRoll(int g) {
+        long s = rng[g];
+        int u;
+        int r;
+        do {
+            s = (s * MULTIPLIER + ADDEND) & MASK;
+            u = (int) (s >>> 17);
+            r = u % 6;
+        } while (u - r + 5 < 0);
+        rng[g] = s;
+        return r + 1;
+    }
+
+    /** Juega el turno de cada carril vivo del grupo que empieza en g. */
+    private void play(int g) {
+        VectorMask<Integer> live = IntVector.fromArray(I, alive, g).compare(VectorOperators.NE, 0);
+        if (!live.anyTrue()) {
+            return;
+        }
+        IntVector cur = IntVector.fromArray(I, current, g);
+        IntVector roll = IntVector.fromArray(I, rolls, g);
+        IntVector turn = IntVector.fromArray(I, turns, g).add(1, live);
+        turn.intoArray(turns, g);
+        if (policy == AGGRESSIVE) {
+            fillAbsolute(g);
+        }
+
+        // elección: contar fichas del que mueve y quedarse con la de mayor puntaje
+        IntVector zero = IntVector.zero(I);
+        IntVector inBase = zero;
+        IntVector onBoard = zero;
+        IntVector firstInBase = IntVector.broadcast(I, -1);
+        IntVector best = firstInBase;
+        IntVector bestScore = IntVector.broadcast(I, Integer.MIN_VALUE);
+        IntVector bestFrom = zero;
+        IntVector bestTo = zero;
+        for (int seat = 0; seat < players; seat++) {
+            VectorMask<Integer> mine = live.and(cur.compare(VectorOperators.EQ, seat));
+            if (!mine.anyTrue()) {
+                continue;
+            }
+            for (int k = 0; k < pieces; k++) {
+                IntVector p = IntVector.fromArray(I, progress, (seat * pieces + k) * stride + g);
+                VectorMask<Integer> base = mine.and(p.compare(VectorOperators.EQ, IN_BASE));
+                inBase = inBase.add(1, base);
+                firstInBase = firstInBase.blend(k, base.and(firstInBase.compare(VectorOperators.LT, 0)));
+                VectorMask<Integer> candidate = mine.andNot(base).and(p.compare(VectorOperators.NE, finish));
+                if (!candidate.anyTrue()) {
+                    continue;
+                }
+                onBoard = onBoard.add(1, candidate);
+                IntVector to = advance(p, roll);
+                IntVector score = policy == RUNNER ? p : aggressiveScore(seat, to);
+                score = score.blend(NO_MOVE, to.compare(VectorOperators.EQ, p));
+                VectorMask<Integer> better = candidate.and(score.compare(VectorOperators.GT, bestScore));
+                bestScore = bestScore.blend(score, better);
+                best = best.blend(k, better);
+                bestFrom = bestFrom.blend(p, better);
+                bestTo = bestTo.blend(to, better);
+            }
+        }
+
+        // casos de Game.executeTurn: sin fichas en tablero, 6 con fichas en base, o mover
+        VectorMask<Integer> six = roll.compare(VectorOperators.EQ, 6);
+        VectorMask<Integer> none = live.and(onBoard.compare(VectorOperators.EQ, 0));
+        VectorMask<Integer> sixWithBase = six.and(inBase.compare(VectorOperators.GT, 0));
+        VectorMask<Integer> leaveBase = live.and(six).and(none.or(sixWithBase));
+        VectorMask<Integer> move = live.andNot(none).andNot(sixWithBase).and(bestTo.compare(VectorOperators.NE, bestFrom));
+        // con todas en base el 6 saca ficha y el jugador no pasa el turno
+        VectorMask<Integer> endTurn = live.andNot(none.and(six));
+
+        VectorMask<Integer> changed = leaveBase.or(move);
+        if (changed.anyTrue()) {
+            for (int seat = 0; seat < players; seat++) {
+                VectorMask<Integer> mine = changed.and(cur.compare(VectorOperators.EQ, seat));
+                if (!mine.anyTrue()) {
+                    continue;
+                }
+                for (int k = 0; k < pieces; k++) {
+                    VectorMask<Integer> out = mine.and(leaveBase).and(firstInBase.compare(VectorOperators.EQ, k));
+                    VectorMask<Integer> moved = mine.and(move).and(best.compare(VectorOperators.EQ, k));
+                    if (out.or(moved).anyTrue()) {
+                        int row = (seat * pieces + k) * stride + g;
+                        IntVector.fromArray(I, progress, row).blend(0, out).blend(bestTo, moved).intoArray(progress, row);
+                    }
+                }
+            }
+        }
+        capture(g, cur, move.and(bestTo.compare(VectorOperators.LT, mainPathSize)), bestTo);
+        endTurn(g, cur, roll, endTurn, turn, live);
+    }
+
+    /** Destino al mover `roll` desde `p`, como RuleTables.advance (Board.moveOnMainPath / moveOnFinalPath). */
+    private IntVector advance(IntVector p, IntVector roll) {
+        IntVector target = p.add(roll);
+        // al completar la vuelta se entra siempre a la primera casilla del camino final
+        IntVector onMain = target.min(mainPathSize);
+        IntVector overshoot = exactFinish ? p : IntVector.broadcast(I, finish);
+        IntVector onFinal = target.blend(overshoot, target.compare(VectorOperators.GT, finish));
+        return onFinal.blend(onMain, p.compare(VectorOperators.LT, mainPathSize));
+    }
+
+    /** Índice del camino principal, para valores en [0, 2 * mainPathSize). */
+    private IntVector wrap(IntVector index) {
+        return index.lanewise(VectorOperators.SUB, mainPathSize, index.compare(VectorOperators.GE, mainPathSize));
+    }
+
+    private VectorMask<Integer> capturable(IntVector index) {
+        VectorMask<Integer> ok = I.maskAll(true);
+        for (int square : safe) {
+            ok = ok.and(index.compare(VectorOperators.NE, square));
+        }
+        return ok;
+    }
+
+    private void fillAbsolute(int g) {
+        for (int s = 0; s < slots; s++) {
+            IntVector p = IntVector.fromArray(I, progress, s * stride + g);
+            VectorMask<Integer> onMain = p.compare(VectorOperators.GE, 0).and(p.compare(VectorOperators.LT, mainPathSize));
+            wrap(p.add(entry[s / pieces])).blend(-1, onMain.not()).intoArray(absolute, s * LANES);
+        }
+    }
+
+    /** Mismo puntaje que AggressiveStrategy: capturar primero, si no acercarse a rivales. */
+    private IntVector aggressiveScore(int seat, IntVector to) {
+        IntVector index = wrap(to.add(entry[seat]));
+        IntVector opponents = opponentsAt(seat, index);
+        VectorMask<Integer> captures = capturable(index).and(opponents.compare(VectorOperators.GT, 0));
+        IntVector targets = IntVector.zero(I);
+        for (int distance = 1; distance <= 6; distance++) {
+            VectorMask<Integer> inRange = to.compare(VectorOperators.LT, mainPathSize - distance);
+            if (!inRange.anyTrue()) {
+                continue;
+            }
+            IntVector ahead = wrap(index.add(distance));
+            targets = targets.add(opponentsAt(seat, ahead), inRange.and(capturable(ahead)));
+        }
+        IntVector score = targets.mul(100).add(to).blend(to.add(10_000), captures);
+        return score.blend(to, to.compare(VectorOperators.GE, mainPathSize));
+    }
+
+    private IntVector opponentsAt(int seat, IntVector index) {
+        IntVector count = IntVector.zero(I);
+        for (int s = 0; s < slots; s++) {
+            if (s / pieces != seat) {
+                VectorMask<Integer> here = IntVector.fromArray(I, absolute, s * LANES).compare(VectorOperators.EQ, index);
+                count = count.add(1, here);
+            }
+        }
+        return count;
+    }
+
+    /** Devuelve a su base las fichas rivales en la casilla de llegada, si ahí se captura. */
+    private void capture(int g, IntVector cur, VectorMask<Integer> landed, IntVector to) {
+        if (!landed.anyTrue()) {
+            return;
+        }
+        IntVector moverEntry = IntVector.zero(I);
+        for (int seat = 0; seat < players; seat++) {
+            moverEntry = moverEntry.blend(entry[seat], cur.compare(VectorOperators.EQ, seat));
+        }
+        IntVector index = wrap(to.add(moverEntry));
+        VectorMask<Integer> capturing = landed.and(capturable(index));
+        if (!capturing.anyTrue()) {
+            return;
+        }
+        IntVector caught = IntVector.zero(I);
+        for (int seat = 0; seat < players; seat++) {
+            VectorMask<Integer> rivals = capturing.and(cur.compare(VectorOperators.NE, seat));
+            if (!rivals.anyTrue()) {
+                continue;
+            }
+            for (int k = 0; k < pieces; k++) {
+                int row = (seat * pieces + k) * stride + g;
+                IntVector p = IntVector.fromArray(I, progress, row);
+                VectorMask<Integer> hit = rivals.and(p.compare(VectorOperators.GE, 0))
+                        .and(p.compare(VectorOperators.LT, mainPathSize))
+                        .and(wrap(p.add(entry[seat])).compare(VectorOperators.EQ, index));
+                if (hit.anyTrue()) {
+                    p.blend(IN_BASE, hit).intoArray(progress, row);
+                    caught = caught.add(1, hit);
+                }
+            }
+        }
+        IntVector.fromArray(I, captures, g).add(caught).intoArray(captures, g);
+    }
+
+    /** Igual que Game.endTurn más el registro del orden de llegada; cierra las partidas terminadas. */
+    private void endTurn(int g, IntVector cur, IntVector roll, VectorMask<Integer> ending, IntVector turn,
+                         VectorMask<Integer> live) {
+        for (int seat = 0; seat < players; seat++) {
+            VectorMask<Integer> done = I.maskAll(true);
+            for (int k = 0; k < pieces; k++) {
+                done = done.and(IntVector.fromArray(I, progress, (seat * pieces + k) * stride + g)
+                        .compare(VectorOperators.EQ, finish));
+            }
+            IntVector.zero(I).blend(1, done).intoArray(won, seat * LANES);
+        }
+        VectorMask<Integer> moverWon = ending.and(wonAt(cur));
+        // quien completa no vuelve a jugar, así que entra una sola vez en el orden
+        IntVector count = IntVector.fromArray(I, finishedCount, g);
+        IntVector order = IntVector.fromArray(I, finishOrder, g)
+                .lanewise(VectorOperators.OR, cur.add(1).lanewise(VectorOperators.LSHL, count.mul(3)), moverWon);
+        count = count.add(1, moverWon);
+        order.intoArray(finishOrder, g);
+        count.intoArray(finishedCount, g);
+
+        VectorMask<Integer> over = ending.and(count.compare(VectorOperators.GE, players - 1));
+        VectorMask<Integer> keep = extraRollOnSix ? roll.compare(VectorOperators.EQ, 6).andNot(moverWon) : I.maskAll(false);
+        VectorMask<Integer> pass = ending.andNot(over).andNot(keep);
+        IntVector next = cur;
+        for (int i = 0; i < players && pass.anyTrue(); i++) {
+            IntVector advanced = next.add(1);
+            next = next.blend(advanced.blend(0, advanced.compare(VectorOperators.EQ, players)), pass);
+            pass = pass.and(wonAt(next));
+        }
+        next.intoArray(current, g);
+
+        VectorMask<Integer> finished = over.or(live.and(turn.compare(VectorOperators.GE, Simulation.MAX_TURNS)));
+        if (finished.anyTrue()) {
+            for (int lane = 0; lane < LANES; lane++) {
+                if (finished.laneIsSet(lane)) {
+                    close(g + lane);
+                }
+            }
+        }
+    }
+
+    private VectorMask<Integer> wonAt(IntVector seatOfLane) {
+        VectorMask<Integer> result = I.maskAll(false);
+        for (int seat = 0; seat < players; seat++) {
+            VectorMask<Integer> done = IntVector.fromArray(I, won, seat * LANES).compare(VectorOperators.NE, 0);
+            result = result.or(done.and(seatOfLane.compare(VectorOperators.EQ, seat)));
+        }
+        return result;
+    }
+
+    private void close(int lane) {
+        int game = origin[lane];
+        resultTurns[game] = turns[lane];
+        resultCaptures[game] = captures[lane];
+        resultFinishOrder[game] = finishOrder[lane];
+        alive[lane] = 0;
+        liveCount--;
+    }
+
+    /** Mueve los carriles vivos al frente y achica el ancho recorrido en cada paso. */
+    private void compact() {
+        int next = 0;
+        for (int lane = 0; lane < width; lane++) {
+            if (alive[lane] == 0) {
+                continue;
+            }
+            if (lane != next) {
+                for (int s = 0; s < slots; s++) {
+                    progress[s * stride + next] = progress[s * stride + lane];
+                }
+                rng[next] = rng[lane];
+                current[next] = current[lane];
+                turns[next] = turns[lane];
+                captures[next] = captures[lane];
+                finishOrder[next] = finishOrder[lane];
+                finishedCount[next] = finishedCount[lane];
+                origin[next] = origin[lane];
+                alive[next] = 1;
+            }
+            next++;
+        }
+        int newWidth = Math.max(LANES, (next + LANES - 1) / LANES * LANES);
+        Arrays.fill(alive, next, width, 0);
+        width = newWidth;
+    }
+
+    public int getGameCount() {
+        return games;
+    }
+
+    public long getSeed(int game) {
+        return seeds[game];
+    }
+
+    public int getTurns(int game) {
+        return resultTurns[game];
+    }
+
+    public int getCaptures(int game) {
+        return resultCaptures[game];
+    }
+
+    /** Orden de llegada empaquetado como en ResultStore.packFinishOrder. */
+    public int getFinishOrder(int game) {
+        return resultFinishOrder[game];
+    }
+
+    /** Primer color en completar sus fichas, o null si la partida se cortó antes. */
+    public Color getWinner(int game) {
+        int slot = resultFinishOrder[game] & 7;
+        return slot == 0 ? null : Color.values()[slot - 1];
+    }
+
+    /** Vuelca las partidas del último run en el almacén, en orden de semilla. */
+    public void recordInto(ResultStore store) {
+        for (int g = 0; g < games; g++) {
+            store.recordGame(seeds[g], getWinner(g), resultTurns[g], resultCaptures[g], resultFinishOrder[g], null);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package sim;
+
+import bot.Strategies;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameState;
+import game.TurnListener;
+import utils.RollStats;
+
+import java.util.function.Consumer;
+
+/**
+ * Auditoría de equidad del dado: escucha cada tirada de las partidas a las que se engancha
+ * y lleva RollStats por partida, por jugador dentro de la partida, por color sobre todas
+ * las partidas y en total. Avisa cuando una prueba (chi-cuadrado de las caras, racha sin 6
+ * más larga, correlación entre tiradas seguidas) da un valor p menor al umbral.
+ *
+ * Se engancha como TurnListener, no dentro de Dice: así ve cualquier generador que use la
+ * partida, y sabe de qué partida y jugador es cada tirada. Por tirada solo se actualizan dos
+ * RollStats de la partida, sin sincronizar; lo global se suma una vez por partida al cerrar.
+ * Por partida y por jugador se hacen muchas pruebas, así que su umbral es más exigente.
+ *
+ * Lo global se prueba cuando el total de partidas llega a 1, 2, 4, 8..., y en la revisión k
+ * (desde 0) con umbral alfa / ((k + 1)(k + 2)). Esos umbrales suman alfa, así que con un dado
+ * justo la probabilidad de algún aviso global en toda la corrida, por prueba y alcance, no
+ * pasa de alfa por más larga que sea. Probar tras cada partida con alfa fijo terminaría
+ * avisando casi seguro.
+ */
+public class DiceAuditor {
+    /** Probabilidad de falsa alarma global en toda la corrida, por prueba y alcance. */
+    public static final double DEFAULT_GLOBAL_ALPHA = 1e-4;
+    public static final double DEFAULT_GAME_ALPHA = 1e-6;
+    /** Tiradas mínimas para el chi-cuadrado: cinco esperadas por cara. */
+    public static final long MIN_CHI_ROLLS = 30;
+
+    private static final String[] TESTS = {"caras", "racha sin 6", "correlación"};
+
+    private final double globalAlpha;
+    private final double gameAlpha;
+    private final Consumer<String> alerts;
+    private final RollStats global = new RollStats();
+    private final RollStats[] byColor = new RollStats[Color.values().length];
+    // pruebas globales que están por debajo del umbral: total y por color, para no repetir avisos
+    private final boolean[][] failing = new boolean[Color.values().length + 1][TESTS.length];
+    private long games;
+    private long gameAlerts;
+
+    public DiceAuditor() {
+        this(DEFAULT_GLOBAL_ALPHA, DEFAULT_GAME_ALPHA, System.err::println);
+    }
+
+    public DiceAuditor(double globalAlpha, double gameAlpha, Consumer<String> alerts) {
+        if (!(globalAlpha > 0 && globalAlpha < 1) || !(gameAlpha > 0 && gameAlpha < 1) || alerts == null) {
+            throw new IllegalArgumentException("Los umbrales deben estar entre 0 y 1.");
+        }
+        this.globalAlpha = globalAlpha;
+        this.gameAlpha = gameAlpha;
+        this.alerts = alerts;
+        for (int i = 0; i < byColor.length; i++) {
+            byColor[i] = new RollStats();
+        }
+    }
+
+    /** Empieza a auditar la partida; el Tap se cierra solo cuando la partida termina. */
+    public Tap attach(Game game, String label) {
+        Tap tap = new Tap(game, label);
+        game.addTurnListener(tap);
+        return tap;
+    }
+
+    /** Suma una partida cerrada a lo global, revisa sus pruebas y, si toca, las globales. */
+    private void close(Tap tap) {
+        for (int c = 0; c < tap.players.length; c++) {
+            if (tap.players[c].getRolls() > 0) {
+                check(tap.players[c], gameAlpha, tap.label + ", " + Color.values()[c]);
+            }
+        }
+        check(tap.stats, gameAlpha, tap.label);
+        synchronized (this) {
+            games++;
+            global.merge(tap.stats);
+            for (int c = 0; c < byColor.length; c++) {
+                byColor[c].merge(tap.players[c]);
+            }
+            if (Long.bitCount(games) == 1) {
+                int k = Long.numberOfTrailingZeros(games);
+                double alpha = globalAlpha / ((k + 1.0) * (k + 2.0));
+                checkGlobal(global, alpha, failing[byColor.length], "global");
+                for (int c = 0; c < byColor.length; c++) {
+                    checkGlobal(byColor[c], alpha, failing[c], "global, " + Color.values()[c]);
+                }
+            }
+        }
+    }
+
+    private void check(RollStats stats, double alpha, String scope) {
+        double[] p = pValues(stats);
+        for (int t = 0; t < TESTS.length; t++) {
+            if (p[t] < alpha) {
+                synchronized (this) {
+                    gameAlerts++;
+                }
+                alerts.accept(alert(TESTS[t], p[t], scope, stats));
+            }
+        }
+    }
+
+    /** Avisa solo al cruzar el umbral, no en cada revisión mientras siga por debajo. */
+    private void checkGlobal(RollStats stats, double alpha, boolean[] failing, String scope) {
+        double[] p = pValues(stats);
+        for (int t = 0; t < TESTS.length; t++) {
+            boolean fails = p[t] < alpha;
+            if (fails && !failing[t]) {
+                alerts.accept(alert(TESTS[t], p[t], scope, stats));
+            } else if (!fails && failing[t]) {
+                alerts.accept(String.format("Dado: la prueba de %s volvió a pasar (%s, p %.2g).", TESTS[t], scope, p[t]));
+            }
+            failing[t] = fails;
+        }
+    }
+
+    private static double[] pValues(RollStats stats) {
+        return new double[]{
+                stats.getRolls() >= MIN_CHI_ROLLS ? stats.chiSquarePValue() : 1,
+                stats.longestRunPValue(),
+                stats.serialCorrelationPValue()};
+    }
+
+    private static String alert(String test, double p, String scope, RollStats stats) {
+        return String.format("Dado sospechoso: prueba de %s con p %.2g (%s): %s", test, p, scope, stats);
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+
+    /** Avisos por partida o por jugador dentro de una partida. */
+    public synchronized long getGameAlerts() {
+        return gameAlerts;
+    }
+
+    /** Resumen de lo global y de cada color, con el histograma de rachas sin 6. */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Auditoría del dado: %d partidas, %d avisos por partida o jugador%n", games, gameAlerts));
+        sb.append("  global  ").append(global).append(System.lineSeparator());
+        for (Color c : Color.values()) {
+            if (byColor[c.ordinal()].getRolls() > 0) {
+                sb.append(String.format("  %-7s %s%n", c, byColor[c.ordinal()]));
+            }
+        }
+        sb.append("  rachas sin 6 (largo: vistas / esperadas de ese largo o más):");
+        for (int length = 10; length <= RollStats.MAX_RUN; length += 10) {
+            long seen = 0;
+            for (int l = length; l <= RollStats.MAX_RUN; l++) {
+                seen += global.getRuns(l);
+            }
+            sb.append(String.format(" %d: %d/%.1f", length, seen, global.expectedRunsAtLeast(length)));
+        }
+        return sb.append(System.lineSeparator()).toString();
+    }
+
+    /** Estadísticas de una partida; las actualiza solo el hilo que la juega. */
+    public final class Tap implements TurnListener {
+        private final Game game;
+        private final String label;
+        private final RollStats stats = new RollStats();
+        private final RollStats[] players = new RollStats[Color.values().length];
+        private boolean closed;
+
+        private Tap(Game game, String label) {
+            this.game = game;
+            this.label = label;
+            for (int i = 0; i < players.length; i++) {
+                players[i] = new RollStats();
+            }
+        }
+
+        @Override
+        public void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress,
+                           boolean capture) {
+            if (closed) {
+                return;
+            }
+            stats.record(roll);
+            players[player.getColor().ordinal()].record(roll);
+            if (game.getState() != GameState.IN_PROGRESS) {
+                close();
+            }
+        }
+
+        public RollStats getStats() {
+            return stats;
+        }
+
+        public RollStats getStats(Color color) {
+            return players[color.ordinal()];
+        }
+
+        /** Cierra la partida aunque no haya terminado (por ejemplo, cortada por tope de turnos). */
+        public void close() {
+            if (!closed) {
+                closed = true;
+                DiceAuditor.this.close(this);
+            }
+        }
+
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    /**
+     * Uso: DiceAuditor [partidas] [--hilos N] [--estrategia nombre] [--alfa p] [--alfa-partida p] [--comparar]
+     *
+     * Con --comparar juega además las mismas partidas sin auditar para medir el costo.
+     */
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 && !args[0].startsWith("--") ? Long.parseLong(args[0]) : 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String strategy = Strategies.BALANCED;
+        double alpha = DEFAULT_GLOBAL_ALPHA;
+        double gameAlpha = DEFAULT_GAME_ALPHA;
+        boolean compare = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hilos" -> threads = Integer.parseInt(args[++i]);
+                case "--estrategia" -> strategy = args[++i];
+                case "--alfa" -> alpha = Double.parseDouble(args[++i]);
+                case "--alfa-partida" -> gameAlpha = Double.parseDouble(args[++i]);
+                case "--comparar" -> compare = true;
+                default -> { }
+            }
+        }
+
+        Simulation simulation = new Simulation(4, 4, 56, strategy);
+        if (compare) {
+            try (ResultStore store = ResultStore.offHeap(1 << 20)) {
+                long start = System.nanoTime();
+                simulation.run(1, games, threads, store, false);
+                System.out.printf("Sin auditar: %.2f s%n", (System.nanoTime() - start) / 1e9);
+            }
+        }
+        DiceAuditor auditor = new DiceAuditor(alpha, gameAlpha, System.out::println);
+        simulation.setDiceAuditor(auditor);
+        try (ResultStore store = ResultStore.offHeap(1 << 20)) {
+            long start = System.nanoTime();
+            simulation.run(1, games, threads, store, false);
+            System.out.printf("Auditando: %.2f s%n", (System.nanoTime() - start) / 1e9);
+        }
+        System.out.print(auditor.report());
+    }
+}
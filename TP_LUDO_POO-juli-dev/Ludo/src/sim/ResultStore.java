@@ -0,0 +1,260 @@
+package sim;
+
+import core.Color;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacén columnar fuera del heap para resultados de simulación.
+ * Las filas se agrupan en bloques de tamaño fijo; cada bloque es un MemorySegment
+ * (memoria nativa o archivo mapeado) con una columna contigua por campo, así que el heap
+ * solo guarda la lista de bloques y los recorridos de agregación leen columnas enteras.
+ */
+public final class ResultStore implements AutoCloseable {
+    /** Valor de la columna ganador cuando la partida terminó sin ganador. */
+    public static final int NO_WINNER = -1;
+
+    // columnas de partidas, en bytes por fila
+    private static final int GAME_ROW_BYTES = 8 + 4 + 4 + 4 + 1; // semilla, turnos, capturas, orden, ganador
+    // columnas de turnos
+    private static final int TURN_ROW_BYTES = 4 + 4 + 1 + 1 + 1 + 1; // partida, turno, color, dado, ficha, captura
+
+    private final Arena arena = Arena.ofShared();
+    private final int blockRows;
+    private final Path directory;
+    private final List<MemorySegment> gameBlocks = new ArrayList<>();
+    private final List<MemorySegment> turnBlocks = new ArrayList<>();
+    private long gameCount;
+    private long turnCount;
+
+    private ResultStore(int blockRows, Path directory) {
+        if (blockRows <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo.");
+        }
+        this.blockRows = blockRows;
+        this.directory = directory;
+    }
+
+    /** Almacén en memoria nativa, liberada al cerrar. */
+    public static ResultStore offHeap(int blockRows) {
+        return new ResultStore(blockRows, null);
+    }
+
+    /** Almacén respaldado por archivos mapeados en el directorio dado (uno por bloque). */
+    public static ResultStore mapped(Path directory, int blockRows) throws IOException {
+        Files.createDirectories(directory);
+        return new ResultStore(blockRows, directory);
+    }
+
+    /** Empaqueta el orden de llegada en 3 bits por puesto (ordinal del color + 1). */
+    public static int packFinishOrder(List<Color> order) {
+        int packed = 0;
+        for (int place = 0; place < order.size(); place++) {
+            packed |= (order.get(place).ordinal() + 1) << (3 * place);
+        }
+        return packed;
+    }
+
+    /** Puesto (desde 0) en que terminó el color, o -1 si no completó sus fichas. */
+    public static int finishPlace(int packedOrder, Color color) {
+        for (int place = 0; place < 10; place++) {
+            int slot = (packedOrder >>> (3 * place)) & 7;
+            if (slot == 0) {
+                return -1;
+            }
+            if (slot == color.ordinal() + 1) {
+                return place;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Agrega una partida y, si se pasa un buffer, todos sus turnos.
+     * Devuelve el índice de la partida en el almacén.
+     */
+    public synchronized long recordGame(long seed, Color winner, int turns, int captures,
+                                        int finishOrder, TurnBuffer turnRecords) {
+        long game = gameCount;
+        MemorySegment block = blockFor(gameBlocks, game, GAME_ROW_BYTES, "partidas");
+        long row = game % blockRows;
+        block.set(ValueLayout.JAVA_LONG_UNALIGNED, row * 8, seed);
+        block.set(ValueLayout.JAVA_INT_UNALIGNED, blockRows * 8L + row * 4, turns);
+        block.set(ValueLayout.JAVA_INT_UNALIGNED, blockRows * 12L + row * 4, captures);
+        block.set(ValueLayout.JAVA_INT_UNALIGNED, blockRows * 16L + row * 4, finishOrder);
+        block.set(ValueLayout.JAVA_BYTE, blockRows * 20L + row, (byte) (winner == null ? NO_WINNER : winner.ordinal()));
+        gameCount++;
+
+        if (turnRecords != null) {
+            for (int i = 0; i < turnRecords.size(); i++) {
+                MemorySegment turnBlock = blockFor(turnBlocks, turnCount, TURN_ROW_BYTES, "turnos");
+                long r = turnCount % blockRows;
+                turnBlock.set(ValueLayout.JAVA_INT_UNALIGNED, r * 4, (int) game);
+                turnBlock.set(ValueLayout.JAVA_INT_UNALIGNED, blockRows * 4L + r * 4, turnRecords.turn(i));
+                turnBlock.set(ValueLayout.JAVA_BYTE, blockRows * 8L + r, turnRecords.color(i));
+                turnBlock.set(ValueLayout.JAVA_BYTE, blockRows * 9L + r, turnRecords.roll(i));
+                turnBlock.set(ValueLayout.JAVA_BYTE, blockRows * 10L + r, turnRecords.piece(i));
+                turnBlock.set(ValueLayout.JAVA_BYTE, blockRows * 11L + r, (byte) (turnRecords.capture(i) ? 1 : 0));
+                turnCount++;
+            }
+        }
+        return game;
+    }
+
+    private MemorySegment blockFor(List<MemorySegment> blocks, long row, int rowBytes, String name) {
+        int index = (int) (row / blockRows);
+        if (index == blocks.size()) {
+            long bytes = (long) blockRows * rowBytes;
+            if (directory == null) {
+                blocks.add(arena.allocate(bytes, 8));
+            } else {
+                Path file = directory.resolve(name + "-" + index + ".col");
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    blocks.add(channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, arena));
+                } catch (IOException e) {
+                    throw new IllegalStateException("No se pudo crear el bloque " + file, e);
+                }
+            }
+        }
+        return blocks.get(index);
+    }
+
+    public synchronized long getGameCount() {
+        return gameCount;
+    }
+
+    public synchronized long getTurnCount() {
+        return turnCount;
+    }
+
+    /** Recorre las partidas en orden leyendo directamente las columnas. */
+    public synchronized void scanGames(GameScan scan) {
+        for (long game = 0; game < gameCount; game++) {
+            MemorySegment block = gameBlocks.get((int) (game / blockRows));
+            long row = game % blockRows;
+            scan.accept(game,
+                    block.get(ValueLayout.JAVA_LONG_UNALIGNED, row * 8),
+                    block.get(ValueLayout.JAVA_BYTE, blockRows * 20L + row),
+                    block.get(ValueLayout.JAVA_INT_UNALIGNED, blockRows * 8L + row * 4),
+                    block.get(ValueLayout.JAVA_INT_UNALIGNED, blockRows * 12L + row * 4),
+                    block.get(ValueLayout.JAVA_INT_UNALIGNED, blockRows * 16L + row * 4));
+        }
+    }
+
+    /** Victorias por color (índice = ordinal) recorriendo solo la columna de ganador. */
+    public synchronized long[] winsByColor() {
+        long[] wins = new long[Color.values().length];
+        forEachRow(gameBlocks, gameCount, (block, rows) -> {
+            long offset = blockRows * 20L;
+            for (long r = 0; r < rows; r++) {
+                int winner = block.get(ValueLayout.JAVA_BYTE, offset + r);
+                if (winner >= 0) {
+                    wins[winner]++;
+                }
+            }
+        });
+        return wins;
+    }
+
+    public synchronized double meanTurns() {
+        long[] total = new long[1];
+        forEachRow(gameBlocks, gameCount, (block, rows) -> {
+            long offset = blockRows * 8L;
+            for (long r = 0; r < rows; r++) {
+                total[0] += block.get(ValueLayout.JAVA_INT_UNALIGNED, offset + r * 4);
+            }
+        });
+        return gameCount == 0 ? 0 : (double) total[0] / gameCount;
+    }
+
+    public synchronized long totalCaptures() {
+        long[] total = new long[1];
+        forEachRow(gameBlocks, gameCount, (block, rows) -> {
+            long offset = blockRows * 12L;
+            for (long r = 0; r < rows; r++) {
+                total[0] += block.get(ValueLayout.JAVA_INT_UNALIGNED, offset + r * 4);
+            }
+        });
+        return total[0];
+    }
+
+    /** Histograma de duración en turnos; el último cubo acumula las partidas más largas. */
+    public synchronized long[] turnHistogram(int bucketWidth, int buckets) {
+        long[] histogram = new long[buckets];
+        forEachRow(gameBlocks, gameCount, (block, rows) -> {
+            long offset = blockRows * 8L;
+            for (long r = 0; r < rows; r++) {
+                int turns = block.get(ValueLayout.JAVA_INT_UNALIGNED, offset + r * 4);
+                histogram[Math.min(buckets - 1, turns / bucketWidth)]++;
+            }
+        });
+        return histogram;
+    }
+
+    /** Conteo de puestos de llegada: [ordinal del color][puesto]. */
+    public synchronized long[][] finishPlaces() {
+        int colors = Color.values().length;
+        long[][] places = new long[colors][colors];
+        forEachRow(gameBlocks, gameCount, (block, rows) -> {
+            long offset = blockRows * 16L;
+            for (long r = 0; r < rows; r++) {
+                int packed = block.get(ValueLayout.JAVA_INT_UNALIGNED, offset + r * 4);
+                for (int place = 0; place < colors; place++) {
+                    int slot = (packed >>> (3 * place)) & 7;
+                    if (slot == 0) {
+                        break;
+                    }
+                    places[slot - 1][place]++;
+                }
+            }
+        });
+        return places;
+    }
+
+    /** Frecuencia de cada valor del dado (índice 1..6) sobre la columna de turnos. */
+    public synchronized long[] rollCounts() {
+        long[] counts = new long[7];
+        forEachRow(turnBlocks, turnCount, (block, rows) -> {
+            long offset = blockRows * 9L;
+            for (long r = 0; r < rows; r++) {
+                counts[block.get(ValueLayout.JAVA_BYTE, offset + r)]++;
+            }
+        });
+        return counts;
+    }
+
+    private void forEachRow(List<MemorySegment> blocks, long count, BlockScan scan) {
+        for (int b = 0; b < blocks.size(); b++) {
+            long rows = Math.min(blockRows, count - (long) b * blockRows);
+            scan.accept(blocks.get(b), rows);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        gameBlocks.clear();
+        turnBlocks.clear();
+        arena.close();
+    }
+
+    /** Visitante de filas de partidas con valores primitivos. */
+    @FunctionalInterface
+    public interface GameScan {
+        void accept(long game, long seed, int winner, int turns, int captures, int finishOrder);
+    }
+
+    @FunctionalInterface
+    private interface BlockScan {
+        void accept(MemorySegment block, long rows);
+    }
+}
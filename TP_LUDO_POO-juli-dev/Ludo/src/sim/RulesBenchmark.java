@@ -0,0 +1,53 @@
+package sim;
+
+import board.RuleSet;
+import bot.Strategies;
+import game.Game;
+import game.GameState;
+
+/**
+ * Compara la velocidad del motor con las reglas estándar y con cada variante. Como las
+ * variantes cambian la duración de las partidas, la medida que importa es ns por turno.
+ *
+ * Uso: RulesBenchmark [partidasPorVariante]
+ */
+public class RulesBenchmark {
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        RuleSet[] variants = {
+                RuleSet.standard(),
+                RuleSet.parse(RuleSet.EXTRA_ROLL_ON_SIX),
+                RuleSet.parse(RuleSet.BLOCKADES),
+                RuleSet.parse(RuleSet.FREE_FINISH),
+                RuleSet.parse(RuleSet.CAPTURE_ON_SAFE),
+                RuleSet.parse(RuleSet.EXTRA_ROLL_ON_SIX + "," + RuleSet.BLOCKADES + ","
+                        + RuleSet.FREE_FINISH + "," + RuleSet.CAPTURE_ON_SAFE),
+        };
+
+        // calentamiento para que el JIT compile el motor con todas las variantes
+        for (RuleSet rules : variants) {
+            play(rules, 1_000_000, games / 4);
+        }
+        System.out.printf("%-60s %10s %10s %10s%n", "reglas", "partidas/s", "turnos", "ns/turno");
+        for (RuleSet rules : variants) {
+            long start = System.nanoTime();
+            long turns = play(rules, 1, games);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%-60s %10.0f %10.1f %10.0f%n", rules, games / (elapsed / 1e9),
+                    (double) turns / games, (double) elapsed / turns);
+        }
+    }
+
+    private static long play(RuleSet rules, long firstSeed, int games) {
+        Simulation simulation = new Simulation(4, 4, 56, Strategies.RUNNER, rules);
+        long turns = 0;
+        for (int i = 0; i < games; i++) {
+            Game game = simulation.newGame(firstSeed + i);
+            while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+                game.playTurn();
+            }
+            turns += game.getTurnNumber();
+        }
+        return turns;
+    }
+}
@@ -0,0 +1,319 @@
+package sim;
+
+import board.RuleSet;
+import bot.Strategies;
+import core.Color;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reparte una tanda grande de partidas entre varias JVM trabajadoras (ShardWorker) en la
+ * misma máquina, cada una con su propio heap y su propio GC. Las semillas se dividen en
+ * tramos; cada trabajador recibe un tramo por vez por su entrada estándar y devuelve los
+ * totales en binario por su salida estándar, y el coordinador los suma.
+ *
+ * Un trabajador que muere (o que no da señales en timeoutMillis) se reemplaza por otro
+ * proceso y su tramo vuelve a la cola entero, así ninguna partida se cuenta dos veces. Los
+ * totales son sumas enteras, así que el resultado es el mismo que en un solo proceso.
+ */
+public class ShardCoordinator {
+    public static final int DEFAULT_SHARD_GAMES = 1000;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 60_000;
+    /** Espera a que un trabajador salga solo después del pedido de salida; pasado eso se lo mata. */
+    private static final long EXIT_MILLIS = 5_000;
+
+    private final int players;
+    private final int pieces;
+    private final int mainPathSize;
+    private final String strategyName;
+    private final RuleSet ruleSet;
+    private final int shardGames;
+    private final long timeoutMillis;
+    private final int maxRestarts;
+
+    // estado compartido por los hilos que atienden a cada trabajador
+    private final ArrayDeque<long[]> pending = new ArrayDeque<>();
+    private final SimulationJob.Totals totals = new SimulationJob.Totals();
+    private int unfinished;
+    private int restarts;
+    private IOException failure;
+
+    public ShardCoordinator(int players, int pieces, int mainPathSize, String strategyName, RuleSet ruleSet,
+                            int shardGames, long timeoutMillis, int maxRestarts) {
+        if (shardGames <= 0 || timeoutMillis <= 0 || maxRestarts < 0) {
+            throw new IllegalArgumentException("Tramo, espera y reintentos inválidos.");
+        }
+        Strategies.create(strategyName); // valida el nombre antes de lanzar procesos
+        new Simulation(players, pieces, mainPathSize, strategyName, ruleSet); // y el resto de la configuración
+        this.players = players;
+        this.pieces = pieces;
+        this.mainPathSize = mainPathSize;
+        this.strategyName = strategyName;
+        this.ruleSet = ruleSet;
+        this.shardGames = shardGames;
+        this.timeoutMillis = timeoutMillis;
+        this.maxRestarts = maxRestarts;
+    }
+
+    /**
+     * Juega las partidas con semillas firstSeed..firstSeed+games-1 en `workers` procesos y
+     * devuelve los totales. Falla si se agotan los reemplazos de trabajadores caídos.
+     */
+    public SimulationJob.Totals run(long firstSeed, long games, int workers) throws IOException, InterruptedException {
+        synchronized (this) {
+            for (long start = 0; start < games; start += shardGames) {
+                pending.add(new long[]{firstSeed + start, Math.min(shardGames, games - start)});
+            }
+            unfinished = pending.size();
+        }
+        List<Worker> handles = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            Worker worker = new Worker(i);
+            handles.add(worker);
+            worker.thread.start();
+        }
+        Thread watchdog = new Thread(() -> watch(handles), "vigia");
+        watchdog.setDaemon(true);
+        watchdog.start();
+        for (Worker worker : handles) {
+            worker.thread.join();
+        }
+        watchdog.interrupt();
+        synchronized (this) {
+            if (failure != null && unfinished > 0) {
+                throw failure;
+            }
+            return totals;
+        }
+    }
+
+    /** Mata los trabajadores que pasaron más de timeoutMillis sin mandar nada. */
+    private void watch(List<Worker> handles) {
+        try {
+            while (true) {
+                Thread.sleep(Math.max(1, timeoutMillis / 4));
+                long now = System.nanoTime();
+                for (Worker worker : handles) {
+                    Process process = worker.process;
+                    if (process != null && worker.busy && now - worker.lastHeard > timeoutMillis * 1_000_000L) {
+                        System.err.printf("El trabajador %d (pid %d) no responde; se reemplaza.%n",
+                                worker.id, process.pid());
+                        process.destroyForcibly();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // terminó la tanda
+        }
+    }
+
+    /** Próximo tramo, esperando si solo quedan tramos en manos de otros; null si ya no queda nada. */
+    private synchronized long[] take() throws InterruptedException {
+        while (pending.isEmpty() && unfinished > 0 && failure == null) {
+            wait();
+        }
+        return failure != null || unfinished == 0 ? null : pending.poll();
+    }
+
+    private synchronized void complete(SimulationJob.Totals result) {
+        totals.merge(result);
+        unfinished--;
+        notifyAll();
+    }
+
+    /** Devuelve el tramo a la cola y dice si queda algún reemplazo para el trabajador. */
+    private synchronized boolean requeue(long[] shard, IOException cause) {
+        if (shard != null) {
+            pending.addFirst(shard);
+        }
+        if (restarts >= maxRestarts) {
+            failure = new IOException("Se agotaron los reemplazos de trabajadores caídos.", cause);
+            notifyAll();
+            return false;
+        }
+        restarts++;
+        notifyAll();
+        return true;
+    }
+
+    public synchronized int getRestarts() {
+        return restarts;
+    }
+
+    /** Comando para lanzar un ShardWorker con la misma JVM, opciones y classpath que este proceso. */
+    private List<String> workerCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(Integer.toString(players));
+        command.add(Integer.toString(pieces));
+        command.add(Integer.toString(mainPathSize));
+        command.add(strategyName);
+        command.add(ruleSet.toString());
+        return command;
+    }
+
+    /** Un proceso trabajador y el hilo del coordinador que lo atiende. */
+    private final class Worker {
+        final int id;
+        final Thread thread;
+        volatile Process process;
+        volatile long lastHeard;
+        volatile boolean busy;
+
+        Worker(int id) {
+            this.id = id;
+            this.thread = new Thread(this::serve, "trabajador-" + id);
+        }
+
+        private void serve() {
+            try {
+                while (true) {
+                    try {
+                        serveProcess();
+                        return;
+                    } catch (Crash crash) {
+                        if (!requeue(crash.shard, crash.error)) {
+                            return;
+                        }
+                        System.err.printf("El trabajador %d se cayó (%s); se lanza otro.%n", id, crash.error);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                Process p = process;
+                if (p != null) {
+                    p.destroyForcibly();
+                }
+            }
+        }
+
+        /** Atiende un proceso hasta que no quedan tramos; si se cae, avisa con el tramo que tenía. */
+        private void serveProcess() throws InterruptedException, Crash {
+            Process p;
+            try {
+                p = new ProcessBuilder(workerCommand()).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            } catch (IOException e) {
+                throw new Crash(null, e);
+            }
+            process = p;
+            OutputStream out = p.getOutputStream();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(p.getInputStream()));
+            ByteBuffer request = ByteBuffer.allocate(ShardWorker.REQUEST_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] result = new byte[SimulationJob.Totals.BYTES];
+            long[] shard = null;
+            try {
+                while ((shard = take()) != null) {
+                    request.clear();
+                    request.putLong(shard[0]).putInt((int) shard[1]);
+                    lastHeard = System.nanoTime();
+                    busy = true;
+                    out.write(request.array());
+                    out.flush();
+                    int tag;
+                    while ((tag = in.readByte()) == ShardWorker.PROGRESS) {
+                        in.readInt();
+                        lastHeard = System.nanoTime();
+                    }
+                    if (tag != ShardWorker.RESULT) {
+                        throw new IOException("Trama desconocida del trabajador: " + tag);
+                    }
+                    in.readFully(result);
+                    busy = false;
+                    complete(SimulationJob.Totals.read(ByteBuffer.wrap(result).order(ByteOrder.LITTLE_ENDIAN)));
+                    shard = null;
+                }
+                request.clear();
+                request.putLong(0).putInt(0);
+                out.write(request.array());
+                out.flush();
+                if (!p.waitFor(EXIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    p.destroyForcibly();
+                }
+            } catch (IOException e) {
+                busy = false;
+                p.destroyForcibly();
+                throw new Crash(shard, e);
+            }
+        }
+    }
+
+    /** Caída de un trabajador, con el tramo que tenía asignado (o null). */
+    private static final class Crash extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final long[] shard;
+        final IOException error;
+
+        Crash(long[] shard, IOException error) {
+            super(error);
+            this.shard = shard;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Uso: ShardCoordinator <partidas> [--procesos N] [--tramo N] [--espera segundos] [--reintentos N]
+     *                       [--jugadores N] [--fichas N] [--tablero N] [--estrategia nombre]
+     *                       [--reglas spec] [--semilla N]
+     */
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 && !args[0].startsWith("--") ? Long.parseLong(args[0]) : 100_000;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int shard = DEFAULT_SHARD_GAMES;
+        long timeout = DEFAULT_TIMEOUT_MILLIS;
+        int retries = -1;
+        int players = 4;
+        int pieces = 4;
+        int board = 56;
+        String strategy = Strategies.BALANCED;
+        RuleSet rules = RuleSet.standard();
+        long seed = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--procesos" -> workers = Integer.parseInt(args[++i]);
+                case "--tramo" -> shard = Integer.parseInt(args[++i]);
+                case "--espera" -> timeout = (long) (Double.parseDouble(args[++i]) * 1000);
+                case "--reintentos" -> retries = Integer.parseInt(args[++i]);
+                case "--jugadores" -> players = Integer.parseInt(args[++i]);
+                case "--fichas" -> pieces = Integer.parseInt(args[++i]);
+                case "--tablero" -> board = Integer.parseInt(args[++i]);
+                case "--estrategia" -> strategy = args[++i];
+                case "--reglas" -> rules = RuleSet.parse(args[++i]);
+                case "--semilla" -> seed = Long.parseLong(args[++i]);
+                default -> { }
+            }
+        }
+
+        ShardCoordinator coordinator = new ShardCoordinator(players, pieces, board, strategy, rules, shard, timeout,
+                retries >= 0 ? retries : 3 * workers);
+        long start = System.nanoTime();
+        SimulationJob.Totals totals = coordinator.run(seed, games, workers);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d partidas en %.1f s con %d procesos (%.0f partidas/s), %d reemplazos%n",
+                totals.getGames(), seconds, workers, totals.getGames() / seconds, coordinator.getRestarts());
+        for (int i = 0; i < players; i++) {
+            Color c = Color.values()[i];
+            System.out.printf("  %-7s %6.2f%% victorias (%d)%n", c,
+                    100.0 * totals.getWins(c) / totals.getGames(), totals.getWins(c));
+        }
+        System.out.printf("Turnos promedio: %.3f (desvío %.3f), capturas: %d, sin ganador: %d, cortadas: %d%n",
+                totals.meanTurns(), totals.turnsStdDev(), totals.getCaptures(), totals.getNoWinner(),
+                totals.getCapped());
+    }
+}
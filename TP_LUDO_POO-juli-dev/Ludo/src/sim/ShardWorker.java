@@ -0,0 +1,83 @@
+package sim;
+
+import board.RuleSet;
+import game.Game;
+import game.GameState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Proceso trabajador de ShardCoordinator. Lee por la entrada estándar pedidos de 12 bytes
+ * (primera semilla y cantidad de partidas; cantidad 0 para terminar), juega esas partidas y
+ * contesta por la salida estándar con tramas binarias: PROGRESS con las partidas jugadas
+ * cada PROGRESS_EVERY, para que el coordinador sepa que sigue vivo, y RESULT con los
+ * totales del tramo (SimulationJob.Totals). Todo lo que el motor imprima va a stderr.
+ *
+ * Uso: ShardWorker <jugadores> <fichas> <tablero> <estrategia> <reglas>
+ */
+public final class ShardWorker {
+    static final int REQUEST_BYTES = 12;
+    static final byte PROGRESS = 'P';
+    static final byte RESULT = 'R';
+    static final int PROGRESS_EVERY = 100;
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5) {
+            System.err.println("Uso: ShardWorker <jugadores> <fichas> <tablero> <estrategia> <reglas>");
+            System.exit(2);
+        }
+        Simulation simulation = new Simulation(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]), args[3], RuleSet.parse(args[4]));
+        // la salida estándar es el canal binario; nada más puede escribir ahí
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 12);
+        System.setOut(System.err);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        byte[] request = new byte[REQUEST_BYTES];
+        ByteBuffer progress = ByteBuffer.allocate(1 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer result = ByteBuffer.allocate(1 + SimulationJob.Totals.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (true) {
+            try {
+                in.readFully(request);
+            } catch (EOFException e) {
+                return; // el coordinador se fue
+            }
+            ByteBuffer frame = ByteBuffer.wrap(request).order(ByteOrder.LITTLE_ENDIAN);
+            long firstSeed = frame.getLong();
+            int count = frame.getInt();
+            if (count == 0) {
+                return;
+            }
+            SimulationJob.Totals totals = new SimulationJob.Totals();
+            for (int i = 0; i < count; i++) {
+                Game game = simulation.newGame(firstSeed + i);
+                while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+                    game.playTurn();
+                }
+                totals.add(game);
+                if ((i + 1) % PROGRESS_EVERY == 0 && i + 1 < count) {
+                    progress.clear();
+                    progress.put(PROGRESS).putInt(i + 1);
+                    out.write(progress.array(), 0, progress.position());
+                    out.flush();
+                }
+            }
+            result.clear();
+            result.put(RESULT);
+            totals.write(result);
+            out.write(result.array(), 0, result.position());
+            out.flush();
+        }
+    }
+}
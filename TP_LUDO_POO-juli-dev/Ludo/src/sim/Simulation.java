@@ -0,0 +1,229 @@
+package sim;
+
+import archive.ArchiveWriter;
+import archive.GameRecorder;
+import archive.PositionIndexBuilder;
+import board.RuleSet;
+import bot.BotGame;
+import bot.Strategies;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameState;
+import game.Strategy;
+import utils.Dice;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Corre partidas entre bots en paralelo y vuelca los resultados en un ResultStore.
+ * Cada partida usa un dado con su propia semilla, así que se puede reproducir por separado.
+ */
+public class Simulation {
+    /** Tope de turnos por partida, para cortar partidas que no progresan. */
+    public static final int MAX_TURNS = 10_000;
+
+    private final int playerCount;
+    private final int piecesPerPlayer;
+    private final int mainPathSize;
+    private final String strategyName;
+    private final RuleSet ruleSet;
+    private ArchiveWriter archive;
+    private PositionIndexBuilder positionIndex;
+    private DiceAuditor diceAuditor;
+
+    public Simulation(int playerCount, int piecesPerPlayer, int mainPathSize, String strategyName) {
+        this(playerCount, piecesPerPlayer, mainPathSize, strategyName, RuleSet.standard());
+    }
+
+    public Simulation(int playerCount, int piecesPerPlayer, int mainPathSize, String strategyName, RuleSet ruleSet) {
+        if (playerCount < 2 || playerCount > Color.values().length) {
+            throw new IllegalArgumentException("La cantidad de jugadores debe estar entre 2 y " + Color.values().length + ".");
+        }
+        this.playerCount = playerCount;
+        this.piecesPerPlayer = piecesPerPlayer;
+        this.mainPathSize = mainPathSize;
+        this.strategyName = strategyName;
+        this.ruleSet = ruleSet;
+    }
+
+    /** Además del almacén, guarda cada partida completa en el archivo dado (null para no guardar). */
+    public void setArchive(ArchiveWriter archive) {
+        this.archive = archive;
+    }
+
+    /** Indexa las posiciones de cada partida archivada a medida que se guarda (null para no indexar). */
+    public void setPositionIndex(PositionIndexBuilder positionIndex) {
+        this.positionIndex = positionIndex;
+    }
+
+    /** Audita cada tirada de las partidas que se jueguen (null para no auditar). */
+    public void setDiceAuditor(DiceAuditor diceAuditor) {
+        this.diceAuditor = diceAuditor;
+    }
+
+    /** Crea una partida de bots silenciosa con el dado de la semilla dada, ya iniciada. */
+    public Game newGame(long seed) {
+        List<Player> players = new ArrayList<>(playerCount);
+        Color[] colors = Color.values();
+        for (int i = 0; i < playerCount; i++) {
+            Player p = new Player("Bot" + (i + 1), colors[i]);
+            p.initializePieces(piecesPerPlayer);
+            players.add(p);
+        }
+        Strategy strategy = Strategies.create(strategyName);
+        Game game = new BotGame(players, mainPathSize, strategy, new Dice(seed), ruleSet);
+        game.setVerbose(false);
+        game.startGame();
+        return game;
+    }
+
+    /** Juega una partida completa y la registra; devuelve su índice en el almacén. */
+    public long playAndRecord(long seed, ResultStore store, TurnBuffer turns) {
+        return playAndRecord(seed, store, turns, null, null);
+    }
+
+    private long playAndRecord(long seed, ResultStore store, TurnBuffer turns, GameRecorder recorder,
+                               PositionIndexBuilder.Positions positions) {
+        Game game = newGame(seed);
+        if (turns != null) {
+            turns.clear();
+            game.addTurnListener(turns);
+        }
+        if (recorder != null) {
+            recorder.clear();
+            game.addTurnListener(recorder);
+        }
+        if (positions != null) {
+            positions.clear();
+            game.addTurnListener(positions);
+        }
+        DiceAuditor.Tap audit = diceAuditor != null ? diceAuditor.attach(game, "semilla " + seed) : null;
+        while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < MAX_TURNS) {
+            game.playTurn();
+        }
+        if (audit != null) {
+            audit.close();
+        }
+        if (recorder != null) {
+            try {
+                long archived = archive.write(game, seed, recorder);
+                if (positions != null) {
+                    positionIndex.add(archived, game, positions);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Player winner = game.getWinner();
+        return store.recordGame(seed, winner != null ? winner.getColor() : null, game.getTurnNumber(),
+                game.getBoard().getCaptureCount(), ResultStore.packFinishOrder(game.getFinishOrder()), turns);
+    }
+
+    /**
+     * Juega `games` partidas con semillas firstSeed..firstSeed+games-1 repartidas en `threads` hilos.
+     */
+    public void run(long firstSeed, long games, int threads, ResultStore store, boolean recordTurns)
+            throws InterruptedException {
+        AtomicLong next = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                TurnBuffer buffer = recordTurns ? new TurnBuffer() : null;
+                GameRecorder recorder = archive != null ? new GameRecorder() : null;
+                PositionIndexBuilder.Positions positions = archive != null && positionIndex != null
+                        ? new PositionIndexBuilder.Positions() : null;
+                long i;
+                while ((i = next.getAndIncrement()) < games) {
+                    playAndRecord(firstSeed + i, store, buffer, recorder, positions);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    /**
+     * Índice para un archivo que se crea de cero. Sus partidas se numeran desde 0, así que un
+     * índice con partidas de otra corrida quedaría con posiciones repetidas que apuntan a
+     * partidas que ya no están en el archivo.
+     */
+    private static PositionIndexBuilder openIndexForNewArchive(Path directory) throws IOException {
+        PositionIndexBuilder index = PositionIndexBuilder.open(directory);
+        long games = index.getIndexedGames();
+        if (games > 0) {
+            index.close();
+            throw new IllegalArgumentException("El índice de " + directory + " ya tiene " + games
+                    + " partidas y --archivo crea el archivo de cero: usar un directorio vacío, o ampliar"
+                    + " el índice de un archivo existente con PositionIndexBuilder.");
+        }
+        return index;
+    }
+
+    /**
+     * Uso: Simulation <partidas> [hilos] [--turnos] [--mapeado <directorio>] [--estrategia <nombre>]
+     *                  [--reglas <regla,regla,..>] [--archivo <archivo>]
+     *                  [--indice <directorio>] [--auditar]
+     */
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 10_000;
+        int threads = args.length > 1 && !args[1].startsWith("--")
+                ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        boolean recordTurns = false;
+        Path mapped = null;
+        String strategy = Strategies.BALANCED;
+        RuleSet rules = RuleSet.standard();
+        Path archiveFile = null;
+        Path indexDirectory = null;
+        boolean audit = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--turnos" -> recordTurns = true;
+                case "--mapeado" -> mapped = Path.of(args[++i]);
+                case "--estrategia" -> strategy = args[++i];
+                case "--reglas" -> rules = RuleSet.parse(args[++i]);
+                case "--archivo" -> archiveFile = Path.of(args[++i]);
+                case "--indice" -> indexDirectory = Path.of(args[++i]);
+                case "--auditar" -> audit = true;
+                default -> { }
+            }
+        }
+
+        Simulation simulation = new Simulation(4, 4, 56, strategy, rules);
+        DiceAuditor auditor = audit ? new DiceAuditor() : null;
+        simulation.setDiceAuditor(auditor);
+        try (ResultStore store = mapped != null ? ResultStore.mapped(mapped, 1 << 20) : ResultStore.offHeap(1 << 20);
+             // el índice se revisa antes de crear el archivo, que lo trunca
+             PositionIndexBuilder index = archiveFile != null && indexDirectory != null
+                     ? openIndexForNewArchive(indexDirectory) : null;
+             ArchiveWriter archive = archiveFile != null ? ArchiveWriter.create(archiveFile) : null) {
+            simulation.setArchive(archive);
+            simulation.setPositionIndex(index);
+            long start = System.nanoTime();
+            simulation.run(1, games, threads, store, recordTurns);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%d partidas en %.1f s (%.0f partidas/s)%n", store.getGameCount(), seconds,
+                    store.getGameCount() / seconds);
+            long[] wins = store.winsByColor();
+            for (Color c : Color.values()) {
+                System.out.printf("  %-7s %6.2f%% victorias%n", c, 100.0 * wins[c.ordinal()] / store.getGameCount());
+            }
+            System.out.printf("Turnos promedio: %.1f, capturas totales: %d, turnos registrados: %d%n",
+                    store.meanTurns(), store.totalCaptures(), store.getTurnCount());
+            Runtime rt = Runtime.getRuntime();
+            System.out.printf("Heap usado: %d MB%n", (rt.totalMemory() - rt.freeMemory()) >> 20);
+            if (auditor != null) {
+                System.out.print(auditor.report());
+            }
+        }
+    }
+}
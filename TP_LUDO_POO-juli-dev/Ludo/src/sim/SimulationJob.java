@@ -0,0 +1,489 @@
+package sim;
+
+import board.RuleSet;
+import bot.Strategies;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Tanda larga de partidas que sobrevive a que se caiga la JVM. Las semillas
+ * firstSeed..firstSeed+games-1 se dividen en tramos de shardGames partidas; cada cierto
+ * tiempo se guarda un punto de control con los tramos terminados, la próxima semilla de
+ * cada tramo a medio jugar (cada partida usa su propio dado, así que la semilla es toda la
+ * posición del generador) y los totales acumulados. Se escribe en un archivo temporal que
+ * después reemplaza al anterior con un rename atómico, así nunca queda uno a medias.
+ *
+ * Al reanudar se siguen los tramos desde donde quedaron. Los totales son sumas enteras,
+ * que no dependen del orden, así que el resultado es idéntico al de una corrida sin cortes
+ * (salvo con la estrategia Aleatorio, que no usa semilla).
+ */
+public class SimulationJob {
+    static final long MAGIC = 0x4C55444F4A423031L; // "LUDOJB01"
+    public static final int DEFAULT_SHARD_GAMES = 1000;
+    public static final long DEFAULT_INTERVAL_MILLIS = 30_000;
+
+    private final Path checkpoint;
+    private final int players;
+    private final int pieces;
+    private final int mainPathSize;
+    private final String strategyName;
+    private final RuleSet ruleSet;
+    private final long firstSeed;
+    private final long games;
+    private final int shardGames;
+    private final Simulation simulation;
+
+    // estado; lo protege el cerrojo del trabajo, y el de cada tramo su avance
+    private final long[] done;
+    private final Totals completed;
+    private final Map<Integer, Shard> active = new TreeMap<>();
+    private final ArrayDeque<Shard> resumed = new ArrayDeque<>();
+    private int nextShard;
+    private volatile boolean stopped;
+
+    private SimulationJob(Path checkpoint, int players, int pieces, int mainPathSize, String strategyName,
+                          RuleSet ruleSet, long firstSeed, long games, int shardGames) {
+        if (games <= 0 || shardGames <= 0) {
+            throw new IllegalArgumentException("Las partidas y el tamaño de tramo deben ser positivos.");
+        }
+        if ((games + shardGames - 1) / shardGames > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados tramos; usar tramos más grandes.");
+        }
+        this.checkpoint = checkpoint;
+        this.players = players;
+        this.pieces = pieces;
+        this.mainPathSize = mainPathSize;
+        this.strategyName = strategyName;
+        this.ruleSet = ruleSet;
+        this.firstSeed = firstSeed;
+        this.games = games;
+        this.shardGames = shardGames;
+        this.simulation = new Simulation(players, pieces, mainPathSize, strategyName, ruleSet);
+        this.done = new long[(shardCount() + 63) / 64];
+        this.completed = new Totals();
+    }
+
+    /** Trabajo nuevo; falla si ya hay un punto de control en ese archivo (ver resume). */
+    public static SimulationJob create(Path checkpoint, int players, int pieces, int mainPathSize, String strategyName,
+                                       RuleSet ruleSet, long firstSeed, long games, int shardGames) throws IOException {
+        if (Files.exists(checkpoint)) {
+            throw new IOException("Ya existe el punto de control " + checkpoint + "; para seguirlo usar resume.");
+        }
+        Strategies.create(strategyName); // valida el nombre antes de arrancar
+        return new SimulationJob(checkpoint, players, pieces, mainPathSize, strategyName, ruleSet,
+                firstSeed, games, shardGames);
+    }
+
+    /** Retoma el trabajo guardado en el punto de control, con su configuración. */
+    public static SimulationJob resume(Path checkpoint) throws IOException {
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        if (bytes.length < 12) {
+            throw new IOException("Punto de control truncado: " + checkpoint);
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        if (in.getLong() != MAGIC || in.getInt(bytes.length - 4) != (int) crc.getValue()) {
+            throw new IOException("Punto de control inválido o dañado: " + checkpoint);
+        }
+        int players = in.getInt();
+        int pieces = in.getInt();
+        int mainPathSize = in.getInt();
+        long firstSeed = in.getLong();
+        long games = in.getLong();
+        int shardGames = in.getInt();
+        String strategy = readString(in, StandardCharsets.UTF_8);
+        RuleSet rules = RuleSet.parse(readString(in, StandardCharsets.US_ASCII));
+        SimulationJob job = new SimulationJob(checkpoint, players, pieces, mainPathSize, strategy, rules,
+                firstSeed, games, shardGames);
+        job.completed.merge(Totals.read(in));
+        for (int i = 0; i < job.done.length; i++) {
+            job.done[i] = in.getLong();
+        }
+        int partial = in.getInt();
+        for (int i = 0; i < partial; i++) {
+            Shard shard = job.new Shard(in.getInt());
+            shard.next = in.getLong();
+            shard.totals.merge(Totals.read(in));
+            job.active.put(shard.index, shard);
+            job.resumed.add(shard);
+        }
+        return job;
+    }
+
+    private static String readString(ByteBuffer in, Charset charset) {
+        byte[] raw = new byte[in.getShort() & 0xFFFF];
+        in.get(raw);
+        return new String(raw, charset);
+    }
+
+    private int shardCount() {
+        return (int) ((games + shardGames - 1) / shardGames);
+    }
+
+    private boolean isDone(int shard) {
+        return (done[shard >>> 6] & (1L << shard)) != 0;
+    }
+
+    /** Partidas ya contadas en los totales, terminadas o dentro de tramos a medio jugar. */
+    public synchronized long getPlayedGames() {
+        long played = completed.games;
+        for (Shard shard : active.values()) {
+            synchronized (shard) {
+                played += shard.totals.games;
+            }
+        }
+        return played;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    /**
+     * Juega lo que falta con `threads` hilos, guardando un punto de control cada
+     * `intervalMillis` y al terminar. Devuelve los totales, completos salvo que se llame a stop().
+     */
+    public Totals run(int threads, long intervalMillis) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(this::work);
+        }
+        pool.shutdown();
+        while (!pool.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS)) {
+            save();
+        }
+        save();
+        return totals();
+    }
+
+    /** Pide a los hilos que dejen de jugar; lo hecho queda en el punto de control final de run(). */
+    public void stop() {
+        stopped = true;
+    }
+
+    private void work() {
+        Shard shard;
+        while (!stopped && (shard = claim()) != null) {
+            long end = Math.min(firstSeed + games, firstSeed + (long) (shard.index + 1) * shardGames);
+            while (!stopped && shard.next < end) {
+                Game game = simulation.newGame(shard.next);
+                while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+                    game.playTurn();
+                }
+                synchronized (shard) {
+                    shard.totals.add(game);
+                    shard.next++;
+                }
+            }
+            if (shard.next == end) {
+                finish(shard);
+            }
+        }
+    }
+
+    /** Primero los tramos a medio jugar del punto de control, después los que nadie empezó. */
+    private synchronized Shard claim() {
+        if (!resumed.isEmpty()) {
+            return resumed.poll();
+        }
+        while (nextShard < shardCount() && (isDone(nextShard) || active.containsKey(nextShard))) {
+            nextShard++;
+        }
+        if (nextShard == shardCount()) {
+            return null;
+        }
+        Shard shard = new Shard(nextShard++);
+        active.put(shard.index, shard);
+        return shard;
+    }
+
+    private synchronized void finish(Shard shard) {
+        synchronized (shard) {
+            completed.merge(shard.totals);
+        }
+        active.remove(shard.index);
+        done[shard.index >>> 6] |= 1L << shard.index;
+    }
+
+    /** Totales de todo lo jugado hasta ahora, incluidos los tramos a medio jugar. */
+    public synchronized Totals totals() {
+        Totals totals = new Totals();
+        totals.merge(completed);
+        for (Shard shard : active.values()) {
+            synchronized (shard) {
+                totals.merge(shard.totals);
+            }
+        }
+        return totals;
+    }
+
+    /** Escribe el punto de control en un temporal y lo pone en lugar del anterior. */
+    public void save() throws IOException {
+        ByteBuffer out;
+        synchronized (this) {
+            byte[] strategy = strategyName.getBytes(StandardCharsets.UTF_8);
+            byte[] rules = ruleSet.toString().getBytes(StandardCharsets.US_ASCII);
+            int bytes = 8 + 12 + 8 + 8 + 4 + 2 + strategy.length + 2 + rules.length + Totals.BYTES
+                    + done.length * 8 + 4 + active.size() * (4 + 8 + Totals.BYTES) + 4;
+            out = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            out.putLong(MAGIC).putInt(players).putInt(pieces).putInt(mainPathSize)
+                    .putLong(firstSeed).putLong(games).putInt(shardGames);
+            out.putShort((short) strategy.length).put(strategy);
+            out.putShort((short) rules.length).put(rules);
+            completed.write(out);
+            for (long word : done) {
+                out.putLong(word);
+            }
+            out.putInt(active.size());
+            for (Shard shard : active.values()) {
+                synchronized (shard) {
+                    out.putInt(shard.index).putLong(shard.next);
+                    shard.totals.write(out);
+                }
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        out.flip();
+
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Un tramo de semillas y lo que lleva jugado. */
+    private final class Shard {
+        final int index;
+        final Totals totals = new Totals();
+        long next;
+
+        Shard(int index) {
+            this.index = index;
+            this.next = firstSeed + (long) index * shardGames;
+        }
+    }
+
+    /** Totales enteros de un conjunto de partidas; sumarlos en cualquier orden da lo mismo. */
+    public static final class Totals {
+        private static final int COLORS = Color.values().length;
+        static final int BYTES = 8 * (6 + COLORS + COLORS * COLORS);
+
+        private long games;
+        private long noWinner;
+        private long capped;
+        private long turns;
+        private long squaredTurns;
+        private long captures;
+        private final long[] wins = new long[COLORS];
+        // places[color * COLORS + puesto]: veces que el color terminó en ese puesto
+        private final long[] places = new long[COLORS * COLORS];
+
+        void add(Game game) {
+            games++;
+            Player winner = game.getWinner();
+            if (winner != null) {
+                wins[winner.getColor().ordinal()]++;
+            } else {
+                noWinner++;
+            }
+            if (game.getState() == GameState.IN_PROGRESS) {
+                capped++;
+            }
+            long t = game.getTurnNumber();
+            turns += t;
+            squaredTurns += t * t;
+            captures += game.getBoard().getCaptureCount();
+            List<Color> order = game.getFinishOrder();
+            for (int place = 0; place < order.size(); place++) {
+                places[order.get(place).ordinal() * COLORS + place]++;
+            }
+        }
+
+        void merge(Totals other) {
+            games += other.games;
+            noWinner += other.noWinner;
+            capped += other.capped;
+            turns += other.turns;
+            squaredTurns += other.squaredTurns;
+            captures += other.captures;
+            for (int i = 0; i < COLORS; i++) {
+                wins[i] += other.wins[i];
+            }
+            for (int i = 0; i < places.length; i++) {
+                places[i] += other.places[i];
+            }
+        }
+
+        void write(ByteBuffer out) {
+            out.putLong(games).putLong(noWinner).putLong(capped).putLong(turns).putLong(squaredTurns).putLong(captures);
+            for (long w : wins) {
+                out.putLong(w);
+            }
+            for (long p : places) {
+                out.putLong(p);
+            }
+        }
+
+        static Totals read(ByteBuffer in) {
+            Totals totals = new Totals();
+            totals.games = in.getLong();
+            totals.noWinner = in.getLong();
+            totals.capped = in.getLong();
+            totals.turns = in.getLong();
+            totals.squaredTurns = in.getLong();
+            totals.captures = in.getLong();
+            for (int i = 0; i < COLORS; i++) {
+                totals.wins[i] = in.getLong();
+            }
+            for (int i = 0; i < totals.places.length; i++) {
+                totals.places[i] = in.getLong();
+            }
+            return totals;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getWins(Color color) {
+            return wins[color.ordinal()];
+        }
+
+        public long getNoWinner() {
+            return noWinner;
+        }
+
+        /** Partidas cortadas por Simulation.MAX_TURNS. */
+        public long getCapped() {
+            return capped;
+        }
+
+        /** Veces que el color terminó en el puesto dado (0 = primero). */
+        public long getPlaces(Color color, int place) {
+            return places[color.ordinal() * COLORS + place];
+        }
+
+        public long getCaptures() {
+            return captures;
+        }
+
+        public double meanTurns() {
+            return games == 0 ? 0 : (double) turns / games;
+        }
+
+        public double turnsStdDev() {
+            if (games < 2) {
+                return 0;
+            }
+            double mean = meanTurns();
+            return Math.sqrt(Math.max(0, (squaredTurns - games * mean * mean) / (games - 1)));
+        }
+    }
+
+    /**
+     * Uso: SimulationJob <punto-de-control> [partidas] [--hilos N] [--tramo N] [--cada segundos]
+     *                    [--jugadores N] [--fichas N] [--tablero N] [--estrategia nombre]
+     *                    [--reglas spec] [--semilla N]
+     * Si el punto de control existe se retoma con su configuración y se ignoran las opciones de partida.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Uso: SimulationJob <punto-de-control> [partidas] [--hilos N] [--tramo N] [--cada segundos]"
+                    + " [--jugadores N] [--fichas N] [--tablero N] [--estrategia nombre] [--reglas spec] [--semilla N]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        long games = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int shard = DEFAULT_SHARD_GAMES;
+        long interval = DEFAULT_INTERVAL_MILLIS;
+        int players = 4;
+        int pieces = 4;
+        int board = 56;
+        String strategy = Strategies.BALANCED;
+        RuleSet rules = RuleSet.standard();
+        long seed = 1;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hilos" -> threads = Integer.parseInt(args[++i]);
+                case "--tramo" -> shard = Integer.parseInt(args[++i]);
+                case "--cada" -> interval = (long) (Double.parseDouble(args[++i]) * 1000);
+                case "--jugadores" -> players = Integer.parseInt(args[++i]);
+                case "--fichas" -> pieces = Integer.parseInt(args[++i]);
+                case "--tablero" -> board = Integer.parseInt(args[++i]);
+                case "--estrategia" -> strategy = args[++i];
+                case "--reglas" -> rules = RuleSet.parse(args[++i]);
+                case "--semilla" -> seed = Long.parseLong(args[++i]);
+                default -> games = Long.parseLong(args[i]);
+            }
+        }
+
+        SimulationJob job;
+        if (Files.exists(file)) {
+            job = resume(file);
+            System.out.printf("Retomando %s: %d de %d partidas ya jugadas%n", file, job.getPlayedGames(), job.getGames());
+        } else {
+            job = create(file, players, pieces, board, strategy, rules, seed, games, shard);
+        }
+        // con Ctrl+C los hilos paran y run() guarda el punto de control antes de salir
+        Thread main = Thread.currentThread();
+        Thread hook = new Thread(() -> {
+            job.stop();
+            try {
+                main.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(hook);
+
+        long before = job.getPlayedGames();
+        long start = System.nanoTime();
+        Totals totals = job.run(threads, interval);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long played = totals.getGames() - before;
+        System.out.printf("%d partidas en %.1f s (%.0f partidas/s); %d de %d en total%n",
+                played, seconds, played / seconds, totals.getGames(), job.getGames());
+        for (int i = 0; i < job.getPlayers(); i++) {
+            Color c = Color.values()[i];
+            System.out.printf("  %-7s %6.2f%% victorias (%d)%n", c,
+                    100.0 * totals.getWins(c) / totals.getGames(), totals.getWins(c));
+        }
+        System.out.printf("Turnos promedio: %.3f (desvío %.3f), capturas: %d, sin ganador: %d, cortadas: %d%n",
+                totals.meanTurns(), totals.turnsStdDev(), totals.getCaptures(), totals.getNoWinner(),
+                totals.getCapped());
+    }
+}
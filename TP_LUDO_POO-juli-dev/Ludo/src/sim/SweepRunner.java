@@ -0,0 +1,381 @@
+package sim;
+
+import board.RuleSet;
+import bot.Strategies;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Barrido de parámetros: simula una grilla de configuraciones (tamaño del tablero, fichas,
+ * jugadores y reglas) repartiendo el trabajo entre hilos por tandas. Cada tanda va a la
+ * configuración más lejos de su objetivo, y una configuración deja de recibir partidas
+ * cuando los intervalos de confianza de las métricas son lo bastante angostos:
+ * la tasa de victorias de cada asiento (equidad) y la duración media de la partida.
+ *
+ * Uso: SweepRunner [--tablero 56,60] [--fichas 2,4] [--jugadores 2,3,4] [--reglas estandar/seis-repite,..]
+ *                  [--equidad 0.01] [--duracion 0.01] [--minimo 500] [--maximo 200000]
+ *                  [--tanda 100] [--hilos N] [--estrategia nombre]
+ */
+public class SweepRunner {
+    /** Cuantil normal del intervalo de confianza del 95 %. */
+    private static final double Z = 1.96;
+
+    private final List<Config> configs;
+    private final String strategyName;
+    private final double seatHalfWidth;
+    private final double lengthRelativeHalfWidth;
+    private final long minGames;
+    private final long maxGames;
+    private final int batchSize;
+    // primer error de un hilo; detiene el barrido y run lo relanza
+    private Throwable failure;
+
+    /**
+     * @param seatHalfWidth           semiancho máximo del intervalo de la tasa de victorias de cada asiento
+     * @param lengthRelativeHalfWidth semiancho máximo del intervalo de la duración media, relativo a la media
+     * @param minGames                partidas mínimas por configuración antes de poder detenerla
+     * @param maxGames                tope de partidas por configuración aunque no llegue al objetivo
+     */
+    public SweepRunner(List<Config> configs, String strategyName, double seatHalfWidth,
+                       double lengthRelativeHalfWidth, long minGames, long maxGames, int batchSize) {
+        if (configs.isEmpty()) {
+            throw new IllegalArgumentException("El barrido necesita al menos una configuración.");
+        }
+        if (seatHalfWidth <= 0 || lengthRelativeHalfWidth <= 0 || batchSize <= 0 || minGames > maxGames) {
+            throw new IllegalArgumentException("Objetivos de precisión o topes de partidas inválidos.");
+        }
+        this.configs = new ArrayList<>(configs);
+        this.strategyName = strategyName;
+        this.seatHalfWidth = seatHalfWidth;
+        this.lengthRelativeHalfWidth = lengthRelativeHalfWidth;
+        this.minGames = minGames;
+        this.maxGames = maxGames;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Corre el barrido con `threads` hilos y devuelve una estimación por configuración, en el mismo orden.
+     * Si una partida lanza una excepción, los demás hilos terminan su tanda y run la relanza.
+     */
+    public List<Estimate> run(int threads) throws InterruptedException {
+        List<Estimate> estimates = new ArrayList<>();
+        for (Config config : configs) {
+            estimates.add(new Estimate(config,
+                    new Simulation(config.players, config.pieces, config.mainPathSize, strategyName, config.rules),
+                    seatHalfWidth, lengthRelativeHalfWidth));
+        }
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> work(estimates), "barrido-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Falló una tanda del barrido: " + failure, failure);
+        }
+        return estimates;
+    }
+
+    private synchronized void fail(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        } else {
+            failure.addSuppressed(e);
+        }
+        notifyAll();
+    }
+
+    private void work(List<Estimate> estimates) {
+        Estimate target;
+        while ((target = claim(estimates)) != null) {
+            long firstSeed;
+            synchronized (this) {
+                firstSeed = target.nextSeed;
+                target.nextSeed += batchSize;
+            }
+            int[] winners = new int[batchSize];
+            int[] turns = new int[batchSize];
+            boolean played = false;
+            try {
+                for (int i = 0; i < batchSize; i++) {
+                    Game game = target.simulation.newGame(firstSeed + i);
+                    while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+                        game.playTurn();
+                    }
+                    Player winner = game.getWinner();
+                    winners[i] = winner != null ? winner.getColor().ordinal() : -1;
+                    turns[i] = game.getTurnNumber();
+                }
+                played = true;
+            } catch (RuntimeException | Error e) {
+                // se anota antes de liberar la tanda, así ningún hilo vuelve a tomarla
+                fail(e);
+                return;
+            } finally {
+                // la tanda se libera aunque falle, si no claim esperaría para siempre
+                synchronized (this) {
+                    target.inFlight -= batchSize;
+                    if (played) {
+                        target.add(winners, turns);
+                        if (target.games >= maxGames) {
+                            target.stopReason = "tope";
+                        } else if (target.games >= minGames && target.need(0) <= 1) {
+                            target.stopReason = "precisión";
+                        }
+                    }
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Elige la configuración que más necesita partidas, contando como ya jugadas las tandas
+     * en curso para que los hilos no se amontonen en la misma. Si las que faltan solo esperan
+     * tandas en curso, espera a que alguna termine; devuelve null cuando ya no queda nada
+     * o cuando otro hilo falló.
+     */
+    private synchronized Estimate claim(List<Estimate> estimates) {
+        while (true) {
+            if (failure != null) {
+                return null;
+            }
+            Estimate best = null;
+            double bestNeed = 0;
+            boolean waiting = false;
+            for (Estimate e : estimates) {
+                if (e.stopReason != null) {
+                    continue;
+                }
+                if (e.games + e.inFlight >= maxGames) {
+                    waiting = true;
+                    continue;
+                }
+                double need = e.games + e.inFlight < minGames
+                        ? Double.MAX_VALUE - (e.games + e.inFlight) : e.need(e.inFlight);
+                if (need <= 1) {
+                    waiting = true;
+                } else if (best == null || need > bestNeed) {
+                    best = e;
+                    bestNeed = need;
+                }
+            }
+            if (best != null) {
+                best.inFlight += batchSize;
+                return best;
+            }
+            if (!waiting) {
+                return null;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    /** Una configuración de la grilla. */
+    public static final class Config {
+        private final int players;
+        private final int pieces;
+        private final int mainPathSize;
+        private final RuleSet rules;
+
+        public Config(int players, int pieces, int mainPathSize, RuleSet rules) {
+            if (players < 2 || players > Color.values().length) {
+                throw new IllegalArgumentException("La cantidad de jugadores debe estar entre 2 y " + Color.values().length + ".");
+            }
+            this.players = players;
+            this.pieces = pieces;
+            this.mainPathSize = mainPathSize;
+            this.rules = rules;
+        }
+
+        public int getPlayers() {
+            return players;
+        }
+
+        public int getPieces() {
+            return pieces;
+        }
+
+        public int getMainPathSize() {
+            return mainPathSize;
+        }
+
+        public RuleSet getRules() {
+            return rules;
+        }
+
+        @Override
+        public String toString() {
+            return "tablero " + mainPathSize + ", " + pieces + " fichas, " + players + " jugadores, " + rules;
+        }
+    }
+
+    /** Acumulados de una configuración y sus intervalos de confianza. */
+    public static final class Estimate {
+        private final Config config;
+        private final Simulation simulation;
+        private final double seatTarget;
+        private final double lengthTarget;
+        private final long[] wins;
+        private long games;
+        private double sumTurns;
+        private double sumSquaredTurns;
+        private long nextSeed = 1;
+        private long inFlight;
+        private String stopReason;
+
+        Estimate(Config config, Simulation simulation, double seatTarget, double lengthTarget) {
+            this.config = config;
+            this.simulation = simulation;
+            this.seatTarget = seatTarget;
+            this.lengthTarget = lengthTarget;
+            this.wins = new long[config.players];
+        }
+
+        void add(int[] winners, int[] turns) {
+            for (int i = 0; i < winners.length; i++) {
+                if (winners[i] >= 0) {
+                    wins[winners[i]]++;
+                }
+                sumTurns += turns[i];
+                sumSquaredTurns += (double) turns[i] * turns[i];
+            }
+            games += winners.length;
+        }
+
+        /**
+         * Cuánto falta para el objetivo: el mayor cociente entre semiancho y objetivo de las
+         * métricas, proyectado con `pending` partidas más (el semiancho baja con la raíz).
+         */
+        double need(long pending) {
+            if (games == 0) {
+                return Double.MAX_VALUE;
+            }
+            double shrink = Math.sqrt((double) games / (games + pending));
+            return Math.max(maxSeatHalfWidth() / seatTarget, lengthHalfWidth() / meanTurns() / lengthTarget) * shrink;
+        }
+
+        public Config getConfig() {
+            return config;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        /** Motivo por el que se detuvo: "precisión" o "tope". */
+        public String getStopReason() {
+            return stopReason;
+        }
+
+        public double winRate(int seat) {
+            return games == 0 ? 0 : (double) wins[seat] / games;
+        }
+
+        public double seatHalfWidth(int seat) {
+            double p = winRate(seat);
+            return games == 0 ? Double.MAX_VALUE : Z * Math.sqrt(p * (1 - p) / games);
+        }
+
+        public double maxSeatHalfWidth() {
+            double max = 0;
+            for (int seat = 0; seat < wins.length; seat++) {
+                max = Math.max(max, seatHalfWidth(seat));
+            }
+            return max;
+        }
+
+        public double meanTurns() {
+            return games == 0 ? 0 : sumTurns / games;
+        }
+
+        public double lengthHalfWidth() {
+            if (games < 2) {
+                return Double.MAX_VALUE;
+            }
+            double mean = meanTurns();
+            double variance = (sumSquaredTurns - games * mean * mean) / (games - 1);
+            return Z * Math.sqrt(Math.max(variance, 0) / games);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] boards = {56};
+        int[] pieces = {4};
+        int[] players = {2, 4};
+        String[] rules = {"estandar"};
+        double seat = 0.01;
+        double length = 0.01;
+        long min = 500;
+        long max = 200_000;
+        int batch = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String strategy = Strategies.BALANCED;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--tablero" -> boards = parseInts(args[++i]);
+                case "--fichas" -> pieces = parseInts(args[++i]);
+                case "--jugadores" -> players = parseInts(args[++i]);
+                case "--reglas" -> rules = args[++i].split("/");
+                case "--equidad" -> seat = Double.parseDouble(args[++i]);
+                case "--duracion" -> length = Double.parseDouble(args[++i]);
+                case "--minimo" -> min = Long.parseLong(args[++i]);
+                case "--maximo" -> max = Long.parseLong(args[++i]);
+                case "--tanda" -> batch = Integer.parseInt(args[++i]);
+                case "--hilos" -> threads = Integer.parseInt(args[++i]);
+                case "--estrategia" -> strategy = args[++i];
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        List<Config> grid = new ArrayList<>();
+        for (int board : boards) {
+            for (int p : pieces) {
+                for (int n : players) {
+                    for (String spec : rules) {
+                        grid.add(new Config(n, p, board, RuleSet.parse(spec)));
+                    }
+                }
+            }
+        }
+        SweepRunner runner = new SweepRunner(grid, strategy, seat, length, min, max, batch);
+        long start = System.nanoTime();
+        List<Estimate> estimates = runner.run(threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long total = 0;
+        for (Estimate e : estimates) {
+            total += e.getGames();
+            StringBuilder seats = new StringBuilder();
+            for (int s = 0; s < e.getConfig().getPlayers(); s++) {
+                seats.append(String.format(" %5.1f%%", 100 * e.winRate(s)));
+            }
+            System.out.printf("%-60s %8d partidas (%s)  asientos:%s ±%.1f%%  turnos %.1f ±%.1f%n",
+                    e.getConfig(), e.getGames(), e.getStopReason(), seats, 100 * e.maxSeatHalfWidth(),
+                    e.meanTurns(), e.lengthHalfWidth());
+        }
+        System.out.printf("%d partidas en %.1f s (%.0f partidas/s); con el tope fijo hubieran sido %d%n",
+                total, seconds, total / seconds, max * grid.size());
+    }
+
+    private static int[] parseInts(String list) {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,101 @@
+package sim;
+
+import bot.BotGame;
+import bot.Strategies;
+import core.Color;
+import core.Player;
+import game.Game;
+import game.GameState;
+import utils.Dice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Torneo todos contra todos entre las estrategias automáticas, en mesas de dos jugadores.
+ * Cada pareja juega la misma cantidad de partidas en ambos asientos para compensar
+ * la ventaja de salida.
+ */
+public class Tournament {
+    private final int gamesPerPairing;
+    private final int mainPathSize;
+
+    public Tournament(int gamesPerPairing, int mainPathSize) {
+        this.gamesPerPairing = gamesPerPairing;
+        this.mainPathSize = mainPathSize;
+    }
+
+    /** Juega el torneo y devuelve las victorias [i][j] de la estrategia i contra la j. */
+    public long[][] play(String[] strategies, long firstSeed) {
+        long[][] wins = new long[strategies.length][strategies.length];
+        long seed = firstSeed;
+        for (int a = 0; a < strategies.length; a++) {
+            for (int b = 0; b < strategies.length; b++) {
+                if (a == b) {
+                    continue;
+                }
+                // a juega como primer asiento contra b; la pareja inversa se juega al llegar a (b, a)
+                for (int g = 0; g < gamesPerPairing; g++) {
+                    Color winner = playOne(strategies[a], strategies[b], seed++);
+                    if (winner == Color.RED) {
+                        wins[a][b]++;
+                    } else if (winner == Color.GREEN) {
+                        wins[b][a]++;
+                    }
+                }
+            }
+        }
+        return wins;
+    }
+
+    private Color playOne(String first, String second, long seed) {
+        List<Player> players = new ArrayList<>();
+        Player red = new Player(first, Color.RED);
+        red.initializePieces(4);
+        players.add(red);
+        Player green = new Player(second, Color.GREEN);
+        green.initializePieces(4);
+        players.add(green);
+        Game game = new BotGame(players, mainPathSize, Strategies.create(first), new Dice(seed));
+        game.setStrategy(Color.GREEN, Strategies.create(second));
+        game.setVerbose(false);
+        game.startGame();
+        while (game.getState() == GameState.IN_PROGRESS && game.getTurnNumber() < Simulation.MAX_TURNS) {
+            game.playTurn();
+        }
+        Player winner = game.getWinner();
+        return winner != null ? winner.getColor() : null;
+    }
+
+    /** Uso: Tournament [partidasPorPareja] */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        String[] names = Strategies.names();
+        long start = System.nanoTime();
+        long[][] wins = new Tournament(games, 56).play(names, 1);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%-22s", "");
+        for (String name : names) {
+            System.out.printf(" %11.11s", name);
+        }
+        System.out.printf("%10s%n", "Total");
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%-22s", names[i]);
+            long total = 0;
+            long played = 0;
+            for (int j = 0; j < names.length; j++) {
+                if (i == j) {
+                    System.out.printf("%12s", "-");
+                    continue;
+                }
+                long pair = wins[i][j] + wins[j][i];
+                total += wins[i][j];
+                played += pair;
+                System.out.printf("%11.1f%%", pair == 0 ? 0 : 100.0 * wins[i][j] / pair);
+            }
+            System.out.printf("%9.1f%%%n", played == 0 ? 0 : 100.0 * total / played);
+        }
+        System.out.printf("Torneo completado en %.1f s%n", seconds);
+    }
+}
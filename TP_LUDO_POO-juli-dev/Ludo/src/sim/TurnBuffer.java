@@ -0,0 +1,66 @@
+package sim;
+
+import core.Player;
+import game.Game;
+import game.TurnListener;
+
+import java.util.Arrays;
+
+/**
+ * Acumula los turnos de una partida en arreglos primitivos reutilizables, para volcarlos
+ * de una sola vez en el ResultStore al terminar. Un buffer por hilo de simulación.
+ */
+public class TurnBuffer implements TurnListener {
+    private int[] turns = new int[512];
+    private byte[] colors = new byte[512];
+    private byte[] rolls = new byte[512];
+    private byte[] pieces = new byte[512];
+    private boolean[] captures = new boolean[512];
+    private int size;
+
+    @Override
+    public void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+        if (size == turns.length) {
+            int capacity = size * 2;
+            turns = Arrays.copyOf(turns, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            rolls = Arrays.copyOf(rolls, capacity);
+            pieces = Arrays.copyOf(pieces, capacity);
+            captures = Arrays.copyOf(captures, capacity);
+        }
+        turns[size] = game.getTurnNumber();
+        colors[size] = (byte) player.getColor().ordinal();
+        rolls[size] = (byte) roll;
+        pieces[size] = (byte) pieceId;
+        captures[size] = capture;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int turn(int i) {
+        return turns[i];
+    }
+
+    byte color(int i) {
+        return colors[i];
+    }
+
+    byte roll(int i) {
+        return rolls[i];
+    }
+
+    byte piece(int i) {
+        return pieces[i];
+    }
+
+    boolean capture(int i) {
+        return captures[i];
+    }
+}
@@ -0,0 +1,151 @@
+package tablebase;
+
+import board.Board;
+
+/**
+ * Numeración de las posiciones de final de partida usada por el generador y el lector.
+ * Cada lado tiene `pieces` fichas dentro de una ventana de `cells` casillas: las últimas
+ * `window` del camino principal más las del camino final (la última es la meta).
+ * Como el orden de las fichas no importa, cada lado es un multiconjunto y se numera
+ * con el sistema combinatorio (combinaciones con repetición).
+ */
+public final class EndgameIndex {
+    private final int mainPathSize;
+    private final int window;
+    private final int pieces;
+    private final int cells;
+    private final int firstProgress;
+    private final int sideCount;
+    private final long[][] binomial;
+
+    public EndgameIndex(int mainPathSize, int window, int pieces) {
+        if (window < 0 || window > mainPathSize) {
+            throw new IllegalArgumentException("La ventana debe estar entre 0 y mainPathSize.");
+        }
+        if (pieces <= 0) {
+            throw new IllegalArgumentException("La cantidad de fichas debe ser positiva.");
+        }
+        this.mainPathSize = mainPathSize;
+        this.window = window;
+        this.pieces = pieces;
+        this.cells = window + Board.FINAL_PATH_LENGTH;
+        this.firstProgress = mainPathSize - window;
+
+        int n = cells + pieces;
+        binomial = new long[n + 1][pieces + 2];
+        for (int i = 0; i <= n; i++) {
+            binomial[i][0] = 1;
+            for (int j = 1; j <= Math.min(i, pieces + 1); j++) {
+                binomial[i][j] = binomial[i - 1][j - 1] + (j <= i - 1 ? binomial[i - 1][j] : 0);
+            }
+        }
+        long count = binomial[cells + pieces - 1][pieces];
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Configuración demasiado grande: " + count + " posiciones por lado.");
+        }
+        this.sideCount = (int) count;
+    }
+
+    public int getMainPathSize() {
+        return mainPathSize;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public int getPieces() {
+        return pieces;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    /** Cantidad de multiconjuntos distintos para un lado. */
+    public int getSideCount() {
+        return sideCount;
+    }
+
+    /** Cantidad total de entradas de la tabla (lado que mueve x lado que espera). */
+    public long getEntryCount() {
+        return (long) sideCount * sideCount;
+    }
+
+    /** Convierte un progreso (ver Board.getProgress) en celda de la ventana, o -1 si queda fuera. */
+    public int cellOf(int progress) {
+        int cell = progress - firstProgress;
+        return (cell >= 0 && cell < cells) ? cell : -1;
+    }
+
+    public int progressOf(int cell) {
+        return firstProgress + cell;
+    }
+
+    /** Celda destino al mover desde `cell` con `roll`, con las reglas de Board.move. */
+    public int nextCell(int cell, int roll) {
+        if (cell < window) {
+            int next = cell + roll;
+            // al completar la vuelta siempre se entra a la primera casilla del camino final
+            return next >= window ? window : next;
+        }
+        int next = cell + roll;
+        return next <= cells - 1 ? next : cell;
+    }
+
+    public boolean isTerminal(int cell) {
+        return cell == cells - 1;
+    }
+
+    /**
+     * Rango de un multiconjunto dado como celdas ordenadas de menor a mayor.
+     * El arreglo no se modifica.
+     */
+    public int rankSorted(int[] sortedCells) {
+        long rank = 0;
+        for (int i = 0; i < pieces; i++) {
+            rank += binomial[sortedCells[i] + i][i + 1];
+        }
+        return (int) rank;
+    }
+
+    /**
+     * Rango de un lado a partir de progresos en cualquier orden, sin reservar memoria.
+     * Devuelve -1 si alguna ficha está fuera de la ventana.
+     */
+    public int rankProgress(int[] progress) {
+        if (progress.length != pieces) {
+            return -1;
+        }
+        for (int p : progress) {
+            if (cellOf(p) < 0) {
+                return -1;
+            }
+        }
+        long rank = 0;
+        int i = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            for (int p : progress) {
+                if (p - firstProgress == cell) {
+                    rank += binomial[cell + i][i + 1];
+                    i++;
+                }
+            }
+        }
+        return (int) rank;
+    }
+
+    /** Escribe en `out` las celdas ordenadas correspondientes a `rank`. */
+    public void unrank(int rank, int[] out) {
+        long r = rank;
+        for (int i = pieces - 1; i >= 0; i--) {
+            // mayor d tal que C(d, i+1) <= r
+            int d = i;
+            while (binomial[d + 1][i + 1] <= r) {
+                d++;
+            }
+            r -= binomial[d][i + 1];
+            out[i] = d - i;
+        }
+    }
+}
@@ -0,0 +1,593 @@
+package tablebase;
+
+import board.Board;
+import board.BoardTopology;
+import board.RuleSet;
+import board.RuleTables;
+import core.Color;
+
+import java.util.Arrays;
+
+/**
+ * Análisis exacto, sin simular, de la carrera de un jugador solo: cuántas tiradas y turnos
+ * tarda en llevar todas sus fichas de la base a la meta con un tamaño de tablero y unas
+ * reglas dadas (el 6 para salir, la tirada exacta en el camino final, el 6 que repite).
+ * Los rivales no entran en el modelo, así que capturas y bloqueos no cuentan.
+ *
+ * Cada estado es el multiconjunto de progresos de las fichas, numerado con el sistema
+ * combinatorio como en EndgameIndex pero incluyendo la base. Las transiciones salen de
+ * RuleTables con la misma lógica de turno que Game.executeTurn y se guardan como matriz
+ * dispersa por filas (a lo sumo seis entradas por estado). Como mover una ficha siempre
+ * lleva a un estado de rango mayor, salvo los lazos de las tiradas sin efecto, recorrer los
+ * estados de atrás hacia adelante resuelve el sistema en un barrido; el segundo solo confirma.
+ *
+ * Uso: MarkovAnalyzer <mainPathSize> <fichas> [regla,regla,..] [--politica optima|adelantada]
+ */
+public class MarkovAnalyzer {
+    private static final int ROLLS = 6;
+    private static final int MAX_SWEEPS = 1000;
+    // memoria por estado en el pico de analyze: la cadena mientras se compacta (inicio de fila,
+    // seis columnas y probabilidades, y sus copias), los pasos de turno, los valores de la
+    // política óptima y los dos vectores de esperados
+    private static final long BYTES_PER_STATE = 4 + 2 * ROLLS * (4 + 8) + 8 + 8 + 2 * 8;
+
+    /** Cómo elige ficha el jugador cuando tiene más de una opción. */
+    public enum Policy {
+        /** La que minimiza las tiradas esperadas hasta terminar. */
+        OPTIMAL("optima"),
+        /** La ficha más adelantada que pueda avanzar. */
+        FARTHEST("adelantada");
+
+        private final String label;
+
+        Policy(String label) {
+            this.label = label;
+        }
+
+        public static Policy parse(String label) {
+            for (Policy policy : values()) {
+                if (policy.label.equals(label)) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Política desconocida: " + label);
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final int mainPathSize;
+    private final int pieces;
+    private final RuleTables rules;
+    // celdas: 0 es la base y 1 + progreso el resto; la última es la meta
+    private final int cells;
+    private final int goal;
+    private final long[][] binomial;
+    private final int stateCount;
+
+    public MarkovAnalyzer(int mainPathSize, int pieces, RuleSet ruleSet) {
+        if (pieces <= 0) {
+            throw new IllegalArgumentException("La cantidad de fichas debe ser positiva.");
+        }
+        this.mainPathSize = mainPathSize;
+        this.pieces = pieces;
+        // las tablas de avance no dependen de los colores en juego
+        this.rules = BoardTopology.of(mainPathSize, 1 << Color.RED.ordinal(), ruleSet).getRules();
+        this.cells = mainPathSize + Board.FINAL_PATH_LENGTH + 1;
+        this.goal = cells - 1;
+
+        int n = cells + pieces;
+        binomial = new long[n + 1][pieces + 2];
+        for (int i = 0; i <= n; i++) {
+            binomial[i][0] = 1;
+            for (int j = 1; j <= Math.min(i, pieces + 1); j++) {
+                binomial[i][j] = binomial[i - 1][j - 1] + (j <= i - 1 ? binomial[i - 1][j] : 0);
+            }
+        }
+        long count = binomial[cells + pieces - 1][pieces];
+        if (count > Integer.MAX_VALUE / ROLLS) {
+            throw new IllegalArgumentException("Configuración demasiado grande: " + count + " estados.");
+        }
+        this.stateCount = (int) count;
+    }
+
+    public int getMainPathSize() {
+        return mainPathSize;
+    }
+
+    public int getPieces() {
+        return pieces;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    /** Rango de las celdas ordenadas de menor a mayor. */
+    private int rank(int[] sorted) {
+        long rank = 0;
+        for (int i = 0; i < pieces; i++) {
+            rank += binomial[sorted[i] + i][i + 1];
+        }
+        return (int) rank;
+    }
+
+    /** Pasa a las celdas del estado de rango siguiente (orden colexicográfico). */
+    private void nextState(int[] sorted) {
+        int i = 0;
+        while (i < pieces - 1 && sorted[i] == sorted[i + 1]) {
+            i++;
+        }
+        sorted[i]++;
+        Arrays.fill(sorted, 0, i, 0);
+    }
+
+    /** Estado al mover la ficha de la posición `index` a la celda `target`, con las celdas ya ordenadas. */
+    private int rankAfterMove(int[] sorted, int index, int target, int[] scratch) {
+        System.arraycopy(sorted, 0, scratch, 0, pieces);
+        int i = index;
+        while (i + 1 < pieces && scratch[i + 1] < target) {
+            scratch[i] = scratch[i + 1];
+            i++;
+        }
+        scratch[i] = target;
+        return rank(scratch);
+    }
+
+    /**
+     * Construye la cadena con la política dada y calcula tiradas y turnos esperados desde
+     * cada estado, y la distribución de tiradas desde la base hasta que quede menos de
+     * `tail` de probabilidad sin terminar.
+     */
+    public Result analyze(Policy policy, double epsilon, double tail) {
+        checkMemory();
+        long start = System.nanoTime();
+        double[] optimal = policy == Policy.OPTIMAL ? solveOptimal() : null;
+        Chain chain = buildChain(policy, optimal);
+        long built = System.nanoTime();
+
+        double[] rollsLeft = new double[stateCount];
+        double[] turnsLeft = new double[stateCount];
+        int sweeps = chain.solve(rollsLeft, null, epsilon);
+        chain.solve(turnsLeft, chain.passes, epsilon);
+        long solved = System.nanoTime();
+
+        double[] distribution = chain.absorptionDistribution(0, tail);
+        long finished = System.nanoTime();
+        return new Result(this, policy, chain.nonZeros(), sweeps, rollsLeft, turnsLeft, distribution,
+                (built - start) / 1_000_000, (solved - built) / 1_000_000, (finished - solved) / 1_000_000);
+    }
+
+    /** Rechaza de entrada un análisis que no entra en el heap, en vez de fallar a mitad de camino. */
+    private void checkMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long needed = stateCount * BYTES_PER_STATE;
+        long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        if (needed > available) {
+            throw new IllegalArgumentException(String.format(
+                    "Configuración demasiado grande: %d estados necesitan unos %d MB y quedan %d MB libres"
+                            + " (límite del heap %d MB, ver -Xmx).",
+                    stateCount, needed >> 20, available >> 20, runtime.maxMemory() >> 20));
+        }
+    }
+
+    /**
+     * Tiradas esperadas con la mejor elección en cada estado. Se resuelve de atrás hacia
+     * adelante; en cada estado las tiradas que pueden no tener efecto (ficha trabada por la
+     * tirada exacta, base sin 6) se resuelven como un lazo, eligiéndolo solo si conviene.
+     */
+    private double[] solveOptimal() {
+        double[] value = new double[stateCount];
+        int[] sorted = lastState();
+        int[] scratch = new int[pieces];
+        double[] best = new double[ROLLS + 1];
+        boolean[] selfAllowed = new boolean[ROLLS + 1];
+        for (int s = stateCount - 1; s >= 0; s--) {
+            if (s < stateCount - 1) {
+                for (int roll = 1; roll <= ROLLS; roll++) {
+                    best[roll] = Double.POSITIVE_INFINITY;
+                    selfAllowed[roll] = false;
+                    int[] options = options(sorted, roll, scratch);
+                    for (int o = 0; o < options.length; o++) {
+                        if (options[o] == s) {
+                            selfAllowed[roll] = true;
+                        } else {
+                            best[roll] = Math.min(best[roll], value[options[o]]);
+                        }
+                    }
+                }
+                value[s] = solveLoop(best, selfAllowed);
+            }
+            previousState(sorted);
+        }
+        return value;
+    }
+
+    /** Resuelve v = 1 + (1/6) * suma de min(v, best[r]) (o best[r] si no hay lazo). */
+    private static double solveLoop(double[] best, boolean[] selfAllowed) {
+        boolean[] loop = new boolean[ROLLS + 1];
+        for (int roll = 1; roll <= ROLLS; roll++) {
+            loop[roll] = best[roll] == Double.POSITIVE_INFINITY;
+        }
+        double v = 0;
+        for (int round = 0; round <= ROLLS; round++) {
+            int loops = 0;
+            double rest = 0;
+            for (int roll = 1; roll <= ROLLS; roll++) {
+                if (loop[roll]) {
+                    loops++;
+                } else {
+                    rest += best[roll];
+                }
+            }
+            v = (ROLLS + rest) / (ROLLS - loops);
+            boolean changed = false;
+            for (int roll = 1; roll <= ROLLS; roll++) {
+                if (!loop[roll] && selfAllowed[roll] && best[roll] > v) {
+                    loop[roll] = true;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return v;
+    }
+
+    private int[] lastState() {
+        int[] sorted = new int[pieces];
+        Arrays.fill(sorted, goal);
+        return sorted;
+    }
+
+    /** Pasa a las celdas del estado de rango anterior. */
+    private void previousState(int[] sorted) {
+        int i = 0;
+        while (i < pieces && sorted[i] == 0) {
+            i++;
+        }
+        if (i == pieces) {
+            return;
+        }
+        sorted[i]--;
+        Arrays.fill(sorted, 0, i, sorted[i]);
+    }
+
+    /**
+     * Estados a los que se puede llegar con la tirada, con la lógica de Game.executeTurn:
+     * sin fichas en juego solo un 6 saca una; con fichas en base un 6 obliga a sacar; si no,
+     * se mueve alguna ficha en juego (puede no avanzar si la tirada exacta no alcanza).
+     */
+    private int[] options(int[] sorted, int roll, int[] scratch) {
+        int inBase = 0;
+        int onBoard = 0;
+        for (int c : sorted) {
+            if (c == 0) {
+                inBase++;
+            } else if (c != goal) {
+                onBoard++;
+            }
+        }
+        int self = rank(sorted);
+        if (onBoard == 0 || (roll == ROLLS && inBase > 0)) {
+            if (roll != ROLLS || inBase == 0) {
+                return new int[]{ self };
+            }
+            return new int[]{ rankAfterMove(sorted, inBase - 1, 1, scratch) };
+        }
+        int[] result = new int[onBoard];
+        int count = 0;
+        for (int i = inBase; i < pieces; i++) {
+            int c = sorted[i];
+            if (c == goal || (i > inBase && sorted[i - 1] == c)) {
+                continue;
+            }
+            int target = rules.advance(c - 1, roll) + 1;
+            result[count++] = target == c ? self : rankAfterMove(sorted, i, target, scratch);
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /** Si la tirada hace pasar el turno al rival (no lo pasa si saca ficha con todo en base o repite). */
+    private boolean passesTurn(int[] sorted, int roll) {
+        boolean anyOnBoard = false;
+        for (int c : sorted) {
+            anyOnBoard |= c != 0 && c != goal;
+        }
+        if (!anyOnBoard && roll == ROLLS) {
+            return false;
+        }
+        return !rules.grantsExtraRoll(roll);
+    }
+
+    private Chain buildChain(Policy policy, double[] optimal) {
+        int[] rowStart = new int[stateCount + 1];
+        int[] columns = new int[stateCount * ROLLS];
+        double[] probabilities = new double[stateCount * ROLLS];
+        double[] passes = new double[stateCount];
+        int[] sorted = new int[pieces];
+        int[] scratch = new int[pieces];
+        int nnz = 0;
+        for (int s = 0; s < stateCount; s++) {
+            rowStart[s] = nnz;
+            if (s < stateCount - 1) {
+                int rowBegin = nnz;
+                for (int roll = 1; roll <= ROLLS; roll++) {
+                    int[] options = options(sorted, roll, scratch);
+                    int next = choose(policy, optimal, options, s);
+                    // una jugada que termina la partida no cuenta como turno pasado
+                    if (next != stateCount - 1 && passesTurn(sorted, roll)) {
+                        passes[s] += 1.0 / ROLLS;
+                    }
+                    int at = rowBegin;
+                    while (at < nnz && columns[at] != next) {
+                        at++;
+                    }
+                    if (at == nnz) {
+                        columns[nnz++] = next;
+                    }
+                    probabilities[at] += 1.0 / ROLLS;
+                }
+            }
+            if (s < stateCount - 1) {
+                nextState(sorted);
+            }
+        }
+        rowStart[stateCount] = nnz;
+        return new Chain(rowStart, Arrays.copyOf(columns, nnz), Arrays.copyOf(probabilities, nnz), passes);
+    }
+
+    private int choose(Policy policy, double[] optimal, int[] options, int self) {
+        if (options.length == 1) {
+            return options[0];
+        }
+        if (policy == Policy.OPTIMAL) {
+            int best = options[0];
+            for (int option : options) {
+                double v = optimal[option];
+                if (v < optimal[best] || (v == optimal[best] && option > best)) {
+                    best = option;
+                }
+            }
+            return best;
+        }
+        // las opciones van de la ficha más atrasada a la más adelantada
+        for (int o = options.length - 1; o >= 0; o--) {
+            if (options[o] != self) {
+                return options[o];
+            }
+        }
+        return self;
+    }
+
+    /** Matriz dispersa por filas de la cadena con la política ya fijada. */
+    private final class Chain {
+        final int[] rowStart;
+        final int[] columns;
+        final double[] probabilities;
+        final double[] passes;
+
+        Chain(int[] rowStart, int[] columns, double[] probabilities, double[] passes) {
+            this.rowStart = rowStart;
+            this.columns = columns;
+            this.probabilities = probabilities;
+            this.passes = passes;
+        }
+
+        int nonZeros() {
+            return columns.length;
+        }
+
+        /**
+         * Gauss-Seidel de atrás hacia adelante para x = recompensa + P x, con recompensa 1
+         * por tirada o la dada por estado; el lazo de cada fila se despeja en el lugar.
+         * Devuelve la cantidad de barridos hasta que el mayor cambio quedó bajo epsilon.
+         */
+        int solve(double[] x, double[] reward, double epsilon) {
+            for (int sweep = 1; sweep <= MAX_SWEEPS; sweep++) {
+                double change = 0;
+                for (int s = stateCount - 2; s >= 0; s--) {
+                    double sum = reward != null ? reward[s] : 1;
+                    double loop = 0;
+                    for (int k = rowStart[s]; k < rowStart[s + 1]; k++) {
+                        if (columns[k] == s) {
+                            loop += probabilities[k];
+                        } else {
+                            sum += probabilities[k] * x[columns[k]];
+                        }
+                    }
+                    double value = sum / (1 - loop);
+                    change = Math.max(change, Math.abs(value - x[s]));
+                    x[s] = value;
+                }
+                if (change < epsilon) {
+                    return sweep;
+                }
+            }
+            return MAX_SWEEPS;
+        }
+
+        /**
+         * Probabilidad de terminar en cada tirada partiendo del estado dado: se propaga la
+         * masa de probabilidad un paso por tirada. Como la masa solo avanza a rangos mayores,
+         * cada paso recorre desde el menor estado que todavía tiene masa y saltea los vacíos.
+         */
+        double[] absorptionDistribution(int from, double tail) {
+            double[] current = new double[stateCount];
+            double[] next = new double[stateCount];
+            current[from] = 1;
+            int low = from;
+            int high = from;
+            double[] absorbed = new double[64];
+            int steps = 0;
+            double remaining = 1;
+            while (remaining > tail && steps < 1_000_000) {
+                int nextLow = stateCount;
+                int nextHigh = 0;
+                double done = 0;
+                for (int s = low; s <= high; s++) {
+                    double mass = current[s];
+                    if (mass == 0) {
+                        continue;
+                    }
+                    current[s] = 0;
+                    for (int k = rowStart[s]; k < rowStart[s + 1]; k++) {
+                        int target = columns[k];
+                        if (target == stateCount - 1) {
+                            done += mass * probabilities[k];
+                            continue;
+                        }
+                        next[target] += mass * probabilities[k];
+                        nextLow = Math.min(nextLow, target);
+                        nextHigh = Math.max(nextHigh, target);
+                    }
+                }
+                if (steps == absorbed.length) {
+                    absorbed = Arrays.copyOf(absorbed, steps * 2);
+                }
+                absorbed[steps++] = done;
+                remaining -= done;
+                double[] swap = current;
+                current = next;
+                next = swap;
+                low = nextLow;
+                high = nextHigh;
+            }
+            return Arrays.copyOf(absorbed, steps);
+        }
+    }
+
+    /** Resultado del análisis: valores esperados por estado y distribución desde la base. */
+    public static final class Result {
+        private final MarkovAnalyzer analyzer;
+        private final Policy policy;
+        private final int nonZeros;
+        private final int sweeps;
+        private final double[] rollsLeft;
+        private final double[] turnsLeft;
+        private final double[] distribution;
+        private final long buildMillis;
+        private final long solveMillis;
+        private final long distributionMillis;
+
+        Result(MarkovAnalyzer analyzer, Policy policy, int nonZeros, int sweeps, double[] rollsLeft,
+               double[] turnsLeft, double[] distribution, long buildMillis, long solveMillis, long distributionMillis) {
+            this.analyzer = analyzer;
+            this.policy = policy;
+            this.nonZeros = nonZeros;
+            this.sweeps = sweeps;
+            this.rollsLeft = rollsLeft;
+            this.turnsLeft = turnsLeft;
+            this.distribution = distribution;
+            this.buildMillis = buildMillis;
+            this.solveMillis = solveMillis;
+            this.distributionMillis = distributionMillis;
+        }
+
+        public Policy getPolicy() {
+            return policy;
+        }
+
+        public int getNonZeros() {
+            return nonZeros;
+        }
+
+        public int getSweeps() {
+            return sweeps;
+        }
+
+        /** Tiradas esperadas desde la base hasta tener todas las fichas en la meta. */
+        public double expectedRolls() {
+            return rollsLeft[0];
+        }
+
+        /** Turnos esperados (una tirada extra no cuenta como turno nuevo) desde la base. */
+        public double expectedTurns() {
+            return 1 + turnsLeft[0];
+        }
+
+        /** Tiradas esperadas que le faltan a un jugador con las fichas en los progresos dados. */
+        public double expectedRolls(int... progress) {
+            return rollsLeft[analyzer.rankProgress(progress)];
+        }
+
+        /** Probabilidad de terminar exactamente en la tirada dada (la primera es 1). */
+        public double probabilityAt(int rolls) {
+            return rolls >= 1 && rolls <= distribution.length ? distribution[rolls - 1] : 0;
+        }
+
+        /** Menor cantidad de tiradas con la que se termina con probabilidad al menos p. */
+        public int quantile(double p) {
+            double sum = 0;
+            for (int t = 0; t < distribution.length; t++) {
+                sum += distribution[t];
+                if (sum >= p) {
+                    return t + 1;
+                }
+            }
+            return distribution.length;
+        }
+
+        public long getBuildMillis() {
+            return buildMillis;
+        }
+
+        public long getSolveMillis() {
+            return solveMillis;
+        }
+
+        public long getDistributionMillis() {
+            return distributionMillis;
+        }
+    }
+
+    /** Rango del estado con las fichas en los progresos dados (ver Board.getProgress). */
+    int rankProgress(int[] progress) {
+        if (progress.length != pieces) {
+            throw new IllegalArgumentException("Se esperaban " + pieces + " progresos.");
+        }
+        int[] sorted = new int[pieces];
+        for (int i = 0; i < pieces; i++) {
+            int cell = progress[i] + 1;
+            if (cell < 0 || cell > goal) {
+                throw new IllegalArgumentException("Progreso fuera del tablero: " + progress[i]);
+            }
+            sorted[i] = cell;
+        }
+        Arrays.sort(sorted);
+        return rank(sorted);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Uso: MarkovAnalyzer <mainPathSize> <fichas> [regla,regla,..] [--politica optima|adelantada]");
+            return;
+        }
+        int mainPathSize = Integer.parseInt(args[0]);
+        int pieces = Integer.parseInt(args[1]);
+        RuleSet rules = RuleSet.standard();
+        Policy policy = Policy.OPTIMAL;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--politica")) {
+                policy = Policy.parse(args[++i]);
+            } else {
+                rules = RuleSet.parse(args[i]);
+            }
+        }
+
+        MarkovAnalyzer analyzer = new MarkovAnalyzer(mainPathSize, pieces, rules);
+        Result result = analyzer.analyze(policy, 1e-9, 1e-9);
+        System.out.printf("Tablero %d, %d fichas, reglas %s, política %s: %d estados, %d transiciones%n",
+                mainPathSize, pieces, rules, policy, analyzer.getStateCount(), result.getNonZeros());
+        System.out.printf("  construir %d ms, resolver %d ms (%d barridos), distribución %d ms%n",
+                result.getBuildMillis(), result.getSolveMillis(), result.getSweeps(), result.getDistributionMillis());
+        System.out.printf("  tiradas esperadas: %.4f, turnos esperados: %.4f%n",
+                result.expectedRolls(), result.expectedTurns());
+        System.out.printf("  tiradas hasta terminar: mediana %d, 90%% %d, 99%% %d%n",
+                result.quantile(0.5), result.quantile(0.9), result.quantile(0.99));
+    }
+}
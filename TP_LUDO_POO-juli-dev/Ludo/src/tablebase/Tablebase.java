@@ -0,0 +1,125 @@
+package tablebase;
+
+import game.GameSnapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lector de la tabla de finales generada por TablebaseGenerator.
+ * El archivo se mapea en memoria por tramos, así que las consultas son O(1)
+ * y no ocupan heap aunque la tabla pese varios gigabytes.
+ */
+public class Tablebase implements AutoCloseable {
+    // cada mapeo cubre 2^29 entradas (1 GiB), por debajo del limite de 2 GiB de MappedByteBuffer
+    static final int ENTRIES_PER_MAP = 1 << 29;
+
+    private final FileChannel channel;
+    private final EndgameIndex index;
+    private final MappedByteBuffer[] maps;
+
+    private Tablebase(FileChannel channel, EndgameIndex index, MappedByteBuffer[] maps) {
+        this.channel = channel;
+        this.index = index;
+        this.maps = maps;
+    }
+
+    public static Tablebase open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TablebaseGenerator.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < TablebaseGenerator.HEADER_BYTES || header.getLong() != TablebaseGenerator.MAGIC) {
+                throw new IOException("El archivo no es una tabla de finales: " + file);
+            }
+            int mainPathSize = header.getInt();
+            int window = header.getInt();
+            int pieces = header.getInt();
+            int sides = header.getInt();
+            long entries = header.getLong();
+            EndgameIndex index = new EndgameIndex(mainPathSize, window, pieces);
+            if (index.getSideCount() != sides || index.getEntryCount() != entries
+                    || channel.size() != TablebaseGenerator.HEADER_BYTES + entries * 2) {
+                throw new IOException("Cabecera inconsistente en " + file);
+            }
+            int count = (int) ((entries + ENTRIES_PER_MAP - 1) / ENTRIES_PER_MAP);
+            MappedByteBuffer[] maps = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long first = (long) i * ENTRIES_PER_MAP;
+                long length = Math.min(ENTRIES_PER_MAP, entries - first) * 2;
+                maps[i] = channel.map(FileChannel.MapMode.READ_ONLY, TablebaseGenerator.HEADER_BYTES + first * 2, length);
+                maps[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new Tablebase(channel, index, maps);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public EndgameIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Probabilidad de ganar del lado que mueve, dados los progresos de sus fichas y las del rival.
+     * Devuelve NaN si la posición no está cubierta por la tabla.
+     */
+    public double winProbability(int[] moverProgress, int[] waitingProgress) {
+        int mover = index.rankProgress(moverProgress);
+        int waiting = index.rankProgress(waitingProgress);
+        if (mover < 0 || waiting < 0) {
+            return Double.NaN;
+        }
+        return lookup(mover, waiting);
+    }
+
+    /** Probabilidad de ganar por rangos ya calculados (ver EndgameIndex). */
+    public double lookup(int moverRank, int waitingRank) {
+        long entry = (long) moverRank * index.getSideCount() + waitingRank;
+        MappedByteBuffer map = maps[(int) (entry / ENTRIES_PER_MAP)];
+        int raw = map.getShort((int) (entry % ENTRIES_PER_MAP) * 2) & 0xFFFF;
+        return raw / 65535.0;
+    }
+
+    /**
+     * Probabilidad de ganar del jugador al que le toca en una partida de dos jugadores.
+     * Devuelve NaN si la partida no es un final cubierto por esta tabla.
+     */
+    public double winProbability(GameSnapshot snapshot) {
+        if (snapshot.getPlayerCount() != 2 || snapshot.getCurrentColor() == null
+                || snapshot.getMainPathSize() != index.getMainPathSize()) {
+            return Double.NaN;
+        }
+        GameSnapshot.PlayerSnapshot mover = snapshot.getPlayer(snapshot.getCurrentColor());
+        GameSnapshot.PlayerSnapshot waiting = snapshot.getPlayer(0) == mover ? snapshot.getPlayer(1) : snapshot.getPlayer(0);
+        int moverRank = rank(mover);
+        int waitingRank = rank(waiting);
+        if (moverRank < 0 || waitingRank < 0) {
+            return Double.NaN;
+        }
+        return lookup(moverRank, waitingRank);
+    }
+
+    private int rank(GameSnapshot.PlayerSnapshot player) {
+        if (player.getPieceCount() != index.getPieces()) {
+            return -1;
+        }
+        int[] progress = new int[player.getPieceCount()];
+        for (int i = 0; i < progress.length; i++) {
+            progress[i] = player.getProgress(i);
+        }
+        return index.rankProgress(progress);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
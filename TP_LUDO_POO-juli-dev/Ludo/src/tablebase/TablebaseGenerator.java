@@ -0,0 +1,234 @@
+package tablebase;
+
+import board.Board;
+import core.Color;
+import core.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Genera por iteración de valores la tabla exacta de probabilidades de victoria
+ * para finales de dos jugadores, con todas las fichas dentro de la ventana final.
+ * La ventana no puede superar la distancia entre entradas de colores, así las fichas
+ * de distintos colores nunca comparten casilla y no hay capturas dentro del final.
+ */
+public class TablebaseGenerator {
+    static final long MAGIC = 0x4C55444F54423031L; // "LUDOTB01"
+    static final int HEADER_BYTES = 32;
+    private static final int CHUNK_BITS = 26;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int ROLLS = 6;
+    private static final int MAX_SWEEPS = 10_000;
+    private static final int NO_MOVE = -1;
+    private static final int WON = -2;
+
+    private final EndgameIndex index;
+    private final double epsilon;
+    // sucesores por lado: [rango][tirada][ficha] -> rango nuevo, WON o NO_MOVE (ficha repetida)
+    private final int[] successors;
+    // valores de trabajo en trozos para soportar mas de 2^31 entradas
+    private final float[][] values;
+
+    public TablebaseGenerator(int mainPathSize, int window, int pieces, double epsilon) {
+        int spacing = minimumEntrySpacing(mainPathSize);
+        if (window > spacing) {
+            throw new IllegalArgumentException("La ventana (" + window + ") no puede superar la distancia entre entradas ("
+                    + spacing + ").");
+        }
+        this.index = new EndgameIndex(mainPathSize, window, pieces);
+        this.epsilon = epsilon;
+        this.successors = buildSuccessors();
+        long entries = index.getEntryCount();
+        int chunks = (int) ((entries + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        this.values = new float[chunks][];
+        for (int c = 0; c < chunks; c++) {
+            long remaining = entries - ((long) c << CHUNK_BITS);
+            values[c] = new float[(int) Math.min(CHUNK_SIZE, remaining)];
+        }
+    }
+
+    public EndgameIndex getIndex() {
+        return index;
+    }
+
+    private static int minimumEntrySpacing(int mainPathSize) {
+        List<Player> players = new ArrayList<>();
+        for (Color c : Color.values()) {
+            players.add(new Player(c.name(), c));
+        }
+        Board board = new Board(players, mainPathSize);
+        int min = mainPathSize;
+        for (Color a : Color.values()) {
+            for (Color b : Color.values()) {
+                if (a != b) {
+                    int d = (board.getEntryPosition(b) - board.getEntryPosition(a) + mainPathSize) % mainPathSize;
+                    min = Math.min(min, d);
+                }
+            }
+        }
+        return min;
+    }
+
+    private int[] buildSuccessors() {
+        int sides = index.getSideCount();
+        int k = index.getPieces();
+        int[] table = new int[sides * ROLLS * k];
+        int[] cells = new int[k];
+        int[] moved = new int[k];
+        int allDone = allTerminalRank();
+        for (int rank = 0; rank < sides; rank++) {
+            index.unrank(rank, cells);
+            for (int roll = 1; roll <= ROLLS; roll++) {
+                for (int i = 0; i < k; i++) {
+                    int slot = (rank * ROLLS + roll - 1) * k + i;
+                    // fichas en meta no se eligen, y fichas repetidas dan el mismo resultado
+                    if (index.isTerminal(cells[i]) || (i > 0 && cells[i] == cells[i - 1])) {
+                        table[slot] = NO_MOVE;
+                        continue;
+                    }
+                    System.arraycopy(cells, 0, moved, 0, k);
+                    moved[i] = index.nextCell(cells[i], roll);
+                    // reinsertar para mantener el orden
+                    for (int j = i; j + 1 < k && moved[j] > moved[j + 1]; j++) {
+                        int t = moved[j];
+                        moved[j] = moved[j + 1];
+                        moved[j + 1] = t;
+                    }
+                    int next = index.rankSorted(moved);
+                    table[slot] = next == allDone ? WON : next;
+                }
+            }
+        }
+        return table;
+    }
+
+    private int allTerminalRank() {
+        int[] cells = new int[index.getPieces()];
+        Arrays.fill(cells, index.getCells() - 1);
+        return index.rankSorted(cells);
+    }
+
+    private float get(long entry) {
+        return values[(int) (entry >>> CHUNK_BITS)][(int) (entry & (CHUNK_SIZE - 1))];
+    }
+
+    private void set(long entry, float value) {
+        values[(int) (entry >>> CHUNK_BITS)][(int) (entry & (CHUNK_SIZE - 1))] = value;
+    }
+
+    /**
+     * Itera hasta que ningún valor cambie más que epsilon (o hasta MAX_SWEEPS barridos). Cada fila (posición del lado que mueve)
+     * se actualiza en paralelo y en el lugar; las carreras entre filas solo aceleran la convergencia.
+     * Devuelve la cantidad de barridos realizados.
+     */
+    public int solve() {
+        int sides = index.getSideCount();
+        int allDone = allTerminalRank();
+        int sweeps = 0;
+        double delta;
+        do {
+            delta = IntStream.range(0, sides).parallel()
+                    .mapToDouble(mover -> sweepRow(mover, sides, allDone))
+                    .max().orElse(0);
+            sweeps++;
+        } while (delta > epsilon && sweeps < MAX_SWEEPS);
+        return sweeps;
+    }
+
+    private double sweepRow(int mover, int sides, int allDone) {
+        int k = index.getPieces();
+        double maxDelta = 0;
+        for (int waiting = 0; waiting < sides; waiting++) {
+            long entry = (long) mover * sides + waiting;
+            if (mover == allDone || waiting == allDone) {
+                // posiciones imposibles en juego: la partida ya terminó
+                continue;
+            }
+            double sum = 0;
+            for (int roll = 1; roll <= ROLLS; roll++) {
+                int base = (mover * ROLLS + roll - 1) * k;
+                double best = -1;
+                for (int i = 0; i < k; i++) {
+                    int next = successors[base + i];
+                    if (next == NO_MOVE) {
+                        continue;
+                    }
+                    double v = next == WON ? 1.0 : 1.0 - get((long) waiting * sides + next);
+                    if (v > best) {
+                        best = v;
+                    }
+                }
+                sum += best;
+            }
+            float value = (float) (sum / ROLLS);
+            maxDelta = Math.max(maxDelta, Math.abs(value - get(entry)));
+            set(entry, value);
+        }
+        return maxDelta;
+    }
+
+    /** Escribe la tabla con valores en 16 bits (probabilidad * 65535), accesible por índice directo. */
+    public void write(Path file) throws IOException {
+        long entries = index.getEntryCount();
+        long size = HEADER_BYTES + entries * 2;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC)
+                    .putInt(index.getMainPathSize())
+                    .putInt(index.getWindow())
+                    .putInt(index.getPieces())
+                    .putInt(index.getSideCount())
+                    .putLong(entries);
+            header.flip();
+            channel.write(header, 0);
+
+            long entry = 0;
+            while (entry < entries) {
+                int count = (int) Math.min(Tablebase.ENTRIES_PER_MAP, entries - entry);
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_BYTES + entry * 2, count * 2L);
+                out.order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < count; i++) {
+                    float v = get(entry + i);
+                    out.putShort((short) Math.round(Math.max(0f, Math.min(1f, v)) * 65535f));
+                }
+                out.force();
+                entry += count;
+            }
+            if (channel.size() != size) {
+                throw new IOException("Tamaño inesperado de la tabla: " + channel.size());
+            }
+        }
+    }
+
+    /** Uso: TablebaseGenerator <mainPathSize> <ventana> <fichas> <archivo> */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Uso: TablebaseGenerator <mainPathSize> <ventana> <fichas> <archivo>");
+            return;
+        }
+        int mainPathSize = Integer.parseInt(args[0]);
+        int window = Integer.parseInt(args[1]);
+        int pieces = Integer.parseInt(args[2]);
+        Path out = Path.of(args[3]);
+
+        long start = System.nanoTime();
+        TablebaseGenerator generator = new TablebaseGenerator(mainPathSize, window, pieces, 1e-6);
+        int sweeps = generator.solve();
+        generator.write(out);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Tabla generada: " + generator.getIndex().getEntryCount() + " posiciones, "
+                + sweeps + " barridos, " + ms + " ms -> " + out);
+    }
+}
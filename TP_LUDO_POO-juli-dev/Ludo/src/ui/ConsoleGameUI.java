@@ -4,13 +4,16 @@ import board.AbstractSquare;
 import board.FinalPathSquare;
 import board.HomeBaseSquare;
 import board.MainPathSquare;
+import bot.Strategies;
 import core.Piece;
 import core.Player;
 import core.Color;
 import game.Game;
 import game.GameState;
-import ui.InteractiveGame;
+import game.TurnListener;
+import sim.Simulation;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
@@ -20,47 +23,130 @@ import java.util.Scanner;
  */
 public class ConsoleGameUI {
     private final Game game;
-    private final Scanner scanner = new Scanner(System.in);
+
+    private Runnable firstTurnCallback;
 
     public ConsoleGameUI(Game game) {
         this.game = game;
     }
 
+    /** Acción a ejecutar cuando el primer turno ya está en pantalla (por ejemplo, medir el arranque). */
+    public void setFirstTurnCallback(Runnable callback) {
+        this.firstTurnCallback = callback;
+    }
+
     /**
-     * Inicia el bucle de juego en consola.
+     * Inicia el bucle de juego en consola. Los turnos de los asientos con estrategia se
+     * juegan seguidos y en silencio; su resumen y el tablero se muestran recién cuando
+     * vuelve a tocarle a una persona.
      */
     public void start() {
+        BotTurnLog botTurns = new BotTurnLog();
+        game.addTurnListener(botTurns);
         game.startGame();
         while (game.getState() == GameState.IN_PROGRESS) {
             Player current = game.getCurrentPlayer();
+            if (game.getStrategy(current.getColor()) != null) {
+                playBotTurn();
+                continue;
+            }
+            botTurns.print();
             System.out.println("\n--- Turno de " + current.getName() + " (" + current.getColor() + ") ---");
             displayBoard();
-            System.out.print("Presiona 't' para tirar dado, 'r' para rendirte: ");
+            System.out.print("Presiona 't' para tirar dado, 'r' para rendirte, 'a' para terminar la partida automáticamente: ");
+            if (firstTurnCallback != null) {
+                firstTurnCallback.run();
+                firstTurnCallback = null;
+            }
 
-            String input = scanner.nextLine().trim().toLowerCase();
+            String input = ConsoleInput.scanner().nextLine().trim().toLowerCase();
             if ("t".equals(input)) {
                 game.playTurn();
             } else if ("r".equals(input)) {
                 current.rendirse();
                 System.out.println(current.getName() + " se rindió.");
                 game.skipTurn();
+            } else if ("a".equals(input)) {
+                botTurns.clear();
+                if (!playOut()) {
+                    break;
+                }
             } else {
                 System.out.println("Opción no válida. Intenta de nuevo.");
             }
         }
+        game.removeTurnListener(botTurns);
+        botTurns.print();
         System.out.println("\n=== JUEGO TERMINADO ===");
         if (game.getState() == GameState.FINISHED) {
+            displayBoard();
+            printFinishOrder();
             System.out.println("¡Gracias por jugar!");
         }
     }
 
+    /** Turno de un bot sin los mensajes del motor; el resumen lo junta BotTurnLog. */
+    private void playBotTurn() {
+        boolean verbose = game.isVerbose();
+        game.setVerbose(false);
+        try {
+            game.playTurn();
+        } finally {
+            game.setVerbose(verbose);
+        }
+    }
+
+    /**
+     * Termina la partida a velocidad de motor: los asientos humanos pasan a jugar con la
+     * estrategia equilibrada y no se muestra nada hasta el final. Devuelve false si la
+     * partida no terminó dentro del tope de turnos de las simulaciones.
+     */
+    private boolean playOut() {
+        for (Player p : game.getPlayers()) {
+            if (game.getStrategy(p.getColor()) == null) {
+                game.setStrategy(p.getColor(), Strategies.create(Strategies.BALANCED));
+            }
+        }
+        boolean verbose = game.isVerbose();
+        game.setVerbose(false);
+        int turns = 0;
+        while (game.getState() == GameState.IN_PROGRESS && turns < Simulation.MAX_TURNS) {
+            game.playTurn();
+            turns++;
+        }
+        game.setVerbose(verbose);
+        System.out.println("Se jugaron " + turns + " turnos automáticamente.");
+        if (game.getState() == GameState.IN_PROGRESS) {
+            // una partida que no progresa no debe colgar la consola
+            System.out.println("La partida no terminó en " + Simulation.MAX_TURNS + " turnos; se abandona.");
+            return false;
+        }
+        return true;
+    }
+
+    private void printFinishOrder() {
+        List<Color> order = game.getFinishOrder();
+        for (int i = 0; i < order.size(); i++) {
+            for (Player p : game.getPlayers()) {
+                if (p.getColor() == order.get(i)) {
+                    System.out.println((i + 1) + ". " + p.getName() + " (" + p.getColor() + ")");
+                }
+            }
+        }
+    }
+
     /**
      * Muestra el tablero en consola: casillas principales, finales y base.
      */
     private void displayBoard() {
+        printBoard(game);
+    }
+
+    static void printBoard(Game game) {
         System.out.println("Tablero:");
         for (Player p : game.getPlayers()) {
-            System.out.printf("%s (%s): ", p.getName(), p.getColor());
+            // concatenacion en vez de printf: Formatter carga locales y retrasa el primer turno
+            System.out.print(p.getName() + " (" + p.getColor() + "): ");
             for (Piece piece : p.getPieces()) {
                 AbstractSquare sq = piece.getCurrentSquare();
                 String position;
@@ -73,18 +159,81 @@ public class ConsoleGameUI {
                 } else {
                     position = "?";
                 }
-                String label = String.format("%d(%s)", piece.getId(), position);
+                String label = piece.getId() + "(" + position + ")";
                 System.out.print(label + " ");
             }
             System.out.println();
         }
     }
 
+    /**
+     * Junta los turnos de bots jugados desde la última vez que le tocó a una persona y los
+     * imprime de una vez; si fueron muchos, solo los últimos.
+     */
+    private static final class BotTurnLog implements TurnListener {
+        private static final int MAX_LINES = 12;
+        private final ArrayDeque<String> lines = new ArrayDeque<>();
+        private int count;
+
+        @Override
+        public void onTurn(Game game, Player player, int roll, int pieceId, int fromProgress, int toProgress, boolean capture) {
+            if (game.getStrategy(player.getColor()) == null) {
+                return;
+            }
+            String line = "  " + player.getName() + " (" + player.getColor() + ") sacó " + roll
+                    + (pieceId == 0 ? " y no movió" : " y movió la ficha " + pieceId)
+                    + (capture ? ", con captura" : "");
+            if (lines.size() == MAX_LINES) {
+                lines.removeFirst();
+            }
+            lines.addLast(line);
+            count++;
+        }
+
+        void print() {
+            if (count == 0) {
+                return;
+            }
+            System.out.println();
+            if (count > lines.size()) {
+                System.out.println("  ... " + (count - lines.size()) + " turnos de bots más");
+            }
+            for (String line : lines) {
+                System.out.println(line);
+            }
+            clear();
+        }
+
+        void clear() {
+            lines.clear();
+            count = 0;
+        }
+    }
+
+    /**
+     * Pregunta si el asiento lo juega una persona o alguna estrategia automática.
+     */
+    private static String promptSeatType(Scanner scanner) {
+        String[] bots = Strategies.names();
+        System.out.println("  0) " + Strategies.HUMAN);
+        for (int i = 0; i < bots.length; i++) {
+            System.out.println("  " + (i + 1) + ") " + bots[i]);
+        }
+        int option;
+        do {
+            System.out.print("Tipo de jugador (0-" + bots.length + "): ");
+            while (!scanner.hasNextInt()) scanner.next();
+            option = scanner.nextInt();
+            scanner.nextLine();
+        } while (option < 0 || option > bots.length);
+        return option == 0 ? Strategies.HUMAN : bots[option - 1];
+    }
+
     /**
      * Configuracion previa y arranque del juego en consola
      */
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = ConsoleInput.scanner();
 
         System.out.println("--- ¡Bienvenido a Ludo! (Consola) ---");
 
@@ -98,6 +247,7 @@ public class ConsoleGameUI {
 
         List<Player> players = new ArrayList<>();
         Color[] colors = Color.values();
+        String[] seatTypes = new String[numPlayers];
         for (int i = 0; i < numPlayers; i++) {
             System.out.print("Nombre Jugador " + (i+1) + ": ");
             String name = scanner.nextLine().trim();
@@ -105,9 +255,13 @@ public class ConsoleGameUI {
             Player p = new Player(name, colors[i]);
             p.initializePieces(4);
             players.add(p);
+            seatTypes[i] = promptSeatType(scanner);
         }
 
         Game game = new InteractiveGame(players, 56);
+        for (int i = 0; i < numPlayers; i++) {
+            game.setStrategy(colors[i], Strategies.create(seatTypes[i]));
+        }
 
         // inicio
         new ConsoleGameUI(game).start();
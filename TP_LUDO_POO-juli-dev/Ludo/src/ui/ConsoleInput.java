@@ -0,0 +1,22 @@
+package ui;
+
+import java.util.Scanner;
+
+/**
+ * Scanner único sobre System.in compartido por la interfaz de consola.
+ * Se crea recién en la primera lectura: inicializar Scanner carga locales y formatos
+ * numéricos, y no hace falta para mostrar el primer turno.
+ */
+final class ConsoleInput {
+    private static Scanner scanner;
+
+    private ConsoleInput() {
+    }
+
+    static synchronized Scanner scanner() {
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
+        return scanner;
+    }
+}
@@ -1,8 +1,10 @@
 package ui;
 
+import bot.HintService;
 import core.Piece;
 import core.Player;
 import game.Game;
+import game.Strategy;
 
 import java.util.List;
 import java.util.Scanner;
@@ -11,15 +13,44 @@ import java.util.Scanner;
  * Logica de juego interactiva para consola: extiende Game y pide fichas vía Scanner.
  */
 public class InteractiveGame extends Game {
-    private final Scanner scanner = new Scanner(System.in);
+    private HintService hints;
 
     public InteractiveGame(List<Player> players, int mainPathSize) {
         super(players, mainPathSize);
     }
 
+    /** Muestra antes de cada elección la jugada que haría la estrategia dada. */
+    public void enableHints(Strategy advisor) {
+        hints = new HintService(this, advisor, HintService.DEFAULT_BUDGET_MILLIS);
+    }
+
+    @Override
+    public void startGame() {
+        super.startGame();
+        if (hints != null) {
+            hints.refresh();
+        }
+    }
+
+    @Override
+    public void skipTurn() {
+        super.skipTurn();
+        if (hints != null) {
+            hints.refresh();
+        }
+    }
+
+    private void printHint() {
+        HintService.Hint hint = hints != null ? hints.hintFor(getLastRoll()) : null;
+        if (hint != null && hint.getPieceId() != 0) {
+            System.out.println("Sugerencia: " + hint);
+        }
+    }
+
     @Override
     protected Piece choosePieceFromBase(List<Piece> piecesInBase) {
         System.out.println("\n¡Sacaste un 6! Elige qué ficha sacar de la base:");
+        printHint();
         return promptForPiece(piecesInBase);
     }
 
@@ -28,6 +59,7 @@ public class InteractiveGame extends Game {
         System.out.println("\n¡Sacaste un 6! ¿Qué quieres hacer?");
         System.out.println("  1) Sacar ficha de base");
         System.out.println("  2) Mover ficha en tablero");
+        Scanner scanner = ConsoleInput.scanner();
         int option;
         do {
             System.out.print("Opción (1/2): ");
@@ -46,15 +78,17 @@ public class InteractiveGame extends Game {
     @Override
     protected Piece choosePieceToMove(List<Piece> piecesOnBoard) {
         System.out.println("\nTienes varias fichas en el tablero. Elige cuál mover:");
+        printHint();
         return promptForPiece(piecesOnBoard);
     }
 
-    // elegir ficha por id
-    private Piece promptForPiece(List<Piece> list) {
+    // elegir ficha por id; también lo usa la consola remota
+    static Piece promptForPiece(List<Piece> list) {
         System.out.println("Fichas disponibles:");
         for (Piece p : list) {
             System.out.println(" - ID " + p.getId());
         }
+        Scanner scanner = ConsoleInput.scanner();
         Piece selected = null;
         do {
             System.out.print("Ingresa ID de ficha: ");
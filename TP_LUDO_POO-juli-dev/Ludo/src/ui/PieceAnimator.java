@@ -0,0 +1,134 @@
+package ui;
+
+import core.Color;
+
+import javax.swing.Timer;
+import java.awt.geom.Point2D;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Cola de animaciones de fichas para SwingGameUI. Un único Timer de Swing avanza la
+ * animación en curso a 60 cuadros por segundo según el tiempo real transcurrido, y se
+ * detiene cuando la cola queda vacía. El motor no espera a las animaciones: si los turnos
+ * llegan más rápido de lo que se pueden mostrar, las pendientes se aceleran y, pasado un
+ * tope, las más viejas se descartan (la ficha salta a donde ya está en el tablero).
+ */
+final class PieceAnimator {
+    static final int FRAME_MILLIS = 1000 / 60;
+    /** Duración de cada tramo entre casillas a velocidad normal. */
+    static final int STEP_MILLIS = 90;
+    /** Animaciones en espera antes de empezar a descartar las más viejas. */
+    static final int MAX_PENDING = 6;
+
+    private final ArrayDeque<Move> queue = new ArrayDeque<>();
+    private final Timer timer;
+    private long lastTick;
+
+    /** `repaint` se llama en cada cuadro mientras haya algo que animar. */
+    PieceAnimator(Runnable repaint) {
+        timer = new Timer(FRAME_MILLIS, e -> {
+            tick();
+            repaint.run();
+        });
+        timer.setCoalesce(true);
+    }
+
+    /** Encola el recorrido de una ficha por los puntos dados (coordenadas de celda). */
+    void enqueue(Color color, int pieceId, Point2D[] path) {
+        if (path.length < 2) {
+            return;
+        }
+        queue.addLast(new Move(color, pieceId, path));
+        while (queue.size() > MAX_PENDING + 1) {
+            // la primera es la que se está mostrando; se descarta la pendiente más vieja
+            Iterator<Move> it = queue.iterator();
+            it.next();
+            it.next();
+            it.remove();
+        }
+        if (!timer.isRunning()) {
+            lastTick = System.nanoTime();
+            timer.start();
+        }
+    }
+
+    boolean isAnimating() {
+        return !queue.isEmpty();
+    }
+
+    /**
+     * Dónde dibujar la ficha, o null si no tiene animación pendiente y se dibuja donde
+     * indica el tablero. Una ficha con animación en espera se muestra en su punto de partida.
+     */
+    Point2D positionOf(Color color, int pieceId) {
+        boolean first = true;
+        for (Move move : queue) {
+            if (move.color == color && move.pieceId == pieceId) {
+                return first ? move.current() : move.path[0];
+            }
+            first = false;
+        }
+        return null;
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        double elapsed = (now - lastTick) / 1e6;
+        lastTick = now;
+        // con turnos acumulados se acelera en proporción a lo que falta mostrar
+        double speed = queue.size();
+        while (!queue.isEmpty() && elapsed > 0) {
+            Move move = queue.peekFirst();
+            elapsed = move.advance(elapsed * speed) / speed;
+            if (move.isDone()) {
+                queue.removeFirst();
+            }
+        }
+        if (queue.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    /** Recorrido de una ficha y cuánto lleva hecho. */
+    private static final class Move {
+        final Color color;
+        final int pieceId;
+        final Point2D[] path;
+        private double millis;
+
+        Move(Color color, int pieceId, Point2D[] path) {
+            this.color = color;
+            this.pieceId = pieceId;
+            this.path = path;
+        }
+
+        private double duration() {
+            return (path.length - 1) * (double) STEP_MILLIS;
+        }
+
+        /** Avanza el tiempo dado y devuelve lo que sobra si la animación terminó. */
+        double advance(double delta) {
+            double left = duration() - millis;
+            if (delta >= left) {
+                millis = duration();
+                return delta - left;
+            }
+            millis += delta;
+            return 0;
+        }
+
+        boolean isDone() {
+            return millis >= duration();
+        }
+
+        Point2D current() {
+            double steps = millis / STEP_MILLIS;
+            int segment = Math.min((int) steps, path.length - 2);
+            double t = steps - segment;
+            Point2D a = path[segment];
+            Point2D b = path[segment + 1];
+            return new Point2D.Double(a.getX() + (b.getX() - a.getX()) * t, a.getY() + (b.getY() - a.getY()) * t);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ui;
+
+import core.Color;
+import core.Piece;
+import core.Player;
+import game.Game;
+import game.GameSnapshot;
+import game.GameState;
+import game.Strategy;
+import net.LudoClient;
+import net.MirrorGame;
+
+import java.util.List;
+
+/**
+ * Consola para una partida remota: muestra cada turno que llega del servidor y, si el
+ * cliente ocupa un asiento, pide tirar o rendirse cuando le toca y pregunta qué ficha mover.
+ */
+public final class RemoteConsoleUI implements LudoClient.ClientListener {
+    private final LudoClient client;
+
+    public RemoteConsoleUI(LudoClient client) {
+        this.client = client;
+        client.addListener(this);
+        if (client.getSeat() != null) {
+            client.setChooser(new PromptStrategy());
+        }
+    }
+
+    public void start() throws InterruptedException {
+        MirrorGame game = client.awaitGame(10_000);
+        if (game == null) {
+            System.out.println("No se recibió la partida del servidor.");
+            return;
+        }
+        Color seat = client.getSeat();
+        while (!client.isClosed()) {
+            GameSnapshot snapshot = game.getSnapshot();
+            if (snapshot.getState() != GameState.IN_PROGRESS) {
+                break;
+            }
+            if (seat == null || snapshot.getCurrentColor() != seat) {
+                synchronized (game) {
+                    game.wait(500);
+                }
+                continue;
+            }
+            System.out.print("Presiona 't' para tirar dado, 'r' para rendirte: ");
+            String input = ConsoleInput.scanner().nextLine().trim().toLowerCase();
+            if ("t".equals(input)) {
+                game.playTurn();
+            } else if ("r".equals(input)) {
+                Player current = game.getCurrentPlayer();
+                current.rendirse();
+                System.out.println(current.getName() + " se rindió.");
+                game.skipTurn();
+            } else {
+                System.out.println("Opción no válida. Intenta de nuevo.");
+            }
+        }
+        System.out.println("\n=== JUEGO TERMINADO ===");
+    }
+
+    @Override
+    public void onUpdate(MirrorGame game, Color mover, int pieceId, boolean capture) {
+        if (mover != null) {
+            String move = pieceId > 0 ? " y movió la ficha " + pieceId : "";
+            System.out.println("\n" + mover + " sacó un " + game.getLastRoll() + move + (capture ? " (captura)" : "") + ".");
+        }
+        ConsoleGameUI.printBoard(game);
+        if (game.getState() == GameState.IN_PROGRESS) {
+            Player current = game.getCurrentPlayer();
+            System.out.println("--- Turno de " + current.getName() + " (" + current.getColor() + ") ---");
+        }
+    }
+
+    @Override
+    public void onInfo(String text) {
+        System.out.println("[servidor] " + text);
+    }
+
+    @Override
+    public void onDisconnect() {
+        System.out.println("Se cerró la conexión con el servidor.");
+    }
+
+    /** Pregunta la ficha por consola cuando el servidor pide una elección. */
+    private static class PromptStrategy implements Strategy {
+        @Override
+        public String getName() {
+            return "Humano";
+        }
+
+        @Override
+        public Piece choosePieceFromBase(Game game, List<Piece> piecesInBase) {
+            System.out.println("\n¡Sacaste un 6! Elige qué ficha sacar de la base:");
+            return InteractiveGame.promptForPiece(piecesInBase);
+        }
+
+        @Override
+        public Piece choosePieceOnSix(Game game, List<Piece> piecesInBase, List<Piece> piecesOnBoard) {
+            return choosePieceFromBase(game, piecesInBase);
+        }
+
+        @Override
+        public Piece choosePieceToMove(Game game, List<Piece> piecesOnBoard) {
+            System.out.println("\nSacaste un " + game.getLastRoll() + ". Elige qué ficha mover:");
+            return InteractiveGame.promptForPiece(piecesOnBoard);
+        }
+    }
+}
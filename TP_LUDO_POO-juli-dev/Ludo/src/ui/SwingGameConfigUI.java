@@ -1,8 +1,8 @@
 package ui;
 
+import bot.Strategies;
 import core.Color;
 import core.Player;
-import game.Game;
 import ui.SwingInteractiveGame;
 
 import javax.swing.*;
@@ -19,6 +19,7 @@ public class SwingGameConfigUI extends JFrame {
     private final SpinnerNumberModel spinnerModel;
     private final JPanel namesPanel;
     private final List<JTextField> nameFields = new ArrayList<>();
+    private final List<JComboBox<String>> typeBoxes = new ArrayList<>();
 
     public SwingGameConfigUI() {
         super("Configuración de Ludo");
@@ -48,7 +49,7 @@ public class SwingGameConfigUI extends JFrame {
 
         gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 2;
         namesPanel = new JPanel(new GridBagLayout());
-        namesPanel.setBorder(BorderFactory.createTitledBorder("Nombres de jugadores"));
+        namesPanel.setBorder(BorderFactory.createTitledBorder("Jugadores"));
         center.add(namesPanel, gbc);
 
         add(center, BorderLayout.CENTER);
@@ -69,6 +70,8 @@ public class SwingGameConfigUI extends JFrame {
     private void updateNameFields(int count) {
         namesPanel.removeAll();
         nameFields.clear();
+        typeBoxes.clear();
+        String[] types = seatTypes();
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(4, 4, 4, 4);
         gbc.fill = GridBagConstraints.HORIZONTAL;
@@ -79,6 +82,10 @@ public class SwingGameConfigUI extends JFrame {
             JTextField field = new JTextField(15);
             nameFields.add(field);
             namesPanel.add(field, gbc);
+            gbc.gridx = 2;
+            JComboBox<String> typeBox = new JComboBox<>(types);
+            typeBoxes.add(typeBox);
+            namesPanel.add(typeBox, gbc);
         }
         namesPanel.revalidate();
         namesPanel.repaint();
@@ -105,7 +112,13 @@ public class SwingGameConfigUI extends JFrame {
             players.add(p);
         }
 
-        Game game = new SwingInteractiveGame(players, 56);
+        SwingInteractiveGame game = new SwingInteractiveGame(players, 56);
+        game.enableHints(Strategies.create(Strategies.BALANCED));
+        // asientos automaticos: el resto sigue eligiendo por dialogo
+        for (int i = 0; i < num; i++) {
+            String type = (String) typeBoxes.get(i).getSelectedItem();
+            game.setStrategy(colors[i], Strategies.create(type));
+        }
         SwingUtilities.invokeLater(() -> {
             SwingGameUI ui = new SwingGameUI(game);
             ui.setVisible(true);
@@ -113,6 +126,15 @@ public class SwingGameConfigUI extends JFrame {
         dispose();
     }
 
+    /** Opciones de cada asiento: humano o alguna estrategia automática. */
+    private static String[] seatTypes() {
+        String[] bots = Strategies.names();
+        String[] types = new String[bots.length + 1];
+        types[0] = Strategies.HUMAN;
+        System.arraycopy(bots, 0, types, 1, bots.length);
+        return types;
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> new SwingGameConfigUI().setVisible(true));
     }
@@ -1,25 +1,33 @@
 package ui;
 
 import board.Board;
-import board.MainPathSquare;
-import board.FinalPathSquare;
 import board.HomeBaseSquare;
-import core.Piece;
+import bot.Strategies;
+import bot.WinProbabilityService;
 import core.Player;
 import game.Game;
+import game.GameSnapshot;
 import game.GameState;
+import net.MirrorGame;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Interfaz grafica de Ludo: dibuja el tablero y muestra controles Swing.
+ * Interfaz grafica de Ludo: dibuja el tablero y muestra controles Swing. Se redibuja con
+ * cada TurnListener, así que también muestra una MirrorGame, cuyos turnos llegan por red.
  */
 public class SwingGameUI extends JFrame {
     private static final int GRID_SIZE = 15;
     private static final int CENTER = GRID_SIZE / 2;
+    /** Cada cuánto se pasa al panel la última estimación de probabilidad de ganar. */
+    private static final int METER_MILLIS = 250;
 
     private final Game game;
     private final JLabel currentPlayerLabel = new JLabel();
@@ -27,14 +35,35 @@ public class SwingGameUI extends JFrame {
     private final JLabel eventLabel = new JLabel(" ");
     private final JPanel infoPanel = new JPanel();
     private boolean winnerAnnounced = false;
-    private final JPanel boardPanel = new JPanel(new GridLayout(GRID_SIZE, GRID_SIZE));
+    private final BoardPanel boardPanel = new BoardPanel();
+    private final PieceAnimator animator = new PieceAnimator(boardPanel::repaint);
+    private final Point[] mainCoords = generateMainPath();
+    // fondo fijo de cada celda y fondo con las casillas amenazadas; refreshUI actualiza el
+    // segundo y el panel solo lo lee al pintar
+    private final java.awt.Color[][] baseFill = baseCells();
+    private final java.awt.Color[][] cellFill = new java.awt.Color[GRID_SIZE][GRID_SIZE];
+    // foto con la que se compara cada turno para saber qué fichas animar
+    private GameSnapshot lastSnapshot;
     private final JButton rollButton = new JButton("Tirar dado");
     private final JButton resignButton = new JButton("Rendirse");
+    // medidor de probabilidad de ganar: las simulaciones corren aparte y un Timer lee el resultado
+    private final WinProbabilityService winMeter;
+    private final Map<core.Color, JProgressBar> meterBars = new EnumMap<>(core.Color.class);
+    private WinProbabilityService.Estimate shownEstimate;
 
     public SwingGameUI(Game game) {
         super("Ludo");
         this.game = game;
+        // el aviso puede venir del hilo de red de una réplica
+        game.addTurnListener((g, player, roll, pieceId, from, to, capture) -> SwingUtilities.invokeLater(() -> {
+            animateTurn();
+            refreshUI();
+        }));
         game.startGame();
+        lastSnapshot = game.getSnapshot();
+        winMeter = new WinProbabilityService(game, Strategies.BALANCED,
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        new Timer(METER_MILLIS, e -> updateMeter()).start();
 
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setLayout(new BorderLayout(5, 5));
@@ -55,16 +84,18 @@ public class SwingGameUI extends JFrame {
 
         rollButton.addActionListener(e -> {
             if (game.getState() == GameState.IN_PROGRESS) {
-                game.playTurn();
-                refreshUI();
+                play(game::playTurn);
             }
         });
 
         resignButton.addActionListener(e -> {
             if (game.getState() == GameState.IN_PROGRESS) {
-                game.getCurrentPlayer().rendirse();
-                game.skipTurn();
-                refreshUI();
+                play(() -> {
+                    game.getCurrentPlayer().rendirse();
+                    game.skipTurn();
+                    // skipTurn no avisa a los TurnListener
+                    SwingUtilities.invokeLater(this::refreshUI);
+                });
             }
         });
 
@@ -84,6 +115,33 @@ public class SwingGameUI extends JFrame {
             core.Color.BLUE,   new Point[]{ new Point(1,11), new Point(3,11), new Point(1,13), new Point(3,13) }
     );
 
+    // fondo de las casillas amenazadas por 1, 2 y 3 o más fichas rivales
+    private static final java.awt.Color[] DANGER_SHADES = {
+            new java.awt.Color(255, 220, 220),
+            new java.awt.Color(255, 180, 180),
+            new java.awt.Color(255, 140, 140)
+    };
+
+    /**
+     * Juega la acción de un botón. En una réplica la jugada espera la respuesta del servidor,
+     * así que corre en otro hilo con los botones apagados hasta el próximo refreshUI.
+     */
+    private void play(Runnable action) {
+        if (!(game instanceof MirrorGame)) {
+            action.run();
+            return;
+        }
+        rollButton.setEnabled(false);
+        resignButton.setEnabled(false);
+        Thread worker = new Thread(() -> {
+            action.run();
+            // por si el servidor no respondió a tiempo
+            SwingUtilities.invokeLater(this::refreshUI);
+        }, "ludo-jugada");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
     private void refreshUI() {
         // si el juego ya terminó y aún no hemos anunciado al ganador:
         if (game.getState() != GameState.IN_PROGRESS && !winnerAnnounced) {
@@ -104,9 +162,11 @@ public class SwingGameUI extends JFrame {
         }
 
         infoPanel.removeAll();
-        for (Player p : game.getPlayers()) {
-            // contar fichas en meta
-            long finishedCount = p.getPieces().stream().filter(Piece::isFinished).count();
+        GameSnapshot snapshot = game.getSnapshot();
+        for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot p = snapshot.getPlayer(i);
+            // fichas en meta segun la ultima foto publicada
+            int finishedCount = p.getFinishedCount();
 
             // panel por jugador
             JPanel row = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 2));
@@ -120,112 +180,269 @@ public class SwingGameUI extends JFrame {
                     + " – Fichas en meta: " + finishedCount);
             row.add(colorDot);
             row.add(text);
+            row.add(meterBar(p.getColor()));
             infoPanel.add(row);
         }
         infoPanel.revalidate();
         infoPanel.repaint();
+        winMeter.refresh();
 
-        if (game.getState() == GameState.IN_PROGRESS) {
-            var p = game.getCurrentPlayer();
-            currentPlayerLabel.setText("Turno de: " + p.getName() + " (" + p.getColor() + ")");
-            rollResultLabel.setText("Resultado dado: " + game.getLastRoll());
-            rollButton.setEnabled(true);
-            // leer evento del modelo
-            String ev = game.getBoard().fetchLastEvent();
-            eventLabel.setText(ev.isEmpty() ? " " : ev);
-            resignButton.setEnabled(true);
-        } else {
-            currentPlayerLabel.setText("Juego terminado");
-            rollResultLabel.setText("");
-            rollButton.setEnabled(false);
-            resignButton.setEnabled(false);
-        }
+        // una réplica cambia desde el hilo de red con su propio candado tomado
+        synchronized (game) {
+            if (game.getState() == GameState.IN_PROGRESS) {
+                var p = game.getCurrentPlayer();
+                currentPlayerLabel.setText("Turno de: " + p.getName() + " (" + p.getColor() + ")");
+                rollResultLabel.setText("Resultado dado: " + game.getLastRoll());
+                // en una réplica solo juega el asiento propio
+                boolean canPlay = !(game instanceof MirrorGame mirror) || mirror.isOwnTurn();
+                rollButton.setEnabled(canPlay);
+                // leer evento del modelo
+                String ev = game.getBoard().fetchLastEvent();
+                eventLabel.setText(ev.isEmpty() ? " " : ev);
+                resignButton.setEnabled(canPlay);
+            } else {
+                currentPlayerLabel.setText("Juego terminado");
+                rollResultLabel.setText("");
+                rollButton.setEnabled(false);
+                resignButton.setEnabled(false);
+            }
 
-        boardPanel.removeAll();
-        JPanel[][] cells = new JPanel[GRID_SIZE][GRID_SIZE];
-        Point[] mainCoords = generateMainPath();
+            lastSnapshot = game.getSnapshot();
+            updateCellFill();
+        }
+        boardPanel.repaint();
+    }
 
-        // crear celdas base
+    /** Celdas con su color de zona, las entradas de cada color y las posiciones de base en blanco. */
+    private java.awt.Color[][] baseCells() {
+        java.awt.Color[][] fill = new java.awt.Color[GRID_SIZE][GRID_SIZE];
         for (int row = 0; row < GRID_SIZE; row++) {
             for (int col = 0; col < GRID_SIZE; col++) {
-                JPanel cell = new JPanel();
-                cell.setBorder(BorderFactory.createLineBorder(java.awt.Color.DARK_GRAY));
-                cell.setBackground(getCellColor(row, col));
-                // resaltar casilla de entrada para cada color
-                int[] entryIndices = {1, 15, 29, 43};
-                core.Color[] entryColors = {
-                        core.Color.RED, core.Color.GREEN, core.Color.YELLOW, core.Color.BLUE
-                };
-                for (int k = 0; k < entryIndices.length; k++) {
-                    Point ep = mainCoords[entryIndices[k]];
-                    if (ep.y == row && ep.x == col) {
-                        cell.setBackground(toAwtColor(entryColors[k]));
-                        break;
-                    }
-                }
+                fill[row][col] = getCellColor(row, col);
+            }
+        }
+        // resaltar casilla de entrada para cada color
+        int[] entryIndices = {1, 15, 29, 43};
+        core.Color[] entryColors = {
+                core.Color.RED, core.Color.GREEN, core.Color.YELLOW, core.Color.BLUE
+        };
+        for (int k = 0; k < entryIndices.length; k++) {
+            Point ep = mainCoords[entryIndices[k]];
+            fill[ep.y][ep.x] = toAwtColor(entryColors[k]);
+        }
+        // las posiciones de base van en blanco para ver las fichas
+        for (Point[] arr : HOME_BASE_COORDS.values()) {
+            for (Point b : arr) {
+                fill[b.y][b.x] = java.awt.Color.WHITE;
+            }
+        }
+        return fill;
+    }
 
+    /** Fondo fijo más las casillas que amenazan los rivales del jugador en turno. */
+    private void updateCellFill() {
+        for (int row = 0; row < GRID_SIZE; row++) {
+            System.arraycopy(baseFill[row], 0, cellFill[row], 0, GRID_SIZE);
+        }
+        // el tablero lleva las amenazas al día, así que alcanza con leerlas una vez por turno
+        core.Color mover = game.getState() == GameState.IN_PROGRESS ? game.getCurrentPlayer().getColor() : null;
+        if (mover == null) {
+            return;
+        }
+        for (int i = 0; i < game.getBoard().getMainPathSize() && i < mainCoords.length; i++) {
+            int threats = game.getBoard().countThreats(i, mover);
+            if (threats > 0) {
+                Point coord = mainCoords[i];
+                cellFill[coord.y][coord.x] = DANGER_SHADES[Math.min(threats, DANGER_SHADES.length) - 1];
+            }
+        }
+    }
 
-                // Si es posición de base, forzar fondo blanco para ver fichas
-                for (Point[] arr : HOME_BASE_COORDS.values()) {
-                    for (Point b : arr) {
-                        if (b.x == col && b.y == row) {
-                            cell.setBackground(java.awt.Color.WHITE);
-                            break;
-                        }
-                    }
-                }
+    private JProgressBar meterBar(core.Color color) {
+        return meterBars.computeIfAbsent(color, c -> {
+            JProgressBar bar = new JProgressBar(0, 1000);
+            bar.setStringPainted(true);
+            bar.setString("…");
+            bar.setPreferredSize(new Dimension(70, 14));
+            return bar;
+        });
+    }
 
-                boardPanel.add(cell);
-                cells[row][col] = cell;
+    /**
+     * Muestra la última estimación publicada. Solo toca las barras que cambiaron de valor,
+     * así que con las simulaciones en marcha cuesta unos microsegundos cuatro veces por segundo.
+     */
+    private void updateMeter() {
+        WinProbabilityService.Estimate estimate = winMeter.latest();
+        if (estimate == null || estimate == shownEstimate) {
+            return;
+        }
+        shownEstimate = estimate;
+        for (Map.Entry<core.Color, JProgressBar> entry : meterBars.entrySet()) {
+            JProgressBar bar = entry.getValue();
+            double p = estimate.probability(entry.getKey());
+            int value = (int) Math.round(p * 1000);
+            if (bar.getValue() != value) {
+                bar.setValue(value);
+                bar.setString(Math.round(p * 100) + " %");
             }
+            bar.setToolTipText(String.format("Probabilidad de ganar %.1f %% ± %.1f (%d simulaciones)",
+                    100 * p, 100 * estimate.halfWidth(entry.getKey()), estimate.getPlayouts()));
         }
+    }
 
-        // dibujar piezas en camino principal
-        List<MainPathSquare> mainPath = game.getBoard().getMainPath();
-        for (int i = 0; i < mainPath.size(); i++) {
-            Point coord = mainCoords[i];
-            JPanel cell = cells[coord.y][coord.x];
-            for (Piece piece : mainPath.get(i).getPieces()) {
-                cell.add(createPieceLabel(piece));
+    /**
+     * Compara la foto nueva con la anterior y encola el recorrido de cada ficha que cambió:
+     * primero las del jugador que movió, casilla por casilla, y después las capturadas
+     * volviendo a su base. Así también se anima la ficha que sale con un 6 antes del tiro extra.
+     */
+    private void animateTurn() {
+        GameSnapshot before = lastSnapshot;
+        GameSnapshot after = game.getSnapshot();
+        lastSnapshot = after;
+        if (before == null) {
+            return;
+        }
+        List<Point2D[]> captured = new ArrayList<>();
+        List<int[]> capturedIds = new ArrayList<>();
+        for (int i = 0; i < after.getPlayerCount(); i++) {
+            GameSnapshot.PlayerSnapshot old = before.getPlayer(i);
+            GameSnapshot.PlayerSnapshot now = after.getPlayer(i);
+            if (old == now || old.getPieceCount() != now.getPieceCount()) {
+                continue;
+            }
+            for (int k = 0; k < now.getPieceCount(); k++) {
+                int from = old.getProgress(k);
+                int to = now.getProgress(k);
+                if (from == to) {
+                    continue;
+                }
+                if (to == Board.IN_BASE) {
+                    captured.add(new Point2D[]{ cellOf(now.getColor(), k + 1, from), cellOf(now.getColor(), k + 1, to) });
+                    capturedIds.add(new int[]{ i, k + 1 });
+                } else {
+                    animator.enqueue(now.getColor(), k + 1, pathOf(now.getColor(), k + 1, from, to));
+                }
             }
         }
+        for (int c = 0; c < captured.size(); c++) {
+            int[] id = capturedIds.get(c);
+            animator.enqueue(after.getPlayer(id[0]).getColor(), id[1], captured.get(c));
+        }
+    }
 
-        // mostrar piezas en casas
-        for (var entry : game.getBoard().getHomeBaseSquares().entrySet()) {
-            core.Color color = entry.getKey();
-            Point[] coords = HOME_BASE_COORDS.get(color);
-            List<Piece> pieces = entry.getValue().getPieces();
-            for (int i = 0; i < pieces.size() && i < coords.length; i++) {
-                Point c = coords[i];
-                cells[c.y][c.x].add(createPieceLabel(pieces.get(i)));
-            }
+    /** Celdas que recorre la ficha para ir de un progreso al otro, una por casilla. */
+    private Point2D[] pathOf(core.Color color, int pieceId, int from, int to) {
+        int start = from == Board.IN_BASE ? 0 : from;
+        int count = from == Board.IN_BASE ? to + 2 : to - from + 1;
+        if (count < 2 || count > 2 * GRID_SIZE) {
+            // movimiento raro (réplica que salteó turnos): va directo
+            return new Point2D[]{ cellOf(color, pieceId, from), cellOf(color, pieceId, to) };
+        }
+        Point2D[] path = new Point2D[count];
+        int at = 0;
+        if (from == Board.IN_BASE) {
+            path[at++] = cellOf(color, pieceId, Board.IN_BASE);
+        }
+        for (int p = start; at < count; p++) {
+            path[at++] = cellOf(color, pieceId, p);
+        }
+        return path;
+    }
+
+    /** Celda (columna, fila) donde va una ficha con el progreso dado. */
+    private Point2D cellOf(core.Color color, int pieceId, int progress) {
+        int size = game.getBoard().getMainPathSize();
+        Point cell;
+        if (progress == Board.IN_BASE) {
+            Point[] base = HOME_BASE_COORDS.get(color);
+            cell = base[(pieceId - 1) % base.length];
+        } else if (progress < size) {
+            cell = mainCoords[(game.getBoard().getEntryPosition(color) + progress) % size];
+        } else {
+            cell = getFinalPathCoord(color, progress - size);
+        }
+        return new Point2D.Double(cell.x, cell.y);
+    }
+
+    /**
+     * Tablero dibujado a mano sobre un búfer doble: fondo de casillas, casillas amenazadas
+     * para el jugador en turno y fichas según la última foto, salvo las que se están animando.
+     */
+    private final class BoardPanel extends JPanel {
+        private static final long serialVersionUID = 1L;
+
+        // fichas quietas ya dibujadas por celda, hasta cuatro por celda en una grilla de 2x2
+        private final int[][] occupancy = new int[GRID_SIZE][GRID_SIZE];
+
+        BoardPanel() {
+            setDoubleBuffered(true);
         }
 
-        // mostrar piezas en caminos finales
-        for (Map.Entry<core.Color, List<FinalPathSquare>> entry : game.getBoard().getFinalPaths().entrySet()) {
-            core.Color color = entry.getKey();
-            for (FinalPathSquare square : entry.getValue()) {
-                Point coord = getFinalPathCoord(color, square.getPosition());
-                JPanel cell = cells[coord.y][coord.x];
-                for (Piece piece : square.getPieces()) {
-                    cell.add(createPieceLabel(piece));
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int cell = Math.min(getWidth(), getHeight()) / GRID_SIZE;
+            paintCells(g2, cell);
+
+            GameSnapshot snapshot = game.getSnapshot();
+            for (int[] row : occupancy) {
+                Arrays.fill(row, 0);
+            }
+            for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+                GameSnapshot.PlayerSnapshot p = snapshot.getPlayer(i);
+                for (int k = 0; k < p.getPieceCount(); k++) {
+                    if (animator.positionOf(p.getColor(), k + 1) != null) {
+                        continue;
+                    }
+                    Point2D at = cellOf(p.getColor(), k + 1, p.getProgress(k));
+                    int col = (int) at.getX();
+                    int row = (int) at.getY();
+                    int slot = occupancy[row][col]++;
+                    double dx = slot % 2 == 0 ? 0.05 : 0.5;
+                    double dy = (slot / 2) % 2 == 0 ? 0.05 : 0.5;
+                    paintPiece(g2, p.getColor(), k + 1, (col + dx) * cell, (row + dy) * cell, cell * 0.45);
+                }
+            }
+            // las que se mueven van encima de las quietas
+            for (int i = 0; i < snapshot.getPlayerCount(); i++) {
+                GameSnapshot.PlayerSnapshot p = snapshot.getPlayer(i);
+                for (int k = 0; k < p.getPieceCount(); k++) {
+                    Point2D at = animator.positionOf(p.getColor(), k + 1);
+                    if (at != null) {
+                        paintPiece(g2, p.getColor(), k + 1, (at.getX() + 0.2) * cell, (at.getY() + 0.2) * cell, cell * 0.6);
+                    }
                 }
             }
         }
 
-        boardPanel.revalidate();
-        boardPanel.repaint();
-    }
+        private void paintCells(Graphics2D g2, int cell) {
+            for (int row = 0; row < GRID_SIZE; row++) {
+                for (int col = 0; col < GRID_SIZE; col++) {
+                    g2.setColor(cellFill[row][col]);
+                    g2.fillRect(col * cell, row * cell, cell, cell);
+                    g2.setColor(java.awt.Color.DARK_GRAY);
+                    g2.drawRect(col * cell, row * cell, cell, cell);
+                }
+            }
+        }
 
-    private JLabel createPieceLabel(Piece p) {
-        JLabel lbl = new JLabel(String.valueOf(p.getId()));
-        lbl.setOpaque(true);
-        lbl.setBackground(toAwtColor(p.getColor()));
-        lbl.setForeground(java.awt.Color.WHITE);
-        lbl.setHorizontalAlignment(SwingConstants.CENTER);
-        lbl.setPreferredSize(new Dimension(20, 20));
-        lbl.setBorder(BorderFactory.createLineBorder(java.awt.Color.BLACK));
-        return lbl;
+        private void paintPiece(Graphics2D g2, core.Color color, int id, double x, double y, double side) {
+            int px = (int) Math.round(x);
+            int py = (int) Math.round(y);
+            int s = (int) Math.round(side);
+            g2.setColor(toAwtColor(color));
+            g2.fillRect(px, py, s, s);
+            g2.setColor(java.awt.Color.BLACK);
+            g2.drawRect(px, py, s, s);
+            String label = String.valueOf(id);
+            FontMetrics metrics = g2.getFontMetrics();
+            g2.setColor(java.awt.Color.WHITE);
+            g2.drawString(label, px + (s - metrics.stringWidth(label)) / 2,
+                    py + (s - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
     }
 
     private static Point[] generateMainPath() {
@@ -1,8 +1,10 @@
 package ui;
 
+import bot.HintService;
 import core.Piece;
 import core.Player;
 import game.Game;
+import game.Strategy;
 
 import javax.swing.JOptionPane;
 import java.util.List;
@@ -11,10 +13,33 @@ import java.util.List;
  * Lógica de juego interactiva para Swing: extiende Game y pide fichas vía JOptionPane.
  */
 public class SwingInteractiveGame extends Game {
+    private HintService hints;
+
     public SwingInteractiveGame(List<Player> players, int mainPathSize) {
         super(players, mainPathSize);
     }
 
+    /** Preselecciona en cada diálogo la ficha que elegiría la estrategia dada. */
+    public void enableHints(Strategy advisor) {
+        hints = new HintService(this, advisor, HintService.DEFAULT_BUDGET_MILLIS);
+    }
+
+    @Override
+    public void startGame() {
+        super.startGame();
+        if (hints != null) {
+            hints.refresh();
+        }
+    }
+
+    @Override
+    public void skipTurn() {
+        super.skipTurn();
+        if (hints != null) {
+            hints.refresh();
+        }
+    }
+
     @Override
     protected Piece choosePieceFromBase(List<Piece> piecesInBase) {
         return askForPiece("¡Sacaste un 6! Elige ficha de base:", piecesInBase);
@@ -53,6 +78,17 @@ public class SwingInteractiveGame extends Game {
         String[] items = lista.stream()
                 .map(p -> "Ficha " + p.getId())
                 .toArray(String[]::new);
+        // con sugerencia lista, se preselecciona y se avisa en el mensaje
+        String initial = items[0];
+        HintService.Hint hint = hints != null ? hints.hintFor(getLastRoll()) : null;
+        if (hint != null && hint.getPieceId() != 0) {
+            for (Piece p : lista) {
+                if (p.getId() == hint.getPieceId()) {
+                    initial = "Ficha " + p.getId();
+                    mensaje = mensaje + "\nSugerencia: " + hint;
+                }
+            }
+        }
         String elegido = null;
         // repetir hasta que el usuario elija algo
         while (elegido == null) {
@@ -63,7 +99,7 @@ public class SwingInteractiveGame extends Game {
                     JOptionPane.PLAIN_MESSAGE,
                     null,
                     items,
-                    items[0]
+                    initial
             );
             if (elegido == null) {
                 // el usuario cerró el diálogo o pulso Cancelar
@@ -3,7 +3,16 @@ package utils;
 import java.util.Random;
 
 public class Dice {
-    private final Random random = new Random();
+    private final Random random;
+
+    public Dice() {
+        this.random = new Random();
+    }
+
+    /** Dado con semilla fija: la misma semilla produce la misma secuencia de tiradas. */
+    public Dice(long seed) {
+        this.random = new Random(seed);
+    }
 
     public int roll() {
         return random.nextInt(6) + 1;
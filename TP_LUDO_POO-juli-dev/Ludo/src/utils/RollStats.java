@@ -0,0 +1,191 @@
+package utils;
+
+/**
+ * Estadísticas de un flujo de tiradas de dado en memoria constante: frecuencia de cada cara
+ * (chi-cuadrado contra el dado justo), rachas sin 6 y correlación entre tiradas seguidas.
+ * Se actualiza en O(1) por tirada y se puede sumar con otras (merge) para agregar partidas
+ * o jugadores; las rachas y la correlación no cruzan de un flujo al otro.
+ */
+public final class RollStats {
+    /** Rachas sin 6 de este largo o más van juntas en el último casillero del histograma. */
+    public static final int MAX_RUN = 64;
+    private static final double NO_SIX = 5.0 / 6.0;
+
+    private final long[] faces = new long[6];
+    private long rolls;
+    // flujos sumados, contando el propio si ya tiene tiradas
+    private long streams;
+    // rachas sin 6: histograma de las cerradas por un 6, la en curso y la más larga vista
+    private final long[] runs = new long[MAX_RUN + 1];
+    private int currentRun;
+    private int longestRun;
+    // correlación de orden 1: sumas de x, x² y x·(x anterior), con la tirada anterior
+    private double sum;
+    private double sumSquares;
+    private double sumLagged;
+    private double firstSum;
+    private double lastSum;
+    private long pairs;
+    private int previous;
+
+    public void record(int roll) {
+        if (roll < 1 || roll > 6) {
+            throw new IllegalArgumentException("Tirada fuera de rango: " + roll);
+        }
+        faces[roll - 1]++;
+        rolls++;
+        sum += roll;
+        sumSquares += (double) roll * roll;
+        if (previous == 0) {
+            streams++;
+        } else {
+            sumLagged += (double) roll * previous;
+            firstSum += previous;
+            lastSum += roll;
+            pairs++;
+        }
+        previous = roll;
+        if (roll == 6) {
+            runs[Math.min(currentRun, MAX_RUN)]++;
+            currentRun = 0;
+        } else if (++currentRun > longestRun) {
+            longestRun = currentRun;
+        }
+    }
+
+    /** Suma las estadísticas de otro flujo, como si fueran flujos separados. */
+    public void merge(RollStats other) {
+        for (int i = 0; i < 6; i++) {
+            faces[i] += other.faces[i];
+        }
+        rolls += other.rolls;
+        streams += other.streams;
+        for (int i = 0; i <= MAX_RUN; i++) {
+            runs[i] += other.runs[i];
+        }
+        longestRun = Math.max(longestRun, Math.max(other.longestRun, other.currentRun));
+        sum += other.sum;
+        sumSquares += other.sumSquares;
+        sumLagged += other.sumLagged;
+        firstSum += other.firstSum;
+        lastSum += other.lastSum;
+        pairs += other.pairs;
+    }
+
+    public long getRolls() {
+        return rolls;
+    }
+
+    public long getFace(int face) {
+        return faces[face - 1];
+    }
+
+    public int getLongestRun() {
+        return Math.max(longestRun, currentRun);
+    }
+
+    /** Rachas sin 6 de exactamente `length` tiradas cerradas por un 6 (MAX_RUN o más en la última). */
+    public long getRuns(int length) {
+        return runs[Math.min(length, MAX_RUN)];
+    }
+
+    /** Estadístico chi-cuadrado de las caras contra el dado justo (5 grados de libertad). */
+    public double chiSquare() {
+        if (rolls == 0) {
+            return 0;
+        }
+        double expected = rolls / 6.0;
+        double chi = 0;
+        for (long observed : faces) {
+            chi += (observed - expected) * (observed - expected) / expected;
+        }
+        return chi;
+    }
+
+    /** Probabilidad de un chi-cuadrado al menos así de grande con un dado justo. */
+    public double chiSquarePValue() {
+        return chiSquareTail(chiSquare(), 5);
+    }
+
+    /** Correlación entre cada tirada y la anterior; cerca de 0 en un dado justo. */
+    public double serialCorrelation() {
+        if (pairs < 2) {
+            return 0;
+        }
+        double mean = sum / rolls;
+        double variance = sumSquares / rolls - mean * mean;
+        if (variance <= 0) {
+            return 1;
+        }
+        double covariance = (sumLagged - mean * (firstSum + lastSum) + pairs * mean * mean) / pairs;
+        return covariance / variance;
+    }
+
+    /** Probabilidad de una correlación al menos así de lejos de 0 con un dado justo (r·√n es normal). */
+    public double serialCorrelationPValue() {
+        if (pairs < 2) {
+            return 1;
+        }
+        return 2 * normalTail(Math.abs(serialCorrelation()) * Math.sqrt(pairs));
+    }
+
+    /**
+     * Probabilidad de que en este número de tiradas aparezca con un dado justo una racha sin 6
+     * tan larga como la más larga vista: 1 - exp(-(n/6 + f) · (5/6)^L), con n tiradas y f flujos.
+     * Una racha empieza después de cada 6 (se esperan n/6) o al principio de cada flujo, y llega
+     * a L tiradas sin 6 con probabilidad (5/6)^L; el número de las que llegan es casi Poisson.
+     */
+    public double longestRunPValue() {
+        int longest = getLongestRun();
+        if (longest == 0) {
+            return 1;
+        }
+        double expected = (rolls / 6.0 + streams) * Math.pow(NO_SIX, longest);
+        return -Math.expm1(-expected);
+    }
+
+    /**
+     * Rachas cerradas de `length` o más que se esperan con un dado justo dado el total de rachas.
+     * La racha abierta al final de cada flujo no se cuenta, y suele ser de las largas, así que con
+     * muchos flujos cortos (partidas) las rachas largas vistas quedan algo por debajo de esto.
+     */
+    public double expectedRunsAtLeast(int length) {
+        long closed = 0;
+        for (long r : runs) {
+            closed += r;
+        }
+        return closed * Math.pow(NO_SIX, length);
+    }
+
+    /** Cola superior del chi-cuadrado con la aproximación de Wilson-Hilferty. */
+    static double chiSquareTail(double x, int degrees) {
+        if (x <= 0) {
+            return 1;
+        }
+        double k = degrees;
+        double z = (Math.cbrt(x / k) - (1 - 2 / (9 * k))) / Math.sqrt(2 / (9 * k));
+        return normalTail(z);
+    }
+
+    /** P(Z > z) de la normal estándar (Abramowitz y Stegun 7.1.26, error menor a 1e-7). */
+    static double normalTail(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erfc = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+                * Math.exp(-x * x);
+        return z >= 0 ? erfc / 2 : 1 - erfc / 2;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rolls).append(" tiradas, caras");
+        for (int face = 1; face <= 6; face++) {
+            sb.append(String.format(" %.2f%%", rolls == 0 ? 0 : 100.0 * faces[face - 1] / rolls));
+        }
+        sb.append(String.format("; chi² %.2f (p %.3f), correlación %.4f (p %.3f), racha sin 6 más larga %d (p %.3f)",
+                chiSquare(), chiSquarePValue(), serialCorrelation(), serialCorrelationPValue(),
+                getLongestRun(), longestRunPValue()));
+        return sb.toString();
+    }
+}